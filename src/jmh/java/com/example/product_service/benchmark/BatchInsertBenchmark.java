@@ -0,0 +1,69 @@
+package com.example.product_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.service.BatchItemResult;
+import com.example.product_service.service.ProductBatchService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput in rows per second: one {@code repo.save()} per product
+ * (one transaction each, as a client looping over {@code POST /api/products}
+ * gets) against the chunked, JDBC-batched {@link ProductBatchService}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(BatchInsertBenchmark.ROWS)
+public class BatchInsertBenchmark {
+    static final int ROWS = 2_000;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository repo;
+    private ProductBatchService batch;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start();
+        repo = context.getBean(ProductRepository.class);
+        batch = context.getBean(ProductBatchService.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void newProducts() {
+        products = BenchmarkContexts.products(ROWS);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        repo.deleteAllInBatch();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Product singleSaves() {
+        Product last = null;
+        for (Product product : products) {
+            last = repo.save(product);
+        }
+        return last;
+    }
+
+    @Benchmark
+    public List<BatchItemResult> batchedCreateAll() {
+        return batch.createAll(products);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.product_service.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.product_service.ProductCrudApplication;
+import com.example.product_service.model.Product;
+import com.example.product_service.service.ProductBatchService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Boots the real application inside a JMH fork. Every fork gets its own JVM
+ * and therefore its own in-memory database.
+ */
+final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    /**
+     * Starts the application with the given {@code key=value} overrides. They
+     * are passed as command-line arguments, because default properties would
+     * lose to {@code application.properties}. Admission control is off, since
+     * a benchmark is one client far over any sensible rate.
+     */
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(ProductCrudApplication.class)
+                .properties("server.port=0", "spring.main.banner-mode=off", "logging.level.root=WARN")
+                .run(Stream.concat(Stream.of("product.throttle.enabled=false"), Arrays.stream(properties))
+                        .map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setName("Benchmark Product " + i);
+            product.setPriceMinor(i % 1000 * 100L + 99);
+            products.add(product);
+        }
+        return products;
+    }
+
+    static void seed(ConfigurableApplicationContext context, int count) {
+        context.getBean(ProductBatchService.class).createAll(products(count));
+    }
+}
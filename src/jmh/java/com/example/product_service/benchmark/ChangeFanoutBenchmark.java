@@ -0,0 +1,100 @@
+package com.example.product_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fan-out of one product write to many change-feed subscribers. Each
+ * subscriber is a real SSE connection; an operation is one save followed by
+ * waiting until every subscriber has read the resulting event, so the score
+ * is end-to-end commit-to-delivery latency at that fan-out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChangeFanoutBenchmark {
+    @Param({ "100", "500" })
+    int subscribers;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository repo;
+    private final List<InputStream> streams = new ArrayList<>();
+    private volatile CountDownLatch delivered = new CountDownLatch(0);
+
+    @Setup
+    public void setUp() throws Exception {
+        context = BenchmarkContexts.start("product.cache.provider=none", "product.l2cache.enabled=false",
+                "product.search.index.enabled=false");
+        repo = context.getBean(ProductRepository.class);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/products/changes"))
+                .header("Accept", "text/event-stream")
+                .build();
+        CountDownLatch subscribed = new CountDownLatch(subscribers);
+        for (int i = 0; i < subscribers; i++) {
+            InputStream body = client.send(request, HttpResponse.BodyHandlers.ofInputStream()).body();
+            streams.add(body);
+            Thread.ofVirtual().start(() -> read(body, subscribed));
+        }
+        subscribed.await();
+    }
+
+    private void read(InputStream body, CountDownLatch subscribed) {
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                if (line.startsWith(":subscribed")) {
+                    subscribed.countDown();
+                } else if (line.startsWith("id:")) {
+                    delivered.countDown();
+                }
+            }
+        } catch (Exception e) {
+            // Stream closed at tear-down.
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        for (InputStream stream : streams) {
+            stream.close();
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public Product fanOut() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(subscribers);
+        delivered = latch;
+        Product product = new Product();
+        product.setName("Fan-out Product");
+        product.setPrice(new BigDecimal("9.99"));
+        Product saved = repo.save(product);
+        if (!latch.await(30, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("only " + (subscribers - latch.getCount()) + " subscribers received the event");
+        }
+        return saved;
+    }
+}
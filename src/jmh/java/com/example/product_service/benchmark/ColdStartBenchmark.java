@@ -0,0 +1,44 @@
+package com.example.product_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from a cold JVM to the first product read, in the in-memory mode
+ * (which starts empty) and in the {@code disk} profile over an existing
+ * catalogue of {@code rows} products. Each measurement gets a fresh fork, so
+ * class loading and JIT warm-up are included as they are in a real restart.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 5, jvmArgsAppend = "-Xmx3g")
+public class ColdStartBenchmark {
+
+    @Param({ "memory", "disk" })
+    String mode;
+
+    @Param({ "10000000" })
+    int rows;
+
+    @Setup
+    public void seedOnce() {
+        if (mode.equals("disk")) {
+            StorageBenchmark.seedDisk(rows);
+        }
+    }
+
+    @Benchmark
+    public Product startAndRead() {
+        try (ConfigurableApplicationContext context = StorageBenchmark.start(mode, rows)) {
+            return context.getBean(ProductRepository.class).findById(1L).orElse(null);
+        }
+    }
+}
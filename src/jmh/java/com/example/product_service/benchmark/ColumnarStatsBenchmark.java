@@ -0,0 +1,119 @@
+package com.example.product_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.example.product_service.analytics.ProductColumns;
+import com.example.product_service.model.Product;
+
+import java.util.ArrayList;
+import java.util.LongSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Price aggregates over the catalogue held as a list of {@link Product}
+ * entities, as {@code findAll()} returns it, versus the {@link ProductColumns}
+ * copy. Both scan in parallel: the entity list through a parallel stream, the
+ * columns through their own segments. The {@code heapMb} counter is the heap
+ * retained by the representation, measured after a full GC once it is built.
+ * Names repeat across products (10,000 distinct), as a real catalogue's do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class ColumnarStatsBenchmark {
+    private static final int DISTINCT_NAMES = 10_000;
+
+    @Param({ "1000000", "10000000" })
+    int rows;
+
+    @Param({ "entities", "columns" })
+    String layout;
+
+    private List<Product> entities;
+    private ProductColumns columns;
+    private long heapBytes;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long heapMb;
+    }
+
+    @Setup
+    public void setUp() {
+        long before = usedHeap();
+        List<Product> products = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Product product = new Product();
+            product.setId(i + 1L);
+            product.setName(("Product " + (i % DISTINCT_NAMES)).intern());
+            product.setPriceMinor(i % 100_000);
+            product.setVersion(0L);
+            products.add(product);
+        }
+        if (layout.equals("entities")) {
+            entities = products;
+        } else {
+            columns = new ProductColumns();
+            products.forEach(columns::put);
+        }
+        products = null;
+        heapBytes = usedHeap() - before;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Benchmark
+    public Object stats(Footprint footprint) {
+        footprint.heapMb = heapBytes >> 20;
+        if (columns != null) {
+            return columns.stats("Product 1", 1000, 50_000);
+        }
+        return entities.parallelStream()
+                .filter(product -> product.getName().startsWith("Product 1")
+                        && product.getPriceMinor() >= 1000 && product.getPriceMinor() <= 50_000)
+                .mapToLong(Product::getPriceMinor)
+                .summaryStatistics();
+    }
+
+    @Benchmark
+    public Object byPrefix(Footprint footprint) {
+        footprint.heapMb = heapBytes >> 20;
+        if (columns != null) {
+            return columns.statsByPrefix(9, null, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+        Map<String, LongSummaryStatistics> groups = entities.parallelStream()
+                .collect(Collectors.groupingByConcurrent(
+                        product -> product.getName().substring(0, Math.min(9, product.getName().length())),
+                        Collectors.summarizingLong(Product::getPriceMinor)));
+        return groups;
+    }
+
+    @Benchmark
+    public Object histogram(Footprint footprint) {
+        footprint.heapMb = heapBytes >> 20;
+        if (columns != null) {
+            return columns.histogram(null, 0, 100_000, 100);
+        }
+        return entities.parallelStream()
+                .collect(() -> new long[100], (counts, product) -> {
+                    counts[Math.min((int) (product.getPriceMinor() / 1000), 99)]++;
+                }, (a, b) -> {
+                    for (int i = 0; i < a.length; i++) {
+                        a[i] += b[i];
+                    }
+                });
+    }
+}
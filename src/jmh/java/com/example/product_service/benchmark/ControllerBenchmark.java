@@ -0,0 +1,99 @@
+package com.example.product_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * End-to-end {@code ProductController} calls, once through MockMvc (dispatcher
+ * servlet, argument resolution and JSON, no network) and once over HTTP
+ * against the embedded Tomcat. The longer warmup lets the product cache fill.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ControllerBenchmark {
+    private static final int ROWS = 10_000;
+    private static final String NEW_PRODUCT = "{\"name\":\"Benchmark Product\",\"price\":9.99}";
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private HttpClient http;
+    private String baseUrl;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start();
+        BenchmarkContexts.seed(context, ROWS);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/products";
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, ROWS + 1);
+    }
+
+    @Benchmark
+    public byte[] mockMvcListPage() throws Exception {
+        return mockMvc.perform(get("/api/products").param("limit", "100"))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    @Benchmark
+    public byte[] mockMvcGetById() throws Exception {
+        return mockMvc.perform(get("/api/products/{id}", randomId()))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    @Benchmark
+    public byte[] mockMvcCreate() throws Exception {
+        return mockMvc.perform(post("/api/products").contentType(MediaType.APPLICATION_JSON).content(NEW_PRODUCT))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    @Benchmark
+    public byte[] httpListPage() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "?limit=100")).GET());
+    }
+
+    @Benchmark
+    public byte[] httpGetById() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + randomId())).GET());
+    }
+
+    @Benchmark
+    public byte[] httpCreate() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl))
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString(NEW_PRODUCT)));
+    }
+
+    private byte[] send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+}
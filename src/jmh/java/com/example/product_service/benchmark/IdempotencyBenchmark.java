@@ -0,0 +1,66 @@
+package com.example.product_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.example.product_service.idempotency.IdempotentRequests;
+import com.example.product_service.idempotency.InMemoryIdempotencyStore;
+import com.example.product_service.model.Product;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contention on the Idempotency-Key path with the in-memory store, under 16
+ * threads. {@code fresh} gives every request a new key, so each one takes an
+ * in-flight slot and records a result; {@code replay} spreads retries over
+ * {@link #KEYS} recorded keys; {@code hot} sends every request with the same
+ * key. The action itself is free, so the numbers are the cost of the
+ * deduplication alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class IdempotencyBenchmark {
+    private static final int KEYS = 10_000;
+
+    @Param({ "fresh", "replay", "hot" })
+    String keys;
+
+    private IdempotentRequests requests;
+    private Product product;
+    private String fingerprint;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        requests = new IdempotentRequests(new InMemoryIdempotencyStore(1_000_000, Duration.ofMinutes(10)),
+                Duration.ofSeconds(30));
+        product = BenchmarkContexts.products(1).get(0);
+        product.setId(1L);
+        fingerprint = IdempotentRequests.fingerprint(product);
+        for (int i = 0; i < KEYS; i++) {
+            requests.execute("key-" + i, fingerprint, () -> product);
+        }
+    }
+
+    @Benchmark
+    public IdempotentRequests.Outcome execute() {
+        String key = switch (keys) {
+            case "fresh" -> "fresh-" + sequence.incrementAndGet();
+            case "replay" -> "key-" + ThreadLocalRandom.current().nextInt(KEYS);
+            default -> "key-0";
+        };
+        return requests.execute(key, fingerprint, () -> product);
+    }
+
+    @Benchmark
+    public String fingerprint() {
+        return IdempotentRequests.fingerprint(product);
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.product_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.product_service.transfer.CatalogueExport;
+import com.example.product_service.transfer.CatalogueImport;
+import com.example.product_service.transfer.ImportJob;
+import com.example.product_service.transfer.TransferFormat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * One import of a generated CSV or NDJSON file of {@code rows} products, and
+ * one export of the imported catalogue, timed end to end; rows per second is
+ * {@code rows} divided by the score. The database is the file-backed
+ * {@code disk} profile, and the search index and columnar stats copy are off,
+ * so the heap holds only what the transfer itself needs. The
+ * {@code liveHeapMb} counter is the largest heap left after any GC during the
+ * operation, which stays flat as {@code rows} grows; the fork's 1 GB heap is
+ * far below the size of the larger file.
+ * <p>
+ * The files are generated once under {@code target/jmh-import} and reused by
+ * later runs; each import starts from an empty database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class ImportExportBenchmark {
+    private static final Path DIRECTORY = Path.of("target", "jmh-import").toAbsolutePath();
+
+    @Param({ "1000000", "10000000" })
+    int rows;
+
+    @Param({ "csv", "ndjson" })
+    String format;
+
+    @Param({ "import", "export" })
+    String direction;
+
+    private String file;
+    private Path storage;
+    private ConfigurableApplicationContext context;
+    private CatalogueImport imports;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long liveHeapMb;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        file = generate(TransferFormat.of(format), rows);
+        if (direction.equals("export")) {
+            start();
+            ImportJob job = importFile();
+            if (job.imported() != rows) {
+                throw new IllegalStateException("imported " + job.imported() + " of " + rows + " rows");
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() throws IOException {
+        if (direction.equals("import")) {
+            start();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownIteration() throws IOException {
+        if (direction.equals("import")) {
+            stop();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (context != null) {
+            stop();
+        }
+    }
+
+    @Benchmark
+    public long transfer(Footprint footprint) throws Exception {
+        System.gc();
+        AtomicLong peak = new AtomicLong();
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peak.accumulateAndGet(liveHeap(), Math::max);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+            }
+        });
+        long transferred;
+        try {
+            if (direction.equals("import")) {
+                transferred = importFile().imported();
+            } else {
+                context.getBean(CatalogueExport.class).write(TransferFormat.of(format),
+                        OutputStream.nullOutputStream());
+                transferred = rows;
+            }
+        } finally {
+            sampler.interrupt();
+            sampler.join();
+        }
+        footprint.liveHeapMb = peak.get() >> 20;
+        return transferred;
+    }
+
+    private ImportJob importFile() throws IOException {
+        ImportJob job = imports.importFile(file, null);
+        while (job.status() == ImportJob.Status.RUNNING) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            job = imports.find(job.id()).orElseThrow();
+        }
+        if (job.status() != ImportJob.Status.COMPLETED) {
+            throw new IllegalStateException("import " + job.status() + ": " + job.lastError());
+        }
+        return job;
+    }
+
+    private void start() throws IOException {
+        storage = Files.createTempDirectory(DIRECTORY, "db-");
+        context = BenchmarkContexts.start("spring.profiles.active=disk",
+                "product.storage.path=" + storage.resolve("products"),
+                "product.cache.provider=none", "product.l2cache.enabled=false",
+                "product.search.index.enabled=false", "product.analytics.enabled=false",
+                "product.import.directory=" + DIRECTORY);
+        imports = context.getBean(CatalogueImport.class);
+    }
+
+    private void stop() throws IOException {
+        context.close();
+        context = null;
+        try (Stream<Path> files = Files.walk(storage)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /** Writes the file for {@code rows} products unless an earlier run did; returns its name. */
+    private static String generate(TransferFormat format, int rows) throws IOException {
+        String name = rows + "." + format.extension();
+        Path file = DIRECTORY.resolve(name);
+        if (Files.exists(file)) {
+            return name;
+        }
+        Files.createDirectories(DIRECTORY);
+        Path partial = DIRECTORY.resolve(name + ".partial");
+        try (BufferedWriter out = Files.newBufferedWriter(partial)) {
+            if (format == TransferFormat.CSV) {
+                out.write("name,price,currency\n");
+            }
+            for (int i = 0; i < rows; i++) {
+                String price = (i % 1000) + ".99";
+                out.write(format == TransferFormat.CSV
+                        ? "Benchmark Product " + i + "," + price + ",EUR\n"
+                        : "{\"name\":\"Benchmark Product " + i + "\",\"price\":" + price + ",\"currency\":\"EUR\"}\n");
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, file);
+        return name;
+    }
+
+    /** Heap in use after the last GC of each heap pool: the live data, without garbage. */
+    private static long liveHeap() {
+        long live = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage collected = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && collected != null) {
+                live += collected.getUsed();
+            }
+        }
+        return live;
+    }
+}
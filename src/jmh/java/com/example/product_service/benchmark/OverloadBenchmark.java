@@ -0,0 +1,101 @@
+package com.example.product_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.product_service.ProductCrudApplication;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Behaviour past saturation, with and without admission control. Every
+ * invocation fires {@code clients} simultaneous listing requests, each from
+ * its own API key, at a database that takes {@link #DB_DELAY_MS} ms per
+ * statement behind a pool of {@link #POOL_SIZE}. The {@code ok}, {@code shed}
+ * and {@code failed} counters are per-second rates: with throttling, goodput
+ * ({@code ok}) should hold near capacity as offered load grows and the excess
+ * be shed quickly; without it, requests queue for connections until they time
+ * out and goodput falls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class OverloadBenchmark {
+    static final int DB_DELAY_MS = 50;
+    static final int POOL_SIZE = 10;
+    private static final int ROWS = 1000;
+
+    @Param({ "off", "on" })
+    String throttle;
+
+    @Param({ "10", "100", "1000" })
+    int clients;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient http;
+    private URI listing;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcomes {
+        public long ok;
+        public long shed;
+        public long failed;
+    }
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ProductCrudApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(
+                        new SlowDataSourcePostProcessor(Duration.ofMillis(DB_DELAY_MS))))
+                .properties("server.port=0", "spring.main.banner-mode=off", "logging.level.root=WARN")
+                .run("--product.throttle.enabled=" + throttle.equals("on"),
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--spring.datasource.hikari.connection-timeout=2000",
+                        "--server.tomcat.accept-count=" + clients,
+                        "--product.cache.provider=none", "--product.l2cache.enabled=false");
+        BenchmarkContexts.seed(context, ROWS);
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        listing = URI.create("http://localhost:" + port + "/api/products?limit=100");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int burst(Outcomes outcomes) {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[clients];
+        for (int i = 0; i < clients; i++) {
+            HttpRequest request = HttpRequest.newBuilder(listing).header("X-API-Key", "client-" + i).GET().build();
+            responses[i] = http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(response -> {
+                        int status = response.statusCode();
+                        synchronized (outcomes) {
+                            if (status == 200) {
+                                outcomes.ok++;
+                            } else if (status == 429 || status == 503) {
+                                outcomes.shed++;
+                            } else {
+                                outcomes.failed++;
+                            }
+                        }
+                    });
+        }
+        CompletableFuture.allOf(responses).join();
+        return responses.length;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.product_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixed read/write workload against one database versus the local
+ * primary/replica pair ({@code replica} profile). Eight threads share
+ * four-connection pools, so in single mode reads and writes compete for the
+ * same connections, and with a replica they do not. Throughput counts both
+ * reads and writes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ReplicaRoutingBenchmark {
+    private static final int ROWS = 10_000;
+
+    @Param({ "single", "replica" })
+    String mode;
+
+    @Param({ "90", "50" })
+    int readPercent;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository repo;
+
+    @Setup
+    public void setUp() {
+        String[] common = { "product.cache.provider=none", "product.l2cache.enabled=false",
+                "product.search.index.enabled=false", "spring.datasource.hikari.maximum-pool-size=4" };
+        context = mode.equals("single")
+                ? BenchmarkContexts.start(common)
+                : BenchmarkContexts.start(common[0], common[1], common[2], common[3], "spring.profiles.active=replica",
+                        "product.datasource.replication-lag=0ms");
+        BenchmarkContexts.seed(context, ROWS);
+        repo = context.getBean(ProductRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Product mixed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(100) < readPercent) {
+            return repo.findById(random.nextLong(1, ROWS + 1)).orElse(null);
+        }
+        Product product = new Product();
+        product.setName("Mixed Workload Product");
+        product.setPrice(new BigDecimal("9.99"));
+        return repo.save(product);
+    }
+}
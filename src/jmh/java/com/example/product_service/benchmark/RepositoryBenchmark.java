@@ -0,0 +1,64 @@
+package com.example.product_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ProductRepository} against the embedded H2 database, with the
+ * application and second-level caches switched off so every call reaches the
+ * database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    @Param({ "1000", "100000" })
+    int rows;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository repo;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start("product.cache.provider=none", "product.l2cache.enabled=false");
+        BenchmarkContexts.seed(context, rows);
+        repo = context.getBean(ProductRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Product save() {
+        Product product = new Product();
+        product.setName("Saved Product");
+        product.setPrice(new BigDecimal("9.99"));
+        return repo.save(product);
+    }
+
+    @Benchmark
+    public List<Product> findAll() {
+        return repo.findAll();
+    }
+
+    @Benchmark
+    public List<Product> findPage() {
+        long after = ThreadLocalRandom.current().nextLong(rows);
+        return repo.findByIdGreaterThanOrderByIdAsc(after, Limit.of(100));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.product_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.model.Repricing;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.service.ProductBatchService;
+import com.example.product_service.service.RepricingService;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One repricing of the whole catalogue (+1%), timed end to end. {@code entities}
+ * is the loop a client or a naive service would write: read a page of
+ * products, change each price in Java, and save the page (Hibernate merges
+ * and JDBC-batches the updates). {@code set-based} is {@link RepricingService},
+ * one UPDATE per chunk of {@code product.reprice.chunk-size} rows. Both go
+ * through the repository, so the outbox, the search index and the columnar
+ * stats copy follow either, as they do in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class RepriceBenchmark {
+    private static final int CHUNK = 5_000;
+    private static final BigDecimal FACTOR = new BigDecimal("1.01");
+
+    @Param({ "1000000", "5000000" })
+    int rows;
+
+    @Param({ "entities", "set-based" })
+    String path;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository repo;
+    private RepricingService repricing;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start("product.cache.provider=none", "product.reprice.chunk-size=" + CHUNK);
+        repo = context.getBean(ProductRepository.class);
+        repricing = context.getBean(RepricingService.class);
+        ProductBatchService batch = context.getBean(ProductBatchService.class);
+        for (int seeded = 0; seeded < rows; seeded += CHUNK) {
+            batch.createAll(BenchmarkContexts.products(Math.min(CHUNK, rows - seeded)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long reprice() {
+        if (path.equals("set-based")) {
+            return repricing.reprice(new Repricing(BigDecimal.ONE, null, null, null, null)).repriced();
+        }
+        long repriced = 0;
+        long after = 0;
+        List<Product> page;
+        do {
+            page = repo.pageAfter(after, CHUNK);
+            for (Product product : page) {
+                product.setPriceMinor(FACTOR.multiply(BigDecimal.valueOf(product.getPriceMinor()))
+                        .setScale(0, RoundingMode.HALF_UP)
+                        .longValueExact());
+            }
+            repo.saveAll(page);
+            repriced += page.size();
+            after = page.isEmpty() ? after : page.get(page.size() - 1).getId();
+        } while (page.size() == CHUNK);
+        return repriced;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.product_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.search.NameNgramIndex;
+import com.example.product_service.search.NameNgramIndex.SortField;
+import com.example.product_service.search.ProductSearch;
+import com.example.product_service.search.ProductSearchService;
+import com.example.product_service.service.ProductBatchService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catalogue search over a large seeded catalogue. {@code likeScan} is the
+ * unindexed {@code lower(name) like '%term%'} baseline that the trigram index
+ * replaces; the other benchmarks go through {@link ProductSearchService}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SearchBenchmark {
+
+    private static final String[] ADJECTIVES = { "Wireless", "Braided", "Compact", "Ergonomic", "Portable",
+            "Stainless", "Waterproof", "Rechargeable", "Foldable", "Heavy-Duty" };
+    private static final String[] NOUNS = { "Cable", "Adapter", "Keyboard", "Headphones", "Charger", "Bottle",
+            "Backpack", "Lamp", "Speaker", "Organizer", "Mouse", "Tripod" };
+
+    @Param({ "1000000" })
+    int rows;
+
+    private ConfigurableApplicationContext context;
+    private ProductSearchService search;
+    private NameNgramIndex index;
+    private EntityManagerFactory emf;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start("product.cache.provider=none", "product.l2cache.enabled=false");
+        Random random = new Random(42);
+        ProductBatchService batch = context.getBean(ProductBatchService.class);
+        for (int start = 0; start < rows; start += 50_000) {
+            List<Product> chunk = new ArrayList<>(50_000);
+            for (int i = start; i < Math.min(rows, start + 50_000); i++) {
+                Product product = new Product();
+                product.setName(ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                        + NOUNS[random.nextInt(NOUNS.length)] + " " + Integer.toString(i, 36).toUpperCase());
+                product.setPriceMinor(random.nextInt(50_000));
+                chunk.add(product);
+            }
+            batch.createAll(chunk);
+        }
+        search = context.getBean(ProductSearchService.class);
+        index = context.getBean(NameNgramIndex.class);
+        emf = context.getBean(EntityManagerFactory.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Long> substringIndexOnly() {
+        return index.search("proof lamp", null, 0, Long.MAX_VALUE, SortField.PRICE, false, 0, 100);
+    }
+
+    @Benchmark
+    public List<Product> substring() {
+        return search.search(new ProductSearch("proof lamp", null, BigDecimal.TEN, BigDecimal.valueOf(200)),
+                PageRequest.of(0, 100, Sort.by("price")));
+    }
+
+    @Benchmark
+    public List<Product> likeScan() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery("select p from Product p where lower(p.name) like :q and p.priceMinor between 1000 and 20000"
+                    + " order by p.priceMinor", Product.class)
+                    .setParameter("q", "%proof lamp%")
+                    .setMaxResults(100)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public List<Product> priceRange() {
+        return search.search(new ProductSearch(null, null, BigDecimal.valueOf(100), BigDecimal.valueOf(101)),
+                PageRequest.of(0, 100, Sort.by("price")));
+    }
+
+    @Benchmark
+    public List<Product> prefix() {
+        return search.search(new ProductSearch(null, "Foldable Tri", null, null),
+                PageRequest.of(0, 100, Sort.by("name")));
+    }
+}
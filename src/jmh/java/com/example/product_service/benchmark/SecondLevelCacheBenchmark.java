@@ -0,0 +1,107 @@
+package com.example.product_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.example.product_service.ProductCrudApplication;
+import com.example.product_service.metrics.StatementCounter;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * {@code GET /api/products/{id}} through MockMvc with and without Hibernate's
+ * second-level cache, the application cache off in both. The catalogue has
+ * {@link #ROWS} products against a product region of {@link #REGION_SIZE},
+ * and every statement costs {@link #DB_DELAY_MS} ms, as over a network.
+ * {@code uniform} picks ids evenly, so at most a tenth of reads can hit;
+ * {@code zipf} picks them with a Zipf(1) skew, as real catalogue traffic
+ * tends to be, so most reads land on products the region holds. The
+ * {@code statements} counter is a per-second rate like the throughput:
+ * their ratio is the database round trips per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 4)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecondLevelCacheBenchmark {
+    static final int DB_DELAY_MS = 1;
+    private static final int ROWS = 100_000;
+    private static final int REGION_SIZE = 10_000;
+
+    @Param({ "off", "on" })
+    String l2;
+
+    @Param({ "uniform", "zipf" })
+    String distribution;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private StatementCounter statements;
+    private double[] zipf;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RoundTrips {
+        public long statements;
+    }
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ProductCrudApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(
+                        new SlowDataSourcePostProcessor(Duration.ofMillis(DB_DELAY_MS))))
+                .properties("server.port=0", "spring.main.banner-mode=off", "logging.level.root=WARN")
+                .run("--product.l2cache.enabled=" + l2.equals("on"),
+                        "--product.l2cache.entity.max-size=" + REGION_SIZE,
+                        "--product.cache.provider=none",
+                        "--product.search.index.enabled=false",
+                        "--product.throttle.enabled=false");
+        BenchmarkContexts.seed(context, ROWS);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        statements = context.getBean(StatementCounter.class);
+        // Cumulative Zipf(1) weights by rank; rank r is product id r + 1.
+        zipf = new double[ROWS];
+        double sum = 0;
+        for (int rank = 0; rank < ROWS; rank++) {
+            sum += 1.0 / (rank + 1);
+            zipf[rank] = sum;
+        }
+        for (int rank = 0; rank < ROWS; rank++) {
+            zipf[rank] /= sum;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private long nextId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (distribution.equals("uniform")) {
+            return random.nextLong(1, ROWS + 1);
+        }
+        int rank = Arrays.binarySearch(zipf, random.nextDouble());
+        return (rank < 0 ? -rank - 1 : rank) + 1;
+    }
+
+    @Benchmark
+    public byte[] getById(RoundTrips roundTrips) throws Exception {
+        statements.reset();
+        byte[] body = mockMvc.perform(get("/api/products/{id}", nextId()))
+                .andReturn().getResponse().getContentAsByteArray();
+        roundTrips.statements += statements.current();
+        return body;
+    }
+}
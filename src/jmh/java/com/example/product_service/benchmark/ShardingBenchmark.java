@@ -0,0 +1,99 @@
+package com.example.product_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import com.example.product_service.ProductCrudApplication;
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.service.BatchItemResult;
+import com.example.product_service.service.ProductBatchService;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput as shards are added. Every configuration goes through the
+ * sharding layer, with one to four local H2 databases that each take
+ * {@link #DB_DELAY_MS} ms per statement behind a pool of {@link #POOL_SIZE},
+ * so a single shard is the connection-bound baseline. {@code mixed} is mostly
+ * reads by id with some price updates and creates, each touching one shard,
+ * and should scale with the shard count until the sixteen threads stop
+ * queueing for connections. {@code listing} reads a page from every shard and
+ * merges them, so it gains parallel connections but pays for one statement
+ * per shard.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class ShardingBenchmark {
+    static final int DB_DELAY_MS = 2;
+    static final int POOL_SIZE = 4;
+    private static final int ROWS = 10_000;
+
+    @Param({ "1", "2", "4" })
+    int shards;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository repo;
+    private long[] ids;
+
+    @Setup
+    public void setUp() {
+        List<String> args = new ArrayList<>(List.of("--product.cache.provider=none", "--product.l2cache.enabled=false",
+                "--product.search.index.enabled=false", "--product.throttle.enabled=false",
+                "--product.changes.enabled=false", "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE));
+        for (int i = 0; i < shards; i++) {
+            args.add("--product.sharding.shards[" + i + "].url=jdbc:h2:mem:bench-shard" + i + ";DB_CLOSE_DELAY=-1");
+            args.add("--product.sharding.shards[" + i + "].username=sa");
+            args.add("--product.sharding.shards[" + i + "].password=");
+        }
+        context = new SpringApplicationBuilder(ProductCrudApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(
+                        new SlowDataSourcePostProcessor(Duration.ofMillis(DB_DELAY_MS))))
+                .properties("server.port=0", "spring.main.banner-mode=off", "logging.level.root=WARN")
+                .run(args.toArray(String[]::new));
+        ids = context.getBean(ProductBatchService.class).createAll(BenchmarkContexts.products(ROWS)).stream()
+                .mapToLong(BatchItemResult::id)
+                .toArray();
+        repo = context.getBean(ProductRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object mixed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = ids[random.nextInt(ids.length)];
+        int roll = random.nextInt(100);
+        if (roll < 80) {
+            return repo.findById(id).orElse(null);
+        }
+        if (roll < 90) {
+            return repo.updatePrice(id, random.nextInt(100, 10_000), null).orElse(null);
+        }
+        Product product = new Product();
+        product.setName("Sharded Workload Product");
+        product.setPrice(new BigDecimal("9.99"));
+        return repo.save(product);
+    }
+
+    @Benchmark
+    public List<Product> listing() {
+        long after = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+        return repo.findByIdGreaterThanOrderByIdAsc(after, Limit.of(100));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.product_service.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+/**
+ * Makes every statement sleep before it executes, while its pooled connection
+ * is checked out, to stand in for a database across a network. The sleep
+ * happens outside any driver lock, the way a socket read in a remote JDBC
+ * driver would, so it does not pin a virtual thread.
+ */
+class SlowDataSourcePostProcessor implements BeanPostProcessor {
+    private final long delayMillis;
+
+    SlowDataSourcePostProcessor(Duration delay) {
+        this.delayMillis = delay.toMillis();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return (Connection) proxy(Connection.class, super.getConnection());
+            }
+        };
+    }
+
+    private Object proxy(Class<?> type, Object target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (target instanceof Statement && method.getName().startsWith("execute")) {
+                Thread.sleep(delayMillis);
+            }
+            Object result = invoke(method, target, args);
+            if (result instanceof Statement && method.getReturnType().isInterface()) {
+                return proxy(method.getReturnType(), result);
+            }
+            return result;
+        };
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.product_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Time from launching the packaged service to its first successful
+ * {@code GET /api/products?limit=1}, and its resident set size at that point,
+ * for the plain fat jar ({@code jar}), the AOT-processed thin jar with and
+ * without its CDS archive ({@code aot}, {@code aot-cds}) and the native image.
+ * Each invocation starts a new process, so nothing is shared between
+ * measurements. The artifacts are looked up in {@code target}:
+ * <pre>
+ * mvn -Pnative -DskipTests native:compile              # target/product-service, needs GraalVM
+ * mvn -Paot,benchmark verify -Djmh.includes=Startup    # jar, aot and aot-cds, then the benchmark
+ * </pre>
+ * A mode whose artifact has not been built fails its setup and is skipped.
+ * RSS is read from {@code /proc} and reported as 0 elsewhere.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+    private static final Path TARGET = Path.of("target");
+    private static final Path AOT = TARGET.resolve("aot");
+    private static final Duration START_TIMEOUT = Duration.ofSeconds(60);
+
+    @Param({ "jar", "aot", "aot-cds", "native" })
+    String mode;
+
+    private List<String> command;
+    private Path workingDirectory;
+    private HttpClient http;
+    private Process process;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        /** Resident set size right after the first successful request. */
+        public long rssKb;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        command = new ArrayList<>();
+        workingDirectory = TARGET;
+        switch (mode) {
+            case "jar" -> command.addAll(List.of(java, "-jar", artifact(TARGET, "-SNAPSHOT.jar").toString()));
+            case "aot", "aot-cds" -> {
+                // Relative names, exactly as in the training run, or the JVM rejects the archive.
+                workingDirectory = AOT;
+                command.add(java);
+                if (mode.equals("aot-cds")) {
+                    command.add("-XX:SharedArchiveFile=" + artifact(AOT, ".jsa").getFileName());
+                }
+                command.addAll(List.of("-Dspring.aot.enabled=true", "-jar",
+                        artifact(AOT, "-aot.jar").getFileName().toString()));
+            }
+            default -> {
+                Path image = TARGET.resolve("product-service").toAbsolutePath();
+                if (!Files.isExecutable(image)) {
+                    throw new IllegalStateException("No native image; build it with mvn -Pnative -DskipTests native:compile");
+                }
+                command.add(image.toString());
+            }
+        }
+        command.addAll(List.of("--spring.main.banner-mode=off", "--logging.level.root=WARN"));
+        http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    }
+
+    private static Path artifact(Path directory, String suffix) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalStateException("No " + directory + "; build it with mvn -Paot package");
+        }
+        try (var files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(suffix))
+                    .map(Path::toAbsolutePath)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No *" + suffix + " in " + directory
+                            + "; build it with mvn -Paot package"));
+        }
+    }
+
+    @Benchmark
+    public int startAndServe(Footprint footprint) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> launch = new ArrayList<>(command);
+        launch.add("--server.port=" + port);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/products?limit=1"))
+                .GET().build();
+
+        process = new ProcessBuilder(launch)
+                .directory(workingDirectory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(TARGET.resolve("startup-" + mode + ".log").toAbsolutePath().toFile())
+                .start();
+        long deadline = System.nanoTime() + START_TIMEOUT.toNanos();
+        while (process.isAlive() && System.nanoTime() < deadline) {
+            try {
+                int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status == 200) {
+                    footprint.rssKb = rssKb(process.pid());
+                    return status;
+                }
+            } catch (ConnectException e) {
+                // Not listening yet
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        throw new IllegalStateException(mode + " did not serve a request within " + START_TIMEOUT
+                + "; see target/startup-" + mode + ".log");
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            process = null;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long rssKb(long pid) {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+            return 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.product_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.service.ProductBatchService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady-state reads and writes against a large catalogue held in the
+ * in-memory database versus the file-backed {@code disk} profile. The
+ * application cache and the search index are off in both modes, so every call
+ * reaches the storage engine.
+ * <p>
+ * The disk database is seeded once under {@code target/jmh-storage} and reused
+ * by later runs; delete that directory to reseed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class StorageBenchmark {
+
+    @Param({ "memory", "disk" })
+    String mode;
+
+    @Param({ "10000000" })
+    int rows;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository repo;
+
+    @Setup
+    public void setUp() {
+        if (mode.equals("disk")) {
+            seedDisk(rows);
+        }
+        context = start(mode, rows);
+        repo = context.getBean(ProductRepository.class);
+        if (mode.equals("memory")) {
+            seed(context, rows);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Product read() {
+        return repo.findById(ThreadLocalRandom.current().nextLong(1, rows + 1L)).orElseThrow();
+    }
+
+    @Benchmark
+    public List<Product> readPage() {
+        return repo.findByIdGreaterThanOrderByIdAsc(ThreadLocalRandom.current().nextLong(rows), Limit.of(100));
+    }
+
+    @Benchmark
+    public Product write() {
+        Product product = new Product();
+        product.setName("Written Product");
+        product.setPrice(new BigDecimal("9.99"));
+        return repo.save(product);
+    }
+
+    static ConfigurableApplicationContext start(String mode, int rows) {
+        String[] common = { "product.cache.provider=none", "product.l2cache.enabled=false",
+                "product.search.index.enabled=false" };
+        if (mode.equals("memory")) {
+            return BenchmarkContexts.start(common);
+        }
+        return BenchmarkContexts.start(common[0], common[1], common[2], "spring.profiles.active=disk",
+                "product.storage.path=" + directory(rows).resolve("products"));
+    }
+
+    static void seed(ConfigurableApplicationContext context, int rows) {
+        ProductBatchService batch = context.getBean(ProductBatchService.class);
+        for (int from = 0; from < rows; from += 50_000) {
+            batch.createAll(BenchmarkContexts.products(Math.min(50_000, rows - from)));
+        }
+    }
+
+    /**
+     * Seeds the disk database in a separate JVM unless an earlier run already
+     * did, so the calling fork stays cold.
+     */
+    static void seedDisk(int rows) {
+        Path marker = directory(rows).resolve("seeded");
+        if (Files.exists(marker)) {
+            return;
+        }
+        try {
+            Process seeder = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-Xmx3g", "-cp", System.getProperty("java.class.path"), StorageBenchmark.class.getName(),
+                    String.valueOf(rows))
+                    .inheritIO()
+                    .start();
+            if (seeder.waitFor() != 0) {
+                throw new IllegalStateException("seeding " + rows + " rows failed");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int rows = Integer.parseInt(args[0]);
+        Files.createDirectories(directory(rows));
+        try (ConfigurableApplicationContext context = start("disk", rows)) {
+            seed(context, rows);
+        }
+        Files.createFile(directory(rows).resolve("seeded"));
+    }
+
+    private static Path directory(int rows) {
+        return Path.of("target", "jmh-storage", String.valueOf(rows)).toAbsolutePath();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.product_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.product_service.ProductCrudApplication;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform against virtual request threads under high concurrency with a slow
+ * database. Every invocation fires {@link #CONCURRENCY} simultaneous
+ * {@code GET /api/products/{id}} requests, and every statement takes
+ * {@link #DB_DELAY_MS} ms. The pool is sized above Tomcat's 200 platform
+ * threads, so in platform mode the thread count is the bottleneck and in
+ * virtual mode the pool is. Throughput is in requests per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+@OperationsPerInvocation(ThreadModeBenchmark.CONCURRENCY)
+public class ThreadModeBenchmark {
+    static final int CONCURRENCY = 1000;
+    static final int DB_DELAY_MS = 200;
+    private static final int ROWS = 1000;
+
+    @Param({ "platform", "virtual" })
+    String mode;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient http;
+    private String baseUrl;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ProductCrudApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(
+                        new SlowDataSourcePostProcessor(Duration.ofMillis(DB_DELAY_MS))))
+                .properties("server.port=0", "spring.main.banner-mode=off", "logging.level.root=WARN")
+                .run("--spring.threads.virtual.enabled=" + mode.equals("virtual"),
+                        "--spring.datasource.hikari.maximum-pool-size=400",
+                        "--server.tomcat.accept-count=" + CONCURRENCY,
+                        "--product.cache.provider=none", "--product.l2cache.enabled=false",
+                        "--product.throttle.enabled=false");
+        BenchmarkContexts.seed(context, ROWS);
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/products/";
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int concurrentGets() {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[CONCURRENCY];
+        for (int i = 0; i < CONCURRENCY; i++) {
+            long id = ThreadLocalRandom.current().nextLong(1, ROWS + 1);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + id)).GET().build();
+            responses[i] = http.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        }
+        CompletableFuture.allOf(responses).join();
+        return responses.length;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.product_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.wire.ProtobufProductConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Product list responses in each wire format, written through the same
+ * message converters the controller uses. Reports the time and, with the gc
+ * profiler, the allocation per response; the {@code bytes} and
+ * {@code gzipBytes} counters give the size of one response on the wire
+ * without and with compression.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+    private static final Type PRODUCT_LIST = ResolvableType.forClassWithGenerics(List.class, Product.class).getType();
+
+    @Param({ "json", "smile", "cbor", "protobuf" })
+    String format;
+
+    @Param({ "1000", "100000" })
+    int size;
+
+    private GenericHttpMessageConverter<Object> converter;
+    private MediaType mediaType;
+    private List<Product> products;
+    private Buffer buffer;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireSize {
+        /** Bytes of the last response written; constant for a given format and size. */
+        public long bytes;
+        public long gzipBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        switch (format) {
+            case "json" -> {
+                converter = new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+                mediaType = MediaType.APPLICATION_JSON;
+            }
+            case "smile" -> {
+                converter = new MappingJackson2SmileHttpMessageConverter(
+                        Jackson2ObjectMapperBuilder.smile().build());
+                mediaType = new MediaType("application", "x-jackson-smile");
+            }
+            case "cbor" -> {
+                converter = new MappingJackson2CborHttpMessageConverter(
+                        Jackson2ObjectMapperBuilder.cbor().build());
+                mediaType = MediaType.APPLICATION_CBOR;
+            }
+            case "protobuf" -> {
+                converter = new ProtobufProductConverter();
+                mediaType = ProtobufProductConverter.PROTOBUF;
+            }
+            default -> throw new IllegalArgumentException(format);
+        }
+        products = BenchmarkContexts.products(size);
+        for (int i = 0; i < size; i++) {
+            products.get(i).setId((long) i + 1);
+            products.get(i).setVersion(0L);
+        }
+        buffer = new Buffer(size * 64);
+    }
+
+    @Benchmark
+    public int serialize(WireSize wire) throws IOException {
+        buffer.bytes.reset();
+        buffer.target(buffer.bytes);
+        converter.write(products, PRODUCT_LIST, mediaType, buffer);
+        wire.bytes = buffer.bytes.size();
+        return wire.bytes == 0 ? 0 : 1;
+    }
+
+    @Benchmark
+    public int serializeGzip(WireSize wire) throws IOException {
+        buffer.bytes.reset();
+        GZIPOutputStream gzip = new GZIPOutputStream(buffer.bytes, 8192);
+        buffer.target(gzip);
+        converter.write(products, PRODUCT_LIST, mediaType, buffer);
+        gzip.finish();
+        wire.gzipBytes = buffer.bytes.size();
+        return wire.gzipBytes == 0 ? 0 : 1;
+    }
+
+    /** A response whose body is kept in memory and reused between invocations. */
+    private static final class Buffer implements HttpOutputMessage {
+        final ByteArrayOutputStream bytes;
+        private final HttpHeaders headers = new HttpHeaders();
+        private OutputStream body;
+
+        Buffer(int capacity) {
+            this.bytes = new ByteArrayOutputStream(capacity);
+        }
+
+        void target(OutputStream target) {
+            headers.clear();
+            body = target;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.product_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.product_service.ProductCrudApplication;
+import com.example.product_service.metrics.StatementCounter;
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Single-product writes as the controller makes them, against a database
+ * that takes {@link #DB_DELAY_MS} ms per statement. {@code read-then-write}
+ * is how {@code PUT} and {@code DELETE} used to work: load the row, then
+ * {@code save} (which merges the detached copy, loading it again) or
+ * {@code deleteById} (which also loads first). {@code single} is the
+ * conditional UPDATE, which hands back the new row as generated keys, or
+ * DELETE. Both go through the repository, so the outbox insert is in every
+ * write, and run with the second-level cache on, as by default. The
+ * {@code statements} counter is a per-second rate like the throughput: their
+ * ratio is the round trips per write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WritePathBenchmark {
+    static final int DB_DELAY_MS = 1;
+    private static final int ROWS = 10_000;
+
+    @Param({ "read-then-write", "single" })
+    String path;
+
+    @Param({ "update", "price", "delete" })
+    String operation;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository repo;
+    private StatementCounter statements;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RoundTrips {
+        public long statements;
+    }
+
+    /** A fresh product for each delete, created outside the measurement. */
+    @State(Scope.Thread)
+    public static class Victim {
+        Long id;
+
+        @Setup(Level.Invocation)
+        public void create(WritePathBenchmark benchmark) {
+            if (benchmark.operation.equals("delete")) {
+                Product product = new Product();
+                product.setName("Doomed Product");
+                product.setPriceMinor(100);
+                id = benchmark.repo.save(product).getId();
+            }
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ProductCrudApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(
+                        new SlowDataSourcePostProcessor(Duration.ofMillis(DB_DELAY_MS))))
+                .properties("server.port=0", "spring.main.banner-mode=off", "logging.level.root=WARN")
+                .run("--product.cache.provider=none", "--product.search.index.enabled=false",
+                        "--product.throttle.enabled=false");
+        BenchmarkContexts.seed(context, ROWS);
+        repo = context.getBean(ProductRepository.class);
+        statements = context.getBean(StatementCounter.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object write(Victim victim, RoundTrips roundTrips) {
+        long id = ThreadLocalRandom.current().nextLong(1, ROWS + 1);
+        long price = ThreadLocalRandom.current().nextInt(100, 10_000);
+        statements.reset();
+        Object result = switch (operation) {
+            case "update" -> path.equals("single")
+                    ? repo.updateFields(id, "Renamed Product", price, null).orElseThrow()
+                    : readThenSave(id, product -> {
+                        product.setName("Renamed Product");
+                        product.setPriceMinor(price);
+                    });
+            case "price" -> path.equals("single")
+                    ? repo.updatePrice(id, price, null).orElseThrow()
+                    : readThenSave(id, product -> product.setPriceMinor(price));
+            default -> {
+                if (path.equals("single")) {
+                    yield repo.deleteExisting(victim.id, null);
+                }
+                repo.findById(victim.id).orElseThrow();
+                repo.deleteById(victim.id);
+                yield Boolean.TRUE;
+            }
+        };
+        roundTrips.statements += statements.current();
+        return result;
+    }
+
+    private Product readThenSave(long id, Consumer<Product> change) {
+        Product product = repo.findById(id).orElseThrow();
+        change.accept(product);
+        return repo.save(product);
+    }
+}
@@ -2,8 +2,11 @@ package com.example.product_service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// R2DBC is on the classpath only when the reactive variant is built, and is
+// for ReactiveProductApplication alone.
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class ProductCrudApplication {
     public static void main(String[] args) {
         SpringApplication.run(ProductCrudApplication.class, args);
@@ -0,0 +1,10 @@
+package com.example.product_service.analytics;
+
+/**
+ * Product counts per price range: {@code counts[i]} covers
+ * {@code [min + i * width, min + (i + 1) * width)}, and the last range also
+ * includes {@code max}. Bucket bounds are not prices, so they are plain
+ * doubles.
+ */
+public record PriceHistogram(double min, double max, double width, long[] counts) {
+}
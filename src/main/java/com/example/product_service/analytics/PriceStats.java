@@ -0,0 +1,11 @@
+package com.example.product_service.analytics;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregate over the prices of a set of products, exact to the minor unit;
+ * the average carries two more decimals, rounded half even. Minimum, maximum
+ * and average are null when the set is empty.
+ */
+public record PriceStats(long count, BigDecimal min, BigDecimal max, BigDecimal sum, BigDecimal average) {
+}
@@ -0,0 +1,374 @@
+package com.example.product_service.analytics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.product_service.model.Prices;
+import com.example.product_service.model.Product;
+import com.example.product_service.search.LongIntMap;
+
+/**
+ * Column-oriented copy of the catalogue for aggregate queries: one primitive
+ * array per field instead of an object per product, so ten million products
+ * cost a few hundred megabytes and a scan walks memory sequentially.
+ * <p>
+ * Names are dictionary-encoded: each distinct name is stored once and rows
+ * hold its code, so a name filter or grouping is decided once per distinct
+ * name and the row scan only looks up the code. Rows are kept dense; a
+ * removed row is filled with the last one. Scans split the rows into
+ * segments that run in parallel, each folding into its own few primitive
+ * accumulators, and allocate nothing per row. Prices are held, filtered and
+ * summed in whole minor units, so totals are exact.
+ */
+@Component
+@ConditionalOnProperty(name = "product.analytics.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductColumns {
+    static final int SEGMENT = 1 << 16;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NONE = -1;
+    // Averages keep two decimals beyond the minor unit.
+    private static final int AVERAGE_EXTRA_DIGITS = 2;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongIntMap rowById = new LongIntMap();
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] versions = new long[INITIAL_CAPACITY];
+    private long[] prices = new long[INITIAL_CAPACITY];
+    private int[] nameCodes = new int[INITIAL_CAPACITY];
+    private int rows;
+
+    // The name dictionary. Codes whose last row went away are reused.
+    private final Map<String, Integer> codeByName = new HashMap<>();
+    private String[] dictionary = new String[INITIAL_CAPACITY];
+    private int[] references = new int[INITIAL_CAPACITY];
+    private int[] freeCodes = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int codes;
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Distinct names currently held. */
+    public int distinctNames() {
+        lock.readLock().lock();
+        try {
+            return codeByName.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces a product. A product older than the one held, as can
+     * happen when two after-commit updates race, is ignored.
+     */
+    public void put(Product product) {
+        long version = product.getVersion() == null ? 0 : product.getVersion();
+        String name = product.getName() == null ? "" : product.getName();
+        lock.writeLock().lock();
+        try {
+            int row = rowById.get(product.getId());
+            if (row == LongIntMap.MISSING) {
+                row = append(product.getId());
+            } else if (versions[row] > version) {
+                return;
+            } else {
+                release(nameCodes[row]);
+            }
+            versions[row] = version;
+            prices[row] = product.getPriceMinor();
+            nameCodes[row] = acquire(name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int row = rowById.remove(id);
+            if (row == LongIntMap.MISSING) {
+                return;
+            }
+            release(nameCodes[row]);
+            int last = --rows;
+            if (row != last) {
+                ids[row] = ids[last];
+                versions[row] = versions[last];
+                prices[row] = prices[last];
+                nameCodes[row] = nameCodes[last];
+                rowById.put(ids[row], row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            rowById.clear();
+            codeByName.clear();
+            Arrays.fill(dictionary, 0, codes, null);
+            rows = 0;
+            codes = 0;
+            freeCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Count, minimum, maximum, sum and average price of the products whose
+     * name starts with {@code prefix} (case-sensitively, null for any) and
+     * whose price in minor units lies within {@code [minPrice, maxPrice]}.
+     */
+    public PriceStats stats(String prefix, long minPrice, long maxPrice) {
+        lock.readLock().lock();
+        try {
+            int[] groups = new int[codes];
+            for (int code = 0; code < codes; code++) {
+                groups[code] = matches(code, prefix) ? 0 : NONE;
+            }
+            return aggregate(groups, 1, minPrice, maxPrice).stats(0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Like {@link #stats}, per group of names that share their first
+     * {@code length} characters (shorter names form their own group), in
+     * group order.
+     */
+    public Map<String, PriceStats> statsByPrefix(int length, String prefix, long minPrice, long maxPrice) {
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> groupByKey = new HashMap<>();
+            int[] groups = new int[codes];
+            for (int code = 0; code < codes; code++) {
+                if (!matches(code, prefix)) {
+                    groups[code] = NONE;
+                    continue;
+                }
+                String name = dictionary[code];
+                String key = name.substring(0, Math.min(length, name.length()));
+                Integer group = groupByKey.putIfAbsent(key, groupByKey.size());
+                groups[code] = group != null ? group : groupByKey.size() - 1;
+            }
+            Totals totals = aggregate(groups, groupByKey.size(), minPrice, maxPrice);
+            Map<String, PriceStats> result = new TreeMap<>();
+            groupByKey.forEach((key, group) -> {
+                if (totals.count[group] > 0) {
+                    result.put(key, totals.stats(group));
+                }
+            });
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the matching products in {@code buckets} equal-width price ranges
+     * over {@code [minPrice, maxPrice]}; the last range includes its upper
+     * bound. Unbounded ends are narrowed to the lowest and highest matching
+     * price first.
+     */
+    public PriceHistogram histogram(String prefix, long minPrice, long maxPrice, int buckets) {
+        lock.readLock().lock();
+        try {
+            boolean[] accepted = new boolean[codes];
+            for (int code = 0; code < codes; code++) {
+                accepted[code] = matches(code, prefix);
+            }
+            long low = minPrice;
+            long high = maxPrice;
+            if (low == Long.MIN_VALUE || high == Long.MAX_VALUE) {
+                int[] groups = new int[codes];
+                for (int code = 0; code < codes; code++) {
+                    groups[code] = accepted[code] ? 0 : NONE;
+                }
+                Totals range = aggregate(groups, 1, minPrice, maxPrice);
+                if (range.count[0] == 0) {
+                    return new PriceHistogram(0, 0, 0, new long[buckets]);
+                }
+                low = Math.max(low, range.min[0]);
+                high = Math.min(high, range.max[0]);
+            }
+            long from = low;
+            long to = high;
+            double width = (double) (high - low) / buckets;
+            int[] names = nameCodes;
+            long[] price = prices;
+            int size = rows;
+            long[] counts = IntStream.range(0, segments())
+                    .parallel()
+                    .mapToObj(segment -> {
+                        long[] partial = new long[buckets];
+                        int end = Math.min(size, (segment + 1) * SEGMENT);
+                        for (int row = segment * SEGMENT; row < end; row++) {
+                            long p = price[row];
+                            if (accepted[names[row]] && p >= from && p <= to) {
+                                int bucket = width == 0 ? 0 : (int) ((p - from) / width);
+                                partial[Math.min(bucket, buckets - 1)]++;
+                            }
+                        }
+                        return partial;
+                    })
+                    .reduce(new long[buckets], (a, b) -> {
+                        long[] sum = new long[buckets];
+                        for (int i = 0; i < buckets; i++) {
+                            sum[i] = a[i] + b[i];
+                        }
+                        return sum;
+                    });
+            return new PriceHistogram(Prices.toDouble(low), Prices.toDouble(high), Prices.toDouble(width), counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Folds every row whose name code maps to a group (not {@link #NONE}) and
+     * whose price is in range into that group's totals. Runs under the
+     * caller's read lock, which keeps writers out until all segments finish.
+     */
+    private Totals aggregate(int[] groups, int groupCount, long minPrice, long maxPrice) {
+        int[] names = nameCodes;
+        long[] price = prices;
+        int size = rows;
+        return IntStream.range(0, segments())
+                .parallel()
+                .mapToObj(segment -> {
+                    Totals partial = new Totals(groupCount);
+                    int end = Math.min(size, (segment + 1) * SEGMENT);
+                    for (int row = segment * SEGMENT; row < end; row++) {
+                        int group = groups[names[row]];
+                        long p = price[row];
+                        if (group != NONE && p >= minPrice && p <= maxPrice) {
+                            partial.add(group, p);
+                        }
+                    }
+                    return partial;
+                })
+                .reduce(new Totals(groupCount), Totals::merge);
+    }
+
+    private int segments() {
+        return (rows + SEGMENT - 1) / SEGMENT;
+    }
+
+    private boolean matches(int code, String prefix) {
+        String name = dictionary[code];
+        return name != null && (prefix == null || name.startsWith(prefix));
+    }
+
+    private int append(long id) {
+        if (rows == ids.length) {
+            int capacity = rows * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            nameCodes = Arrays.copyOf(nameCodes, capacity);
+        }
+        int row = rows++;
+        ids[row] = id;
+        rowById.put(id, row);
+        return row;
+    }
+
+    private int acquire(String name) {
+        Integer existing = codeByName.get(name);
+        if (existing != null) {
+            references[existing]++;
+            return existing;
+        }
+        int code;
+        if (freeCount > 0) {
+            code = freeCodes[--freeCount];
+        } else {
+            if (codes == dictionary.length) {
+                dictionary = Arrays.copyOf(dictionary, codes * 2);
+                references = Arrays.copyOf(references, codes * 2);
+            }
+            code = codes++;
+        }
+        dictionary[code] = name;
+        references[code] = 1;
+        codeByName.put(name, code);
+        return code;
+    }
+
+    private void release(int code) {
+        if (--references[code] > 0) {
+            return;
+        }
+        codeByName.remove(dictionary[code]);
+        dictionary[code] = null;
+        if (freeCount == freeCodes.length) {
+            freeCodes = Arrays.copyOf(freeCodes, freeCount * 2);
+        }
+        freeCodes[freeCount++] = code;
+    }
+
+    /** Per-group running totals of one segment, or of several merged, in minor units. */
+    private static final class Totals {
+        final long[] count;
+        final long[] sum;
+        final long[] min;
+        final long[] max;
+
+        Totals(int groups) {
+            count = new long[groups];
+            sum = new long[groups];
+            min = new long[groups];
+            max = new long[groups];
+            Arrays.fill(min, Long.MAX_VALUE);
+            Arrays.fill(max, Long.MIN_VALUE);
+        }
+
+        void add(int group, long price) {
+            count[group]++;
+            sum[group] += price;
+            min[group] = Math.min(min[group], price);
+            max[group] = Math.max(max[group], price);
+        }
+
+        Totals merge(Totals other) {
+            Totals merged = new Totals(count.length);
+            for (int group = 0; group < count.length; group++) {
+                merged.count[group] = count[group] + other.count[group];
+                merged.sum[group] = sum[group] + other.sum[group];
+                merged.min[group] = Math.min(min[group], other.min[group]);
+                merged.max[group] = Math.max(max[group], other.max[group]);
+            }
+            return merged;
+        }
+
+        PriceStats stats(int group) {
+            long n = count[group];
+            if (n == 0) {
+                return new PriceStats(0, null, null, BigDecimal.ZERO.setScale(Prices.SCALE), null);
+            }
+            BigDecimal total = Prices.toPrice(sum[group]);
+            return new PriceStats(n, Prices.toPrice(min[group]), Prices.toPrice(max[group]), total,
+                    total.divide(BigDecimal.valueOf(n), Prices.SCALE + AVERAGE_EXTRA_DIGITS, RoundingMode.HALF_EVEN));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.product_service.analytics;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.service.AfterCommit;
+
+/**
+ * Keeps the {@link ProductColumns} in step with the table. It loads every
+ * product before the web server starts accepting requests, then applies each
+ * committed write made through {@link ProductRepository}.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "product.analytics.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductColumnsUpdater implements SmartInitializingSingleton {
+    private static final String REPOSITORY = "execution(* com.example.product_service.repository.ProductRepository.";
+
+    private final ProductColumns columns;
+    private final ProductRepository repo;
+
+    public ProductColumnsUpdater(ProductColumns columns, ProductRepository repo) {
+        this.columns = columns;
+        this.repo = repo;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        repo.forEachAfter(0, columns::put);
+    }
+
+    @AfterReturning(pointcut = REPOSITORY + "save(..))", returning = "saved")
+    public void saved(Product saved) {
+        AfterCommit.run(() -> columns.put(saved));
+    }
+
+    @AfterReturning(pointcut = REPOSITORY + "saveAll(..)) || " + REPOSITORY + "repriceAfter(..))",
+            returning = "saved")
+    public void savedAll(List<?> saved) {
+        // A bounded binding such as List<? extends Product> never matches the generic List<S> return type.
+        AfterCommit.run(() -> saved.forEach(product -> columns.put((Product) product)));
+    }
+
+    @AfterReturning(pointcut = REPOSITORY + "update*(..))", returning = "updated")
+    public void updated(Optional<?> updated) {
+        updated.ifPresent(product -> AfterCommit.run(() -> columns.put((Product) product)));
+    }
+
+    @AfterReturning(REPOSITORY + "deleteById(..)) && args(id)")
+    public void deleted(Long id) {
+        AfterCommit.run(() -> columns.remove(id));
+    }
+
+    @AfterReturning(pointcut = REPOSITORY + "deleteExisting(..)) && args(id, ..)", returning = "deleted")
+    public void deletedExisting(Long id, boolean deleted) {
+        if (deleted) {
+            AfterCommit.run(() -> columns.remove(id));
+        }
+    }
+
+    @AfterReturning(REPOSITORY + "delete(..)) && args(product)")
+    public void deleted(Product product) {
+        AfterCommit.run(() -> columns.remove(product.getId()));
+    }
+
+    @AfterReturning(REPOSITORY + "deleteAllByIdInBatch(..)) && args(ids)")
+    public void deletedAll(Iterable<Long> ids) {
+        AfterCommit.run(() -> ids.forEach(columns::remove));
+    }
+
+    @AfterReturning(REPOSITORY + "deleteAll()) || " + REPOSITORY + "deleteAllInBatch())")
+    public void cleared() {
+        AfterCommit.run(columns::clear);
+    }
+}
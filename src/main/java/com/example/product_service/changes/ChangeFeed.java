@@ -0,0 +1,390 @@
+package com.example.product_service.changes;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.product_service.model.ProductEvent;
+import com.example.product_service.repository.ProductEventRepository;
+
+/**
+ * Publishes the outbox to change-feed subscribers.
+ * <p>
+ * A single poller reads committed events in offset order into a bounded
+ * in-memory buffer. Offsets are allocated before commit, so a lower offset
+ * can commit after a higher one; the poller stops at such a gap until it
+ * fills or {@code gap-grace} passes (rolled-back writes leave permanent gaps).
+ * A gap's grace runs from when an offset above it was first seen, so gaps
+ * seen together expire together rather than one after another. Offsets given
+ * up on are looked for again for {@code late-window}: one that commits late is
+ * published then, below the head, and sent to subscribers that have already
+ * passed it without an SSE id, so that a reconnect still resumes after the
+ * highest offset seen. A subscriber catching up from the table at that moment
+ * may get such an event twice.
+ * <p>
+ * Each subscriber is a virtual thread that pulls from its own cursor and
+ * writes to its own connection, so a slow client only delays itself: once it
+ * falls behind the buffer it catches up from the outbox table, and memory
+ * stays bounded by the buffer no matter how many subscribers lag.
+ */
+@Component
+@ConditionalOnProperty(name = "product.changes.enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeFeed implements SmartLifecycle {
+    private final ProductEventRepository events;
+    private final Duration pollInterval;
+    private final Duration gapGrace;
+    private final Duration lateWindow;
+    private final Duration heartbeat;
+    private final Duration retention;
+    private final int maxSubscribers;
+    private final ProductEvent[] buffer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    // Guarded by lock: the buffer holds every published event in (floor, head].
+    private long floor;
+    private int start;
+    private int count;
+    private volatile long head;
+    // Guarded by lock: the latest events published below the head, of lateCount ever.
+    private final ArrayDeque<ProductEvent> late = new ArrayDeque<>();
+    private long lateCount;
+
+    private volatile Thread poller;
+    // Poller only: when each unpublished offset was first seen, and the offsets
+    // given up on, by when.
+    private final TreeMap<Long, Long> firstSeen = new TreeMap<>();
+    private final TreeMap<Long, Long> skipped = new TreeMap<>();
+    private Instant nextPrune = Instant.MIN;
+
+    public ChangeFeed(ProductEventRepository events,
+            @Value("${product.changes.poll-interval:200ms}") Duration pollInterval,
+            @Value("${product.changes.buffer-size:10000}") int bufferSize,
+            @Value("${product.changes.gap-grace:2s}") Duration gapGrace,
+            @Value("${product.changes.late-window:1m}") Duration lateWindow,
+            @Value("${product.changes.heartbeat:15s}") Duration heartbeat,
+            @Value("${product.changes.retention:7d}") Duration retention,
+            @Value("${product.changes.max-subscribers:1000}") int maxSubscribers) {
+        this.events = events;
+        this.pollInterval = pollInterval;
+        this.gapGrace = gapGrace;
+        this.lateWindow = lateWindow;
+        this.heartbeat = heartbeat;
+        this.retention = retention;
+        this.maxSubscribers = maxSubscribers;
+        this.buffer = new ProductEvent[bufferSize];
+    }
+
+    /** The offset of the newest published event. */
+    public long head() {
+        return head;
+    }
+
+    /** A subscriber's position: the highest offset it was sent, and how many late events it has seen. */
+    static final class Cursor {
+        long offset;
+        long late;
+
+        Cursor(long offset, long late) {
+            this.offset = offset;
+            this.late = late;
+        }
+    }
+
+    /** A cursor after {@code offset} that has seen every late event so far. */
+    Cursor cursor(long offset) {
+        lock.lock();
+        try {
+            return new Cursor(offset, lateCount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Asks the poller to look for new events now rather than at its next interval. */
+    public void wake() {
+        Thread thread = poller;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Streams events after {@code since} to {@code emitter} until the client
+     * goes away. Returns false, without starting, when the feed is at its
+     * subscriber limit.
+     */
+    public boolean subscribe(long since, SseEmitter emitter) {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            return false;
+        }
+        Cursor cursor = cursor(since);
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(e -> open.set(false));
+        Thread.ofVirtual().name("change-feed-subscriber").start(() -> {
+            try {
+                stream(cursor, emitter, open);
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                // Client disconnected; the servlet container cleans up.
+            } finally {
+                subscribers.decrementAndGet();
+            }
+        });
+        return true;
+    }
+
+    private void stream(Cursor cursor, SseEmitter emitter, AtomicBoolean open) throws IOException {
+        // Commits the response headers so the client knows it is subscribed.
+        emitter.send(SseEmitter.event().comment("subscribed"));
+        ProductEvent oldest = events.findFirstByOrderByIdAsc().orElse(null);
+        if (oldest != null && cursor.offset < oldest.getId() - 1 && cursor.offset > 0) {
+            // Events after the cursor were pruned: the client must resynchronise.
+            emitter.send(SseEmitter.event().name("reset").data(Map.of("oldest", oldest.getId())));
+        }
+        while (open.get()) {
+            long from = cursor.offset;
+            List<ProductEvent> batch = after(cursor, heartbeat);
+            if (batch.isEmpty()) {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+                continue;
+            }
+            for (ProductEvent event : batch) {
+                SseEmitter.SseEventBuilder sse = SseEmitter.event();
+                if (event.getId() > from) {
+                    sse.id(Long.toString(event.getId()));
+                }
+                emitter.send(sse
+                        .name(event.getType().name().toLowerCase())
+                        .data(event, MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    /**
+     * Published events after {@code cursor}, waiting up to {@code wait} for
+     * one to arrive: first the late events below its offset that it has not
+     * seen, then those above it, served from the buffer when it reaches back
+     * far enough, otherwise from the outbox table, never beyond the published
+     * head. Moves the cursor past the events returned.
+     */
+    List<ProductEvent> after(Cursor cursor, Duration wait) {
+        long from = cursor.offset;
+        long upTo;
+        List<ProductEvent> batch = new ArrayList<>();
+        lock.lock();
+        try {
+            long deadline = System.nanoTime() + wait.toNanos();
+            while (head <= from && lateCount <= cursor.late) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return List.of();
+                }
+                published.awaitNanos(remaining);
+            }
+            long unseen = Math.min(lateCount - cursor.late, late.size());
+            int index = 0;
+            for (ProductEvent event : late) {
+                if (index++ >= late.size() - unseen && event.getId() <= from) {
+                    batch.add(event);
+                }
+            }
+            cursor.late = lateCount;
+            upTo = head;
+            if (upTo <= from) {
+                return batch;
+            }
+            if (from >= floor) {
+                for (int i = 0; i < count; i++) {
+                    ProductEvent event = buffer[(start + i) % buffer.length];
+                    if (event.getId() > from) {
+                        batch.add(event);
+                        cursor.offset = event.getId();
+                    }
+                }
+                return batch;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of();
+        } finally {
+            lock.unlock();
+        }
+        List<ProductEvent> caughtUp =
+                events.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(from, upTo, Limit.of(buffer.length));
+        if (!caughtUp.isEmpty()) {
+            batch.addAll(caughtUp);
+            cursor.offset = caughtUp.get(caughtUp.size() - 1).getId();
+        }
+        return batch;
+    }
+
+    void poll() {
+        poll(System.nanoTime());
+    }
+
+    void poll(long now) {
+        List<ProductEvent> fresh = events.findByIdGreaterThanOrderByIdAsc(head, Limit.of(buffer.length));
+        // The gap below an event opened when it, or any offset above it, was first seen.
+        long[] opened = new long[fresh.size()];
+        long earliest = Long.MAX_VALUE;
+        for (int i = fresh.size() - 1; i >= 0; i--) {
+            earliest = Math.min(earliest, firstSeen.computeIfAbsent(fresh.get(i).getId(), id -> now));
+            opened[i] = earliest;
+        }
+        List<ProductEvent> ready = new ArrayList<>(fresh.size());
+        long next = head;
+        for (int i = 0; i < fresh.size(); i++) {
+            ProductEvent event = fresh.get(i);
+            if (event.getId() != next + 1) {
+                if (now - opened[i] < gapGrace.toNanos()) {
+                    break;
+                }
+                skip(next + 1, event.getId(), now);
+            }
+            ready.add(event);
+            next = event.getId();
+        }
+        firstSeen.headMap(next, true).clear();
+        if (!ready.isEmpty()) {
+            publish(ready);
+        }
+        if (!skipped.isEmpty()) {
+            publishLate(now);
+        }
+        if (Instant.now().isAfter(nextPrune)) {
+            events.deleteOlderThan(Instant.now().minus(retention));
+            nextPrune = Instant.now().plus(Duration.ofMinutes(1));
+        }
+    }
+
+    /** Remembers the offsets in [{@code from}, {@code to}) as given up on at {@code now}. */
+    private void skip(long from, long to, long now) {
+        for (long offset = Math.max(from, to - buffer.length); offset < to; offset++) {
+            skipped.put(offset, now);
+        }
+        while (skipped.size() > buffer.length) {
+            skipped.pollFirstEntry();
+        }
+    }
+
+    /** Publishes the offsets given up on that have since committed, for up to {@code late-window}. */
+    private void publishLate(long now) {
+        skipped.values().removeIf(since -> now - since >= lateWindow.toNanos());
+        if (skipped.isEmpty()) {
+            return;
+        }
+        List<ProductEvent> found = events.findByIdInOrderByIdAsc(new ArrayList<>(skipped.keySet()));
+        if (found.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (ProductEvent event : found) {
+                skipped.remove(event.getId());
+                insert(event);
+                late.addLast(event);
+                lateCount++;
+                if (late.size() > buffer.length) {
+                    late.removeFirst();
+                }
+            }
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Puts a late event into the buffer in offset order, if it is above the floor. Holds the lock. */
+    private void insert(ProductEvent event) {
+        if (count == buffer.length) {
+            evictOldest();
+        }
+        if (event.getId() <= floor) {
+            return;
+        }
+        int i = count;
+        while (i > 0 && buffer[(start + i - 1) % buffer.length].getId() > event.getId()) {
+            buffer[(start + i) % buffer.length] = buffer[(start + i - 1) % buffer.length];
+            i--;
+        }
+        buffer[(start + i) % buffer.length] = event;
+        count++;
+    }
+
+    private void evictOldest() {
+        floor = buffer[start].getId();
+        start = (start + 1) % buffer.length;
+        count--;
+    }
+
+    private void publish(List<ProductEvent> ready) {
+        lock.lock();
+        try {
+            for (ProductEvent event : ready) {
+                if (count == buffer.length) {
+                    evictOldest();
+                }
+                buffer[(start + count) % buffer.length] = event;
+                count++;
+            }
+            head = ready.get(ready.size() - 1).getId();
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        head = events.findMaxId().orElse(0L);
+        floor = head;
+        poller = Thread.ofPlatform().name("change-feed-poller").daemon().start(() -> {
+            while (poller == Thread.currentThread()) {
+                try {
+                    poll();
+                } catch (RuntimeException e) {
+                    // Database unavailable; retry at the next interval.
+                }
+                LockSupport.parkNanos(pollInterval.toNanos());
+            }
+        });
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = poller;
+        poller = null;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return poller != null;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.product_service.changes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.StreamSupport;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.model.ProductEvent;
+import com.example.product_service.model.ProductEvent.Type;
+import com.example.product_service.repository.ProductEventRepository;
+import com.example.product_service.service.AfterCommit;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Transactional outbox: every product write made through the repository
+ * records its {@link ProductEvent} in the same transaction, joining the
+ * caller's transaction or opening one around the write. Runs outside the
+ * other repository aspects so their after-commit work sees this transaction.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "product.changes.enabled", havingValue = "true", matchIfMissing = true)
+@Order(0)
+public class ProductOutbox {
+    private static final String REPOSITORY = "execution(* com.example.product_service.repository.ProductRepository.";
+
+    private final ProductEventRepository events;
+    private final TransactionTemplate tx;
+    private final ChangeFeed feed;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public ProductOutbox(ProductEventRepository events, PlatformTransactionManager transactionManager,
+            ChangeFeed feed) {
+        this.events = events;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.feed = feed;
+    }
+
+    @Around(REPOSITORY + "save(..)) && args(product)")
+    public Object save(ProceedingJoinPoint call, Product product) {
+        Type type = product.getVersion() == null ? Type.CREATED : Type.UPDATED;
+        return record(call, result -> List.of(ProductEvent.of(type, (Product) result)));
+    }
+
+    @Around(REPOSITORY + "saveAll(..)) && args(products)")
+    public Object saveAll(ProceedingJoinPoint call, Iterable<?> products) {
+        List<Type> types = new ArrayList<>();
+        products.forEach(p -> types.add(((Product) p).getVersion() == null ? Type.CREATED : Type.UPDATED));
+        return record(call, result -> {
+            List<ProductEvent> recorded = new ArrayList<>(types.size());
+            List<?> saved = (List<?>) result;
+            for (int i = 0; i < saved.size(); i++) {
+                recorded.add(ProductEvent.of(types.get(i), (Product) saved.get(i)));
+            }
+            return recorded;
+        });
+    }
+
+    @Around(REPOSITORY + "update*(..))")
+    public Object update(ProceedingJoinPoint call) {
+        return record(call, result -> ((Optional<?>) result).stream()
+                .map(product -> ProductEvent.of(Type.UPDATED, (Product) product))
+                .toList());
+    }
+
+    @Around(REPOSITORY + "repriceAfter(..))")
+    public Object repriceAfter(ProceedingJoinPoint call) {
+        return record(call, result -> ((List<?>) result).stream()
+                .map(product -> ProductEvent.of(Type.UPDATED, (Product) product))
+                .toList());
+    }
+
+    @Around(REPOSITORY + "deleteById(..)) && args(id)")
+    public Object deleteById(ProceedingJoinPoint call, Long id) {
+        return record(call, result -> List.of(ProductEvent.deleted(id)));
+    }
+
+    @Around(REPOSITORY + "deleteExisting(..)) && args(id, ..)")
+    public Object deleteExisting(ProceedingJoinPoint call, Long id) {
+        return record(call, result -> (Boolean) result ? List.of(ProductEvent.deleted(id)) : List.of());
+    }
+
+    @Around(REPOSITORY + "delete(..)) && args(product)")
+    public Object delete(ProceedingJoinPoint call, Product product) {
+        return record(call, result -> List.of(ProductEvent.deleted(product.getId())));
+    }
+
+    @Around(REPOSITORY + "deleteAllByIdInBatch(..)) && args(ids)")
+    public Object deleteAllByIdInBatch(ProceedingJoinPoint call, Iterable<Long> ids) {
+        return record(call, result -> StreamSupport.stream(ids.spliterator(), false)
+                .map(ProductEvent::deleted)
+                .toList());
+    }
+
+    @Around(REPOSITORY + "deleteAll()) || " + REPOSITORY + "deleteAllInBatch())")
+    public Object clear(ProceedingJoinPoint call) {
+        return record(call, result -> List.of(ProductEvent.cleared()));
+    }
+
+    /**
+     * Runs the write, flushes it so versions are final, and appends the events
+     * it produced before the transaction commits.
+     */
+    private Object record(ProceedingJoinPoint call, Events produced) {
+        return tx.execute(status -> {
+            Object result = proceed(call);
+            em.flush();
+            events.saveAll(produced.from(result));
+            AfterCommit.run(feed::wake);
+            return result;
+        });
+    }
+
+    private static Object proceed(ProceedingJoinPoint call) {
+        try {
+            return call.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Events {
+        List<ProductEvent> from(Object result);
+    }
+}
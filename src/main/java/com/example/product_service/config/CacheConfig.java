@@ -0,0 +1,64 @@
+package com.example.product_service.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Caches for the catalogue read paths. Puts and evictions are deferred until
+ * the surrounding transaction commits so a reader can never repopulate an
+ * entry with a row that is about to be rolled back or overwritten. Misses
+ * are not cached: one that came from a lagging replica would otherwise be
+ * served for a product its client has just created.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCT_PAGES = "productPages";
+
+    @Bean
+    @ConditionalOnProperty(name = "product.cache.provider", havingValue = "local", matchIfMissing = true)
+    public CacheManager localCacheManager(@Value("${product.cache.max-size:10000}") long maxSize,
+            @Value("${product.cache.ttl:60s}") Duration ttl) {
+        CaffeineCacheManager manager = new CaffeineCacheManager(PRODUCTS, PRODUCT_PAGES);
+        manager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        manager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(manager);
+    }
+
+    /**
+     * Local stand-in for a shared cache such as Redis: entries are stored by
+     * value, so every put and get goes through serialization exactly as it
+     * would over the network, and no caller ever shares an instance.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "product.cache.provider", havingValue = "distributed")
+    public CacheManager distributedCacheManager() {
+        ConcurrentMapCacheManager manager = new ConcurrentMapCacheManager(PRODUCTS, PRODUCT_PAGES);
+        manager.setStoreByValue(true);
+        manager.setAllowNullValues(false);
+        manager.setBeanClassLoader(CacheConfig.class.getClassLoader());
+        return new TransactionAwareCacheManagerProxy(manager);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "product.cache.provider", havingValue = "none")
+    public CacheManager noOpCacheManager() {
+        return new NoOpCacheManager();
+    }
+}
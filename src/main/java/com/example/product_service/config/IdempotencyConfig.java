@@ -0,0 +1,46 @@
+package com.example.product_service.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.product_service.idempotency.IdempotencyStore;
+import com.example.product_service.idempotency.IdempotentRequests;
+import com.example.product_service.idempotency.InMemoryIdempotencyStore;
+import com.example.product_service.idempotency.JdbcIdempotencyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Idempotency-Key support for creates. Completed requests are kept in memory
+ * ({@code product.idempotency.store=memory}) or in the database
+ * ({@code jdbc}), where they survive restarts and are shared between
+ * instances.
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "product.idempotency.store", havingValue = "memory", matchIfMissing = true)
+    public IdempotencyStore inMemoryIdempotencyStore(@Value("${product.idempotency.max-size:100000}") long maxSize,
+            @Value("${product.idempotency.ttl:24h}") Duration ttl) {
+        return new InMemoryIdempotencyStore(maxSize, ttl);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "product.idempotency.store", havingValue = "jdbc")
+    public IdempotencyStore jdbcIdempotencyStore(JdbcTemplate jdbc, ObjectMapper mapper,
+            @Value("${product.idempotency.ttl:24h}") Duration ttl,
+            @Value("${product.idempotency.claim-timeout:5m}") Duration claimTimeout) {
+        return new JdbcIdempotencyStore(jdbc, mapper, ttl, claimTimeout);
+    }
+
+    @Bean
+    public IdempotentRequests idempotentRequests(IdempotencyStore store,
+            @Value("${product.idempotency.wait-timeout:30s}") Duration waitTimeout) {
+        return new IdempotentRequests(store, waitTimeout);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.product_service.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.product_service.metrics.StatementCounter;
+import com.example.product_service.metrics.StatementsPerRequestFilter;
+import com.example.product_service.metrics.TimedJsonConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Hot-path instrumentation beyond what Spring Boot binds on its own (request,
+ * repository, Hikari, Hibernate and JVM metrics). Declaring the JSON
+ * converter here replaces Spring Boot's default one.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedJsonConverter mappingJackson2HttpMessageConverter(ObjectMapper mapper, MeterRegistry registry) {
+        return new TimedJsonConverter(mapper, registry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementsPerRequestFilter> statementsPerRequestFilter(StatementCounter counter,
+            MeterRegistry registry) {
+        return new FilterRegistrationBean<>(new StatementsPerRequestFilter(counter, registry));
+    }
+}
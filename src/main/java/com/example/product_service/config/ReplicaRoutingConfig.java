@@ -0,0 +1,118 @@
+package com.example.product_service.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.product_service.routing.LocalReplication;
+import com.example.product_service.routing.ReadYourWritesFilter;
+import com.example.product_service.routing.ReplicaProperties;
+import com.example.product_service.routing.ReplicaProperties.Replica;
+import com.example.product_service.routing.ReplicaRoutingDataSource;
+import com.example.product_service.routing.ReplicaTransactionManager;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Splits database traffic between the primary and read replicas, active once
+ * {@code product.datasource.replicas[0].url} is set. The application data
+ * source is a {@link LazyConnectionDataSourceProxy} over the
+ * {@link ReplicaRoutingDataSource}: it only fetches a physical connection at
+ * the first statement, by which time the transaction is known to be
+ * read-only or not.
+ */
+@Configuration
+@ConditionalOnProperty("product.datasource.replicas[0].url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource, ReplicaProperties properties,
+            ObjectProvider<MeterRegistry> registry) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int i = 0; i < properties.replicas().size(); i++) {
+            Replica replica = properties.replicas().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + i);
+            pool.setJdbcUrl(replica.url());
+            pool.setUsername(replica.username());
+            pool.setPassword(replica.password());
+            pool.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            pool.setConnectionTimeout(properties.replicaConnectionTimeout().toMillis());
+            pool.setReadOnly(true);
+            registry.ifAvailable(meters -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meters)));
+            pools.add(pool);
+        }
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, pools,
+                properties.healthCheckInterval());
+        registry.ifAvailable(meters -> Gauge.builder("product.datasource.replicas.healthy", routing,
+                ReplicaRoutingDataSource::healthyCount)
+                .description("Read replicas currently in rotation")
+                .register(meters));
+        return routing;
+    }
+
+    /**
+     * The replica schemas must exist before the first routed read, so local
+     * replication, when enabled, is created first.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource,
+            Optional<LocalReplication> localReplication) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Replication applies changes on a single thread, so one connection per
+     * replica is enough.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "product.datasource.replication", havingValue = "local")
+    public LocalReplication localReplication(ReplicaProperties properties) {
+        List<DataSource> replicas = properties.replicas().stream()
+                .map(replica -> (DataSource) new SingleConnectionDataSource(replica.url(), replica.username(),
+                        replica.password(), true))
+                .toList();
+        return new LocalReplication(replicas, properties.replicationLag());
+    }
+
+    /** Replaces Spring Boot's JPA transaction manager; see {@link ReplicaTransactionManager}. */
+    @Bean
+    public PlatformTransactionManager transactionManager(
+            ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        ReplicaTransactionManager transactionManager = new ReplicaTransactionManager();
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+        return transactionManager;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaProperties properties) {
+        return new FilterRegistrationBean<>(new ReadYourWritesFilter(properties.readYourWrites()));
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.product_service.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import com.example.product_service.repository.ProductRepository;
+
+/**
+ * JPA repositories come from the repository package only. When the reactive
+ * variant is built its R2DBC repository is on the classpath too, and must not
+ * be taken for a JPA one. Kept off the application class so that web slice
+ * tests, which have no JPA, are not made to start it.
+ */
+@Configuration
+@EnableJpaRepositories(basePackageClasses = ProductRepository.class)
+public class RepositoryConfig {
+}
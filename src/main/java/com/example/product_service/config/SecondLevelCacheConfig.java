@@ -0,0 +1,84 @@
+package com.example.product_service.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.product_service.model.Product;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Hibernate's second-level cache, on Caffeine through JCache. Below the
+ * application caches in {@link CacheConfig}: it serves entity loads by id
+ * (including those behind {@code findById} and {@code findAllById}) and the
+ * listing and search queries marked cacheable in the repository.
+ * <p>
+ * Regions are created here with explicit bounds, and Hibernate is told to
+ * fail rather than create an unbounded one for a region it does not find.
+ * The product region is read-write. A save replaces the entry when its
+ * transaction commits; the single-statement updates and deletes of the
+ * repository evict just their product's entry then, and a repricing evicts
+ * the region. Any write to the table makes earlier query results stale
+ * through the update-timestamps region, which is never evicted. The
+ * query cache can be turned off on its own with
+ * {@code product.l2cache.query.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.l2cache.enabled", havingValue = "true")
+public class SecondLevelCacheConfig {
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${product.l2cache.entity.max-size:10000}") long entityMaxSize,
+            @Value("${product.l2cache.entity.ttl:10m}") Duration entityTtl,
+            @Value("${product.l2cache.query.max-size:1000}") long queryMaxSize,
+            @Value("${product.l2cache.query.ttl:60s}") Duration queryTtl) {
+        // A manager of our own rather than the provider's shared default, which every
+        // application context in the JVM (tests, benchmarks) would otherwise get.
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager manager = provider.getCacheManager(URI.create("urn:product-l2:" + UUID.randomUUID()),
+                SecondLevelCacheConfig.class.getClassLoader());
+        manager.createCache(Product.CACHE_REGION, region(OptionalLong.of(entityMaxSize), entityTtl));
+        manager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(OptionalLong.of(queryMaxSize), queryTtl));
+        manager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                region(OptionalLong.empty(), null));
+        return manager;
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(OptionalLong maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> region = new CaffeineConfiguration<>();
+        region.setMaximumSize(maxSize);
+        if (ttl != null) {
+            region.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        region.setStatisticsEnabled(true);
+        return region;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager hibernateCacheManager,
+            @Value("${product.l2cache.query.enabled:true}") boolean queryCache) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, queryCache);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.product_service.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.example.product_service.sharding.ProductIdGenerator;
+import com.example.product_service.sharding.ShardProperties;
+import com.example.product_service.sharding.ShardProperties.Shard;
+import com.example.product_service.sharding.ShardRoutingAspect;
+import com.example.product_service.sharding.ShardRoutingDataSource;
+import com.example.product_service.sharding.ShardStrategy;
+import com.example.product_service.sharding.Sharding;
+import com.example.product_service.sharding.SnowflakeIds;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Partitions the catalogue across several databases, active once
+ * {@code product.sharding.shards[0].url} is set. As with the replicas, the
+ * application data source is a {@link LazyConnectionDataSourceProxy}, here
+ * over the {@link ShardRoutingDataSource}, and the {@link ShardRoutingAspect}
+ * binds each repository call to its shard before the first statement.
+ * <p>
+ * Features that assume one database are refused at startup rather than left
+ * to misbehave: the change feed (its offsets come from one sequence), the
+ * query cache (its entries do not say which shard answered) and read
+ * replicas.
+ */
+@Configuration
+@ConditionalOnProperty("product.sharding.shards[0].url")
+@EnableConfigurationProperties(ShardProperties.class)
+public class ShardingConfig {
+
+    public ShardingConfig(Environment environment) {
+        if (environment.getProperty("product.changes.enabled", Boolean.class, true)) {
+            throw new IllegalStateException("The change feed needs one database; set product.changes.enabled=false");
+        }
+        if (environment.getProperty("product.l2cache.enabled", Boolean.class, false)
+                && environment.getProperty("product.l2cache.query.enabled", Boolean.class, true)) {
+            throw new IllegalStateException(
+                    "The query cache cannot tell shards apart; set product.l2cache.query.enabled=false");
+        }
+        if (environment.containsProperty("product.datasource.replicas[0].url")) {
+            throw new IllegalStateException("Read replicas and sharding cannot be combined");
+        }
+    }
+
+    @Bean
+    public SnowflakeIds productIds(ShardProperties properties) {
+        return new SnowflakeIds(properties.nodeId());
+    }
+
+    /** One pool per shard, each sized like the single-database pool. */
+    @Bean(destroyMethod = "close")
+    public Sharding sharding(ShardProperties properties, SnowflakeIds productIds,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${spring.datasource.hikari.connection-timeout:30000}") long connectionTimeout,
+            ObjectProvider<MeterRegistry> registry) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int i = 0; i < properties.shards().size(); i++) {
+            Shard shard = properties.shards().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("shard-" + i);
+            pool.setJdbcUrl(shard.url());
+            pool.setUsername(shard.username());
+            pool.setPassword(shard.password());
+            pool.setMaximumPoolSize(poolSize);
+            pool.setConnectionTimeout(connectionTimeout);
+            registry.ifAvailable(meters -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meters)));
+            pools.add(pool);
+        }
+        int count = pools.size();
+        ShardStrategy strategy = switch (properties.strategy()) {
+            case "hash" -> ShardStrategy.hash(count);
+            case "range" -> ShardStrategy.range(count,
+                    properties.rangeBounds() != null ? properties.rangeBounds() : List.of());
+            default -> throw new IllegalArgumentException("Unknown sharding strategy " + properties.strategy());
+        };
+        return new Sharding(new ShardRoutingDataSource(pools), strategy, productIds);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(Sharding sharding) {
+        return new LazyConnectionDataSourceProxy(sharding.dataSource());
+    }
+
+    @Bean
+    public ShardRoutingAspect shardRoutingAspect(Sharding sharding) {
+        return new ShardRoutingAspect(sharding);
+    }
+
+    /** Product ids come from {@link SnowflakeIds} instead of each shard's sequence. */
+    @Bean
+    public HibernatePropertiesCustomizer shardedIdProperties(SnowflakeIds productIds) {
+        return properties -> properties.put(ProductIdGenerator.IDS, productIds);
+    }
+
+    /** Every shard gets the full schema; unpartitioned tables are only used on the home shard. */
+    @Bean
+    public FlywayMigrationStrategy shardMigrations(Sharding sharding) {
+        return flyway -> {
+            for (int shard = 0; shard < sharding.count(); shard++) {
+                sharding.on(shard, flyway::migrate);
+            }
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.product_service.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.example.product_service.throttle.ThrottleFilter;
+import com.example.product_service.throttle.ThrottleProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-client rate limiting and load shedding for the product API, off unless
+ * {@code product.throttle.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.throttle.enabled", havingValue = "true")
+@EnableConfigurationProperties(ThrottleProperties.class)
+public class ThrottleConfig {
+
+    @Bean
+    public FilterRegistrationBean<ThrottleFilter> throttleFilter(ThrottleProperties properties,
+            MeterRegistry registry) {
+        FilterRegistrationBean<ThrottleFilter> registration = new FilterRegistrationBean<>(
+                new ThrottleFilter(properties, registry));
+        // After the request observation filter, so rejected requests are still measured.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
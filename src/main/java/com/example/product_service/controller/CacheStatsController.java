@@ -0,0 +1,91 @@
+package com.example.product_service.controller;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.product_service.model.Product;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Counters for the application caches and, under {@code hibernate:<region>},
+ * for the regions of Hibernate's second-level cache.
+ */
+@RestController
+@RequestMapping("/api/cache")
+public class CacheStatsController {
+    private static final String QUERY_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+
+    private final CacheManager cacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectProvider<javax.cache.CacheManager> regions;
+
+    public CacheStatsController(CacheManager cacheManager, EntityManagerFactory entityManagerFactory,
+            ObjectProvider<javax.cache.CacheManager> regions) {
+        this.cacheManager = cacheManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.regions = regions;
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Map<String, Long>> stats() {
+        Map<String, Map<String, Long>> stats = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof TransactionAwareCacheDecorator decorator) {
+                cache = decorator.getTargetCache();
+            }
+            Map<String, Long> counters = new LinkedHashMap<>();
+            if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+                CacheStats s = caffeine.stats();
+                counters.put("hits", s.hitCount());
+                counters.put("misses", s.missCount());
+                counters.put("evictions", s.evictionCount());
+                counters.put("size", caffeine.estimatedSize());
+            } else if (cache.getNativeCache() instanceof ConcurrentMap<?, ?> map) {
+                counters.put("size", (long) map.size());
+            }
+            stats.put(name, counters);
+        }
+        javax.cache.CacheManager regionManager = regions.getIfAvailable();
+        if (regionManager != null) {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            stats.put("hibernate:" + Product.CACHE_REGION, regionStats(
+                    statistics.getDomainDataRegionStatistics(Product.CACHE_REGION),
+                    regionManager.getCache(Product.CACHE_REGION)));
+            stats.put("hibernate:" + QUERY_REGION, regionStats(
+                    statistics.getQueryRegionStatistics(QUERY_REGION), regionManager.getCache(QUERY_REGION)));
+        }
+        return stats;
+    }
+
+    private static Map<String, Long> regionStats(CacheRegionStatistics region, javax.cache.Cache<?, ?> cache) {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        if (region != null) {
+            counters.put("hits", region.getHitCount());
+            counters.put("misses", region.getMissCount());
+            counters.put("puts", region.getPutCount());
+        }
+        if (cache != null) {
+            com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine =
+                    cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+            counters.put("size", caffeine.estimatedSize());
+            caffeine.policy().eviction().ifPresent(eviction -> counters.put("maxSize", eviction.getMaximum()));
+        }
+        return counters;
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.product_service.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.product_service.snapshot.CatalogueSnapshot;
+import com.example.product_service.snapshot.CatalogueSnapshot.Generation;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves the full NDJSON listing ({@code GET /api/products} without a cursor)
+ * from the {@link CatalogueSnapshot} file instead of the database. The file
+ * is handed to Tomcat's sendfile support, so its bytes go from the page cache
+ * to the socket without passing through the heap; single byte ranges and the
+ * pre-compressed gzip copy are supported. Requests with {@code after} still
+ * stream live from {@link ProductController}.
+ */
+@RestController
+@RequestMapping("/api/products")
+@ConditionalOnProperty(name = "product.snapshot.enabled", havingValue = "true")
+public class CatalogueSnapshotController {
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final CatalogueSnapshot snapshot;
+
+    public CatalogueSnapshotController(CatalogueSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE, params = "!after")
+    public void snapshot(HttpServletRequest request, HttpServletResponse response)
+            throws IOException, ServletException {
+        Generation generation = snapshot.current();
+        if (generation == null) {
+            request.getRequestDispatcher("/api/products?after=0").forward(request, response);
+            return;
+        }
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        Path file = gzip ? generation.gzip() : generation.ndjson();
+        String etag = gzip ? generation.gzipEtag() : generation.etag();
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (generation.lastModified() > 0) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, generation.lastModified());
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            long length = channel.size();
+            long start = 0;
+            long end = length - 1;
+            String range = request.getHeader(HttpHeaders.RANGE);
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            if (range != null && (ifRange == null || ifRange.trim().equals(etag))) {
+                List<HttpRange> ranges;
+                try {
+                    ranges = HttpRange.parseRanges(range);
+                } catch (IllegalArgumentException e) {
+                    ranges = List.of();
+                }
+                // Multipart byteranges are not offered; other forms fall back to the whole file.
+                if (ranges.size() == 1) {
+                    if (!satisfiable(ranges.get(0), length)) {
+                        response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                        return;
+                    }
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            }
+            long count = end - start + 1;
+            response.setContentLengthLong(count);
+            if (count > 0 && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                // Tomcat opens the file itself once this handler returns.
+                request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+                return;
+            }
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            while (count > 0) {
+                long sent = channel.transferTo(start, count, target);
+                start += sent;
+                count -= sent;
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Whether an {@code Accept-Encoding} header admits gzip: a {@code gzip}
+     * or {@code x-gzip} coding, or else {@code *}, with a q-value above zero.
+     * An explicit coding wins over {@code *}, so {@code *, gzip;q=0} refuses it.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean accepted = quality(parts) > 0;
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                return accepted;
+            }
+            if (coding.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    /** The q-value among a coding's parameters: 1 if absent, 0 if malformed. */
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 1 && Character.toLowerCase(parameter.charAt(0)) == 'q'
+                    && parameter.substring(1).trim().startsWith("=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(parameter.indexOf('=') + 1).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static boolean satisfiable(HttpRange range, long length) {
+        try {
+            return range.getRangeStart(length) < length && range.getRangeEnd(length) >= range.getRangeStart(length);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.product_service.controller;
+
+import java.io.IOException;
+import java.net.URI;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.product_service.transfer.CatalogueExport;
+import com.example.product_service.transfer.CatalogueImport;
+import com.example.product_service.transfer.CatalogueImport.BusyException;
+import com.example.product_service.transfer.ImportJob;
+import com.example.product_service.transfer.TransferFormat;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Bulk import and export of the catalogue as CSV or NDJSON files. Imports
+ * run in the background; their status is polled at the {@code Location}
+ * returned with {@code 202 Accepted}.
+ */
+@RestController
+@RequestMapping("/api/products")
+public class CatalogueTransferController {
+    private final CatalogueImport imports;
+    private final CatalogueExport export;
+
+    public CatalogueTransferController(CatalogueImport imports, CatalogueExport export) {
+        this.imports = imports;
+        this.export = export;
+    }
+
+    /** Imports the request body, read as a stream in the format of its content type. */
+    @PostMapping(value = "/import", params = "!path")
+    public ResponseEntity<ImportJob> upload(HttpServletRequest request) throws IOException {
+        TransferFormat format;
+        try {
+            format = TransferFormat.of(MediaType.parseMediaType(request.getContentType()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, e.getMessage());
+        }
+        return started(() -> imports.upload(request.getInputStream(), format));
+    }
+
+    /** Imports a file already in the import directory, memory-mapped in place. */
+    @PostMapping(value = "/import", params = "path")
+    public ResponseEntity<ImportJob> importFile(@RequestParam String path,
+            @RequestParam(required = false) String format) throws IOException {
+        TransferFormat resolved = format == null ? null : format(format);
+        return started(() -> imports.importFile(path, resolved));
+    }
+
+    @GetMapping("/import/{id}")
+    public ImportJob status(@PathVariable String id) {
+        return imports.find(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /** Carries on a failed or stopped import from its last checkpoint. */
+    @PostMapping("/import/{id}/resume")
+    public ResponseEntity<ImportJob> resume(@PathVariable String id) throws IOException {
+        status(id);
+        return started(() -> imports.resume(id));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        TransferFormat resolved = format(format);
+        return ResponseEntity.ok()
+                .contentType(resolved.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("products." + resolved.extension())
+                        .build()
+                        .toString())
+                .body(out -> export.write(resolved, out));
+    }
+
+    private static TransferFormat format(String name) {
+        try {
+            return TransferFormat.of(name);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static ResponseEntity<ImportJob> started(Start<ImportJob> start) throws IOException {
+        ImportJob job;
+        try {
+            job = start.run();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        } catch (BusyException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/products/import/" + job.id()))
+                .body(job);
+    }
+
+    @FunctionalInterface
+    private interface Start<T> {
+        T run() throws IOException;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.product_service.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.product_service.model.Product;
+
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Product product) {
+        return of(product.getVersion());
+    }
+
+    public static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Strong comparison of an {@code If-Match} header against the current
+     * representation; weak tags never match.
+     */
+    public static boolean matches(String ifMatch, Product current) {
+        return matches(ifMatch, current.getVersion());
+    }
+
+    /** As {@link #matches(String, Product)}, for a representation at {@code version}. */
+    public static boolean matches(String ifMatch, Long version) {
+        if (ifMatch.trim().equals("*")) {
+            return true;
+        }
+        String etag = of(version);
+        for (String candidate : ifMatch.split(",")) {
+            if (candidate.trim().equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The version named by a single strong {@code If-Match} tag, or null for
+     * {@code *}. Throws IllegalArgumentException for anything else, which
+     * could not be checked once the request is gone.
+     */
+    static Long version(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.equals("*")) {
+            return null;
+        }
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        }
+        throw new IllegalArgumentException("Not a single strong ETag: " + ifMatch);
+    }
+
+    /**
+     * The versions named by the strong tags of an {@code If-Match} header,
+     * for a write that checks them itself; null when there is no header or it
+     * is {@code *}. Weak and malformed tags never match under strong
+     * comparison, so they name nothing.
+     */
+    static List<Long> versions(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                try {
+                    versions.add(Long.valueOf(tag.substring(1, tag.length() - 1)));
+                } catch (NumberFormatException e) {
+                    // Not one of ours
+                }
+            }
+        }
+        return versions;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.product_service.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.product_service.changes.ChangeFeed;
+
+@RestController
+@ConditionalOnProperty(name = "product.changes.enabled", havingValue = "true", matchIfMissing = true)
+@RequestMapping("/api/products/changes")
+public class ProductChangesController {
+    private final ChangeFeed feed;
+
+    public ProductChangesController(ChangeFeed feed) {
+        this.feed = feed;
+    }
+
+    /**
+     * Streams product changes after {@code since} (or the standard
+     * {@code Last-Event-ID} on reconnect). Without either, starts from now.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestParam(required = false) Long since,
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        long cursor = since != null ? since : lastEventId != null ? lastEventId : feed.head();
+        // No server-side timeout: heartbeats detect clients that have gone away.
+        SseEmitter emitter = new SseEmitter(0L);
+        if (!feed.subscribe(cursor, emitter)) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many change-feed subscribers");
+        }
+        return emitter;
+    }
+}
@@ -1,39 +1,268 @@
 package com.example.product_service.controller;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.product_service.idempotency.IdempotentRequests;
+import com.example.product_service.idempotency.IdempotentRequests.KeyReusedException;
+import com.example.product_service.idempotency.IdempotentRequests.Outcome;
+import com.example.product_service.idempotency.IdempotentRequests.StillInFlightException;
+import com.example.product_service.ingest.ProductUpdateQueue;
+import com.example.product_service.model.Prices;
 import com.example.product_service.model.Product;
+import com.example.product_service.model.Repricing;
 import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.service.BatchItemResult;
+import com.example.product_service.service.CatalogueVersion;
+import com.example.product_service.service.CatalogueVersion.Version;
+import com.example.product_service.service.ProductBatchService;
+import com.example.product_service.service.RepricingService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final ProductRepository repo;
+    private final ObjectMapper mapper;
+    private final ProductBatchService batch;
+    private final CatalogueVersion catalogue;
+    private final ProductUpdateQueue updates;
+    private final IdempotentRequests idempotent;
+    private final RepricingService repricing;
 
-    public ProductController(ProductRepository repo) {
+    public ProductController(ProductRepository repo, ObjectMapper mapper, ProductBatchService batch,
+            CatalogueVersion catalogue, ProductUpdateQueue updates, IdempotentRequests idempotent,
+            RepricingService repricing) {
         this.repo = repo;
+        this.mapper = mapper;
+        this.batch = batch;
+        this.catalogue = catalogue;
+        this.updates = updates;
+        this.idempotent = idempotent;
+        this.repricing = repricing;
     }
 
     @GetMapping
-    public List<Product> all() {
-        return repo.findAll();
+    public ResponseEntity<List<Product>> all(@RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit, WebRequest request) {
+        // Validators are taken before the rows are read: a concurrent write can then
+        // only leave the tag older than the body, which costs a refetch, never a stale 304.
+        Optional<Version> version = catalogue.current();
+        if (version.isPresent() && request.checkNotModified(version.get().etag(), version.get().lastModified())) {
+            return null;
+        }
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        // Fetch one extra row so we know whether a next page exists without a count query.
+        List<Product> rows = repo.findByIdGreaterThanOrderByIdAsc(after, Limit.of(size + 1));
+        if (rows.size() <= size) {
+            return ResponseEntity.ok(rows);
+        }
+        List<Product> page = rows.subList(0, size);
+        long next = page.get(size - 1).getId();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "</api/products?after=" + next + "&limit=" + size + ">; rel=\"next\"")
+                .body(page);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream(@RequestParam(defaultValue = "0") long after) {
+        ObjectWriter writer = mapper.writerFor(Product.class)
+                .withRootValueSeparator("")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator gen = writer.createGenerator(out)) {
+                repo.forEachAfter(after, p -> {
+                    try {
+                        writer.writeValue(gen, p);
+                        gen.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Product> one(@PathVariable Long id, WebRequest request) {
+        Product product = repo.readById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        if (request.checkNotModified(ETags.of(product))) {
+            return null;
+        }
+        return ResponseEntity.ok(product);
     }
 
     @PostMapping
     public Product create(@RequestBody Product product) {
-        return repo.save(product);
+        return repo.save(fresh(product));
+    }
+
+    /**
+     * The body of a create as a new product: an id or version it carries is
+     * ignored, as for a batch create, rather than making the save write over
+     * an existing product without its If-Match check or insert a row that
+     * starts at the client's version.
+     */
+    private static Product fresh(Product product) {
+        product.setId(null);
+        product.setVersion(null);
+        return product;
+    }
+
+    /**
+     * A create that runs at most once per key. Retries get the first response
+     * again, marked {@code Idempotent-Replayed}; reusing a key for a different
+     * product is a 422.
+     */
+    @PostMapping(headers = IDEMPOTENCY_KEY)
+    public ResponseEntity<Product> createIdempotent(@RequestHeader(IDEMPOTENCY_KEY) String key,
+            @RequestBody Product product) {
+        if (key.isEmpty() || key.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid " + IDEMPOTENCY_KEY);
+        }
+        Product created = fresh(product);
+        Outcome outcome;
+        try {
+            outcome = idempotent.execute(key, IdempotentRequests.fingerprint(created), () -> repo.save(created));
+        } catch (KeyReusedException e) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+        } catch (StillInFlightException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (outcome.replayed()) {
+            response.header("Idempotent-Replayed", "true");
+        }
+        return response.body(outcome.response());
     }
 
+    /**
+     * One conditional UPDATE that returns the new row: the {@code If-Match}
+     * versions go into its WHERE clause instead of being checked against a
+     * row read first.
+     */
     @PutMapping("/{id}")
-    public Product update(@PathVariable Long id, @RequestBody Product product) {
-        product.setId(id);
-        return repo.save(product);
+    public ResponseEntity<Product> update(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody Product product) {
+        Product saved = repo.updateFields(id, product.getName(), product.getPriceMinor(), ETags.versions(ifMatch))
+                .orElseThrow(() -> missed(id, ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(saved)).body(saved);
+    }
+
+    /**
+     * A partial update as a JSON merge patch. Only {@code price} can be
+     * patched; written like {@link #update} in a single statement. JSON
+     * numbers are read as exact decimals, never through a double.
+     */
+    @PatchMapping(value = "/{id}", consumes = { "application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<Product> patch(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody Map<String, Object> patch) {
+        if (patch.size() != 1 || !(patch.get("price") instanceof Number price)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only {\"price\": <number>} can be patched");
+        }
+        long priceMinor;
+        try {
+            priceMinor = Prices.toMinor(new BigDecimal(price.toString()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        Product saved = repo.updatePrice(id, priceMinor, ETags.versions(ifMatch))
+                .orElseThrow(() -> missed(id, ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(saved)).body(saved);
+    }
+
+    /**
+     * Queues the update and returns 202 before it is written; see
+     * {@link ProductUpdateQueue}. An {@code If-Match} tag is checked when the
+     * update is written, not now. A full queue answers 503 with Retry-After.
+     */
+    @PutMapping(value = "/{id}", headers = "Prefer=respond-async")
+    public ResponseEntity<Void> updateAsync(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody Product product) {
+        Product update = new Product();
+        update.setId(id);
+        update.setName(product.getName());
+        update.setPriceMinor(product.getPriceMinor());
+        if (ifMatch != null) {
+            try {
+                update.setVersion(ETags.version(ifMatch));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+        }
+        if (!updates.offer(update)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+        return ResponseEntity.accepted().header("Preference-Applied", "respond-async").build();
     }
 
     @DeleteMapping("/{id}")
-    public void delete(@PathVariable Long id) {
-        repo.deleteById(id);
+    public void delete(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!repo.deleteExisting(id, ETags.versions(ifMatch))) {
+            throw missed(id, ifMatch);
+        }
+    }
+
+    /**
+     * Why a conditional write touched no row. Only looked up once it has
+     * missed, so the write itself stays a single statement.
+     */
+    private ResponseStatusException missed(Long id, String ifMatch) {
+        if (ifMatch != null && repo.existsById(id)) {
+            return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED);
+        }
+        return new ResponseStatusException(HttpStatus.NOT_FOUND);
+    }
+
+    @PostMapping("/batch")
+    public List<BatchItemResult> createBatch(@RequestBody List<Product> products) {
+        return batch.createAll(products);
+    }
+
+    @PutMapping("/batch")
+    public List<BatchItemResult> updateBatch(@RequestBody List<Product> products) {
+        return batch.updateAll(products);
+    }
+
+    @DeleteMapping("/batch")
+    public List<BatchItemResult> deleteBatch(@RequestBody List<Long> ids) {
+        return batch.deleteAll(ids);
+    }
+
+    /**
+     * Changes the price of every product matching the filter, by a
+     * percentage or a fixed amount; see {@link Repricing}. Runs as chunked
+     * set-based updates, see {@link RepricingService}.
+     */
+    @PostMapping("/reprice")
+    public RepricingService.Result reprice(@RequestBody Repricing request) {
+        return repricing.reprice(request);
     }
 }
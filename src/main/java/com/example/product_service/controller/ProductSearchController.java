@@ -0,0 +1,45 @@
+package com.example.product_service.controller;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.search.ProductSearch;
+import com.example.product_service.search.ProductSearchService;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/products/search")
+public class ProductSearchController {
+    private final ProductSearchService search;
+
+    public ProductSearchController(ProductSearchService search) {
+        this.search = search;
+    }
+
+    @GetMapping
+    public List<Product> search(@RequestParam(required = false) String q,
+            @RequestParam(required = false) String prefix,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @PageableDefault(size = 100, sort = "id") Pageable pageable) {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "minPrice must not exceed maxPrice");
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            if (!ProductSearchService.SORTABLE.contains(order.getProperty())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "cannot sort by " + order.getProperty());
+            }
+        }
+        return search.search(new ProductSearch(q, prefix, minPrice, maxPrice), pageable);
+    }
+}
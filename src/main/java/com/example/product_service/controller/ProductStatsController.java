@@ -0,0 +1,78 @@
+package com.example.product_service.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.product_service.analytics.PriceHistogram;
+import com.example.product_service.analytics.PriceStats;
+import com.example.product_service.analytics.ProductColumns;
+import com.example.product_service.model.Prices;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Price aggregates over the whole catalogue, answered from the in-memory
+ * {@link ProductColumns} rather than the database. Every query takes the same
+ * optional name prefix and price range.
+ */
+@RestController
+@ConditionalOnProperty(name = "product.analytics.enabled", havingValue = "true", matchIfMissing = true)
+@RequestMapping("/api/products/stats")
+public class ProductStatsController {
+    static final int MAX_BUCKETS = 1000;
+    static final int MAX_PREFIX_LENGTH = 64;
+
+    private final ProductColumns columns;
+
+    public ProductStatsController(ProductColumns columns) {
+        this.columns = columns;
+    }
+
+    @GetMapping
+    public PriceStats stats(@RequestParam(required = false) String prefix,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice) {
+        return columns.stats(prefix, lower(minPrice, maxPrice), upper(maxPrice));
+    }
+
+    /** Groups by the first {@code length} characters of the name. */
+    @GetMapping("/by-prefix")
+    public Map<String, PriceStats> byPrefix(@RequestParam(defaultValue = "1") int length,
+            @RequestParam(required = false) String prefix,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice) {
+        if (length < 1 || length > MAX_PREFIX_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "length must be between 1 and " + MAX_PREFIX_LENGTH);
+        }
+        return columns.statsByPrefix(length, prefix, lower(minPrice, maxPrice), upper(maxPrice));
+    }
+
+    @GetMapping("/histogram")
+    public PriceHistogram histogram(@RequestParam(defaultValue = "10") int buckets,
+            @RequestParam(required = false) String prefix,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice) {
+        if (buckets < 1 || buckets > MAX_BUCKETS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "buckets must be between 1 and " + MAX_BUCKETS);
+        }
+        return columns.histogram(prefix, lower(minPrice, maxPrice), upper(maxPrice), buckets);
+    }
+
+    private static long lower(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "minPrice must not exceed maxPrice");
+        }
+        return minPrice != null ? Prices.ceilingMinor(minPrice) : Long.MIN_VALUE;
+    }
+
+    private static long upper(BigDecimal maxPrice) {
+        return maxPrice != null ? Prices.floorMinor(maxPrice) : Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.product_service.idempotency;
+
+import com.example.product_service.model.Product;
+
+/**
+ * The outcome of a completed idempotent request: a fingerprint of the request
+ * it answered, so that a key reused for a different request can be told
+ * apart, and the response to replay.
+ */
+public record IdempotencyRecord(String fingerprint, Product response) {
+}
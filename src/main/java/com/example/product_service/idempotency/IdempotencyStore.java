@@ -0,0 +1,27 @@
+package com.example.product_service.idempotency;
+
+import java.util.Optional;
+
+/**
+ * Idempotent requests by key. A request claims its key before it runs and
+ * records its outcome under the claim when it completes. Implementations
+ * expire records after their retention period; a record that has expired is
+ * simply not found, and its key can be claimed again.
+ */
+public interface IdempotencyStore {
+
+    /** The completed request for {@code key}; a key that is only claimed is not found. */
+    Optional<IdempotencyRecord> find(String key);
+
+    /**
+     * Claims {@code key} for a request about to run. Returns false if the key
+     * is already claimed or recorded, in which case the request must not run.
+     */
+    boolean claim(String key, String fingerprint);
+
+    /** Records the outcome for {@code key}, completing its claim. */
+    void put(String key, IdempotencyRecord record);
+
+    /** Gives up an unfinished claim on {@code key}, so that a retry can run. */
+    void release(String key);
+}
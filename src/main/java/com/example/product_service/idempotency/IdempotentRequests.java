@@ -0,0 +1,164 @@
+package com.example.product_service.idempotency;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import com.example.product_service.model.Product;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key}. A completed
+ * request's response is replayed from the {@link IdempotencyStore}; a
+ * duplicate that arrives while the first is still running waits for its
+ * result instead of running again. A request that fails is not recorded, so
+ * it can be retried with the same key. Within an instance, duplicates wait on
+ * the in-flight table; across instances, the key is claimed in the store
+ * before the request runs, and an instance that finds it claimed elsewhere
+ * polls the store for the result.
+ */
+public class IdempotentRequests {
+    private static final long POLL_INTERVAL_MILLIS = 20;
+
+    private final IdempotencyStore store;
+    private final Duration waitTimeout;
+    private final ConcurrentHashMap<String, CompletableFuture<IdempotencyRecord>> inFlight =
+            new ConcurrentHashMap<>();
+
+    public IdempotentRequests(IdempotencyStore store, Duration waitTimeout) {
+        this.store = store;
+        this.waitTimeout = waitTimeout;
+    }
+
+    /** The response to a request and whether it was replayed rather than executed now. */
+    public record Outcome(Product response, boolean replayed) {
+    }
+
+    /** The key was already used for a request with a different fingerprint. */
+    public static class KeyReusedException extends RuntimeException {
+        KeyReusedException(String key) {
+            super("Idempotency-Key " + key + " was already used for a different request");
+        }
+    }
+
+    /** A duplicate waited longer than the wait timeout for the original request. */
+    public static class StillInFlightException extends RuntimeException {
+        StillInFlightException(String key) {
+            super("A request with Idempotency-Key " + key + " is still in progress");
+        }
+    }
+
+    public Outcome execute(String key, String fingerprint, Supplier<Product> action) {
+        while (true) {
+            Optional<IdempotencyRecord> stored = store.find(key);
+            if (stored.isPresent()) {
+                return replay(key, fingerprint, stored.get());
+            }
+            CompletableFuture<IdempotencyRecord> mine = new CompletableFuture<>();
+            CompletableFuture<IdempotencyRecord> running = inFlight.putIfAbsent(key, mine);
+            if (running != null) {
+                IdempotencyRecord record = await(key, running);
+                if (record != null) {
+                    return replay(key, fingerprint, record);
+                }
+                // The original failed; start over and possibly run it ourselves.
+                continue;
+            }
+            try {
+                // The original may have finished between the lookup and taking the slot.
+                stored = store.find(key);
+                if (stored.isPresent()) {
+                    mine.complete(stored.get());
+                    return replay(key, fingerprint, stored.get());
+                }
+                IdempotencyRecord recorded = claimOrAwait(key, fingerprint);
+                if (recorded != null) {
+                    mine.complete(recorded);
+                    return replay(key, fingerprint, recorded);
+                }
+                IdempotencyRecord record;
+                try {
+                    record = new IdempotencyRecord(fingerprint, action.get());
+                } catch (RuntimeException | Error e) {
+                    store.release(key);
+                    throw e;
+                }
+                store.put(key, record);
+                mine.complete(record);
+                return new Outcome(record.response(), false);
+            } catch (RuntimeException | Error e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, mine);
+            }
+        }
+    }
+
+    /**
+     * Claims {@code key} in the store, returning null once it is ours. While
+     * another instance holds it, polls for that request's record and returns
+     * it when it appears; if the other request fails and releases the key,
+     * the next claim takes it.
+     */
+    private IdempotencyRecord claimOrAwait(String key, String fingerprint) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (!store.claim(key, fingerprint)) {
+            Optional<IdempotencyRecord> stored = store.find(key);
+            if (stored.isPresent()) {
+                return stored.get();
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                throw new StillInFlightException(key);
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new StillInFlightException(key);
+            }
+        }
+        return null;
+    }
+
+    private IdempotencyRecord await(String key, CompletableFuture<IdempotencyRecord> running) {
+        try {
+            return running.get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new StillInFlightException(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StillInFlightException(key);
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private static Outcome replay(String key, String fingerprint, IdempotencyRecord record) {
+        if (!record.fingerprint().equals(fingerprint)) {
+            throw new KeyReusedException(key);
+        }
+        return new Outcome(record.response(), true);
+    }
+
+    /** Fingerprint of a create request: a digest of the fields it writes. */
+    public static String fingerprint(Product product) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(product.getName()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(Long.toString(product.getPriceMinor()).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
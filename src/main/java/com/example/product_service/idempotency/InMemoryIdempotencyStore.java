@@ -0,0 +1,44 @@
+package com.example.product_service.idempotency;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Per-instance store in a bounded Caffeine cache: lookups take no lock, and
+ * entries leave after {@code ttl} or, past {@code maxSize}, least recently
+ * used first. A claim is a record without a response. Records are lost on
+ * restart.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+    private final Cache<String, IdempotencyRecord> records;
+
+    public InMemoryIdempotencyStore(long maxSize, Duration ttl) {
+        this.records = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key) {
+        return Optional.ofNullable(records.getIfPresent(key)).filter(record -> record.response() != null);
+    }
+
+    @Override
+    public boolean claim(String key, String fingerprint) {
+        return records.asMap().putIfAbsent(key, new IdempotencyRecord(fingerprint, null)) == null;
+    }
+
+    @Override
+    public void put(String key, IdempotencyRecord record) {
+        records.put(key, record);
+    }
+
+    @Override
+    public void release(String key) {
+        records.asMap().computeIfPresent(key, (k, record) -> record.response() == null ? null : record);
+    }
+}
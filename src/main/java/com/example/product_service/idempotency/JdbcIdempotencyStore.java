@@ -0,0 +1,104 @@
+package com.example.product_service.idempotency;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.product_service.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Store in the {@code idempotency_key} table, so records survive restarts
+ * and are shared by every instance on the same database. A claim is a row
+ * without a response, inserted before the request runs: the primary key lets
+ * only one instance run a given key, and the others wait for the response to
+ * be filled in. The response is kept as JSON. A claim older than
+ * {@code claimTimeout} was left by an instance that died mid-request and can
+ * be taken over, as can an expired record. Expired rows are ignored on read
+ * and deleted at most once a minute, by whichever claim comes first.
+ */
+public class JdbcIdempotencyStore implements IdempotencyStore {
+    private static final long PURGE_INTERVAL = Duration.ofMinutes(1).toNanos();
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper mapper;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+    private final AtomicLong nextPurge = new AtomicLong(System.nanoTime());
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbc, ObjectMapper mapper, Duration ttl, Duration claimTimeout) {
+        this.jdbc = jdbc;
+        this.mapper = mapper;
+        this.ttl = ttl;
+        this.claimTimeout = claimTimeout;
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key) {
+        return jdbc.query("select fingerprint, response from idempotency_key where idempotency_key = ?"
+                + " and response is not null and created_at > ?",
+                (rs, row) -> new IdempotencyRecord(rs.getString(1), read(rs.getString(2))),
+                key, Timestamp.from(Instant.now().minus(ttl)))
+                .stream().findFirst();
+    }
+
+    @Override
+    public boolean claim(String key, String fingerprint) {
+        purgeIfDue();
+        Instant now = Instant.now();
+        try {
+            jdbc.update("insert into idempotency_key (idempotency_key, fingerprint, response, created_at)"
+                    + " values (?, ?, null, ?)",
+                    key, fingerprint, Timestamp.from(now));
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Held by another request, unless it expired or its claim was abandoned.
+            return jdbc.update("update idempotency_key set fingerprint = ?, response = null, created_at = ?"
+                    + " where idempotency_key = ? and (created_at <= ? or response is null and created_at <= ?)",
+                    fingerprint, Timestamp.from(now), key,
+                    Timestamp.from(now.minus(ttl)), Timestamp.from(now.minus(claimTimeout))) == 1;
+        }
+    }
+
+    @Override
+    public void put(String key, IdempotencyRecord record) {
+        // Matches nothing if the claim was taken over; the new holder's record stands.
+        jdbc.update("update idempotency_key set response = ?, created_at = ?"
+                + " where idempotency_key = ? and fingerprint = ? and response is null",
+                write(record.response()), Timestamp.from(Instant.now()), key, record.fingerprint());
+    }
+
+    @Override
+    public void release(String key) {
+        jdbc.update("delete from idempotency_key where idempotency_key = ? and response is null", key);
+    }
+
+    private void purgeIfDue() {
+        long due = nextPurge.get();
+        if (System.nanoTime() - due >= 0 && nextPurge.compareAndSet(due, System.nanoTime() + PURGE_INTERVAL)) {
+            jdbc.update("delete from idempotency_key where created_at <= ?", Timestamp.from(Instant.now().minus(ttl)));
+        }
+    }
+
+    private String write(Product product) {
+        try {
+            return mapper.writeValueAsString(product);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Product read(String json) {
+        try {
+            return mapper.readValue(json, Product.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.product_service.ingest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.service.BatchItemResult;
+import com.example.product_service.service.ProductBatchService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Asynchronous product updates for high-rate writers such as the pricing
+ * engine.
+ * <p>
+ * Accepted updates go onto a bounded lock-free queue. A single writer drains
+ * it once {@code flush-size} updates are waiting or {@code flush-interval}
+ * has passed, keeps only the newest update per product, and writes the rest
+ * through {@link ProductBatchService#updateAll}, so a burst of changes to one
+ * product costs one UPDATE and the usual cache eviction and outbox events
+ * still apply. Between updates of the same product, the one based on the
+ * higher version wins, and the later one on a tie; an update whose version
+ * no longer matches when it is written is dropped as a conflict.
+ */
+@Component
+public class ProductUpdateQueue implements SmartLifecycle {
+    private final ProductBatchService batch;
+    private final int capacity;
+    private final int flushSize;
+    private final Duration flushInterval;
+
+    private final Queue<Product> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicLong drained = new AtomicLong();
+    private final AtomicLong distinct = new AtomicLong();
+    private volatile Thread writer;
+
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Timer flushes;
+    private final MeterRegistry registry;
+
+    public ProductUpdateQueue(ProductBatchService batch, MeterRegistry registry,
+            @Value("${product.ingest.capacity:10000}") int capacity,
+            @Value("${product.ingest.flush-size:500}") int flushSize,
+            @Value("${product.ingest.flush-interval:100ms}") Duration flushInterval) {
+        this.batch = batch;
+        this.capacity = capacity;
+        this.flushSize = flushSize;
+        this.flushInterval = flushInterval;
+        this.registry = registry;
+        this.accepted = Counter.builder("product.ingest.updates")
+                .tag("outcome", "accepted")
+                .register(registry);
+        this.rejected = Counter.builder("product.ingest.updates")
+                .tag("outcome", "rejected")
+                .register(registry);
+        this.flushes = Timer.builder("product.ingest.flush")
+                .description("Time to write one coalesced batch")
+                .register(registry);
+        Gauge.builder("product.ingest.queue.depth", depth, AtomicInteger::get)
+                .register(registry);
+        Gauge.builder("product.ingest.coalescing.ratio", this, ProductUpdateQueue::coalescingRatio)
+                .description("Updates drained per row written")
+                .register(registry);
+    }
+
+    /**
+     * Queues {@code update} for its product. Returns false, without queueing,
+     * when the queue is at capacity and the caller should back off.
+     */
+    public boolean offer(Product update) {
+        if (depth.incrementAndGet() > capacity) {
+            depth.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        pending.add(update);
+        accepted.increment();
+        if (depth.get() >= flushSize) {
+            wake();
+        }
+        return true;
+    }
+
+    /** Updates accepted but not yet drained by the writer. */
+    public int depth() {
+        return depth.get();
+    }
+
+    private void wake() {
+        Thread thread = writer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /** Drains everything queued so far and writes the newest update per product. */
+    void flush() {
+        Map<Long, Product> latest = new LinkedHashMap<>();
+        int count = 0;
+        Product update;
+        while (count < capacity && (update = pending.poll()) != null) {
+            count++;
+            latest.merge(update.getId(), update, ProductUpdateQueue::newer);
+        }
+        if (count == 0) {
+            return;
+        }
+        // Space is released only once the updates are out of the queue, so depth never undercounts.
+        depth.addAndGet(-count);
+        drained.addAndGet(count);
+        distinct.addAndGet(latest.size());
+        List<BatchItemResult> results = flushes.record(() -> batch.updateAll(new ArrayList<>(latest.values())));
+        for (BatchItemResult result : results) {
+            registry.counter("product.ingest.writes", "status", result.status().name()).increment();
+        }
+    }
+
+    private static Product newer(Product queued, Product incoming) {
+        if (queued.getVersion() != null && incoming.getVersion() != null
+                && incoming.getVersion() < queued.getVersion()) {
+            return queued;
+        }
+        return incoming;
+    }
+
+    private double coalescingRatio() {
+        long written = distinct.get();
+        return written == 0 ? 1.0 : (double) drained.get() / written;
+    }
+
+    @Override
+    public void start() {
+        writer = Thread.ofPlatform().name("product-update-writer").daemon().start(() -> {
+            while (writer == Thread.currentThread()) {
+                if (depth.get() < flushSize) {
+                    LockSupport.parkNanos(flushInterval.toNanos());
+                }
+                try {
+                    flush();
+                } catch (RuntimeException e) {
+                    // updateAll reports failed chunks itself; anything else loses this batch only.
+                }
+            }
+            // Stopped: write what was accepted before shutting down.
+            flush();
+        });
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = writer;
+        writer = null;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writer != null;
+    }
+}
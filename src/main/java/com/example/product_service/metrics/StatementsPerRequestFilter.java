@@ -0,0 +1,52 @@
+package com.example.product_service.metrics;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records how many SQL statements each request issued, tagged like
+ * {@code http.server.requests} with the method and the matched URI template,
+ * so an N+1 regression shows up per endpoint. Summaries are created once per
+ * endpoint and then looked up without building tags.
+ */
+public class StatementsPerRequestFilter extends OncePerRequestFilter {
+    static final String METRIC = "http.server.requests.statements";
+
+    private final StatementCounter counter;
+    private final MeterRegistry registry;
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public StatementsPerRequestFilter(StatementCounter counter, MeterRegistry registry) {
+        this.counter = counter;
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        counter.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            summaries.computeIfAbsent(request.getMethod() + ' ' + uri, key -> DistributionSummary.builder(METRIC)
+                    .description("SQL statements issued while handling a request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(registry))
+                    .record(counter.current());
+        }
+    }
+}
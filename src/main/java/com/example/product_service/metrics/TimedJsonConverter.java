@@ -0,0 +1,43 @@
+package com.example.product_service.metrics;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * The application's JSON converter, timing each response body it writes.
+ * The time includes writing to the response buffer, which is where
+ * serialization cost shows up in practice.
+ */
+public class TimedJsonConverter extends MappingJackson2HttpMessageConverter {
+    static final String METRIC = "product.json.write";
+
+    private final Timer timer;
+
+    public TimedJsonConverter(ObjectMapper mapper, MeterRegistry registry) {
+        super(mapper);
+        this.timer = Timer.builder(METRIC)
+                .description("Time spent serializing JSON response bodies")
+                .register(registry);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.product_service.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+/**
+ * Conversions between decimal prices and the whole minor units (cents) they
+ * are stored and computed in. The catalogue has a single currency; a price
+ * with more decimals than the currency has minor units is rejected rather
+ * than rounded.
+ */
+public final class Prices {
+    /** The catalogue currency, as an ISO 4217 code. */
+    public static final String CURRENCY = "EUR";
+    /** Decimal places of the catalogue currency's minor unit. */
+    public static final int SCALE = Currency.getInstance(CURRENCY).getDefaultFractionDigits();
+
+    private Prices() {
+    }
+
+    /**
+     * The price in minor units.
+     *
+     * @throws IllegalArgumentException if the price has more decimals than
+     *                                  {@link #SCALE} or does not fit a long
+     */
+    public static long toMinor(BigDecimal price) {
+        try {
+            return price.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Price " + price.toPlainString() + " is not a whole number of "
+                    + CURRENCY + " minor units", e);
+        }
+    }
+
+    public static BigDecimal toPrice(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    /** The least amount of minor units not below {@code price}, for a lower bound. */
+    public static long ceilingMinor(BigDecimal price) {
+        return clamp(price.setScale(SCALE, RoundingMode.CEILING));
+    }
+
+    /** The greatest amount of minor units not above {@code price}, for an upper bound. */
+    public static long floorMinor(BigDecimal price) {
+        return clamp(price.setScale(SCALE, RoundingMode.FLOOR));
+    }
+
+    /** Approximate price as a double, for statistics that are not themselves prices. */
+    public static double toDouble(double minor) {
+        return minor / Math.pow(10, SCALE);
+    }
+
+    /** Checks that {@code currency} is the catalogue currency. */
+    public static String requireCurrency(String currency) {
+        if (!CURRENCY.equals(currency)) {
+            throw new IllegalArgumentException("Prices must be in " + CURRENCY + ", not " + currency);
+        }
+        return currency;
+    }
+
+    private static long clamp(BigDecimal scaled) {
+        BigDecimal minor = scaled.movePointRight(SCALE);
+        if (minor.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0) {
+            return Long.MAX_VALUE;
+        }
+        if (minor.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) < 0) {
+            return Long.MIN_VALUE;
+        }
+        return minor.longValueExact();
+    }
+}
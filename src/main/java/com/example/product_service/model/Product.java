@@ -1,14 +1,52 @@
 package com.example.product_service.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import com.example.product_service.sharding.ProductIdGenerator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
 import jakarta.persistence.*;
 
+import java.io.Serializable;
+import java.math.BigDecimal;
+
 @Entity
-public class Product {
+@Table(indexes = {
+        @Index(name = "idx_product_name", columnList = "name"),
+        @Index(name = "idx_product_price", columnList = "price_minor") })
+// Held in Hibernate's second-level cache when product.l2cache.enabled is set
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Product.CACHE_REGION)
+// The property order fixes the field numbers of the generated protobuf schema;
+// currency came last so that the earlier numbers stayed put.
+@JsonPropertyOrder({ "id", "name", "price", "version", "currency" })
+public class Product implements Serializable {
+    private static final long serialVersionUID = 1L;
+    /** Second-level cache region holding products by id. */
+    public static final String CACHE_REGION = "product";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // The product sequence, or application-made ids when the catalogue is sharded
+    @GeneratedValue(generator = "product_seq")
+    @GenericGenerator(name = "product_seq", type = ProductIdGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "product_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50") })
     private Long id;
     private String name;
-    private double price;
+    // Whole minor units of the currency; JSON carries it as an exact decimal "price".
+    private long priceMinor;
+    private String currency = Prices.CURRENCY;
+    @Version
+    private Long version;
+    // A sharded id chosen before the insert, since it decides the shard. The id
+    // generator hands it to Hibernate, which takes a new row whose @Id is
+    // already set for a detached one.
+    private transient Long assignedId;
 
     public Long getId() {
         return id;
@@ -26,11 +64,55 @@ public class Product {
         this.name = name;
     }
 
-    public double getPrice() {
-        return price;
+    public BigDecimal getPrice() {
+        return Prices.toPrice(priceMinor);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the price is missing or is not a
+     *                                  whole number of minor units
+     */
+    public void setPrice(BigDecimal price) {
+        if (price == null) {
+            throw new IllegalArgumentException("Price is required");
+        }
+        this.priceMinor = Prices.toMinor(price);
+    }
+
+    @JsonIgnore
+    public long getPriceMinor() {
+        return priceMinor;
+    }
+
+    @JsonIgnore
+    public void setPriceMinor(long priceMinor) {
+        this.priceMinor = priceMinor;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    /** @throws IllegalArgumentException if not the catalogue currency */
+    public void setCurrency(String currency) {
+        this.currency = Prices.requireCurrency(currency);
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @JsonIgnore
+    public Long getAssignedId() {
+        return assignedId;
     }
 
-    public void setPrice(double price) {
-        this.price = price;
+    @JsonIgnore
+    public void setAssignedId(Long assignedId) {
+        this.assignedId = assignedId;
     }
 }
@@ -0,0 +1,100 @@
+package com.example.product_service.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A product change recorded in the transactional outbox, in the same
+ * transaction as the change itself. The id is the event's offset in the
+ * change feed. {@code CLEARED} stands for the removal of every product.
+ */
+@Entity
+@Table(name = "product_event")
+public class ProductEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, CLEARED
+    }
+
+    // The feed offset. Taken singly rather than in pooled blocks, so that offsets
+    // from different instances follow the order in which they were taken.
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_event_seq")
+    @SequenceGenerator(name = "product_event_seq", sequenceName = "product_event_seq", allocationSize = 1)
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    private Type type;
+    private Long productId;
+    private String name;
+    private Long priceMinor;
+    private String currency;
+    private Long version;
+    private Instant createdAt;
+
+    protected ProductEvent() {
+    }
+
+    public ProductEvent(Type type, Long productId, String name, Long priceMinor, String currency, Long version) {
+        this.type = type;
+        this.productId = productId;
+        this.name = name;
+        this.priceMinor = priceMinor;
+        this.currency = currency;
+        this.version = version;
+        this.createdAt = Instant.now();
+    }
+
+    public static ProductEvent of(Type type, Product product) {
+        return new ProductEvent(type, product.getId(), product.getName(), product.getPriceMinor(),
+                product.getCurrency(), product.getVersion());
+    }
+
+    public static ProductEvent deleted(Long productId) {
+        return new ProductEvent(Type.DELETED, productId, null, null, null, null);
+    }
+
+    public static ProductEvent cleared() {
+        return new ProductEvent(Type.CLEARED, null, null, null, null, null);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BigDecimal getPrice() {
+        return priceMinor == null ? null : Prices.toPrice(priceMinor);
+    }
+
+    @JsonIgnore
+    public Long getPriceMinor() {
+        return priceMinor;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
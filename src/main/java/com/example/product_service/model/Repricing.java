@@ -0,0 +1,48 @@
+package com.example.product_service.model;
+
+import java.math.BigDecimal;
+
+/**
+ * A bulk price change: either a {@code percent} change, or a fixed
+ * {@code amount} added to each price (negative to lower it), applied to the
+ * products whose name starts with {@code prefix} and whose price lies within
+ * {@code [minPrice, maxPrice]}. Absent filters are {@code null}. A percentage
+ * result is rounded half up to whole minor units, and no price goes below
+ * zero.
+ */
+public record Repricing(BigDecimal percent, BigDecimal amount, String prefix, BigDecimal minPrice,
+        BigDecimal maxPrice) {
+
+    /** @throws IllegalArgumentException if the request does not describe exactly one change */
+    public Repricing {
+        if ((percent == null) == (amount == null)) {
+            throw new IllegalArgumentException("Exactly one of percent and amount is required");
+        }
+        if (percent != null && percent.compareTo(BigDecimal.valueOf(-100)) < 0) {
+            throw new IllegalArgumentException("percent must not be below -100");
+        }
+        if (amount != null) {
+            Prices.toMinor(amount);
+        }
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("minPrice must not exceed maxPrice");
+        }
+    }
+
+    /** What each price is multiplied by, for a percentage change. */
+    public BigDecimal factor() {
+        return BigDecimal.ONE.add(percent.movePointLeft(2));
+    }
+
+    public long amountMinor() {
+        return Prices.toMinor(amount);
+    }
+
+    public long lowerMinor() {
+        return minPrice == null ? Long.MIN_VALUE : Prices.ceilingMinor(minPrice);
+    }
+
+    public long upperMinor() {
+        return maxPrice == null ? Long.MAX_VALUE : Prices.floorMinor(maxPrice);
+    }
+}
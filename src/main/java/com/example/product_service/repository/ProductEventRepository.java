@@ -0,0 +1,44 @@
+package com.example.product_service.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.product_service.model.ProductEvent;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Outbox access. The feed queries are deliberately not read-only: they must
+ * see the primary, where events appear first. The catalogue version is read
+ * where the listing it validates is read, on a replica when there is one.
+ */
+public interface ProductEventRepository extends JpaRepository<ProductEvent, Long> {
+
+    List<ProductEvent> findByIdGreaterThanOrderByIdAsc(long after, Limit limit);
+
+    List<ProductEvent> findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(long after, long upTo, Limit limit);
+
+    List<ProductEvent> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    Optional<ProductEvent> findFirstByOrderByIdAsc();
+
+    @Query("select max(e.id) from ProductEvent e")
+    Optional<Long> findMaxId();
+
+    /** The latest event, whose offset is the catalogue's version. */
+    @Transactional(readOnly = true)
+    Optional<ProductEvent> findFirstByOrderByIdDesc();
+
+    /** Prunes old events, always keeping the latest so the catalogue version never goes back. */
+    @Transactional
+    @Modifying
+    @Query("delete from ProductEvent e where e.createdAt < :cutoff"
+            + " and e.id < (select max(x.id) from ProductEvent x)")
+    int deleteOlderThan(Instant cutoff);
+}
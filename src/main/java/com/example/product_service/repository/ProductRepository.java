@@ -1,8 +1,150 @@
 package com.example.product_service.repository;
 
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.product_service.model.Product;
+import com.example.product_service.model.Repricing;
+import com.example.product_service.routing.ReplicaReads;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import jakarta.persistence.QueryHint;
+
+import static com.example.product_service.config.CacheConfig.PRODUCTS;
+import static com.example.product_service.config.CacheConfig.PRODUCT_PAGES;
+
+/**
+ * Listing and search queries are marked cacheable for Hibernate's query
+ * cache, which only takes effect with the second-level cache enabled. Any
+ * write to the product table, including the bulk deletes, invalidates them.
+ * Prices are compared in minor units.
+ */
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+    /** Reads that a lagging replica answered are not cached; see {@link ReplicaReads}. */
+    String FROM_REPLICA = "T(com.example.product_service.routing.ReplicaReads).latestFromReplica()";
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = PRODUCT_PAGES, key = "#after + ':' + #limit.max()", unless = FROM_REPLICA)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Product> findByIdGreaterThanOrderByIdAsc(long after, Limit limit);
+
+    /**
+     * Cached lookup for read-only callers. The returned product may be a
+     * detached instance shared with other readers; code that modifies the
+     * entity must use {@link #findById} instead. Loads go through
+     * {@code findById} rather than a query, so a miss here can still be
+     * served from the second-level cache. Misses are not cached.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = PRODUCTS, key = "#id", unless = "#result == null or " + FROM_REPLICA)
+    default Optional<Product> readById(Long id) {
+        return findById(id);
+    }
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Product> findByPriceMinorBetween(long minPrice, long maxPrice, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Product> findByNameStartingWithAndPriceMinorBetween(String prefix, long minPrice, long maxPrice,
+            Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Product> findByNameContainingIgnoreCaseAndPriceMinorBetween(String text, long minPrice, long maxPrice,
+            Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Product> findByNameStartingWithAndNameContainingIgnoreCaseAndPriceMinorBetween(String prefix,
+            String text, long minPrice, long maxPrice, Pageable pageable);
+
+    // The inherited reads below are redeclared only so that the shard routing can advise them.
+
+    @Override
+    Optional<Product> findById(Long id);
+
+    @Override
+    boolean existsById(Long id);
+
+    @Override
+    List<Product> findAllById(Iterable<Long> ids);
+
+    @Override
+    List<Product> findAll();
+
+    @Override
+    long count();
+
+    @Transactional(readOnly = true)
+    @Query("select p.id from Product p where p.id in :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = PRODUCTS, key = "#result.id"),
+            @CacheEvict(cacheNames = PRODUCT_PAGES, allEntries = true) })
+    <S extends Product> S save(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = { PRODUCTS, PRODUCT_PAGES }, allEntries = true)
+    <S extends Product> List<S> saveAll(Iterable<S> entities);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = PRODUCTS, key = "#id"),
+            @CacheEvict(cacheNames = PRODUCT_PAGES, allEntries = true) })
+    Optional<Product> updateFields(Long id, String name, long priceMinor, Collection<Long> versions);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = PRODUCTS, key = "#id"),
+            @CacheEvict(cacheNames = PRODUCT_PAGES, allEntries = true) })
+    Optional<Product> updatePrice(Long id, long priceMinor, Collection<Long> versions);
+
+    @Override
+    @CacheEvict(cacheNames = { PRODUCTS, PRODUCT_PAGES }, allEntries = true)
+    List<Product> repriceAfter(long after, int limit, Repricing repricing);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = PRODUCTS, key = "#id"),
+            @CacheEvict(cacheNames = PRODUCT_PAGES, allEntries = true) })
+    void deleteById(Long id);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = PRODUCTS, key = "#id"),
+            @CacheEvict(cacheNames = PRODUCT_PAGES, allEntries = true) })
+    boolean deleteExisting(Long id, Collection<Long> versions);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = PRODUCTS, key = "#entity.id"),
+            @CacheEvict(cacheNames = PRODUCT_PAGES, allEntries = true) })
+    void delete(Product entity);
+
+    @Override
+    @CacheEvict(cacheNames = { PRODUCTS, PRODUCT_PAGES }, allEntries = true)
+    void deleteAllByIdInBatch(Iterable<Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = { PRODUCTS, PRODUCT_PAGES }, allEntries = true)
+    void deleteAll();
+
+    @Override
+    @CacheEvict(cacheNames = { PRODUCTS, PRODUCT_PAGES }, allEntries = true)
+    void deleteAllInBatch();
 }
@@ -0,0 +1,57 @@
+package com.example.product_service.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.model.Repricing;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Walks every product with an id greater than {@code after} in id order,
+     * handing each row to {@code action} as it comes off the JDBC cursor.
+     * Rows are detached once consumed so the persistence context stays flat.
+     */
+    void forEachAfter(long after, Consumer<Product> action);
+
+    /**
+     * Up to {@code limit} products with ids greater than {@code after}, in id
+     * order: the listing query without its caches, for callers that cannot
+     * share its cache entries.
+     */
+    List<Product> pageAfter(long after, int limit);
+
+    /**
+     * Sets a product's name and price, in minor units, and bumps its version
+     * in one statement that returns the new row, without loading the entity
+     * first. With {@code versions}, the row is only written if its current
+     * version is one
+     * of them; null means any version. Empty when nothing was written, because
+     * the product does not exist or its version did not match. The returned
+     * product is not managed, and a managed copy already loaded in the same
+     * transaction is not refreshed.
+     */
+    Optional<Product> updateFields(Long id, String name, long priceMinor, Collection<Long> versions);
+
+    /** Like {@link #updateFields}, for the price alone. */
+    Optional<Product> updatePrice(Long id, long priceMinor, Collection<Long> versions);
+
+    /**
+     * Applies {@code repricing} to the first {@code limit} matching products
+     * with ids greater than {@code after}, bumping their versions, in one
+     * bulk UPDATE, and returns the changed rows in no particular order. Fewer
+     * than {@code limit} rows means no matching product is left; otherwise
+     * the greatest id returned is where the next call starts.
+     */
+    List<Product> repriceAfter(long after, int limit, Repricing repricing);
+
+    /**
+     * Deletes a product in one statement without loading it first, only if
+     * its version is one of {@code versions} when given. Returns whether a
+     * row was deleted.
+     */
+    boolean deleteExisting(Long id, Collection<Long> versions);
+}
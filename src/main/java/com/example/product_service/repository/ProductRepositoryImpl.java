@@ -0,0 +1,239 @@
+package com.example.product_service.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.model.Repricing;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+    static final int FETCH_SIZE = 500;
+    private static final String COLUMNS = "p.id, p.name, p.priceMinor, p.currency, p.version";
+    private static final String[] RETURNED = { "name", "price_minor", "currency", "version" };
+    private static final String[] PRODUCT_TABLE = { "product" };
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachAfter(long after, Consumer<Product> action) {
+        try (Stream<Product> rows = em
+                .createQuery("select p from Product p where p.id > :after order by p.id", Product.class)
+                .setParameter("after", after)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            rows.forEach(p -> {
+                action.accept(p);
+                em.detach(p);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Product> pageAfter(long after, int limit) {
+        return em.createQuery("select p from Product p where p.id > :after order by p.id", Product.class)
+                .setParameter("after", after)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional
+    public Optional<Product> updateFields(Long id, String name, long priceMinor, Collection<Long> versions) {
+        return update("name = ?, price_minor = ?", id, versions, name, priceMinor);
+    }
+
+    @Override
+    @Transactional
+    public Optional<Product> updatePrice(Long id, long priceMinor, Collection<Long> versions) {
+        return update("price_minor = ?", id, versions, priceMinor);
+    }
+
+    /**
+     * The next chunk's ids are read first and locked, so the update neither
+     * revisits a product whose new price still matches the filter nor races a
+     * concurrent write to the chunk. Percentages are applied in decimal
+     * arithmetic to 18 places and rounded half up.
+     */
+    @Override
+    @Transactional
+    public List<Product> repriceAfter(long after, int limit, Repricing repricing) {
+        StringBuilder filter = new StringBuilder("p.id > :after");
+        if (repricing.prefix() != null) {
+            filter.append(" and p.name like :prefix escape '\\'");
+        }
+        if (repricing.minPrice() != null) {
+            filter.append(" and p.priceMinor >= :min");
+        }
+        if (repricing.maxPrice() != null) {
+            filter.append(" and p.priceMinor <= :max");
+        }
+        TypedQuery<Long> chunk = em
+                .createQuery("select p.id from Product p where " + filter + " order by p.id", Long.class)
+                .setMaxResults(limit)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        List<Long> ids = bindFilter(chunk, after, repricing).getResultList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String price = repricing.percent() != null ? "cast(round(p.priceMinor * cast(:factor as BigDecimal(38, 18)), 0) as Long)"
+                : "p.priceMinor + :amount";
+        Query update = em.createQuery("update Product p set p.priceMinor = greatest(" + price
+                + ", 0L), p.version = p.version + 1 where p.id in :ids")
+                .setParameter("ids", ids);
+        if (repricing.percent() != null) {
+            update.setParameter("factor", repricing.factor());
+        } else {
+            update.setParameter("amount", repricing.amountMinor());
+        }
+        update.executeUpdate();
+        return em.createQuery("select " + COLUMNS + " from Product p where p.id in :ids", Object[].class)
+                .setParameter("ids", ids)
+                .getResultStream()
+                .map(ProductRepositoryImpl::product)
+                .toList();
+    }
+
+    private static <Q extends Query> Q bindFilter(Q query, long after, Repricing repricing) {
+        query.setParameter("after", after);
+        if (repricing.prefix() != null) {
+            query.setParameter("prefix", repricing.prefix().replaceAll("[\\\\%_]", "\\\\$0") + "%");
+        }
+        if (repricing.minPrice() != null) {
+            query.setParameter("min", repricing.lowerMinor());
+        }
+        if (repricing.maxPrice() != null) {
+            query.setParameter("max", repricing.upperMinor());
+        }
+        return query;
+    }
+
+    /**
+     * One UPDATE that hands back the new row as generated keys, so the new
+     * version comes with the write instead of from a second statement.
+     */
+    private Optional<Product> update(String assignments, Long id, Collection<Long> versions, Object... values) {
+        if (versions != null && versions.isEmpty()) {
+            return Optional.empty();
+        }
+        return write("update product set " + assignments + ", version = version + 1 where id = ?"
+                + versionCheck(versions), RETURNED, id, versions, values, statement -> {
+                    try (ResultSet row = statement.getGeneratedKeys()) {
+                        row.next();
+                        Product product = new Product();
+                        product.setId(id);
+                        product.setName(row.getString(1));
+                        product.setPriceMinor(row.getLong(2));
+                        product.setCurrency(row.getString(3));
+                        product.setVersion(row.getLong(4));
+                        return product;
+                    }
+                });
+    }
+
+    private static Product product(Object[] row) {
+        Product product = new Product();
+        product.setId((Long) row[0]);
+        product.setName((String) row[1]);
+        product.setPriceMinor((Long) row[2]);
+        product.setCurrency((String) row[3]);
+        product.setVersion((Long) row[4]);
+        return product;
+    }
+
+    @Override
+    @Transactional
+    public boolean deleteExisting(Long id, Collection<Long> versions) {
+        if (versions != null && versions.isEmpty()) {
+            return false;
+        }
+        return write("delete from product where id = ?" + versionCheck(versions), null, id, versions,
+                new Object[0], statement -> Boolean.TRUE).isPresent();
+    }
+
+    private static String versionCheck(Collection<Long> versions) {
+        if (versions == null) {
+            return "";
+        }
+        return " and version in (" + String.join(", ", Collections.nCopies(versions.size(), "?")) + ")";
+    }
+
+    private interface Written<T> {
+        T read(PreparedStatement statement) throws SQLException;
+    }
+
+    /**
+     * Runs a write to one product as a plain statement on the session's
+     * connection, through Hibernate's JDBC coordinator so it is logged and
+     * counted like Hibernate's own; empty when it touched no row. A bulk
+     * JPQL statement would evict the whole product region and every cached
+     * query, so this does what Hibernate does around an entity update
+     * instead: cached query results over the table are marked stale before
+     * the statement and again when the transaction completes, and then only
+     * this product's second-level cache entry is evicted.
+     */
+    private <T> Optional<T> write(String sql, String[] returned, Long id, Collection<Long> versions,
+            Object[] values, Written<T> result) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor factory = session.getFactory();
+        TimestampsCache timestamps = factory.getSessionFactoryOptions().isQueryCacheEnabled()
+                ? factory.getCache().getTimestampsCache()
+                : null;
+        if (timestamps != null) {
+            timestamps.preInvalidate(PRODUCT_TABLE, session);
+        }
+        session.getActionQueue().registerProcess((success, completed) -> {
+            if (timestamps != null) {
+                timestamps.invalidate(PRODUCT_TABLE, completed);
+            }
+            completed.getFactory().getCache().evict(Product.class, id);
+        });
+        JdbcCoordinator jdbc = session.getJdbcCoordinator();
+        PreparedStatement statement = returned == null ? jdbc.getStatementPreparer().prepareStatement(sql)
+                : jdbc.getStatementPreparer().prepareStatement(sql, returned);
+        try {
+            int index = 1;
+            for (Object value : values) {
+                statement.setObject(index++, value);
+            }
+            statement.setLong(index++, id);
+            if (versions != null) {
+                for (Long version : versions) {
+                    statement.setLong(index++, version);
+                }
+            }
+            if (jdbc.getResultSetReturn().executeUpdate(statement, sql) == 0) {
+                return Optional.empty();
+            }
+            return Optional.of(result.read(statement));
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(e, "Could not write product " + id, sql);
+        } finally {
+            jdbc.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbc.afterStatementExecution();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.product_service.routing;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.StreamSupport;
+
+import javax.sql.DataSource;
+
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.model.ProductEvent;
+import com.example.product_service.service.AfterCommit;
+
+/**
+ * Stand-in for database replication when primary and replicas are separate
+ * local H2 instances ({@code product.datasource.replication=local}). Migrates
+ * each replica's schema, then ships every committed repository write to all
+ * replicas, in commit order, after {@code replication-lag}. Outbox events are
+ * shipped too, after the product rows of their transaction, so the catalogue
+ * version read on a replica never runs ahead of the rows there.
+ */
+@Aspect
+public class LocalReplication implements AutoCloseable {
+    private static final String REPOSITORY = "execution(* com.example.product_service.repository.ProductRepository.";
+    private static final String EVENTS = "execution(* com.example.product_service.repository.ProductEventRepository.";
+    private static final String UPSERT = "merge into product (id, name, price_minor, currency, version) key (id)"
+            + " values (?, ?, ?, ?, ?)";
+    private static final String UPSERT_EVENT = "merge into product_event"
+            + " (id, type, product_id, name, price_minor, currency, version, created_at) key (id)"
+            + " values (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String PRUNE_EVENTS = "delete from product_event where created_at < ?"
+            + " and id < (select max(id) from product_event)";
+
+    private final List<JdbcTemplate> replicas;
+    private final long lagMillis;
+    private final ScheduledExecutorService shipper = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("local-replication").daemon().factory());
+
+    public LocalReplication(List<DataSource> replicas, Duration lag) {
+        replicas.forEach(replica -> Flyway.configure().dataSource(replica).load().migrate());
+        this.replicas = replicas.stream().map(JdbcTemplate::new).toList();
+        this.lagMillis = lag.toMillis();
+    }
+
+    @AfterReturning(pointcut = REPOSITORY + "save(..))", returning = "saved")
+    public void saved(Product saved) {
+        ship(() -> rows(List.of(saved)), this::upsert);
+    }
+
+    @AfterReturning(pointcut = REPOSITORY + "saveAll(..)) || " + REPOSITORY + "repriceAfter(..))",
+            returning = "saved")
+    public void savedAll(List<?> saved) {
+        ship(() -> rows(saved), this::upsert);
+    }
+
+    @AfterReturning(pointcut = REPOSITORY + "update*(..))", returning = "updated")
+    public void updated(Optional<?> updated) {
+        updated.ifPresent(product -> ship(() -> rows(List.of(product)), this::upsert));
+    }
+
+    @AfterReturning(REPOSITORY + "deleteById(..)) && args(id)")
+    public void deleted(Long id) {
+        ship(() -> List.<Object[]>of(new Object[] { id }), this::delete);
+    }
+
+    @AfterReturning(pointcut = REPOSITORY + "deleteExisting(..)) && args(id, ..)", returning = "deleted")
+    public void deletedExisting(Long id, boolean deleted) {
+        if (deleted) {
+            deleted(id);
+        }
+    }
+
+    @AfterReturning(REPOSITORY + "delete(..)) && args(product)")
+    public void deleted(Product product) {
+        ship(() -> List.<Object[]>of(new Object[] { product.getId() }), this::delete);
+    }
+
+    @AfterReturning(REPOSITORY + "deleteAllByIdInBatch(..)) && args(ids)")
+    public void deletedAll(Iterable<Long> ids) {
+        ship(() -> StreamSupport.stream(ids.spliterator(), false).map(id -> new Object[] { id }).toList(),
+                this::delete);
+    }
+
+    @AfterReturning(REPOSITORY + "deleteAll()) || " + REPOSITORY + "deleteAllInBatch())")
+    public void cleared() {
+        ship(() -> List.of(), (replica, rows) -> replica.update("delete from product"));
+    }
+
+    @AfterReturning(pointcut = EVENTS + "saveAll(..))", returning = "recorded")
+    public void recorded(List<?> recorded) {
+        ship(() -> events(recorded), (replica, rows) -> replica.batchUpdate(UPSERT_EVENT, rows));
+    }
+
+    @AfterReturning(EVENTS + "deleteOlderThan(..)) && args(cutoff)")
+    public void pruned(Instant cutoff) {
+        ship(() -> List.of(), (replica, rows) -> replica.update(PRUNE_EVENTS, Timestamp.from(cutoff)));
+    }
+
+    /**
+     * Takes the snapshot when the transaction commits and applies it later on
+     * the single shipping thread, which keeps replicas in commit order.
+     */
+    private void ship(Supplier<List<Object[]>> snapshot, Change change) {
+        AfterCommit.run(() -> {
+            List<Object[]> rows = snapshot.get();
+            shipper.schedule(() -> replicas.forEach(replica -> change.apply(replica, rows)), lagMillis,
+                    TimeUnit.MILLISECONDS);
+        });
+    }
+
+    private void upsert(JdbcTemplate replica, List<Object[]> rows) {
+        replica.batchUpdate(UPSERT, rows);
+    }
+
+    private void delete(JdbcTemplate replica, List<Object[]> rows) {
+        replica.batchUpdate("delete from product where id = ?", rows);
+    }
+
+    private static List<Object[]> rows(List<?> products) {
+        return products.stream()
+                .map(Product.class::cast)
+                .map(p -> new Object[] { p.getId(), p.getName(), p.getPriceMinor(), p.getCurrency(), p.getVersion() })
+                .toList();
+    }
+
+    private static List<Object[]> events(List<?> events) {
+        return events.stream()
+                .map(ProductEvent.class::cast)
+                .map(e -> new Object[] { e.getId(), e.getType().name(), e.getProductId(), e.getName(),
+                        e.getPriceMinor(), e.getCurrency(), e.getVersion(), Timestamp.from(e.getCreatedAt()) })
+                .toList();
+    }
+
+    @Override
+    public void close() {
+        shipper.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface Change {
+        void apply(JdbcTemplate replica, List<Object[]> rows);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.product_service.routing;
+
+/**
+ * Marks the current request as one that must read from the primary, because
+ * it writes or because its client wrote moments ago.
+ */
+public final class PrimaryPin {
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private PrimaryPin() {
+    }
+
+    public static boolean isActive() {
+        return PINNED.get() != null;
+    }
+
+    static void set() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    static void clear() {
+        PINNED.remove();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.product_service.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Keeps the reads of one request on the replica its first read went to.
+ * Replicas apply changes in commit order, each at its own pace, so reads of
+ * one request spread over two replicas could see the catalogue go back: a
+ * listing's version taken from one replica and its rows from another that
+ * lags it would pair a new tag with old rows.
+ */
+final class ReplicaAffinity {
+    private static final ThreadLocal<HikariDataSource[]> CHOSEN = new ThreadLocal<>();
+
+    private ReplicaAffinity() {
+    }
+
+    static void begin() {
+        CHOSEN.set(new HikariDataSource[1]);
+    }
+
+    static void end() {
+        CHOSEN.remove();
+    }
+
+    /** The replica this request reads from, or null before its first read or outside a request. */
+    static HikariDataSource chosen() {
+        HikariDataSource[] chosen = CHOSEN.get();
+        return chosen == null ? null : chosen[0];
+    }
+
+    static void choose(HikariDataSource replica) {
+        HikariDataSource[] chosen = CHOSEN.get();
+        if (chosen != null) {
+            chosen[0] = replica;
+        }
+    }
+}
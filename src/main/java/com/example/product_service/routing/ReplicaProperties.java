@@ -0,0 +1,24 @@
+package com.example.product_service.routing;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Read replicas behind the primary {@code spring.datasource}. Read-only
+ * transactions go to a healthy replica; everything else goes to the primary.
+ */
+@ConfigurationProperties("product.datasource")
+public record ReplicaProperties(
+        List<Replica> replicas,
+        @DefaultValue("2s") Duration healthCheckInterval,
+        @DefaultValue("1s") Duration replicaConnectionTimeout,
+        @DefaultValue("5s") Duration readYourWrites,
+        @DefaultValue("none") String replication,
+        @DefaultValue("0ms") Duration replicationLag) {
+
+    public record Replica(String url, String username, String password) {
+    }
+}
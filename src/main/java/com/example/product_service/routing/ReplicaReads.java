@@ -0,0 +1,22 @@
+package com.example.product_service.routing;
+
+/**
+ * Whether the latest connection taken on this thread went to a replica, for
+ * caches that must not keep what a lagging replica returned: a miss or an old
+ * row cached from there would also be served to clients that read their own
+ * writes from the primary.
+ */
+public final class ReplicaReads {
+    private static final ThreadLocal<Boolean> LATEST = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private ReplicaReads() {
+    }
+
+    public static boolean latestFromReplica() {
+        return LATEST.get();
+    }
+
+    static void record(boolean fromReplica) {
+        LATEST.set(fromReplica);
+    }
+}
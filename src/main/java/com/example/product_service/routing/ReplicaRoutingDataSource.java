@@ -0,0 +1,128 @@
+package com.example.product_service.routing;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Hands out connections for read-only transactions from healthy replicas in
+ * turn, and every other connection from the primary. Reads also go to the
+ * primary when the request is pinned to it or no replica is available, and
+ * the reads of one request stay on one replica ({@link ReplicaAffinity});
+ * where the latest connection went is kept for caches in {@link ReplicaReads}. A
+ * replica that fails to connect is taken out of rotation at once; a
+ * background check puts it back once it validates again.
+ * <p>
+ * The transaction's read-only flag is only set after the transaction has
+ * begun, so this must sit behind a {@code LazyConnectionDataSourceProxy},
+ * which defers the choice to the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService checker;
+    private volatile List<HikariDataSource> healthy;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, Duration checkInterval) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.healthy = this.replicas;
+        this.checker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("replica-health")
+                .daemon()
+                .factory());
+        checker.scheduleWithFixedDelay(this::checkHealth, checkInterval.toMillis(), checkInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !PrimaryPin.isActive()) {
+            List<HikariDataSource> candidates = healthy;
+            HikariDataSource chosen = ReplicaAffinity.chosen();
+            if (chosen != null && candidates.contains(chosen)) {
+                try {
+                    Connection connection = chosen.getConnection();
+                    ReplicaReads.record(true);
+                    return connection;
+                } catch (SQLException e) {
+                    markDown(chosen, e);
+                    candidates = healthy;
+                }
+            }
+            for (int i = 0; i < candidates.size(); i++) {
+                HikariDataSource replica = candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+                try {
+                    Connection connection = replica.getConnection();
+                    ReplicaAffinity.choose(replica);
+                    ReplicaReads.record(true);
+                    return connection;
+                } catch (SQLException e) {
+                    markDown(replica, e);
+                }
+            }
+        }
+        Connection connection = primary.getConnection();
+        ReplicaReads.record(false);
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Routed connections use the configured credentials");
+    }
+
+    public int healthyCount() {
+        return healthy.size();
+    }
+
+    void checkHealth() {
+        List<HikariDataSource> up = new ArrayList<>(replicas.size());
+        for (HikariDataSource replica : replicas) {
+            try (Connection connection = replica.getConnection()) {
+                if (connection.isValid(1)) {
+                    up.add(replica);
+                }
+            } catch (SQLException e) {
+                // stays out of rotation
+            }
+        }
+        if (up.size() != healthy.size()) {
+            log.warn("{} of {} read replicas healthy", up.size(), replicas.size());
+        }
+        healthy = List.copyOf(up);
+    }
+
+    private synchronized void markDown(HikariDataSource replica, SQLException cause) {
+        if (healthy.contains(replica)) {
+            List<HikariDataSource> up = new ArrayList<>(healthy);
+            up.remove(replica);
+            healthy = List.copyOf(up);
+            log.warn("Read replica {} taken out of rotation: {}", replica.getPoolName(), cause.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        checker.shutdownNow();
+        replicas.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.product_service.routing;
+
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+
+/**
+ * Keeps read-only transactions that go to a replica out of Hibernate's
+ * second-level and query caches, which are shared with reads from the
+ * primary: what a lagging replica returned must not be stored there. They do
+ * not read the caches either, since Hibernate stores a query result it
+ * looked up and missed even when storing is off. The cache mode is set when
+ * the transaction begins, as a query decides whether to cache its result
+ * before it takes a connection.
+ */
+public class ReplicaTransactionManager extends JpaTransactionManager {
+    private static final String RETRIEVE_MODE = "jakarta.persistence.cache.retrieveMode";
+    private static final String STORE_MODE = "jakarta.persistence.cache.storeMode";
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        if (definition.isReadOnly() && !PrimaryPin.isActive()) {
+            EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager
+                    .getResource(obtainEntityManagerFactory());
+            holder.getEntityManager().setProperty(RETRIEVE_MODE, CacheRetrieveMode.BYPASS);
+            holder.getEntityManager().setProperty(STORE_MODE, CacheStoreMode.BYPASS);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.product_service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.product_service.model.Product;
+
+/**
+ * In-memory trigram index over lower-cased product names, answering the
+ * substring queries that a B-tree index on {@code name} cannot.
+ * <p>
+ * Products are stored as dense document numbers assigned in insertion order,
+ * so every posting list is sorted and lists intersect by binary search. An
+ * update tombstones the old document and appends a new one; the index
+ * compacts itself once tombstones outnumber live documents. Price, in minor
+ * units, and version are kept alongside so filtering and ordering need no
+ * database access.
+ */
+@Component
+@ConditionalOnProperty(name = "product.search.index.enabled", havingValue = "true", matchIfMissing = true)
+public class NameNgramIndex {
+    static final int GRAM = 3;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    public enum SortField {
+        ID, NAME, PRICE
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongIntMap docById = new LongIntMap();
+    private final Map<Long, IntList> postings = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] versions = new long[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] folded = new String[INITIAL_CAPACITY];
+    private long[] prices = new long[INITIAL_CAPACITY];
+    private int docs;
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces a product. A product older than the indexed one, as can
+     * happen when two after-commit updates race, is ignored.
+     */
+    public void put(Product product) {
+        long version = product.getVersion() == null ? 0 : product.getVersion();
+        String name = product.getName() == null ? "" : product.getName();
+        lock.writeLock().lock();
+        try {
+            int existing = docById.get(product.getId());
+            if (existing != LongIntMap.MISSING) {
+                if (versions[existing] > version) {
+                    return;
+                }
+                deleted.set(existing);
+            }
+            add(product.getId(), name, product.getPriceMinor(), version);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int doc = docById.remove(id);
+            if (doc != LongIntMap.MISSING) {
+                deleted.set(doc);
+                compactIfSparse();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            docById.clear();
+            postings.clear();
+            deleted.clear();
+            docs = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of products whose name contains {@code text}
+     * (case-insensitively), optionally starts with {@code prefix}
+     * (case-sensitively, as the database prefix query does) and whose price in
+     * minor units lies within {@code [minPrice, maxPrice]}, ordered by {@code sort} with id as
+     * tie-breaker. Only the first {@code offset + limit} matches are ever ranked.
+     */
+    public List<Long> search(String text, String prefix, long minPrice, long maxPrice,
+            SortField sort, boolean descending, int offset, int limit) {
+        String query = text.toLowerCase(Locale.ROOT);
+        int wanted = offset + limit;
+        lock.readLock().lock();
+        try {
+            Comparator<Integer> order = comparator(sort);
+            if (descending) {
+                order = order.reversed();
+            }
+            // Max-heap on the requested order: the head is the worst of the best `wanted` so far.
+            PriorityQueue<Integer> top = new PriorityQueue<>(Math.max(1, wanted), order.reversed());
+            int[] candidates = candidates(query);
+            int count = candidates == null ? docs : candidates.length;
+            for (int i = 0; i < count; i++) {
+                int doc = candidates == null ? i : candidates[i];
+                if (deleted.get(doc) || prices[doc] < minPrice || prices[doc] > maxPrice
+                        || (prefix != null && !names[doc].startsWith(prefix))
+                        || !folded[doc].contains(query)) {
+                    continue;
+                }
+                top.offer(doc);
+                if (top.size() > wanted) {
+                    top.poll();
+                }
+            }
+            Integer[] ranked = top.toArray(new Integer[0]);
+            Arrays.sort(ranked, order);
+            List<Long> result = new ArrayList<>(limit);
+            for (int i = offset; i < ranked.length; i++) {
+                result.add(ids[ranked[i]]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documents that contain every trigram of the query, or {@code null} when
+     * the query is shorter than a trigram and every document is a candidate.
+     */
+    private int[] candidates(String query) {
+        if (query.length() < GRAM) {
+            return null;
+        }
+        List<IntList> lists = new ArrayList<>();
+        for (long gram : grams(query)) {
+            IntList list = postings.get(gram);
+            if (list == null) {
+                return new int[0];
+            }
+            if (!lists.contains(list)) {
+                lists.add(list);
+            }
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        IntList smallest = lists.get(0);
+        int[] result = Arrays.copyOf(smallest.data, smallest.size);
+        int size = result.length;
+        for (int l = 1; l < lists.size() && size > 0; l++) {
+            IntList list = lists.get(l);
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < size; i++) {
+                int found = gallop(list, from, result[i]);
+                if (found >= 0) {
+                    result[kept++] = result[i];
+                    from = found + 1;
+                } else {
+                    from = -found - 1;
+                }
+            }
+            size = kept;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Binary search for {@code doc} in {@code list} from index {@code from},
+     * after probing ahead in doubling steps. Candidates ascend, so each lookup
+     * only searches the short stretch past the previous match.
+     */
+    private static int gallop(IntList list, int from, int doc) {
+        int step = 1;
+        int to = from;
+        while (to < list.size && list.data[to] < doc) {
+            from = to + 1;
+            to += step;
+            step <<= 1;
+        }
+        return Arrays.binarySearch(list.data, from, Math.min(to + 1, list.size), doc);
+    }
+
+    private Comparator<Integer> comparator(SortField sort) {
+        Comparator<Integer> byId = Comparator.comparingLong(doc -> ids[doc]);
+        return switch (sort) {
+            case ID -> byId;
+            case NAME -> Comparator.<Integer, String>comparing(doc -> names[doc]).thenComparing(byId);
+            case PRICE -> Comparator.<Integer>comparingLong(doc -> prices[doc]).thenComparing(byId);
+        };
+    }
+
+    private void add(long id, String name, long price, long version) {
+        if (docs == ids.length) {
+            int capacity = docs * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            names = Arrays.copyOf(names, capacity);
+            folded = Arrays.copyOf(folded, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+        }
+        int doc = docs++;
+        ids[doc] = id;
+        versions[doc] = version;
+        names[doc] = name;
+        folded[doc] = name.toLowerCase(Locale.ROOT);
+        prices[doc] = price;
+        docById.put(id, doc);
+        for (long gram : grams(folded[doc])) {
+            postings.computeIfAbsent(gram, g -> new IntList()).addIfAbsent(doc);
+        }
+    }
+
+    private void compactIfSparse() {
+        int tombstones = docs - docById.size();
+        if (docs < INITIAL_CAPACITY || tombstones <= docById.size()) {
+            return;
+        }
+        long[] oldIds = ids;
+        long[] oldVersions = versions;
+        String[] oldNames = names;
+        long[] oldPrices = prices;
+        int oldDocs = docs;
+        BitSet oldDeleted = (BitSet) deleted.clone();
+        int capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, docById.size())) * 2);
+        ids = new long[capacity];
+        versions = new long[capacity];
+        names = new String[capacity];
+        folded = new String[capacity];
+        prices = new long[capacity];
+        docById.clear();
+        postings.clear();
+        deleted.clear();
+        docs = 0;
+        for (int doc = 0; doc < oldDocs; doc++) {
+            if (!oldDeleted.get(doc)) {
+                add(oldIds[doc], oldNames[doc], oldPrices[doc], oldVersions[doc]);
+            }
+        }
+    }
+
+    private static long[] grams(String text) {
+        int count = Math.max(0, text.length() - GRAM + 1);
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = (long) text.charAt(i) << 32 | (long) text.charAt(i + 1) << 16 | text.charAt(i + 2);
+        }
+        return grams;
+    }
+
+    /** Growable, ascending list of document numbers. */
+    private static final class IntList {
+        int[] data = new int[4];
+        int size;
+
+        void addIfAbsent(int doc) {
+            if (size > 0 && data[size - 1] == doc) {
+                return;
+            }
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = doc;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.product_service.search;
+
+import com.example.product_service.model.Prices;
+import com.example.product_service.model.Product;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Filters of a catalogue search. {@code text} matches anywhere in the name,
+ * ignoring case; {@code prefix} matches the start of the name exactly. Absent
+ * filters are {@code null}.
+ */
+public record ProductSearch(String text, String prefix, BigDecimal minPrice, BigDecimal maxPrice) {
+
+    /** The lower price bound in minor units. */
+    long lowerPrice() {
+        return minPrice == null ? Long.MIN_VALUE : Prices.ceilingMinor(minPrice);
+    }
+
+    /** The upper price bound in minor units. */
+    long upperPrice() {
+        return maxPrice == null ? Long.MAX_VALUE : Prices.floorMinor(maxPrice);
+    }
+
+    boolean hasText() {
+        return text != null && !text.isBlank();
+    }
+
+    boolean matches(Product product) {
+        String name = product.getName() == null ? "" : product.getName();
+        return product.getPriceMinor() >= lowerPrice() && product.getPriceMinor() <= upperPrice()
+                && (prefix == null || name.startsWith(prefix))
+                && (!hasText() || name.toLowerCase(Locale.ROOT).contains(text.toLowerCase(Locale.ROOT)));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.product_service.search;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.search.NameNgramIndex.SortField;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Routes catalogue searches. Prefix and price filters go to the database,
+ * where the name and price indexes serve them. Substring queries are answered
+ * by the {@link NameNgramIndex}, and only the requested page of ids is then
+ * loaded. The loaded rows are re-checked against the filters, so an index
+ * entry that is briefly stale can never surface a non-matching product.
+ * When the index is disabled, substring queries scan the table instead.
+ * Sorting by {@code price} sorts the database queries by the stored minor
+ * units.
+ */
+@Service
+public class ProductSearchService {
+    public static final Set<String> SORTABLE = Set.of("id", "name", "price");
+
+    private final ProductRepository repo;
+    private final NameNgramIndex index;
+
+    public ProductSearchService(ProductRepository repo, Optional<NameNgramIndex> index) {
+        this.repo = repo;
+        this.index = index.orElse(null);
+    }
+
+    public List<Product> search(ProductSearch criteria, Pageable pageable) {
+        if (!criteria.hasText()) {
+            Pageable stored = stored(pageable);
+            return criteria.prefix() == null
+                    ? repo.findByPriceMinorBetween(criteria.lowerPrice(), criteria.upperPrice(), stored)
+                    : repo.findByNameStartingWithAndPriceMinorBetween(criteria.prefix(), criteria.lowerPrice(),
+                            criteria.upperPrice(), stored);
+        }
+        if (index == null) {
+            Pageable stored = stored(pageable);
+            return criteria.prefix() == null
+                    ? repo.findByNameContainingIgnoreCaseAndPriceMinorBetween(criteria.text(), criteria.lowerPrice(),
+                            criteria.upperPrice(), stored)
+                    : repo.findByNameStartingWithAndNameContainingIgnoreCaseAndPriceMinorBetween(criteria.prefix(),
+                            criteria.text(), criteria.lowerPrice(), criteria.upperPrice(), stored);
+        }
+        // The index orders by the first sort property only, with id breaking ties.
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc("id"));
+        List<Long> ids = index.search(criteria.text(), criteria.prefix(), criteria.lowerPrice(),
+                criteria.upperPrice(), SortField.valueOf(order.getProperty().toUpperCase(Locale.ROOT)),
+                order.isDescending(), (int) pageable.getOffset(), pageable.getPageSize());
+        Map<Long, Product> rows = repo.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .filter(criteria::matches)
+                .toList();
+    }
+
+    /** The page with the public {@code price} sort property renamed to the stored attribute. */
+    private static Pageable stored(Pageable pageable) {
+        Sort sort = Sort.by(pageable.getSort().stream()
+                .map(order -> order.getProperty().equals("price") ? order.withProperty("priceMinor") : order)
+                .toList());
+        return pageable.isPaged() ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort)
+                : Pageable.unpaged(sort);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.product_service.search;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.service.AfterCommit;
+
+/**
+ * Keeps the {@link NameNgramIndex} in step with the table. It loads every
+ * product before the web server starts accepting requests, then applies each
+ * committed write made through {@link ProductRepository}.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "product.search.index.enabled", havingValue = "true", matchIfMissing = true)
+public class SearchIndexUpdater implements SmartInitializingSingleton {
+    private static final String REPOSITORY = "execution(* com.example.product_service.repository.ProductRepository.";
+
+    private final NameNgramIndex index;
+    private final ProductRepository repo;
+
+    public SearchIndexUpdater(NameNgramIndex index, ProductRepository repo) {
+        this.index = index;
+        this.repo = repo;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        repo.forEachAfter(0, index::put);
+    }
+
+    @AfterReturning(pointcut = REPOSITORY + "save(..))", returning = "saved")
+    public void saved(Product saved) {
+        AfterCommit.run(() -> index.put(saved));
+    }
+
+    @AfterReturning(pointcut = REPOSITORY + "saveAll(..)) || " + REPOSITORY + "repriceAfter(..))",
+            returning = "saved")
+    public void savedAll(List<?> saved) {
+        // A bounded binding such as List<? extends Product> never matches the generic List<S> return type.
+        AfterCommit.run(() -> saved.forEach(product -> index.put((Product) product)));
+    }
+
+    @AfterReturning(pointcut = REPOSITORY + "update*(..))", returning = "updated")
+    public void updated(Optional<?> updated) {
+        updated.ifPresent(product -> AfterCommit.run(() -> index.put((Product) product)));
+    }
+
+    @AfterReturning(REPOSITORY + "deleteById(..)) && args(id)")
+    public void deleted(Long id) {
+        AfterCommit.run(() -> index.remove(id));
+    }
+
+    @AfterReturning(pointcut = REPOSITORY + "deleteExisting(..)) && args(id, ..)", returning = "deleted")
+    public void deletedExisting(Long id, boolean deleted) {
+        if (deleted) {
+            AfterCommit.run(() -> index.remove(id));
+        }
+    }
+
+    @AfterReturning(REPOSITORY + "delete(..)) && args(product)")
+    public void deleted(Product product) {
+        AfterCommit.run(() -> index.remove(product.getId()));
+    }
+
+    @AfterReturning(REPOSITORY + "deleteAllByIdInBatch(..)) && args(ids)")
+    public void deletedAll(Iterable<Long> ids) {
+        AfterCommit.run(() -> ids.forEach(index::remove));
+    }
+
+    @AfterReturning(REPOSITORY + "deleteAll()) || " + REPOSITORY + "deleteAllInBatch())")
+    public void cleared() {
+        AfterCommit.run(index::clear);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.product_service.service;
+
+/**
+ * Outcome of a single element of a bulk request, reported by its position in
+ * the submitted array.
+ */
+public record BatchItemResult(int index, Long id, Status status, String error) {
+
+    public enum Status {
+        CREATED, UPDATED, DELETED, NOT_FOUND, CONFLICT, INVALID, FAILED
+    }
+
+    static BatchItemResult ok(int index, Long id, Status status) {
+        return new BatchItemResult(index, id, status, null);
+    }
+
+    static BatchItemResult error(int index, Long id, Status status, String error) {
+        return new BatchItemResult(index, id, status, error);
+    }
+}
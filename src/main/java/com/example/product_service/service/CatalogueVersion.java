@@ -0,0 +1,73 @@
+package com.example.product_service.service;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.product_service.model.ProductEvent;
+import com.example.product_service.repository.ProductEventRepository;
+
+/**
+ * Version of the whole catalogue, taken from the database rather than kept
+ * in memory: the offset of the latest event in the {@code product_event}
+ * outbox, which every write appends to in its own transaction. Every instance
+ * therefore derives the same tag from the same data, and a conditional GET is
+ * answered with one index lookup instead of a read of the product table. The
+ * event's time is part of the tag, so an in-memory database that restarts
+ * from offset zero does not reissue tags of its previous life.
+ * <p>
+ * Without the outbox ({@code product.changes.enabled=false}) there is no
+ * version, and listings go out without validators.
+ */
+@Component
+public class CatalogueVersion {
+
+    /**
+     * The catalogue as of one outbox offset, zero before the first write.
+     * The tag is weak: listing pages are gzip-compressed when large, and a
+     * strong tag would have to differ per encoding (Tomcat does not compress
+     * a response with a strong tag). {@code If-None-Match} compares weakly
+     * anyway.
+     */
+    public record Version(long offset, Instant changedAt) {
+        static final Version INITIAL = new Version(0, Instant.EPOCH);
+
+        /** The version without the quotes and weak prefix of {@link #etag()}. */
+        public String value() {
+            return offset == 0 ? "0" : offset + "-" + Long.toString(changedAt.toEpochMilli(), 36);
+        }
+
+        public String etag() {
+            return "W/\"" + value() + "\"";
+        }
+
+        /** Milliseconds since the epoch, or 0 before the first write. */
+        public long lastModified() {
+            return changedAt.toEpochMilli();
+        }
+    }
+
+    private final ProductEventRepository events;
+    private final boolean recorded;
+
+    public CatalogueVersion(ProductEventRepository events,
+            @Value("${product.changes.enabled:true}") boolean recorded) {
+        this.events = events;
+        this.recorded = recorded;
+    }
+
+    public Optional<Version> current() {
+        if (!recorded) {
+            return Optional.empty();
+        }
+        return Optional.of(events.findFirstByOrderByIdDesc()
+                .map(CatalogueVersion::of)
+                .orElse(Version.INITIAL));
+    }
+
+    private static Version of(ProductEvent latest) {
+        return new Version(latest.getId(), latest.getCreatedAt());
+    }
+}
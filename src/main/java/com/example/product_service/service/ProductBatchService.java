@@ -0,0 +1,176 @@
+package com.example.product_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.service.BatchItemResult.Status;
+import com.example.product_service.sharding.Sharding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Writes bulk requests in fixed-size chunks, one transaction per chunk, so that
+ * Hibernate can group the statements of a chunk into JDBC batches. A chunk that
+ * fails is rolled back and reported as {@link Status#FAILED} without affecting
+ * the chunks around it. When the catalogue is sharded, a chunk only holds
+ * products of one shard.
+ */
+@Service
+public class ProductBatchService {
+    private final ProductRepository repo;
+    private final TransactionTemplate tx;
+    private final int chunkSize;
+    private final Optional<Sharding> sharding;
+
+    public ProductBatchService(ProductRepository repo, PlatformTransactionManager txManager,
+            @Value("${product.batch.chunk-size:500}") int chunkSize, Optional<Sharding> sharding) {
+        this.repo = repo;
+        this.tx = new TransactionTemplate(txManager);
+        this.chunkSize = chunkSize;
+        this.sharding = sharding;
+    }
+
+    public List<BatchItemResult> createAll(List<Product> products) {
+        BatchItemResult[] results = new BatchItemResult[products.size()];
+        for (Product product : products) {
+            // Sharded ids are assigned up front, since they decide which chunk a product goes in.
+            product.setId(null);
+            product.setAssignedId(sharding.map(Sharding::nextId).orElse(null));
+            product.setVersion(null);
+        }
+        forEachChunk(products.size(), i -> products.get(i).getAssignedId(), chunk -> {
+            List<Product> batch = new ArrayList<>(chunk.length);
+            for (int i : chunk) {
+                batch.add(products.get(i));
+            }
+            tx.executeWithoutResult(status -> repo.saveAll(batch));
+            for (int i : chunk) {
+                results[i] = BatchItemResult.ok(i, products.get(i).getId(), Status.CREATED);
+            }
+        }, (chunk, e) -> fail(results, chunk, i -> null, e));
+        return Arrays.asList(results);
+    }
+
+    public List<BatchItemResult> updateAll(List<Product> products) {
+        BatchItemResult[] results = new BatchItemResult[products.size()];
+        forEachChunk(products.size(), i -> products.get(i).getId(), chunk -> tx.executeWithoutResult(status -> {
+            List<Long> ids = new ArrayList<>(chunk.length);
+            for (int i : chunk) {
+                Long id = products.get(i).getId();
+                if (id != null) {
+                    ids.add(id);
+                }
+            }
+            // One SELECT per chunk; the dirty entities are flushed as batched UPDATEs on commit.
+            Map<Long, Product> managed = repo.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+            List<Product> changed = new ArrayList<>(managed.size());
+            for (int i : chunk) {
+                Product update = products.get(i);
+                Long id = update.getId();
+                Product target = id == null ? null : managed.get(id);
+                if (id == null) {
+                    results[i] = BatchItemResult.error(i, null, Status.INVALID, "id is required");
+                } else if (target == null) {
+                    results[i] = BatchItemResult.ok(i, id, Status.NOT_FOUND);
+                } else if (update.getVersion() != null && !update.getVersion().equals(target.getVersion())) {
+                    results[i] = BatchItemResult.error(i, id, Status.CONFLICT,
+                            "expected version " + update.getVersion() + " but was " + target.getVersion());
+                } else {
+                    target.setName(update.getName());
+                    target.setPriceMinor(update.getPriceMinor());
+                    changed.add(target);
+                    results[i] = BatchItemResult.ok(i, id, Status.UPDATED);
+                }
+            }
+            // The entities are already managed, so this only routes the chunk through the
+            // repository's cache eviction; no extra statements are issued.
+            repo.saveAll(changed);
+        }), (chunk, e) -> fail(results, chunk, i -> products.get(i).getId(), e));
+        return Arrays.asList(results);
+    }
+
+    public List<BatchItemResult> deleteAll(List<Long> ids) {
+        BatchItemResult[] results = new BatchItemResult[ids.size()];
+        forEachChunk(ids.size(), ids::get, chunk -> tx.executeWithoutResult(status -> {
+            List<Long> batch = new ArrayList<>(chunk.length);
+            for (int i : chunk) {
+                batch.add(ids.get(i));
+            }
+            Set<Long> existing = new HashSet<>(repo.findExistingIds(batch));
+            if (!existing.isEmpty()) {
+                repo.deleteAllByIdInBatch(existing);
+            }
+            for (int i : chunk) {
+                Long id = ids.get(i);
+                if (id == null) {
+                    results[i] = BatchItemResult.error(i, null, Status.INVALID, "id is required");
+                } else {
+                    // remove() so a duplicated id is reported as deleted only once
+                    results[i] = BatchItemResult.ok(i, id, existing.remove(id) ? Status.DELETED : Status.NOT_FOUND);
+                }
+            }
+        }), (chunk, e) -> fail(results, chunk, ids::get, e));
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Splits the items into chunks of at most {@code chunkSize} indexes. When
+     * the catalogue is sharded, items are grouped by the shard of their id
+     * first (those without one with the home shard), so that no chunk's
+     * transaction spans shards; otherwise chunks are consecutive.
+     */
+    private void forEachChunk(int size, IntFunction<Long> id, ChunkAction action, ChunkFailure failure) {
+        Map<Integer, List<Integer>> groups = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            Long itemId = id.apply(i);
+            int shard = sharding.isPresent() && itemId != null ? sharding.get().shardOf(itemId) : 0;
+            groups.computeIfAbsent(shard, s -> new ArrayList<>()).add(i);
+        }
+        for (List<Integer> group : groups.values()) {
+            for (int from = 0; from < group.size(); from += chunkSize) {
+                int[] chunk = group.subList(from, Math.min(from + chunkSize, group.size())).stream()
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+                try {
+                    action.run(chunk);
+                } catch (RuntimeException e) {
+                    failure.handle(chunk, e);
+                }
+            }
+        }
+    }
+
+    private static void fail(BatchItemResult[] results, int[] chunk, Function<Integer, Long> id,
+            RuntimeException e) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        for (int i : chunk) {
+            results[i] = BatchItemResult.error(i, id.apply(i), Status.FAILED, message);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkAction {
+        void run(int[] chunk);
+    }
+
+    @FunctionalInterface
+    private interface ChunkFailure {
+        void handle(int[] chunk, RuntimeException e);
+    }
+}
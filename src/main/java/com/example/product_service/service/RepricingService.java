@@ -0,0 +1,62 @@
+package com.example.product_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.model.Repricing;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.sharding.Sharding;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Applies a {@link Repricing} to the catalogue as a walk over the product
+ * ids, one set-based UPDATE of up to {@code chunkSize} products per
+ * transaction, rather than loading and saving each product. Every chunk is a
+ * repository write, so the outbox, the caches and the in-memory indexes
+ * follow it like any other. When the catalogue is sharded, the shards are
+ * walked at the same time.
+ * <p>
+ * The repricing as a whole is not atomic: chunks committed before a failure
+ * stay applied, and readers can see it half done.
+ */
+@Service
+public class RepricingService {
+    private final ProductRepository repo;
+    private final int chunkSize;
+    private final Optional<Sharding> sharding;
+
+    public RepricingService(ProductRepository repo, @Value("${product.reprice.chunk-size:5000}") int chunkSize,
+            Optional<Sharding> sharding) {
+        this.repo = repo;
+        this.chunkSize = chunkSize;
+        this.sharding = sharding;
+    }
+
+    public Result reprice(Repricing repricing) {
+        long repriced = sharding.map(shards -> shards.onEach(shard -> walk(repricing)).stream()
+                .mapToLong(Long::longValue)
+                .sum())
+                .orElseGet(() -> walk(repricing));
+        return new Result(repriced);
+    }
+
+    private long walk(Repricing repricing) {
+        long repriced = 0;
+        long after = 0;
+        while (true) {
+            List<Product> chunk = repo.repriceAfter(after, chunkSize, repricing);
+            repriced += chunk.size();
+            if (chunk.size() < chunkSize) {
+                return repriced;
+            }
+            after = chunk.stream().mapToLong(Product::getId).max().getAsLong();
+        }
+    }
+
+    /** How many products were repriced. */
+    public record Result(long repriced) {
+    }
+}
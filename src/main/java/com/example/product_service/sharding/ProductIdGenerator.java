@@ -0,0 +1,42 @@
+package com.example.product_service.sharding;
+
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import com.example.product_service.model.Product;
+
+/**
+ * The product sequence, unless sharding has put {@link SnowflakeIds} in the
+ * Hibernate settings under {@link #IDS}. A per-database sequence would hand
+ * out the same ids on every shard, so sharded ids come from the application.
+ * They are chosen before the insert, when the routing needs to know the
+ * shard, and kept in {@link Product#getAssignedId()} until this hands them
+ * over: Hibernate refuses to insert a new product whose id is already set.
+ */
+public class ProductIdGenerator extends SequenceStyleGenerator {
+    public static final String IDS = "product.sharding.ids";
+
+    private SnowflakeIds ids;
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry)
+            throws MappingException {
+        super.configure(type, parameters, serviceRegistry);
+        ids = (SnowflakeIds) serviceRegistry.requireService(ConfigurationService.class).getSettings().get(IDS);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        if (ids == null) {
+            return super.generate(session, object);
+        }
+        Long assigned = ((Product) object).getAssignedId();
+        return assigned != null ? assigned : ids.next();
+    }
+}
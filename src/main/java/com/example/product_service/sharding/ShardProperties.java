@@ -0,0 +1,24 @@
+package com.example.product_service.sharding;
+
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Databases the catalogue is partitioned across. A product lives on the shard
+ * its id maps to under {@code strategy}: {@code hash} spreads ids evenly,
+ * {@code range} assigns consecutive id ranges split at {@code range-bounds}
+ * (one fewer than the shards, ascending). {@code node-id} must differ between
+ * instances writing to the same shards, since it keeps their ids apart.
+ */
+@ConfigurationProperties("product.sharding")
+public record ShardProperties(
+        List<Shard> shards,
+        @DefaultValue("hash") String strategy,
+        List<Long> rangeBounds,
+        @DefaultValue("0") int nodeId) {
+
+    public record Shard(String url, String username, String password) {
+    }
+}
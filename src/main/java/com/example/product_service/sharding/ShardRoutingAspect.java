@@ -0,0 +1,329 @@
+package com.example.product_service.sharding;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+
+/**
+ * Sends each product repository call to the shards that hold its rows.
+ * <ul>
+ * <li>Calls naming one product by id go to that product's shard; a new
+ * product gets its id here, which decides its shard.</li>
+ * <li>Calls naming several products are split by shard. Inside a transaction
+ * they must all be on one shard, since a transaction cannot span shards.</li>
+ * <li>Repricing walks each shard on its own, so its chunks must come bound
+ * to a shard.</li>
+ * <li>The listing and searches run on every shard in parallel, and the
+ * partial results are merged in the requested order. A search page at offset
+ * {@code o} reads the first {@code o + size} matches of every shard.</li>
+ * </ul>
+ * Work already bound to a shard, such as the per-shard calls made here, passes
+ * straight through. Runs outside the outbox, so the outbox transaction gets
+ * its connection from the routed shard. Only reads fan out to other threads:
+ * the write aspects bind their arguments through the calling thread.
+ * Repository methods not handled here, such as {@code findAll(Sort)}, only
+ * see the home shard.
+ */
+@Aspect
+@Order(-1)
+public class ShardRoutingAspect {
+    private static final String REPOSITORY = "execution(* com.example.product_service.repository.ProductRepository.";
+    static final int PAGE_SIZE = 500;
+    // Rows read back always have ids; null-safe all the same, so a merge never throws.
+    private static final Comparator<Product> BY_ID = Comparator.comparing(Product::getId,
+            Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final Sharding sharding;
+
+    public ShardRoutingAspect(Sharding sharding) {
+        this.sharding = sharding;
+    }
+
+    @Around("(" + REPOSITORY + "findById(..)) || " + REPOSITORY + "readById(..)) || "
+            + REPOSITORY + "existsById(..)) || " + REPOSITORY + "update*(..)) || "
+            + REPOSITORY + "deleteById(..)) || " + REPOSITORY + "deleteExisting(..))) && args(id, ..)")
+    public Object byId(ProceedingJoinPoint call, Long id) {
+        return on(sharding.shardOf(id), call, call.getArgs());
+    }
+
+    /** A new product always gets a fresh id, whatever the client sent, as it would from the sequence. */
+    @Around(REPOSITORY + "save(..)) && args(product)")
+    public Object save(ProceedingJoinPoint call, Product product) {
+        if (product.getVersion() == null) {
+            product.setId(null);
+            product.setAssignedId(sharding.nextId());
+        }
+        return on(sharding.shardOf(idOf(product)), call, call.getArgs());
+    }
+
+    @Around(REPOSITORY + "delete(..)) && args(product)")
+    public Object delete(ProceedingJoinPoint call, Product product) {
+        return on(sharding.shardOf(product.getId()), call, call.getArgs());
+    }
+
+    /** New products keep an id already assigned, as the batch service does to group them by shard. */
+    @Around(REPOSITORY + "saveAll(..)) && args(products)")
+    public Object saveAll(ProceedingJoinPoint call, Iterable<Product> products) {
+        List<Product> all = new ArrayList<>();
+        for (Product product : products) {
+            if (product.getVersion() == null) {
+                product.setId(null);
+                if (product.getAssignedId() == null) {
+                    product.setAssignedId(sharding.nextId());
+                }
+            }
+            all.add(product);
+        }
+        Map<Integer, List<Product>> groups = byShard(all, ShardRoutingAspect::idOf);
+        List<Object> saved = new ArrayList<>(all.size());
+        for (Map.Entry<Integer, List<Product>> group : writable(groups).entrySet()) {
+            saved.addAll((List<?>) on(group.getKey(), call, new Object[] { group.getValue() }));
+        }
+        return saved;
+    }
+
+    @Around(REPOSITORY + "deleteAllByIdInBatch(..)) && args(ids)")
+    public Object deleteAllByIdInBatch(ProceedingJoinPoint call, Iterable<Long> ids) {
+        for (Map.Entry<Integer, List<Long>> group : writable(byShard(ids, Long::longValue)).entrySet()) {
+            on(group.getKey(), call, new Object[] { group.getValue() });
+        }
+        return null;
+    }
+
+    @Around(REPOSITORY + "deleteAll()) || " + REPOSITORY + "deleteAllInBatch())")
+    public Object clear(ProceedingJoinPoint call) {
+        Integer bound = Sharding.current();
+        if (bound != null) {
+            return proceed(call, call.getArgs());
+        }
+        requireNoTransaction();
+        for (int shard = 0; shard < sharding.count(); shard++) {
+            on(shard, call, call.getArgs());
+        }
+        return null;
+    }
+
+    /** A repricing chunk walks one shard's ids, so the caller must have bound a shard. */
+    @Around(REPOSITORY + "repriceAfter(..))")
+    public Object repriceAfter(ProceedingJoinPoint call) {
+        Integer bound = Sharding.current();
+        if (bound == null) {
+            throw new IllegalStateException("Repricing runs shard by shard; bind each walk to its shard");
+        }
+        return on(bound, call, call.getArgs());
+    }
+
+    @Around("(" + REPOSITORY + "findAllById(..)) || " + REPOSITORY + "findExistingIds(..))) && args(ids)")
+    public Object byIds(ProceedingJoinPoint call, Iterable<Long> ids) {
+        Map<Integer, List<Long>> groups = byShard(ids, Long::longValue);
+        if (groups.size() <= 1 || Sharding.current() != null
+                || TransactionSynchronizationManager.isActualTransactionActive()) {
+            List<Object> found = new ArrayList<>();
+            for (Map.Entry<Integer, List<Long>> group : writable(groups).entrySet()) {
+                found.addAll((List<?>) on(group.getKey(), call, new Object[] { group.getValue() }));
+            }
+            return found;
+        }
+        return sharding.onEach(shard -> {
+            List<Long> group = groups.get(shard);
+            return group == null ? List.of() : (List<?>) proceed(call, new Object[] { group });
+        }).stream().flatMap(List::stream).toList();
+    }
+
+    @Around(REPOSITORY + "count())")
+    public Object count(ProceedingJoinPoint call) {
+        if (Sharding.current() != null) {
+            return proceed(call, call.getArgs());
+        }
+        return sharding.onEach(shard -> (Long) proceed(call, call.getArgs())).stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    @Around(REPOSITORY + "findAll())")
+    public Object findAll(ProceedingJoinPoint call) {
+        if (Sharding.current() != null) {
+            return proceed(call, call.getArgs());
+        }
+        return sharding.onEach(shard -> (List<?>) proceed(call, call.getArgs())).stream()
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    /**
+     * Reads each shard's page through {@code pageAfter} rather than the
+     * listing itself, whose cache entries hold whole-catalogue pages.
+     */
+    @Around(REPOSITORY + "findByIdGreaterThanOrderByIdAsc(..)) && args(after, limit)")
+    public Object listing(ProceedingJoinPoint call, long after, Limit limit) {
+        ProductRepository repo = (ProductRepository) call.getThis();
+        int size = limit.isLimited() ? limit.max() : Integer.MAX_VALUE;
+        Integer bound = Sharding.current();
+        List<List<Product>> pages = bound != null ? List.of(repo.pageAfter(after, size))
+                : sharding.onEach(shard -> repo.pageAfter(after, size));
+        return pages.stream()
+                .flatMap(List::stream)
+                .sorted(BY_ID)
+                .limit(size)
+                .toList();
+    }
+
+    @Around(REPOSITORY + "findBy*(..)) && args(.., pageable)")
+    public Object search(ProceedingJoinPoint call, Pageable pageable) {
+        if (Sharding.current() != null) {
+            return proceed(call, call.getArgs());
+        }
+        Object[] args = call.getArgs().clone();
+        if (pageable.isPaged()) {
+            // Any shard may hold the whole requested page.
+            args[args.length - 1] = PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize(),
+                    pageable.getSort());
+        }
+        List<Product> merged = sharding.onEach(shard -> (List<?>) proceed(call, args)).stream()
+                .flatMap(List::stream)
+                .map(Product.class::cast)
+                .sorted(order(pageable.getSort()))
+                .toList();
+        if (pageable.isUnpaged()) {
+            return merged;
+        }
+        return merged.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    /**
+     * Streams every shard's rows in id order, merging one page per shard at a
+     * time, so memory stays at a page per shard however large the catalogue.
+     */
+    @Around(REPOSITORY + "forEachAfter(..)) && args(after, action)")
+    public Object forEachAfter(ProceedingJoinPoint call, long after, Consumer<Product> action) {
+        if (Sharding.current() != null) {
+            return proceed(call, call.getArgs());
+        }
+        ProductRepository repo = (ProductRepository) call.getThis();
+        int shards = sharding.count();
+        long[] cursors = new long[shards];
+        Arrays.fill(cursors, after);
+        boolean[] exhausted = new boolean[shards];
+        List<ArrayDeque<Product>> pages = new ArrayList<>(shards);
+        for (List<Product> page : sharding.onEach(shard -> repo.pageAfter(after, PAGE_SIZE))) {
+            pages.add(new ArrayDeque<>(page));
+        }
+        for (int shard = 0; shard < shards; shard++) {
+            exhausted[shard] = pages.get(shard).size() < PAGE_SIZE;
+            if (!pages.get(shard).isEmpty()) {
+                cursors[shard] = pages.get(shard).getLast().getId();
+            }
+        }
+        while (true) {
+            int next = -1;
+            for (int shard = 0; shard < shards; shard++) {
+                ArrayDeque<Product> page = pages.get(shard);
+                if (page.isEmpty() && !exhausted[shard]) {
+                    long cursor = cursors[shard];
+                    List<Product> fetched = sharding.on(shard, () -> repo.pageAfter(cursor, PAGE_SIZE));
+                    page.addAll(fetched);
+                    exhausted[shard] = fetched.size() < PAGE_SIZE;
+                    if (!fetched.isEmpty()) {
+                        cursors[shard] = fetched.get(fetched.size() - 1).getId();
+                    }
+                }
+                if (!page.isEmpty() && (next < 0 || page.peek().getId() < pages.get(next).peek().getId())) {
+                    next = shard;
+                }
+            }
+            if (next < 0) {
+                return null;
+            }
+            action.accept(pages.get(next).poll());
+        }
+    }
+
+    private static Comparator<Product> order(Sort sort) {
+        Comparator<Product> order = null;
+        for (Sort.Order property : sort) {
+            Comparator<Product> next = switch (property.getProperty()) {
+                case "id" -> BY_ID;
+                case "name" -> Comparator.comparing(Product::getName, Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "priceMinor" -> Comparator.comparingLong(Product::getPriceMinor);
+                default -> throw new IllegalArgumentException("Cannot merge shards sorted by " + property.getProperty());
+            };
+            next = property.isDescending() ? next.reversed() : next;
+            order = order == null ? next : order.thenComparing(next);
+        }
+        return order == null ? BY_ID : order.thenComparing(BY_ID);
+    }
+
+    /** The id a product has, or will be inserted with. */
+    private static long idOf(Product product) {
+        return product.getId() != null ? product.getId() : product.getAssignedId();
+    }
+
+    private <T> Map<Integer, List<T>> byShard(Iterable<T> items, ToLongFunction<T> id) {
+        Map<Integer, List<T>> groups = new TreeMap<>();
+        for (T item : items) {
+            groups.computeIfAbsent(sharding.shardOf(id.applyAsLong(item)), shard -> new ArrayList<>()).add(item);
+        }
+        return groups;
+    }
+
+    /** The groups, provided a surrounding transaction or binding does not pin the work to one shard. */
+    private static <T> Map<Integer, List<T>> writable(Map<Integer, List<T>> groups) {
+        Integer bound = Sharding.current();
+        if (bound != null && !groups.isEmpty() && !groups.keySet().equals(Set.of(bound))) {
+            throw new IllegalStateException("Products on shards " + groups.keySet()
+                    + " cannot be used in work bound to shard " + bound);
+        }
+        if (groups.size() > 1) {
+            requireNoTransaction();
+        }
+        return groups;
+    }
+
+    private static void requireNoTransaction() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("A transaction cannot span shards; split the work by shard");
+        }
+    }
+
+    private Object on(int shard, ProceedingJoinPoint call, Object[] args) {
+        Integer bound = Sharding.current();
+        if (bound != null && bound != shard) {
+            throw new IllegalStateException("Shard " + shard + " cannot be used in work bound to shard " + bound);
+        }
+        Sharding.pinTransaction(shard);
+        return sharding.on(shard, () -> proceed(call, args));
+    }
+
+    private static Object proceed(ProceedingJoinPoint call, Object[] args) {
+        try {
+            return call.proceed(args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.product_service.sharding;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Hands out connections from the shard bound to the current thread, else the
+ * one the current transaction is pinned to, or from the home shard (0). Tables that are not partitioned, such as
+ * the idempotency keys, live on the home shard.
+ * <p>
+ * Repository calls bind their shard only once the transaction has begun, so
+ * this must sit behind a {@code LazyConnectionDataSourceProxy}, which defers
+ * the choice to the first statement.
+ */
+public class ShardRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    static final int HOME = 0;
+
+    private final List<HikariDataSource> shards;
+
+    public ShardRoutingDataSource(List<HikariDataSource> shards) {
+        this.shards = List.copyOf(shards);
+    }
+
+    public int count() {
+        return shards.size();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Integer shard = Sharding.current();
+        if (shard == null) {
+            shard = Sharding.pinned();
+        }
+        return shards.get(shard != null ? shard : HOME).getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Routed connections use the configured credentials");
+    }
+
+    @Override
+    public void close() {
+        shards.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.product_service.sharding;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps a product id to the shard that stores it. Ids alone decide, so any
+ * instance can route a request without a lookup.
+ */
+@FunctionalInterface
+public interface ShardStrategy {
+
+    int shardOf(long id);
+
+    /**
+     * Spreads ids evenly. The id is mixed first: its low bits are a
+     * per-millisecond sequence and would otherwise favour low shards.
+     */
+    static ShardStrategy hash(int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        return id -> {
+            long mixed = (id ^ (id >>> 33)) * 0xff51afd7ed558ccdL;
+            mixed = (mixed ^ (mixed >>> 33)) * 0xc4ceb9fe1a85ec53L;
+            return (int) Math.floorMod(mixed ^ (mixed >>> 33), (long) shards);
+        };
+    }
+
+    /**
+     * Shard {@code i} holds the ids below {@code bounds[i]} and at or above
+     * the bound before it; the last shard holds everything from the last
+     * bound up. Ids grow with time, so this is partitioning by creation
+     * time, and new products all land on the last shard.
+     */
+    static ShardStrategy range(int shards, List<Long> bounds) {
+        long[] sorted = bounds.stream().mapToLong(Long::longValue).toArray();
+        if (sorted.length != shards - 1) {
+            throw new IllegalArgumentException(shards + " shards need " + (shards - 1) + " range bounds, not "
+                    + sorted.length);
+        }
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] <= sorted[i - 1]) {
+                throw new IllegalArgumentException("Range bounds must be ascending: " + bounds);
+            }
+        }
+        return id -> {
+            int found = Arrays.binarySearch(sorted, id);
+            return found >= 0 ? found + 1 : -found - 1;
+        };
+    }
+}
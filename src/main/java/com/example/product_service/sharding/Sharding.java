@@ -0,0 +1,147 @@
+package com.example.product_service.sharding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The shards, how ids map to them, and where the current thread's work goes.
+ * Work bound to a shard with {@link #on} gets its connections from that
+ * shard. A transaction stays on the shard of its first statement, so work
+ * that spans shards must run as one transaction per shard. Closing this
+ * closes the shards' connection pools.
+ */
+public class Sharding implements AutoCloseable {
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+    // Transaction resource key for the shard a transaction is pinned to
+    private static final Object PINNED = new Object();
+
+    private final ShardRoutingDataSource shards;
+    private final int count;
+    private final ShardStrategy strategy;
+    private final SnowflakeIds ids;
+    private final ExecutorService scatter = Executors.newVirtualThreadPerTaskExecutor();
+
+    public Sharding(ShardRoutingDataSource shards, ShardStrategy strategy, SnowflakeIds ids) {
+        this.shards = shards;
+        this.count = shards.count();
+        this.strategy = strategy;
+        this.ids = ids;
+    }
+
+    /** The shard bound to the current thread, or null. */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /** The shard the current transaction is pinned to, or null. */
+    static Integer pinned() {
+        return (Integer) TransactionSynchronizationManager.getResource(PINNED);
+    }
+
+    /**
+     * Pins the current transaction, if any, to {@code shard}: a transaction
+     * begun outside the repository keeps the connection of the first shard it
+     * used, so it may not move on to another.
+     */
+    static void pinTransaction(int shard) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        Integer pinned = pinned();
+        if (pinned == null) {
+            TransactionSynchronizationManager.bindResource(PINNED, shard);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PINNED);
+                }
+            });
+        } else if (pinned != shard) {
+            throw new IllegalStateException("A transaction on shard " + pinned + " cannot use shard " + shard);
+        }
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /** Connections from the bound shard; see {@link ShardRoutingDataSource}. */
+    public ShardRoutingDataSource dataSource() {
+        return shards;
+    }
+
+    public int shardOf(long id) {
+        return strategy.shardOf(id);
+    }
+
+    public long nextId() {
+        return ids.next();
+    }
+
+    /** Runs {@code work} with the current thread bound to {@code shard}. */
+    public <T> T on(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code work} on every shard at once, each on its own thread bound
+     * to that shard, and returns the results in shard order. The first
+     * failure is rethrown once all have finished.
+     */
+    public <T> List<T> onEach(IntFunction<T> work) {
+        if (count == 1) {
+            return List.of(on(0, () -> work.apply(0)));
+        }
+        List<Future<T>> running = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            int target = shard;
+            running.add(scatter.submit(() -> on(target, () -> work.apply(target))));
+        }
+        List<T> results = new ArrayList<>(count);
+        RuntimeException failure = null;
+        for (Future<T> result : running) {
+            try {
+                results.add(result.get());
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException cause ? cause
+                            : new IllegalStateException(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running.forEach(future -> future.cancel(true));
+                throw new IllegalStateException("Interrupted waiting for shards", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        scatter.shutdownNow();
+        shards.close();
+    }
+}
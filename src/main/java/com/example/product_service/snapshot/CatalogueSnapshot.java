@@ -0,0 +1,225 @@
+package com.example.product_service.snapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.service.CatalogueVersion;
+import com.example.product_service.service.CatalogueVersion.Version;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * The whole catalogue as a pre-serialized NDJSON file, plus a gzip copy, so
+ * full listings can be sent straight from disk.
+ * <p>
+ * A background builder rewrites the files after writes, once the catalogue
+ * has been quiet for {@code debounce} or a change has waited
+ * {@code max-delay}, so a snapshot can trail the table by that much plus the
+ * build time. Files are written next to their final name and moved into
+ * place. The previous generation is deleted only by the build after next, so
+ * a response that picked it just before a swap can still open it.
+ */
+@Component
+@ConditionalOnProperty(name = "product.snapshot.enabled", havingValue = "true")
+public class CatalogueSnapshot implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(CatalogueSnapshot.class);
+
+    /** A built generation, tagged with the catalogue version it was read at. */
+    public record Generation(Path ndjson, Path gzip, Version version) {
+
+        /** Strong validator of the NDJSON file. */
+        public String etag() {
+            return "\"" + version.value() + "-ndjson\"";
+        }
+
+        /** Strong validator of the gzip file, a different representation. */
+        public String gzipEtag() {
+            return "\"" + version.value() + "-ndjson-gzip\"";
+        }
+
+        public long lastModified() {
+            return version.lastModified();
+        }
+    }
+
+    private final ProductRepository repo;
+    private final CatalogueVersion catalogue;
+    private final ObjectWriter writer;
+    private final Duration debounce;
+    private final Duration maxDelay;
+    private final String configuredDirectory;
+
+    private Path directory;
+    private volatile Generation current;
+    private Generation previous;
+    private long sequence;
+    private volatile Thread builder;
+
+    public CatalogueSnapshot(ProductRepository repo, CatalogueVersion catalogue, ObjectMapper mapper,
+            @Value("${product.snapshot.debounce:500ms}") Duration debounce,
+            @Value("${product.snapshot.max-delay:5s}") Duration maxDelay,
+            @Value("${product.snapshot.directory:}") String directory,
+            @Value("${product.changes.enabled:true}") boolean changes) {
+        if (!changes) {
+            throw new IllegalStateException("The snapshot follows the catalogue version in the change outbox;"
+                    + " set product.changes.enabled=true");
+        }
+        this.repo = repo;
+        this.catalogue = catalogue;
+        // Same bytes as the streamed NDJSON listing
+        this.writer = mapper.writerFor(Product.class)
+                .withRootValueSeparator("")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.debounce = debounce;
+        this.maxDelay = maxDelay;
+        this.configuredDirectory = directory;
+    }
+
+    /** The newest generation, or null before the first build has finished. */
+    public Generation current() {
+        return current;
+    }
+
+    /** Builds a generation for the catalogue as it is now. */
+    synchronized void build() {
+        // Taken before the rows are read, so the tag can only be older than the data.
+        Version version = version();
+        String name = "catalogue-" + (++sequence);
+        Path ndjson = directory.resolve(name + ".ndjson");
+        Path gzip = directory.resolve(name + ".ndjson.gz");
+        try {
+            Path partial = directory.resolve(name + ".ndjson.partial");
+            try (OutputStream out = Files.newOutputStream(partial);
+                    JsonGenerator gen = writer.createGenerator(out)) {
+                repo.forEachAfter(0, product -> {
+                    try {
+                        writer.writeValue(gen, product);
+                        gen.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            Path partialGzip = directory.resolve(name + ".ndjson.gz.partial");
+            try (InputStream in = Files.newInputStream(partial);
+                    OutputStream out = new GZIPOutputStream(Files.newOutputStream(partialGzip), 65536)) {
+                in.transferTo(out);
+            }
+            Files.move(partial, ndjson, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(partialGzip, gzip, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Generation built = new Generation(ndjson, gzip, version);
+        Generation retired = previous;
+        previous = current;
+        current = built;
+        if (retired != null) {
+            delete(retired);
+        }
+    }
+
+    private static void delete(Generation generation) {
+        try {
+            Files.deleteIfExists(generation.ndjson());
+            Files.deleteIfExists(generation.gzip());
+        } catch (IOException e) {
+            log.warn("Could not delete catalogue snapshot {}: {}", generation.ndjson(), e.toString());
+        }
+    }
+
+    private Version version() {
+        return catalogue.current().orElseThrow();
+    }
+
+    private void run() {
+        Version seen = null;
+        long pendingSince = 0;
+        while (builder == Thread.currentThread()) {
+            LockSupport.parkNanos(debounce.toNanos());
+            Version now;
+            try {
+                now = version();
+            } catch (RuntimeException e) {
+                // Database unavailable; look again after the next debounce.
+                continue;
+            }
+            Generation built = current;
+            if (built != null && built.version().equals(now)) {
+                pendingSince = 0;
+            } else {
+                long time = System.nanoTime();
+                if (pendingSince == 0) {
+                    pendingSince = time;
+                }
+                if (now.equals(seen) || time - pendingSince >= maxDelay.toNanos()) {
+                    try {
+                        build();
+                        pendingSince = 0;
+                    } catch (RuntimeException e) {
+                        log.warn("Catalogue snapshot build failed, retrying: {}", e.toString());
+                    }
+                }
+            }
+            seen = now;
+        }
+    }
+
+    @Override
+    public void start() {
+        try {
+            directory = StringUtils.hasText(configuredDirectory)
+                    ? Files.createDirectories(Path.of(configuredDirectory))
+                    : Files.createTempDirectory("product-snapshot");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            build();
+        } catch (RuntimeException e) {
+            log.warn("Initial catalogue snapshot failed; listings are served live until a build succeeds: {}",
+                    e.toString());
+        }
+        builder = Thread.ofPlatform().name("catalogue-snapshot").daemon().start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = builder;
+        builder = null;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return builder != null;
+    }
+
+    @Override
+    public int getPhase() {
+        // Before the web server starts taking requests, so the first snapshot is ready.
+        return DEFAULT_PHASE - 2048;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.product_service.throttle;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.example.product_service.throttle.ThrottleProperties.Budget;
+
+/**
+ * Caps the requests of one budget in flight at once, with an AIMD limit: each
+ * request slower than the target latency cuts the limit by a tenth, and each
+ * fast one that completes while the limit is fully used raises it by one.
+ * Queueing for the connection pool shows up as latency, so the limit settles
+ * just below the point where the pool saturates and the excess is turned
+ * away instead of waiting. Concurrent adjustments may overwrite each other,
+ * which only slows adaptation.
+ */
+public class AdaptiveConcurrencyLimit {
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    public AdaptiveConcurrencyLimit(Budget budget) {
+        this.minLimit = budget.minLimit();
+        this.maxLimit = budget.maxLimit();
+        this.targetNanos = budget.targetLatency().toNanos();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, budget.initialLimit()));
+    }
+
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /** Ends a request admitted by {@link #tryAcquire}, which took {@code latencyNanos}. */
+    public void release(long latencyNanos) {
+        int concurrent = inFlight.getAndDecrement();
+        int current = limit;
+        if (latencyNanos > targetNanos) {
+            limit = Math.max(minLimit, (int) (current * BACKOFF));
+        } else if (concurrent >= current && current < maxLimit) {
+            limit = current + 1;
+        }
+    }
+
+    /** Ends a request without using its latency as a sample. */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.product_service.throttle;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admission control in front of the product API. A client over its rate gets
+ * 429; a request whose budget is at its concurrency limit gets 503. Both are
+ * answered before any database work, with a {@code Retry-After} hint. The
+ * change feed is exempt: its connections are long-lived, hold no database
+ * connection and have their own subscriber limit. Imports and exports are
+ * rate limited but kept out of the concurrency budgets, since a transfer
+ * lasting minutes would read as overload to the latency-based limits;
+ * imports have their own limit on running jobs.
+ */
+public class ThrottleFilter extends OncePerRequestFilter {
+    private static final String API = "/api/products";
+
+    private final String clientHeader;
+    private final TokenBuckets buckets;
+    private final AdaptiveConcurrencyLimit cheap;
+    private final AdaptiveConcurrencyLimit expensive;
+    private final Counter rateLimited;
+    private final Counter cheapShed;
+    private final Counter expensiveShed;
+
+    public ThrottleFilter(ThrottleProperties properties, MeterRegistry registry) {
+        this.clientHeader = properties.clientHeader();
+        this.buckets = new TokenBuckets(properties.rate(), properties.burst(), properties.maxClients());
+        this.cheap = new AdaptiveConcurrencyLimit(properties.cheap());
+        this.expensive = new AdaptiveConcurrencyLimit(properties.expensive());
+        this.rateLimited = rejected(registry, "rate", "any");
+        this.cheapShed = rejected(registry, "concurrency", "cheap");
+        this.expensiveShed = rejected(registry, "concurrency", "expensive");
+        gauges(registry, "cheap", cheap);
+        gauges(registry, "expensive", expensive);
+    }
+
+    private static Counter rejected(MeterRegistry registry, String reason, String budget) {
+        return Counter.builder("product.throttle.rejected")
+                .description("Requests turned away before reaching the controller")
+                .tag("reason", reason)
+                .tag("budget", budget)
+                .register(registry);
+    }
+
+    private static void gauges(MeterRegistry registry, String budget, AdaptiveConcurrencyLimit limit) {
+        Gauge.builder("product.throttle.limit", limit, AdaptiveConcurrencyLimit::limit)
+                .tag("budget", budget)
+                .register(registry);
+        Gauge.builder("product.throttle.in.flight", limit, AdaptiveConcurrencyLimit::inFlight)
+                .tag("budget", budget)
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(path.equals(API) || path.startsWith(API + "/")) || path.startsWith(API + "/changes");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // The budget taken on the initial dispatch is held until the async request completes.
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long wait = buckets.tryAcquire(client(request));
+        if (wait > 0) {
+            rateLimited.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, TimeUnit.NANOSECONDS.toSeconds(wait) + 1);
+            return;
+        }
+        if (isTransfer(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        boolean single = isSingleProduct(request);
+        AdaptiveConcurrencyLimit limit = single ? cheap : expensive;
+        if (!limit.tryAcquire()) {
+            (single ? cheapShed : expensiveShed).increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                async = true;
+                request.getAsyncContext().addListener(new Release(limit));
+            }
+        } finally {
+            if (!async) {
+                limit.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private String client(HttpServletRequest request) {
+        String key = request.getHeader(clientHeader);
+        return key != null ? "key:" + key : "ip:" + request.getRemoteAddr();
+    }
+
+    private static boolean isTransfer(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.equals(API + "/export") || path.startsWith(API + "/import");
+    }
+
+    /** Reads, writes and deletes of one product, and single creates, touch one row. */
+    private static boolean isSingleProduct(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.equals(API)) {
+            return request.getMethod().equals("POST");
+        }
+        String rest = path.substring(API.length() + 1);
+        return !rest.isEmpty() && rest.chars().allMatch(Character::isDigit);
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds)
+            throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.sendError(status.value());
+    }
+
+    /**
+     * Releases the budget of a request that went asynchronous, such as an
+     * NDJSON stream. How long a stream takes says more about its size and the
+     * client than about the database, so it does not adjust the limit.
+     */
+    private record Release(AdaptiveConcurrencyLimit limit) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limit.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.product_service.throttle;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Admission control for {@code /api/products}: a per-client request rate, and
+ * adaptive concurrency budgets for cheap (single product) and expensive
+ * (listing, search, bulk) requests.
+ */
+@ConfigurationProperties("product.throttle")
+public record ThrottleProperties(
+        @DefaultValue("X-API-Key") String clientHeader,
+        @DefaultValue("100") double rate,
+        @DefaultValue("200") int burst,
+        @DefaultValue("100000") long maxClients,
+        @DefaultValue Budget cheap,
+        @DefaultValue Budget expensive) {
+
+    /**
+     * Concurrency budget. The limit starts at {@code initialLimit} and moves
+     * between {@code minLimit} and {@code maxLimit}: it shrinks when requests
+     * take longer than {@code targetLatency} and grows while they are fast and
+     * the limit is in use.
+     */
+    public record Budget(
+            @DefaultValue("10") int initialLimit,
+            @DefaultValue("1") int minLimit,
+            @DefaultValue("100") int maxLimit,
+            @DefaultValue("100ms") Duration targetLatency) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.product_service.throttle;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * One token bucket per client, refilled at {@code rate} tokens per second up
+ * to {@code burst}. Each bucket is a single {@link AtomicLong} holding the
+ * time at which it will next be full (the generic cell rate algorithm), so
+ * taking a token is one CAS and needs no lock. Buckets live in a bounded
+ * Caffeine cache and expire once they would have refilled completely, which
+ * loses nothing.
+ */
+public class TokenBuckets {
+    private final long interval;
+    private final long tolerance;
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBuckets(double rate, int burst, long maxClients) {
+        this.interval = (long) (1_000_000_000L / rate);
+        this.tolerance = interval * (burst - 1);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(interval * burst))
+                .build();
+    }
+
+    /**
+     * Takes a token from the client's bucket. Returns 0 on success, otherwise
+     * the nanoseconds until a token will be available.
+     */
+    public long tryAcquire(String client) {
+        long now = System.nanoTime();
+        AtomicLong full = buckets.get(client, key -> new AtomicLong(now));
+        while (true) {
+            long current = full.get();
+            long base = current - now > 0 ? current : now;
+            long wait = base - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (full.compareAndSet(current, base + interval)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.product_service.transfer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.stereotype.Component;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writes the whole catalogue as CSV or NDJSON, streamed from the database in
+ * id order with {@link ProductRepository#forEachAfter}, so memory use does
+ * not grow with the catalogue. Either output can be imported again by
+ * {@link CatalogueImport}, which ignores the ids and versions.
+ */
+@Component
+public class CatalogueExport {
+    static final String CSV_HEADER = "id,name,price,currency,version";
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ProductRepository repo;
+    private final ObjectWriter writer;
+
+    public CatalogueExport(ProductRepository repo, ObjectMapper mapper) {
+        this.repo = repo;
+        // Same bytes as the streamed NDJSON listing
+        this.writer = mapper.writerFor(Product.class)
+                .withRootValueSeparator("")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public void write(TransferFormat format, OutputStream out) throws IOException {
+        if (format == TransferFormat.CSV) {
+            writeCsv(out);
+        } else {
+            writeNdjson(out);
+        }
+    }
+
+    private void writeCsv(OutputStream out) throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        csv.write(CSV_HEADER);
+        csv.write("\r\n");
+        repo.forEachAfter(0, product -> {
+            try {
+                csv.write(product.getId().toString());
+                csv.write(',');
+                csv.write(Csv.field(product.getName()));
+                csv.write(',');
+                csv.write(product.getPrice().toPlainString());
+                csv.write(',');
+                csv.write(product.getCurrency());
+                csv.write(',');
+                csv.write(product.getVersion() == null ? "" : product.getVersion().toString());
+                csv.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        csv.flush();
+    }
+
+    private void writeNdjson(OutputStream out) throws IOException {
+        try (JsonGenerator gen = writer.createGenerator(out)) {
+            repo.forEachAfter(0, product -> {
+                try {
+                    writer.writeValue(gen, product);
+                    gen.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
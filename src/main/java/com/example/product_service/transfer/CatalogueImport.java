@@ -0,0 +1,457 @@
+package com.example.product_service.transfer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.service.BatchItemResult;
+import com.example.product_service.service.BatchItemResult.Status;
+import com.example.product_service.service.ProductBatchService;
+import com.example.product_service.sharding.Sharding;
+import com.example.product_service.transfer.ImportJobs.Source;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Imports products from CSV or NDJSON files of any size as background jobs.
+ * <p>
+ * Uploads are first spooled to {@code product.import.directory}, since a job
+ * outlives its request and must be able to read the file again when it is
+ * resumed; files already in that directory are imported in place. Each job
+ * is a two-stage pipeline: a parser thread reads the file through a
+ * memory-mapped {@link RecordReader}, validates each record and hands chunks
+ * of {@code chunk-size} products to the job thread, which inserts them in
+ * one transaction per chunk while the next is parsed. Invalid records are
+ * counted and skipped, not fatal.
+ * <p>
+ * After each chunk the job's checkpoint, the byte offset it has read up to,
+ * is saved in {@code import_job} in the same transaction as the chunk, so a
+ * failed, stopped or interrupted job resumes exactly after the last chunk
+ * written. On a sharded catalogue a chunk spans shards and is written per
+ * shard before the checkpoint, so a resume can repeat up to one chunk.
+ * <p>
+ * Every {@code heartbeat} the instance renews its running jobs in the shared
+ * table and stops the jobs of instances that have missed
+ * {@value #MISSED_HEARTBEATS} heartbeats, so that they can be resumed. A job
+ * stopped that way under a runner that was only stalled fails its next
+ * checkpoint, rolling the chunk back, and ends there.
+ */
+@Component
+public class CatalogueImport implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(CatalogueImport.class);
+    /** Parsed chunks waiting for the writer; the parser blocks beyond that. */
+    private static final int PIPELINE_DEPTH = 4;
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MISSED_HEARTBEATS = 3;
+
+    /** Raised when {@code max-running} imports are already running. */
+    public static class BusyException extends RuntimeException {
+        BusyException(int running) {
+            super(running + " imports are already running");
+        }
+    }
+
+    /** Raised by a checkpoint when the job was stopped and is no longer run by this instance. */
+    private static class TakenOverException extends RuntimeException {
+        TakenOverException(String id) {
+            super("Import " + id + " is no longer run by this instance");
+        }
+    }
+
+    /** One record as read from the file, before validation. */
+    record Row(String name, BigDecimal price, String currency) {
+    }
+
+    /** Validated products up to {@code position}, or the failure that ended parsing. */
+    private record Chunk(List<Product> rows, long position, long lines, long rejected, String lastError,
+            boolean last, Exception failure) {
+
+        static Chunk failed(Exception failure) {
+            return new Chunk(List.of(), 0, 0, 0, null, true, failure);
+        }
+    }
+
+    private final ProductRepository repo;
+    private final ProductBatchService batch;
+    private final TransactionTemplate tx;
+    private final ImportJobs jobs;
+    private final Optional<Sharding> sharding;
+    private final ObjectReader ndjson;
+    private final int chunkSize;
+    private final Semaphore slots;
+    private final int maxRunning;
+    private final String configuredDirectory;
+    private final Duration heartbeat;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+
+    private final Map<String, Thread> running = new ConcurrentHashMap<>();
+    private Path directory;
+    private volatile boolean stopping = true;
+    private volatile Thread heartbeats;
+
+    public CatalogueImport(ProductRepository repo, ProductBatchService batch, PlatformTransactionManager txManager,
+            ImportJobs jobs, Optional<Sharding> sharding, ObjectMapper mapper, MeterRegistry registry,
+            @Value("${product.import.chunk-size:5000}") int chunkSize,
+            @Value("${product.import.max-running:2}") int maxRunning,
+            @Value("${product.import.directory:}") String directory,
+            @Value("${product.import.heartbeat:10s}") Duration heartbeat) {
+        this.repo = repo;
+        this.batch = batch;
+        this.tx = new TransactionTemplate(txManager);
+        this.jobs = jobs;
+        this.sharding = sharding;
+        this.ndjson = mapper.readerFor(Row.class).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.chunkSize = chunkSize;
+        this.slots = new Semaphore(maxRunning);
+        this.maxRunning = maxRunning;
+        this.configuredDirectory = directory;
+        this.heartbeat = heartbeat;
+        this.importedRows = Counter.builder("product.import.rows")
+                .tag("outcome", "imported")
+                .register(registry);
+        this.rejectedRows = Counter.builder("product.import.rows")
+                .tag("outcome", "rejected")
+                .register(registry);
+    }
+
+    /**
+     * Spools {@code body} to the import directory and starts importing it.
+     * The upload is copied through a fixed-size buffer, never held in memory.
+     */
+    public ImportJob upload(InputStream body, TransferFormat format) throws IOException {
+        acquire();
+        String id = UUID.randomUUID().toString();
+        Path file = directory.resolve(id + "." + format.extension());
+        try {
+            Files.copy(body, file);
+            jobs.create(id, format, new Source(file, true), Files.size(file));
+        } catch (IOException | RuntimeException e) {
+            slots.release();
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return launch(id);
+    }
+
+    /**
+     * Imports a file already in the import directory, by its path relative
+     * to it, without copying it. The format follows the extension unless
+     * given.
+     *
+     * @throws IllegalArgumentException if the file is not a regular file
+     *                                  inside the import directory
+     */
+    public ImportJob importFile(String path, TransferFormat format) throws IOException {
+        Path file = directory.resolve(path).normalize();
+        // Checked again on the real path, so a link cannot lead out of the directory.
+        if (!file.startsWith(directory) || !Files.isRegularFile(file) || !file.toRealPath().startsWith(directory)) {
+            throw new IllegalArgumentException("No file " + path + " in the import directory");
+        }
+        TransferFormat resolved = format != null ? format : TransferFormat.of(file);
+        acquire();
+        String id = UUID.randomUUID().toString();
+        try {
+            jobs.create(id, resolved, new Source(file.toRealPath(), false), Files.size(file));
+        } catch (IOException | RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+        return launch(id);
+    }
+
+    public Optional<ImportJob> find(String id) {
+        return jobs.find(id);
+    }
+
+    /**
+     * Carries on a failed or stopped job from its last checkpoint.
+     *
+     * @throws IllegalStateException if the job is running or completed
+     */
+    public ImportJob resume(String id) {
+        ImportJob job = jobs.find(id).orElseThrow(() -> new IllegalArgumentException("No import " + id));
+        if (!job.resumable()) {
+            throw new IllegalStateException("Import " + id + " is " + job.status());
+        }
+        acquire();
+        if (!jobs.resume(id, job.status())) {
+            slots.release();
+            throw new IllegalStateException("Import " + id + " was resumed already");
+        }
+        return launch(id);
+    }
+
+    private void acquire() {
+        if (stopping) {
+            throw new IllegalStateException("Imports are not accepted while shutting down");
+        }
+        if (!slots.tryAcquire()) {
+            throw new BusyException(maxRunning);
+        }
+    }
+
+    private ImportJob launch(String id) {
+        Thread thread = Thread.ofPlatform().name("product-import-" + id).daemon().unstarted(() -> {
+            try {
+                run(id);
+            } finally {
+                running.remove(id);
+                slots.release();
+            }
+        });
+        running.put(id, thread);
+        thread.start();
+        return jobs.find(id).orElseThrow();
+    }
+
+    /** Runs a job to completion or failure, recording the outcome. */
+    private void run(String id) {
+        ImportJob job = jobs.find(id).orElseThrow();
+        Source source = jobs.source(id).orElseThrow();
+        try (FileChannel channel = FileChannel.open(source.path())) {
+            BlockingQueue<Chunk> chunks = new ArrayBlockingQueue<>(PIPELINE_DEPTH);
+            Thread parser = Thread.ofPlatform().name("product-import-parser-" + id).daemon()
+                    .start(() -> parse(job, channel, chunks));
+            try {
+                Chunk chunk;
+                do {
+                    chunk = chunks.take();
+                    if (chunk.failure() != null) {
+                        throw chunk.failure();
+                    }
+                    write(id, chunk);
+                    if (stopping && !chunk.last()) {
+                        jobs.finish(id, ImportJob.Status.STOPPED, null);
+                        return;
+                    }
+                } while (!chunk.last());
+            } finally {
+                parser.interrupt();
+                parser.join();
+            }
+            jobs.finish(id, ImportJob.Status.COMPLETED, null);
+        } catch (InterruptedException e) {
+            jobs.finish(id, ImportJob.Status.STOPPED, null);
+            return;
+        } catch (TakenOverException e) {
+            log.warn("Import {} missed its heartbeats and was stopped; it is left to be resumed", id);
+            return;
+        } catch (Exception e) {
+            String message = NestedExceptionUtils.getMostSpecificCause(e).toString();
+            log.warn("Import {} failed; it can be resumed: {}", id, message);
+            jobs.finish(id, ImportJob.Status.FAILED, message);
+            return;
+        }
+        if (source.spooled()) {
+            try {
+                Files.deleteIfExists(source.path());
+            } catch (IOException e) {
+                log.warn("Could not delete imported upload {}: {}", source.path(), e.toString());
+            }
+        }
+    }
+
+    /** The parser stage: reads records from the checkpoint on and queues validated chunks. */
+    private void parse(ImportJob job, FileChannel channel, BlockingQueue<Chunk> chunks) {
+        try {
+            RecordReader records = new RecordReader(channel, job.format() == TransferFormat.CSV,
+                    RecordReader.DEFAULT_WINDOW);
+            int[] columns = job.format() == TransferFormat.CSV ? header(records) : null;
+            if (job.position() > records.position()) {
+                records.seek(job.position(), job.lines());
+            }
+            List<Product> rows = new ArrayList<>(chunkSize);
+            long rejected = 0;
+            String lastError = null;
+            while (records.next()) {
+                try {
+                    rows.add(validate(columns != null ? csv(records.text(), columns)
+                            : ndjson.readValue(records.record(), 0, records.length())));
+                } catch (IllegalArgumentException | IOException e) {
+                    rejected++;
+                    lastError = "Line " + records.recordLine() + ": " + (e instanceof JsonProcessingException json
+                            ? json.getOriginalMessage() : e.getMessage());
+                }
+                if (rows.size() + rejected >= chunkSize) {
+                    chunks.put(new Chunk(rows, records.position(), records.line(), rejected, lastError, false, null));
+                    rows = new ArrayList<>(chunkSize);
+                    rejected = 0;
+                    lastError = null;
+                }
+            }
+            chunks.put(new Chunk(rows, records.position(), records.line(), rejected, lastError, true, null));
+        } catch (InterruptedException e) {
+            // The writer has stopped and is no longer taking chunks.
+        } catch (Exception e) {
+            chunks.clear();
+            chunks.offer(Chunk.failed(e));
+        }
+    }
+
+    /** Reads the CSV header and returns the indexes of the name, price and currency columns. */
+    private static int[] header(RecordReader records) throws IOException {
+        if (!records.next()) {
+            throw new IllegalArgumentException("The file is empty; a CSV import needs a header row");
+        }
+        List<String> names = Csv.fields(records.text()).stream()
+                .map(name -> name.strip().toLowerCase(Locale.ROOT))
+                .toList();
+        int[] columns = { names.indexOf("name"), names.indexOf("price"), names.indexOf("currency") };
+        if (columns[0] < 0 || columns[1] < 0) {
+            throw new IllegalArgumentException("The CSV header must name the name and price columns");
+        }
+        return columns;
+    }
+
+    private static Row csv(String record, int[] columns) {
+        List<String> fields = Csv.fields(record);
+        int needed = Math.max(columns[0], Math.max(columns[1], columns[2])) + 1;
+        if (fields.size() < needed) {
+            throw new IllegalArgumentException("Expected " + needed + " fields but found " + fields.size());
+        }
+        String price = fields.get(columns[1]).strip();
+        String currency = columns[2] < 0 ? null : fields.get(columns[2]).strip();
+        return new Row(fields.get(columns[0]), price.isEmpty() ? null : new BigDecimal(price),
+                StringUtils.hasText(currency) ? currency : null);
+    }
+
+    /** @throws IllegalArgumentException if the record would not make a valid product */
+    static Product validate(Row row) {
+        if (!StringUtils.hasText(row.name())) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (row.name().length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("name is longer than " + MAX_NAME_LENGTH + " characters");
+        }
+        if (row.price() == null) {
+            throw new IllegalArgumentException("price is required");
+        }
+        Product product = new Product();
+        product.setName(row.name());
+        product.setPrice(row.price());
+        if (row.currency() != null) {
+            product.setCurrency(row.currency());
+        }
+        return product;
+    }
+
+    /** The writer stage: inserts a chunk and moves the checkpoint past it. */
+    private void write(String id, Chunk chunk) {
+        if (sharding.isEmpty()) {
+            tx.executeWithoutResult(status -> {
+                if (!chunk.rows().isEmpty()) {
+                    repo.saveAll(chunk.rows());
+                }
+                checkpoint(id, chunk);
+            });
+        } else {
+            for (BatchItemResult result : batch.createAll(chunk.rows())) {
+                if (result.status() == Status.FAILED) {
+                    throw new IllegalStateException(result.error());
+                }
+            }
+            checkpoint(id, chunk);
+        }
+        importedRows.increment(chunk.rows().size());
+        rejectedRows.increment(chunk.rejected());
+    }
+
+    private void checkpoint(String id, Chunk chunk) {
+        if (!jobs.checkpoint(id, chunk.position(), chunk.lines(), chunk.rows().size(), chunk.rejected(),
+                chunk.lastError())) {
+            throw new TakenOverException(id);
+        }
+    }
+
+    /** Renews this instance's jobs and stops those whose owner has gone, until stopped. */
+    private void beat() {
+        while (heartbeats == Thread.currentThread()) {
+            try {
+                jobs.beat();
+                int abandoned = jobs.stopAbandoned(heartbeat.multipliedBy(MISSED_HEARTBEATS));
+                if (abandoned > 0) {
+                    log.info("{} imports were left by an instance that went away and can be resumed", abandoned);
+                }
+            } catch (RuntimeException e) {
+                // Database unavailable; retry at the next heartbeat.
+            }
+            LockSupport.parkNanos(heartbeat.toNanos());
+        }
+    }
+
+    @Override
+    public void start() {
+        try {
+            directory = (StringUtils.hasText(configuredDirectory)
+                    ? Files.createDirectories(Path.of(configuredDirectory))
+                    : Files.createTempDirectory("product-import")).toRealPath();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        heartbeats = Thread.ofPlatform().name("product-import-heartbeat").daemon().unstarted(this::beat);
+        heartbeats.start();
+        stopping = false;
+    }
+
+    /** Lets running jobs finish their current chunk, then stops them and their heartbeat. */
+    @Override
+    public void stop() {
+        stopping = true;
+        try {
+            for (Thread thread : running.values()) {
+                try {
+                    thread.join(TimeUnit.SECONDS.toMillis(30));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        } finally {
+            Thread thread = heartbeats;
+            heartbeats = null;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return !stopping;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.product_service.transfer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Splitting and quoting of RFC 4180 CSV fields. */
+final class Csv {
+
+    private Csv() {
+    }
+
+    /**
+     * The fields of one record. A field in double quotes may contain commas,
+     * line breaks and doubled quotes; whitespace around fields is kept.
+     */
+    static List<String> fields(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean start = true;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                start = true;
+                continue;
+            } else if (c == '"' && start) {
+                quoted = true;
+            } else {
+                field.append(c);
+            }
+            start = false;
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /** {@code value} as a field, quoted only when it has to be. */
+    static String field(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean plain = !value.isEmpty() && !value.isBlank() && value.strip().equals(value);
+        for (int i = 0; plain && i < value.length(); i++) {
+            char c = value.charAt(i);
+            plain = c != ',' && c != '"' && c != '\n' && c != '\r';
+        }
+        return plain ? value : '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
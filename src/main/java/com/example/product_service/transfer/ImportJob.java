@@ -0,0 +1,23 @@
+package com.example.product_service.transfer;
+
+import java.time.Instant;
+
+/**
+ * The state of an import as last checkpointed. {@code position} is the byte
+ * offset in the file up to which every record has been written or rejected,
+ * out of {@code size}; {@code lines} is the number of lines it covers.
+ * {@code lastError} says why the latest rejected line was rejected, or why
+ * the job failed.
+ */
+public record ImportJob(String id, TransferFormat format, Status status, long size, long position, long lines,
+        long imported, long rejected, String lastError, Instant createdAt, Instant updatedAt) {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED, STOPPED
+    }
+
+    /** Whether {@link CatalogueImport#resume} can carry it on. */
+    public boolean resumable() {
+        return status == Status.FAILED || status == Status.STOPPED;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.product_service.transfer;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.product_service.transfer.ImportJob.Status;
+
+/**
+ * Import jobs in the {@code import_job} table, so their progress survives a
+ * restart. A checkpoint made inside the transaction that writes a chunk
+ * commits or rolls back with it.
+ * <p>
+ * The table is shared by every instance on the database. A running job is
+ * owned by the instance running it, which renews the job's heartbeat; only
+ * the owner may checkpoint or finish it, and a job whose heartbeat has lapsed
+ * is stopped so that any instance can resume it.
+ */
+@Component
+class ImportJobs {
+    private static final int MAX_ERROR_LENGTH = 1024;
+    private static final String COLUMNS = "id, format, status, size, position, lines, imported, rejected, last_error,"
+            + " created_at, updated_at";
+
+    /** Where a job reads from; a spooled upload is deleted once imported. */
+    record Source(Path path, boolean spooled) {
+    }
+
+    private final JdbcTemplate jdbc;
+    private final String owner = UUID.randomUUID().toString();
+
+    ImportJobs(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    void create(String id, TransferFormat format, Source source, long size) {
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbc.update("insert into import_job (id, format, source, spooled, status, size, position, lines, imported,"
+                + " rejected, owner, heartbeat_at, created_at, updated_at)"
+                + " values (?, ?, ?, ?, ?, ?, 0, 0, 0, 0, ?, ?, ?, ?)",
+                id, format.name(), source.path().toString(), source.spooled(), Status.RUNNING.name(), size,
+                owner, now, now, now);
+    }
+
+    Optional<ImportJob> find(String id) {
+        return jdbc.query("select " + COLUMNS + " from import_job where id = ?", ImportJobs::job, id)
+                .stream().findFirst();
+    }
+
+    Optional<Source> source(String id) {
+        return jdbc.query("select source, spooled from import_job where id = ?",
+                (rs, row) -> new Source(Path.of(rs.getString(1)), rs.getBoolean(2)), id)
+                .stream().findFirst();
+    }
+
+    /**
+     * Records that the file has been consumed up to {@code position}. False
+     * if this instance no longer runs the job, in which case the chunk must
+     * not be committed.
+     */
+    boolean checkpoint(String id, long position, long lines, long imported, long rejected, String lastError) {
+        return jdbc.update("update import_job set position = ?, lines = ?, imported = imported + ?,"
+                + " rejected = rejected + ?, last_error = coalesce(?, last_error), updated_at = ?"
+                + " where id = ? and status = ? and owner = ?",
+                position, lines, imported, rejected, truncate(lastError), Timestamp.from(Instant.now()),
+                id, Status.RUNNING.name(), owner) == 1;
+    }
+
+    /** Takes a job from {@code from} to running on this instance; false if it was not in {@code from}. */
+    boolean resume(String id, Status from) {
+        Timestamp now = Timestamp.from(Instant.now());
+        return jdbc.update("update import_job set status = ?, owner = ?, heartbeat_at = ?, updated_at = ?"
+                + " where id = ? and status = ?",
+                Status.RUNNING.name(), owner, now, now, id, from.name()) == 1;
+    }
+
+    /** Moves a job this instance runs to {@code to}; false if it no longer runs it. */
+    boolean finish(String id, Status to, String message) {
+        return jdbc.update("update import_job set status = ?, owner = null, last_error = coalesce(?, last_error),"
+                + " updated_at = ? where id = ? and status = ? and owner = ?",
+                to.name(), truncate(message), Timestamp.from(Instant.now()), id, Status.RUNNING.name(), owner) == 1;
+    }
+
+    /** Renews the heartbeat of the jobs this instance runs. */
+    void beat() {
+        jdbc.update("update import_job set heartbeat_at = ? where status = ? and owner = ?",
+                Timestamp.from(Instant.now()), Status.RUNNING.name(), owner);
+    }
+
+    /**
+     * Marks running jobs whose owner has not renewed their heartbeat for
+     * {@code timeout}, having stopped or gone away, as stopped so that they
+     * can be resumed.
+     */
+    int stopAbandoned(Duration timeout) {
+        Instant now = Instant.now();
+        return jdbc.update("update import_job set status = ?, owner = null, updated_at = ?"
+                + " where status = ? and (heartbeat_at is null or heartbeat_at < ?)",
+                Status.STOPPED.name(), Timestamp.from(now), Status.RUNNING.name(),
+                Timestamp.from(now.minus(timeout)));
+    }
+
+    private static ImportJob job(ResultSet rs, int row) throws SQLException {
+        return new ImportJob(rs.getString("id"), TransferFormat.valueOf(rs.getString("format")),
+                Status.valueOf(rs.getString("status")), rs.getLong("size"), rs.getLong("position"),
+                rs.getLong("lines"), rs.getLong("imported"), rs.getLong("rejected"), rs.getString("last_error"),
+                rs.getTimestamp("created_at").toInstant(), rs.getTimestamp("updated_at").toInstant());
+    }
+
+    private static String truncate(String message) {
+        return message == null || message.length() <= MAX_ERROR_LENGTH ? message
+                : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
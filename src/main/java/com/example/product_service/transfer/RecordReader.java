@@ -0,0 +1,149 @@
+package com.example.product_service.transfer;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads a file one record at a time through a memory-mapped window that
+ * slides along it, so files of any size are read with a fixed amount of
+ * memory and without copying through a stream buffer. A record ends at a
+ * newline, except, with {@code quotes}, one inside a double-quoted CSV field.
+ * Blank lines are skipped, a trailing carriage return is dropped and a UTF-8
+ * byte order mark at the start of the file is ignored.
+ * <p>
+ * {@link #position()} is the byte offset of the next record, from which a
+ * later reader can {@link #seek} to carry on.
+ */
+class RecordReader {
+    static final int DEFAULT_WINDOW = 64 << 20;
+
+    private final FileChannel channel;
+    private final boolean quotes;
+    private final int windowSize;
+    private final long size;
+
+    private MappedByteBuffer window;
+    private long base;
+    private long position;
+    private long line;
+    private long recordLine;
+    private byte[] record = new byte[1024];
+    private int length;
+
+    RecordReader(FileChannel channel, boolean quotes, int windowSize) throws IOException {
+        this.channel = channel;
+        this.quotes = quotes;
+        this.windowSize = windowSize;
+        this.size = channel.size();
+        seek(0, 0);
+    }
+
+    /** Continues from a {@link #position()} and {@link #line()} of an earlier reader. */
+    void seek(long position, long line) throws IOException {
+        this.position = position;
+        this.line = line;
+        if (position == 0 && size >= 3) {
+            map(0);
+            if (window.get(0) == (byte) 0xEF && window.get(1) == (byte) 0xBB && window.get(2) == (byte) 0xBF) {
+                this.position = 3;
+            }
+        }
+    }
+
+    /** Reads the next record; false at the end of the file. */
+    boolean next() throws IOException {
+        while (position < size) {
+            if (window == null || position < base || position >= base + window.limit()) {
+                map(position);
+            }
+            int start = (int) (position - base);
+            int limit = window.limit();
+            boolean quoted = false;
+            int newlines = 0;
+            int end = -1;
+            for (int i = start; i < limit; i++) {
+                byte b = window.get(i);
+                if (b == '\n') {
+                    newlines++;
+                    if (!quoted) {
+                        end = i;
+                        break;
+                    }
+                } else if (b == '"' && quotes) {
+                    quoted = !quoted;
+                }
+            }
+            if (end < 0) {
+                if (base + limit < size) {
+                    if (start == 0) {
+                        throw new IOException("Record at byte " + position + " is longer than " + windowSize
+                                + " bytes");
+                    }
+                    // The record runs past the window: slide the window to its start and scan again.
+                    map(position);
+                    continue;
+                }
+                // The last record has no newline after it.
+                end = limit;
+                newlines++;
+            }
+            recordLine = line + 1;
+            line += newlines;
+            int stop = end > start && window.get(end - 1) == '\r' ? end - 1 : end;
+            copy(start, stop);
+            position = base + Math.min(end + 1, limit);
+            if (length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** The bytes of the current record, valid up to {@link #length()} until the next read. */
+    byte[] record() {
+        return record;
+    }
+
+    int length() {
+        return length;
+    }
+
+    String text() {
+        return new String(record, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /** The line the current record starts on, counting from one. */
+    long recordLine() {
+        return recordLine;
+    }
+
+    /** Byte offset of the next record. */
+    long position() {
+        return position;
+    }
+
+    /** Lines read so far. */
+    long line() {
+        return line;
+    }
+
+    long size() {
+        return size;
+    }
+
+    private void copy(int from, int to) {
+        length = to - from;
+        if (record.length < length) {
+            record = Arrays.copyOf(record, Math.max(length, record.length * 2));
+        }
+        window.get(from, record, 0, length);
+    }
+
+    private void map(long at) throws IOException {
+        base = at;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, at, Math.min(windowSize, size - at));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.product_service.transfer;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+import org.springframework.http.MediaType;
+
+/** The file formats products can be imported from and exported to. */
+public enum TransferFormat {
+    /** RFC 4180 CSV with a header row naming the columns. */
+    CSV("csv", new MediaType("text", "csv")),
+    /** One JSON product per line. */
+    NDJSON("ndjson", MediaType.APPLICATION_NDJSON);
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    TransferFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /** @throws IllegalArgumentException if {@code name} is neither {@code csv} nor {@code ndjson} */
+    public static TransferFormat of(String name) {
+        for (TransferFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown format " + name + "; use csv or ndjson");
+    }
+
+    /** The format of a body of this content type, ignoring parameters such as the charset. */
+    public static TransferFormat of(MediaType contentType) {
+        for (TransferFormat format : values()) {
+            if (format.mediaType.equalsTypeAndSubtype(contentType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported content type " + contentType
+                + "; send text/csv or application/x-ndjson");
+    }
+
+    /** The format named by the file's extension. */
+    public static TransferFormat of(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        if (dot < 0) {
+            throw new IllegalArgumentException("Cannot tell the format of " + name + "; pass format");
+        }
+        return of(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+}
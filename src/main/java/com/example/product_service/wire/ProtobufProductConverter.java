@@ -0,0 +1,169 @@
+package com.example.product_service.wire;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.util.StreamUtils;
+
+import com.example.product_service.model.Product;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+
+/**
+ * Reads and writes {@code application/x-protobuf} bodies for a
+ * {@link Product} or a list of them. The schema is generated from the Java
+ * types at startup rather than compiled from a {@code .proto} file; field
+ * numbers follow Product's property order, and a list is the message
+ * {@code ProductList { repeated Product products = 1; }}. The price travels
+ * as its exact minor units, an {@code int64}, rather than as a decimal. Other
+ * types are left to the JSON converter.
+ */
+public class ProtobufProductConverter extends AbstractGenericHttpMessageConverter<Object> {
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private final ObjectWriter productWriter;
+    private final ObjectReader productReader;
+    private final ObjectWriter listWriter;
+    private final ObjectReader listReader;
+
+    public ProtobufProductConverter() {
+        super(PROTOBUF);
+        ProtobufMapper mapper = mapper();
+        try {
+            ProtobufSchema productSchema = mapper.generateSchemaFor(Product.class);
+            ProtobufSchema listSchema = mapper.generateSchemaFor(ProductList.class);
+            productWriter = mapper.writerFor(Product.class).with(productSchema);
+            productReader = mapper.readerFor(Product.class).with(productSchema);
+            listWriter = mapper.writerFor(ProductList.class).with(listSchema);
+            listReader = mapper.readerFor(ProductList.class).with(listSchema);
+        } catch (JsonMappingException e) {
+            throw new IllegalStateException("Cannot generate a protobuf schema for Product", e);
+        }
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == Product.class;
+    }
+
+    /**
+     * The media types for a value's class, which for a listing is whatever
+     * {@link List} implementation the page came in; {@link #canWrite(Type,
+     * Class, MediaType)} has already checked that it holds products.
+     */
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return clazz == Product.class || List.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : List.of();
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return (type == Product.class || isProductList(type)) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        Type target = type != null ? type : clazz;
+        return (target == Product.class || isProductList(target)) && canWrite(mediaType);
+    }
+
+    private static boolean isProductList(Type type) {
+        return type instanceof ParameterizedType list
+                && list.getRawType() instanceof Class<?> raw && raw.isAssignableFrom(List.class)
+                && Collection.class.isAssignableFrom(raw)
+                && list.getActualTypeArguments()[0] == Product.class;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        if (type == Product.class) {
+            return productReader.readValue(inputMessage.getBody());
+        }
+        ProductList list = listReader.readValue(inputMessage.getBody());
+        return list.products == null ? List.of() : list.products;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        return productReader.readValue(inputMessage.getBody());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        // Jackson closes the stream it writes to; the response stream is not ours to close.
+        OutputStream body = StreamUtils.nonClosing(outputMessage.getBody());
+        if (object instanceof Product) {
+            productWriter.writeValue(body, object);
+        } else {
+            ProductList list = new ProductList();
+            list.products = (List<Product>) object;
+            listWriter.writeValue(body, list);
+        }
+    }
+
+    /** A mapper that reads and writes products in their protobuf form. */
+    public static ProtobufMapper mapper() {
+        ProtobufMapper mapper = new ProtobufMapper();
+        mapper.addMixIn(Product.class, ProductMessage.class);
+        return mapper;
+    }
+
+    /**
+     * Product as a protobuf message: the JSON decimal price is replaced by
+     * the minor units, which the generated schema carries exactly.
+     */
+    @JsonIgnoreProperties("price")
+    @JsonPropertyOrder({ "id", "name", "priceMinor", "version", "currency" })
+    abstract static class ProductMessage {
+        @JsonIgnore(false)
+        @JsonProperty
+        abstract long getPriceMinor();
+
+        @JsonIgnore(false)
+        @JsonProperty
+        abstract void setPriceMinor(long priceMinor);
+    }
+
+    /** Protobuf has no top-level arrays, so lists travel in a wrapper message. */
+    static final class ProductList {
+        public List<Product> products;
+    }
+
+    /**
+     * Reflection hints for a native image: the schema is generated by
+     * introspecting the wrapper and the product mix-in, which no controller
+     * signature mentions.
+     */
+    public static class Hints implements RuntimeHintsRegistrar {
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), ProductList.class);
+            hints.reflection().registerType(ProductMessage.class, MemberCategory.INTROSPECT_DECLARED_METHODS);
+        }
+    }
+}
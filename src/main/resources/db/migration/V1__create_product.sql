@@ -0,0 +1,12 @@
+create sequence product_seq start with 1 increment by 50;
+
+create table product (
+    id bigint not null,
+    name varchar(255),
+    price float(53) not null,
+    version bigint,
+    primary key (id)
+);
+
+create index idx_product_name on product (name);
+create index idx_product_price on product (price);
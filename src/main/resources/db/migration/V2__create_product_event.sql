@@ -0,0 +1,14 @@
+create sequence product_event_seq start with 1 increment by 50;
+
+create table product_event (
+    id bigint not null,
+    type varchar(16) not null,
+    product_id bigint,
+    name varchar(255),
+    price float(53),
+    version bigint,
+    created_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create index idx_product_event_created_at on product_event (created_at);
@@ -0,0 +1,9 @@
+create table idempotency_key (
+    idempotency_key varchar(255) not null,
+    fingerprint varchar(64) not null,
+    response varchar(4096) not null,
+    created_at timestamp(6) with time zone not null,
+    primary key (idempotency_key)
+);
+
+create index idx_idempotency_key_created_at on idempotency_key (created_at);
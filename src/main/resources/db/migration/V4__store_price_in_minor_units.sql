@@ -0,0 +1,16 @@
+-- Prices move from binary floating point to whole minor units (cents) of the
+-- catalogue currency, which every stored price so far was in.
+
+alter table product add column price_minor bigint;
+alter table product add column currency varchar(3) default 'EUR' not null;
+update product set price_minor = cast(round(price * 100, 0) as bigint);
+alter table product alter column price_minor set not null;
+drop index idx_product_price;
+alter table product drop column price;
+create index idx_product_price on product (price_minor);
+
+alter table product_event add column price_minor bigint;
+alter table product_event add column currency varchar(3);
+update product_event set price_minor = cast(round(price * 100, 0) as bigint), currency = 'EUR'
+    where price is not null;
+alter table product_event drop column price;
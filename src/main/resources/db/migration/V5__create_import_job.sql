@@ -0,0 +1,16 @@
+create table import_job (
+    id varchar(36) not null,
+    format varchar(8) not null,
+    source varchar(1024) not null,
+    spooled boolean not null,
+    status varchar(16) not null,
+    size bigint not null,
+    position bigint not null,
+    lines bigint not null,
+    imported bigint not null,
+    rejected bigint not null,
+    last_error varchar(1024),
+    created_at timestamp(6) with time zone not null,
+    updated_at timestamp(6) with time zone not null,
+    primary key (id)
+);
@@ -0,0 +1,5 @@
+-- Change-feed offsets are taken from the sequence one at a time. Blocks of 50
+-- per instance interleaved the offsets of concurrent writers out of commit
+-- order, so the feed skipped events below offsets it had already published.
+
+alter sequence product_event_seq increment by 1;
@@ -0,0 +1,6 @@
+-- An idempotency key is claimed by inserting its row before the create runs,
+-- so that only one instance runs it; the response is filled in afterwards.
+-- Recording the key only after the create let concurrent duplicates on
+-- different instances each create a product.
+
+alter table idempotency_key alter column response drop not null;
@@ -0,0 +1,7 @@
+-- Each running import records the instance running it and when that instance
+-- last confirmed it was alive. Only jobs whose owner has stopped confirming are
+-- stopped for resuming; stopping every running job at startup also stopped jobs
+-- that other instances were still running, which then ran twice.
+
+alter table import_job add column owner varchar(36);
+alter table import_job add column heartbeat_at timestamp(6) with time zone;
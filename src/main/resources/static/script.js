@@ -4,26 +4,157 @@ const idField = document.getElementById("productId");
 const nameField = document.getElementById("name");
 const priceField = document.getElementById("price");
 
-function fetchProducts() {
-  fetch("/api/products")
-    .then((res) => res.json())
-    .then((products) => {
-      table.innerHTML = "";
-      products.forEach((p) => {
-        const row = document.createElement("tr");
-        row.innerHTML = `
-                    <td>${p.name}</td>
-                    <td>€${p.price}</td>
-                    <td>
-                        <button onclick="editProduct(${p.id}, '${p.name}', ${p.price})">Edit</button>
-                        <button onclick="deleteProduct(${p.id})">Delete</button>
-                    </td>
-                `;
-        table.appendChild(row);
-      });
+const prevButton = document.getElementById("prevPage");
+const nextButton = document.getElementById("nextPage");
+
+const PAGE_SIZE = 50;
+// Listing pages kept for revalidation with If-None-Match.
+const MAX_CACHED_PAGES = 20;
+
+// Keyset cursors: cursors[i] is the "after" id used to load page i.
+let cursors = [0];
+let nextCursor = null;
+// The products on the current page and their rows, by id. Only this page is
+// in the DOM, so rendering and patching cost the same at any catalogue size.
+let shown = new Map();
+// Listing pages by cursor, { etag, products, next }, least recently used first.
+const pages = new Map();
+
+function loadPage(after) {
+  const cached = pages.get(after);
+  const headers = cached ? { "If-None-Match": cached.etag } : {};
+  return fetch(`/api/products?after=${after}&limit=${PAGE_SIZE}`, { headers }).then((res) => {
+    if (res.status === 304) {
+      pages.delete(after);
+      pages.set(after, cached);
+      return cached;
+    }
+    if (!res.ok) {
+      throw new Error(`Listing failed with ${res.status}`);
+    }
+    const link = res.headers.get("Link");
+    const match = link && link.match(/after=(\d+)/);
+    const etag = res.headers.get("ETag");
+    return res.json().then((products) => {
+      const page = { etag, products, next: match ? Number(match[1]) : null };
+      pages.delete(after);
+      if (etag) {
+        pages.set(after, page);
+        if (pages.size > MAX_CACHED_PAGES) {
+          pages.delete(pages.keys().next().value);
+        }
+      }
+      return page;
     });
+  });
+}
+
+function showPage() {
+  return loadPage(cursors[cursors.length - 1]).then((page) => {
+    if (page.products.length === 0 && cursors.length > 1) {
+      // The last row of this page was deleted; step back a page.
+      cursors.pop();
+      return showPage();
+    }
+    nextCursor = page.next;
+    const rows = document.createDocumentFragment();
+    shown = new Map();
+    page.products.forEach((p) => rows.appendChild(createRow(p)));
+    table.replaceChildren(rows);
+    updatePager();
+  });
+}
+
+function updatePager() {
+  prevButton.disabled = cursors.length === 1;
+  nextButton.disabled = nextCursor === null;
+}
+
+function createRow(product) {
+  const row = document.createElement("tr");
+  row.dataset.id = product.id;
+  const actions = document.createElement("td");
+  actions.append(actionButton("Edit", "edit"), actionButton("Delete", "delete"));
+  row.append(document.createElement("td"), document.createElement("td"), actions);
+  fillRow(row, product);
+  shown.set(product.id, { product, row });
+  return row;
+}
+
+function actionButton(label, action) {
+  const button = document.createElement("button");
+  button.type = "button";
+  button.dataset.action = action;
+  button.textContent = label;
+  return button;
+}
+
+// Names are set as text, never parsed as markup.
+function fillRow(row, product) {
+  row.cells[0].textContent = product.name;
+  row.cells[1].textContent = `€${Number(product.price).toFixed(2)}`;
 }
 
+function patchRow(product) {
+  const entry = shown.get(product.id);
+  if (entry && product.version >= entry.product.version) {
+    entry.product = product;
+    fillRow(entry.row, product);
+  }
+}
+
+// Ids only grow, so a new product belongs at the end of the last page.
+function addRow(product) {
+  if (nextCursor !== null || shown.has(product.id)) {
+    return;
+  }
+  if (shown.size < PAGE_SIZE) {
+    table.appendChild(createRow(product));
+  } else {
+    nextCursor = [...shown.keys()].pop();
+    updatePager();
+  }
+}
+
+function removeRow(id) {
+  const entry = shown.get(id);
+  if (!entry) {
+    return;
+  }
+  entry.row.remove();
+  shown.delete(id);
+  if (shown.size === 0) {
+    showPage();
+  }
+}
+
+prevButton.onclick = () => {
+  if (cursors.length > 1) {
+    cursors.pop();
+    showPage();
+  }
+};
+
+nextButton.onclick = () => {
+  if (nextCursor !== null) {
+    cursors.push(nextCursor);
+    showPage();
+  }
+};
+
+table.onclick = (e) => {
+  const button = e.target.closest("button[data-action]");
+  if (!button) {
+    return;
+  }
+  const id = Number(button.closest("tr").dataset.id);
+  if (button.dataset.action === "edit") {
+    editProduct(id);
+  } else {
+    deleteProduct(id);
+  }
+};
+
 form.onsubmit = (e) => {
   e.preventDefault();
   const id = idField.value;
@@ -37,21 +168,56 @@ form.onsubmit = (e) => {
     method: method,
     headers: { "Content-Type": "application/json" },
     body: JSON.stringify({ name, price }),
-  }).then(() => {
-    form.reset();
-    idField.value = "";
-    fetchProducts();
+  }).then((res) => {
+    if (!res.ok) {
+      // Leave the form filled in so the input can be corrected.
+      return;
+    }
+    return res.json().then((saved) => {
+      form.reset();
+      idField.value = "";
+      if (id) {
+        patchRow(saved);
+      } else {
+        addRow(saved);
+      }
+    });
   });
 };
 
-function editProduct(id, name, price) {
-  idField.value = id;
-  nameField.value = name;
-  priceField.value = price;
+function editProduct(id) {
+  const { product } = shown.get(id);
+  idField.value = product.id;
+  nameField.value = product.name;
+  priceField.value = product.price;
 }
 
 function deleteProduct(id) {
-  fetch(`/api/products/${id}`, { method: "DELETE" }).then(fetchProducts);
+  fetch(`/api/products/${id}`, { method: "DELETE" }).then((res) => {
+    if (res.ok || res.status === 404) {
+      removeRow(id);
+    }
+  });
 }
 
-fetchProducts();
+// Writes from other clients arrive on the change feed and are applied to the
+// current page the same way; the browser resumes the feed after a dropped
+// connection. Without the feed (404) the page only shows this client's writes.
+const changes = new EventSource("/api/products/changes");
+changes.addEventListener("created", (e) => {
+  const event = JSON.parse(e.data);
+  addRow({ id: event.productId, name: event.name, price: event.price, version: event.version });
+});
+changes.addEventListener("updated", (e) => {
+  const event = JSON.parse(e.data);
+  patchRow({ id: event.productId, name: event.name, price: event.price, version: event.version });
+});
+changes.addEventListener("deleted", (e) => removeRow(JSON.parse(e.data).productId));
+changes.addEventListener("cleared", () => {
+  cursors = [0];
+  showPage();
+});
+// Events were missed: reload the page rather than patch it.
+changes.addEventListener("reset", () => showPage());
+
+showPage();
@@ -0,0 +1,110 @@
+package com.example.product_service.reactive;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.product_service.controller.ETags;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Handlers for the reactive {@code /api/products} routes, mirroring
+ * ProductController. Listings carry no catalogue {@code ETag}: this stack
+ * writes no outbox events to derive one from, like the servlet application
+ * with {@code product.changes.enabled=false}.
+ */
+class ProductHandler {
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private final ReactiveProductRepository repo;
+
+    ProductHandler(ReactiveProductRepository repo) {
+        this.repo = repo;
+    }
+
+    Mono<ServerResponse> all(ServerRequest request) {
+        long after = request.queryParam("after").map(Long::parseLong).orElse(0L);
+        int limit = request.queryParam("limit").map(Integer::parseInt).orElse(DEFAULT_PAGE_SIZE);
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        // Fetch one extra row so we know whether a next page exists without a count query.
+        return repo.findByIdGreaterThanOrderByIdAsc(after, Limit.of(size + 1)).collectList().flatMap(rows -> {
+            if (rows.size() <= size) {
+                return ServerResponse.ok().bodyValue(rows);
+            }
+            long next = rows.get(size - 1).id();
+            return ServerResponse.ok()
+                    .header(HttpHeaders.LINK, "</api/products?after=" + next + "&limit=" + size + ">; rel=\"next\"")
+                    .bodyValue(rows.subList(0, size));
+        });
+    }
+
+    Mono<ServerResponse> stream(ServerRequest request) {
+        long after = request.queryParam("after").map(Long::parseLong).orElse(0L);
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(repo.findByIdGreaterThanOrderByIdAsc(after), ProductRow.class);
+    }
+
+    Mono<ServerResponse> one(ServerRequest request) {
+        return find(request).flatMap(product -> {
+            String etag = ETags.of(product.version());
+            if (request.headers().header(HttpHeaders.IF_NONE_MATCH).contains(etag)) {
+                return ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ServerResponse.ok().eTag(etag).bodyValue(product);
+        });
+    }
+
+    Mono<ServerResponse> create(ServerRequest request) {
+        return request.bodyToMono(ProductRow.class)
+                .flatMap(repo::save)
+                .flatMap(saved -> ServerResponse.ok().bodyValue(saved));
+    }
+
+    Mono<ServerResponse> update(ServerRequest request) {
+        String ifMatch = request.headers().firstHeader(HttpHeaders.IF_MATCH);
+        return Mono.zip(find(request), request.bodyToMono(ProductRow.class)).flatMap(pair -> {
+            ProductRow current = pair.getT1();
+            if (ifMatch != null && !ETags.matches(ifMatch, current.version())) {
+                return Mono.error(new ResponseStatusException(HttpStatus.PRECONDITION_FAILED));
+            }
+            // The version read above guards the UPDATE, so a write that lands in between is rejected.
+            return repo.save(current.with(pair.getT2()));
+        }).onErrorMap(OptimisticLockingFailureException.class,
+                e -> new ResponseStatusException(HttpStatus.PRECONDITION_FAILED))
+                .flatMap(saved -> ServerResponse.ok().eTag(ETags.of(saved.version())).bodyValue(saved));
+    }
+
+    Mono<ServerResponse> delete(ServerRequest request) {
+        String ifMatch = request.headers().firstHeader(HttpHeaders.IF_MATCH);
+        if (ifMatch == null) {
+            return repo.deleteExisting(id(request)).flatMap(deleted -> deleted == 0
+                    ? Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND))
+                    : ServerResponse.ok().build());
+        }
+        return find(request).flatMap(current -> {
+            if (!ETags.matches(ifMatch, current.version())) {
+                return Mono.error(new ResponseStatusException(HttpStatus.PRECONDITION_FAILED));
+            }
+            return repo.delete(current);
+        }).onErrorMap(OptimisticLockingFailureException.class,
+                e -> new ResponseStatusException(HttpStatus.PRECONDITION_FAILED))
+                .then(ServerResponse.ok().build());
+    }
+
+    private Mono<ProductRow> find(ServerRequest request) {
+        return repo.findById(id(request))
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+    private static long id(ServerRequest request) {
+        return Long.parseLong(request.pathVariable("id"));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.product_service.reactive;
+
+import org.reactivestreams.Publisher;
+import org.springframework.data.r2dbc.mapping.event.BeforeConvertCallback;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Assigns ids to new products from {@code product_seq}, which R2DBC does not
+ * do by itself. Like Hibernate's pooled optimizer, one sequence call reserves
+ * a block of {@link #BLOCK} ids (the sequence's increment).
+ */
+class ProductIds implements BeforeConvertCallback<ProductRow> {
+    private static final int BLOCK = 50;
+
+    private final DatabaseClient db;
+    private long next;
+    private long end;
+
+    ProductIds(DatabaseClient db) {
+        this.db = db;
+    }
+
+    @Override
+    public Publisher<ProductRow> onBeforeConvert(ProductRow product, SqlIdentifier table) {
+        if (product.id() != null) {
+            return Mono.just(product);
+        }
+        return nextId().map(product::withId);
+    }
+
+    private Mono<Long> nextId() {
+        synchronized (this) {
+            if (next < end) {
+                return Mono.just(next++);
+            }
+        }
+        return db.sql("select next value for product_seq")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .map(start -> {
+                    synchronized (this) {
+                        // Concurrent refills each get their own block; the latest one wins the cache.
+                        next = start + 1;
+                        end = start + BLOCK;
+                    }
+                    return start;
+                });
+    }
+}
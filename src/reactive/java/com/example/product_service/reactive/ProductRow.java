@@ -0,0 +1,56 @@
+package com.example.product_service.reactive;
+
+import java.math.BigDecimal;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import com.example.product_service.model.Prices;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * A row of the {@code product} table as R2DBC maps it, kept apart from the
+ * JPA {@link com.example.product_service.model.Product} entity. Its JSON is
+ * the same as the entity's; ids and versions in a request body are ignored.
+ */
+@Table("product")
+@JsonPropertyOrder({ "id", "name", "price", "version", "currency" })
+public record ProductRow(@Id Long id, String name, @JsonIgnore long priceMinor, String currency, @Version Long version) {
+
+    /**
+     * @throws IllegalArgumentException if the price is missing or not whole
+     *                                  minor units, or the currency is not the
+     *                                  catalogue's
+     */
+    @JsonCreator
+    public static ProductRow of(@JsonProperty("name") String name, @JsonProperty("price") BigDecimal price,
+            @JsonProperty("currency") String currency) {
+        if (price == null) {
+            throw new IllegalArgumentException("Price is required");
+        }
+        return new ProductRow(null, name, Prices.toMinor(price),
+                currency == null ? Prices.CURRENCY : Prices.requireCurrency(currency), null);
+    }
+
+    @JsonProperty("price")
+    BigDecimal price() {
+        return Prices.toPrice(priceMinor);
+    }
+
+    ProductRow withId(Long id) {
+        return new ProductRow(id, name, priceMinor, currency, version);
+    }
+
+    ProductRow withVersion(Long version) {
+        return new ProductRow(id, name, priceMinor, currency, version);
+    }
+
+    /** This row with the name and price of {@code update}. */
+    ProductRow with(ProductRow update) {
+        return new ProductRow(id, update.name(), update.priceMinor(), update.currency(), version);
+    }
+}
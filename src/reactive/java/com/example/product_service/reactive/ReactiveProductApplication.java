@@ -0,0 +1,68 @@
+package com.example.product_service.reactive;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.headers;
+
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * The product API on WebFlux and R2DBC, run with the {@code reactive}
+ * profile. It serves the same {@code /api/products} CRUD contract as
+ * {@link com.example.product_service.ProductCrudApplication} from a
+ * non-blocking stack: requests and queries are callbacks on Netty's event
+ * loop, so a slow query holds a pooled connection but no thread.
+ * <p>
+ * Deliberately not a {@code @Configuration}: when both are built the servlet
+ * application's component scan covers this package, and the two stacks must
+ * not share beans. Its repositories are R2DBC's alone, over {@link ProductRow}.
+ */
+@EnableAutoConfiguration(exclude = DataSourceAutoConfiguration.class)
+@EnableR2dbcRepositories(basePackageClasses = ReactiveProductRepository.class)
+public class ReactiveProductApplication {
+
+    public static void main(String[] args) {
+        builder().run(args);
+    }
+
+    public static SpringApplicationBuilder builder() {
+        return new SpringApplicationBuilder(ReactiveProductApplication.class).profiles("reactive");
+    }
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        // Tomcat is on the classpath too and would otherwise be picked.
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public ProductIds productIds(DatabaseClient db) {
+        return new ProductIds(db);
+    }
+
+    @Bean
+    public ProductHandler productHandler(ReactiveProductRepository repo) {
+        return new ProductHandler(repo);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> productRoutes(ProductHandler products) {
+        return RouterFunctions.route()
+                .path("/api/products", api -> api
+                        .GET("", headers(h -> h.accept().contains(MediaType.APPLICATION_NDJSON)), products::stream)
+                        .GET("", products::all)
+                        .GET("/{id}", products::one)
+                        .POST("", products::create)
+                        .PUT("/{id}", products::update)
+                        .DELETE("/{id}", products::delete))
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.product_service.reactive;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveProductRepository extends ReactiveCrudRepository<ProductRow, Long> {
+
+    Flux<ProductRow> findByIdGreaterThanOrderByIdAsc(long after, Limit limit);
+
+    /** Every product after the given id; rows are fetched as the subscriber requests them. */
+    Flux<ProductRow> findByIdGreaterThanOrderByIdAsc(long after);
+
+    /** Deletes a product in one statement; the number of rows deleted, 0 if there was no such product. */
+    @Modifying
+    @Query("delete from product where id = :id")
+    Mono<Integer> deleteExisting(long id);
+}
@@ -0,0 +1,63 @@
+package com.example.product_service.benchmark;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Statement;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+
+/**
+ * The R2DBC counterpart of {@link SlowDataSourcePostProcessor}: every
+ * statement waits before it executes, while its pooled connection is checked
+ * out. The wait is a timer, not a sleep, the way a non-blocking driver waits
+ * for a socket read.
+ */
+class SlowConnectionFactoryPostProcessor implements BeanPostProcessor {
+    private final Duration delay;
+
+    SlowConnectionFactoryPostProcessor(Duration delay) {
+        this.delay = delay;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof ConnectionFactory connectionFactory)) {
+            return bean;
+        }
+        return proxy(ConnectionFactory.class, connectionFactory);
+    }
+
+    private Object proxy(Class<?> type, Object target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result = invoke(method, target, args);
+            if (target instanceof ConnectionFactory && method.getName().equals("create")) {
+                return Mono.from((Publisher<?>) result).map(connection -> proxy(Connection.class, connection));
+            }
+            if (target instanceof Statement && method.getName().equals("execute")) {
+                return Flux.from((Publisher<?>) result).delaySubscription(delay);
+            }
+            if (result instanceof Statement && method.getReturnType().isInterface()) {
+                return proxy(Statement.class, result);
+            }
+            return result;
+        };
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
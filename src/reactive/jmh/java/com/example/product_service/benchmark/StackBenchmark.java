@@ -0,0 +1,96 @@
+package com.example.product_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.product_service.ProductCrudApplication;
+import com.example.product_service.reactive.ProductRow;
+import com.example.product_service.reactive.ReactiveProductApplication;
+import com.example.product_service.reactive.ReactiveProductRepository;
+
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The servlet stack against the reactive one under the load profile of
+ * {@link ThreadModeBenchmark}: {@link ThreadModeBenchmark#CONCURRENCY}
+ * simultaneous {@code GET /api/products/{id}} requests per invocation, every
+ * statement taking {@link ThreadModeBenchmark#DB_DELAY_MS} ms, and both
+ * connection pools sized to {@link #POOL_SIZE}. The servlet side runs on
+ * platform threads; ThreadModeBenchmark covers virtual threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@OperationsPerInvocation(ThreadModeBenchmark.CONCURRENCY)
+public class StackBenchmark {
+    private static final int POOL_SIZE = 400;
+    private static final int ROWS = 1000;
+
+    @Param({ "servlet", "reactive" })
+    String stack;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient http;
+    private String baseUrl;
+
+    @Setup
+    public void setUp() {
+        Duration delay = Duration.ofMillis(ThreadModeBenchmark.DB_DELAY_MS);
+        if (stack.equals("reactive")) {
+            context = ReactiveProductApplication.builder()
+                    .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(
+                            new SlowConnectionFactoryPostProcessor(delay)))
+                    .properties("server.port=0", "spring.main.banner-mode=off", "logging.level.root=WARN")
+                    .run("--spring.r2dbc.pool.max-size=" + POOL_SIZE);
+            // Saved concurrently, since every insert already pays the delay
+            ReactiveProductRepository repo = context.getBean(ReactiveProductRepository.class);
+            Flux.fromIterable(BenchmarkContexts.products(ROWS))
+                    .map(product -> ProductRow.of(product.getName(), product.getPrice(), product.getCurrency()))
+                    .flatMap(repo::save, POOL_SIZE).blockLast();
+        } else {
+            context = new SpringApplicationBuilder(ProductCrudApplication.class)
+                    .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(
+                            new SlowDataSourcePostProcessor(delay)))
+                    .properties("server.port=0", "spring.main.banner-mode=off", "logging.level.root=WARN")
+                    .run("--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                            "--server.tomcat.accept-count=" + ThreadModeBenchmark.CONCURRENCY,
+                            "--product.cache.provider=none", "--product.l2cache.enabled=false",
+                            "--product.throttle.enabled=false");
+            BenchmarkContexts.seed(context, ROWS);
+        }
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/products/";
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int concurrentGets() {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[ThreadModeBenchmark.CONCURRENCY];
+        for (int i = 0; i < responses.length; i++) {
+            long id = ThreadLocalRandom.current().nextLong(1, ROWS + 1);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + id)).GET().build();
+            responses[i] = http.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        }
+        CompletableFuture.allOf(responses).join();
+        return responses.length;
+    }
+}
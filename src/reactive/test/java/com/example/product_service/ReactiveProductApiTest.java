@@ -0,0 +1,129 @@
+package com.example.product_service;
+
+import com.intuit.karate.junit5.Karate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.reactive.ReactiveProductApplication;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the reactive variant. It runs the same Karate
+ * feature as {@link ProductApiTest}, so both stacks are held to one
+ * contract, plus checks specific to the streamed and conditional reads.
+ */
+@ActiveProfiles("reactive")
+@SpringBootTest(classes = ReactiveProductApplication.class,
+                webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "spring.main.web-application-type=reactive")
+public class ReactiveProductApiTest {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private WebTestClient client;
+
+        private Product create(String name, double price) {
+                Product product = new Product();
+                product.setName(name);
+                product.setPrice(BigDecimal.valueOf(price));
+                return client.post().uri("/api/products").bodyValue(product)
+                                .exchange()
+                                .expectStatus().isOk()
+                                .expectBody(Product.class).returnResult().getResponseBody();
+        }
+
+        /**
+         * Runs the Product API Karate feature against the reactive stack.
+         *
+         * @return the result of the Karate test execution.
+         */
+        @Karate.Test
+        Karate testProductApi() {
+                System.setProperty("karate.port", String.valueOf(port));
+                return Karate.run("classpath:karate/product-api.feature");
+        }
+
+        /**
+         * Tests that new products get sequence ids and an initial version,
+         * and that NDJSON streams every product after the cursor in id order.
+         */
+        @Test
+        void testCreateAndStreamNdjson() {
+                // Arrange
+                Product first = create("Reactive One", 1.00);
+                Product second = create("Reactive Two", 2.00);
+
+                // Act
+                List<Product> streamed = client.get().uri("/api/products?after=" + (first.getId() - 1))
+                                .accept(MediaType.APPLICATION_NDJSON)
+                                .exchange()
+                                .expectStatus().isOk()
+                                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                                .returnResult(Product.class).getResponseBody().collectList().block();
+
+                // Assert
+                assertNotNull(first.getId());
+                assertEquals(0L, first.getVersion());
+                assertTrue(second.getId() > first.getId());
+                assertEquals(first.getId(), streamed.get(0).getId());
+                assertEquals(second.getId(), streamed.get(1).getId());
+        }
+
+        /**
+         * Tests the conditional paths: 304 for a current ETag, 412 for a stale
+         * If-Match, and 404 for reading or deleting a missing product, with or
+         * without If-Match, as on the servlet stack.
+         */
+        @Test
+        void testConditionalRequestsAndNotFound() {
+                // Arrange
+                Product product = create("Reactive Conditional", 3.00);
+                String uri = "/api/products/" + product.getId();
+
+                // Act & Assert
+                client.get().uri(uri).header("If-None-Match", "\"0\"")
+                                .exchange().expectStatus().isNotModified();
+                client.put().uri(uri).header("If-Match", "\"7\"").bodyValue(product)
+                                .exchange().expectStatus().isEqualTo(412);
+                client.put().uri(uri).header("If-Match", "\"0\"").bodyValue(product)
+                                .exchange().expectStatus().isOk().expectHeader().valueEquals("ETag", "\"1\"");
+                client.get().uri("/api/products/999999")
+                                .exchange().expectStatus().isNotFound();
+                client.delete().uri("/api/products/999999")
+                                .exchange().expectStatus().isNotFound();
+                client.delete().uri("/api/products/999999").header("If-Match", "\"0\"")
+                                .exchange().expectStatus().isNotFound();
+                client.delete().uri(uri)
+                                .exchange().expectStatus().isOk();
+                client.delete().uri(uri)
+                                .exchange().expectStatus().isNotFound();
+        }
+
+        /**
+         * Tests that listings go out without a catalogue ETag, since the
+         * reactive stack records no change events to derive one from.
+         */
+        @Test
+        void testListingHasNoCatalogueETag() {
+                // Arrange
+                create("Reactive Listed", 4.00);
+
+                // Act & Assert
+                client.get().uri("/api/products")
+                                .exchange()
+                                .expectStatus().isOk()
+                                .expectHeader().doesNotExist("ETag");
+        }
+}
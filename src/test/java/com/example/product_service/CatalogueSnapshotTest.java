@@ -0,0 +1,165 @@
+package com.example.product_service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.service.CatalogueVersion;
+import com.example.product_service.snapshot.CatalogueSnapshot;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the catalogue snapshot. Requests go through a plain
+ * HTTP client so ranges and encodings arrive exactly as sent.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+                "product.snapshot.enabled=true",
+                "product.snapshot.debounce=50ms",
+                "product.snapshot.max-delay=200ms" })
+public class CatalogueSnapshotTest {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private TestRestTemplate restTemplate;
+
+        @Autowired
+        private CatalogueSnapshot snapshot;
+
+        @Autowired
+        private CatalogueVersion catalogue;
+
+        private final HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .build();
+
+        private HttpResponse<byte[]> get(String... headers) throws Exception {
+                HttpRequest.Builder request = HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + port + "/api/products"))
+                                .header("Accept", "application/x-ndjson");
+                if (headers.length > 0) {
+                        request.headers(headers);
+                }
+                return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        }
+
+        /** Creates a product and waits for a snapshot that contains it. */
+        private Product createAndAwaitSnapshot(String name) throws InterruptedException {
+                Product product = new Product();
+                product.setName(name);
+                product.setPrice(new BigDecimal("12.50"));
+                Product created = restTemplate.postForObject("/api/products", product, Product.class);
+                // Writes from other tests sharing the database may move the catalogue on further.
+                long offset = catalogue.current().orElseThrow().offset();
+                long deadline = System.currentTimeMillis() + 10_000;
+                while (snapshot.current().version().offset() < offset) {
+                        assertTrue(System.currentTimeMillis() < deadline, "snapshot was not rebuilt");
+                        Thread.sleep(20);
+                }
+                return created;
+        }
+
+        /**
+         * Tests that the full listing comes from the snapshot once it has caught
+         * up with a write, and is revalidated with its ETag.
+         */
+        @Test
+        void testServesRebuiltSnapshot() throws Exception {
+                // Arrange
+                Product created = createAndAwaitSnapshot("Snapshot Product");
+
+                // Act
+                HttpResponse<byte[]> full = get();
+                String etag = full.headers().firstValue("ETag").orElseThrow();
+                HttpResponse<byte[]> revalidated = get("If-None-Match", etag);
+
+                // Assert
+                assertEquals(200, full.statusCode());
+                assertEquals("bytes", full.headers().firstValue("Accept-Ranges").orElseThrow());
+                String body = new String(full.body(), StandardCharsets.UTF_8);
+                assertTrue(body.contains("\"id\":" + created.getId() + ",\"name\":\"Snapshot Product\""));
+                assertTrue(body.endsWith("\n"));
+                assertEquals(304, revalidated.statusCode());
+        }
+
+        /**
+         * Tests that a byte range returns exactly that slice of the file, and an
+         * out-of-bounds one is refused.
+         */
+        @Test
+        void testRangeRequests() throws Exception {
+                // Arrange
+                createAndAwaitSnapshot("Ranged Product");
+                byte[] full = get().body();
+
+                // Act
+                HttpResponse<byte[]> partial = get("Range", "bytes=5-14");
+                HttpResponse<byte[]> outside = get("Range", "bytes=" + full.length + "-");
+
+                // Assert
+                assertEquals(206, partial.statusCode());
+                assertEquals("bytes 5-14/" + full.length, partial.headers().firstValue("Content-Range").orElseThrow());
+                assertArrayEquals(Arrays.copyOfRange(full, 5, 15), partial.body());
+                assertEquals(416, outside.statusCode());
+        }
+
+        /**
+         * Tests that clients accepting gzip get the pre-compressed copy of the
+         * same content.
+         */
+        @Test
+        void testPrecompressedCopy() throws Exception {
+                // Arrange
+                createAndAwaitSnapshot("Compressed Product");
+
+                // Act
+                HttpResponse<byte[]> plain = get();
+                HttpResponse<byte[]> gzip = get("Accept-Encoding", "gzip");
+
+                // Assert
+                assertEquals("gzip", gzip.headers().firstValue("Content-Encoding").orElseThrow());
+                assertNotEquals(plain.headers().firstValue("ETag"), gzip.headers().firstValue("ETag"));
+                try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.body()))) {
+                        assertArrayEquals(plain.body(), in.readAllBytes());
+                }
+        }
+
+        /**
+         * Tests that the gzip copy follows the codings and q-values of
+         * Accept-Encoding rather than any mention of "gzip" in it.
+         */
+        @Test
+        void testAcceptEncodingIsParsed() throws Exception {
+                // Arrange
+                createAndAwaitSnapshot("Negotiated Product");
+
+                // Act
+                HttpResponse<byte[]> refused = get("Accept-Encoding", "gzip;q=0");
+                HttpResponse<byte[]> other = get("Accept-Encoding", "x-gzip-not");
+                HttpResponse<byte[]> overridden = get("Accept-Encoding", "*, gzip; q=0");
+                HttpResponse<byte[]> weighted = get("Accept-Encoding", "br;q=1.0, GZIP;q=0.5");
+                HttpResponse<byte[]> wildcard = get("Accept-Encoding", "*");
+
+                // Assert
+                assertTrue(refused.headers().firstValue("Content-Encoding").isEmpty());
+                assertTrue(other.headers().firstValue("Content-Encoding").isEmpty());
+                assertTrue(overridden.headers().firstValue("Content-Encoding").isEmpty());
+                assertEquals("gzip", weighted.headers().firstValue("Content-Encoding").orElseThrow());
+                assertEquals("gzip", wildcard.headers().firstValue("Content-Encoding").orElseThrow());
+        }
+}
@@ -0,0 +1,229 @@
+package com.example.product_service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.product_service.transfer.ImportJob;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for bulk import and export of the catalogue. Chunks are
+ * two rows, so every import is checkpointed several times, and heartbeats are
+ * short, so that abandoned jobs are found quickly.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = { "product.import.chunk-size=2",
+                                "product.import.directory=target/product-import-test",
+                                "product.import.heartbeat=100ms" })
+public class CatalogueTransferTest {
+
+        @Autowired
+        private TestRestTemplate restTemplate;
+
+        @Autowired
+        private JdbcTemplate jdbc;
+
+        @Value("${product.import.directory}")
+        private Path directory;
+
+        /** Adds a job running on another instance, which last renewed it at {@code heartbeat}. */
+        private String runningElsewhere(Instant heartbeat) {
+                String id = UUID.randomUUID().toString();
+                Timestamp created = Timestamp.from(Instant.now());
+                jdbc.update("insert into import_job (id, format, source, spooled, status, size, position, lines,"
+                                + " imported, rejected, owner, heartbeat_at, created_at, updated_at)"
+                                + " values (?, 'CSV', 'elsewhere.csv', false, 'RUNNING', 10, 0, 0, 0, 0, ?, ?, ?, ?)",
+                                id, UUID.randomUUID().toString(), Timestamp.from(heartbeat), created, created);
+                return id;
+        }
+
+        private ResponseEntity<ImportJob> upload(String body, MediaType type) {
+                return restTemplate.postForEntity("/api/products/import", new HttpEntity<>(body, headers(type)),
+                                ImportJob.class);
+        }
+
+        /** Polls an import until it is no longer running. */
+        private ImportJob await(ResponseEntity<ImportJob> started) throws InterruptedException {
+                assertEquals(202, started.getStatusCode().value());
+                String location = started.getHeaders().getLocation().toString();
+                long deadline = System.currentTimeMillis() + 10_000;
+                ImportJob job = started.getBody();
+                while (job.status() == ImportJob.Status.RUNNING) {
+                        assertTrue(System.currentTimeMillis() < deadline, "import did not finish");
+                        Thread.sleep(20);
+                        job = restTemplate.getForObject(location, ImportJob.class);
+                }
+                return job;
+        }
+
+        private String export(String format) {
+                return restTemplate.getForObject("/api/products/export?format=" + format, String.class);
+        }
+
+        /**
+         * Tests that a CSV upload imports its valid rows, including quoted
+         * names with commas and line breaks, and reports the invalid ones.
+         */
+        @Test
+        void testCsvUpload() throws Exception {
+                // Arrange
+                String tag = UUID.randomUUID().toString();
+                String csv = "Name,Price,Currency\r\n"
+                                + "\"CSV, Quoted " + tag + "\",1.50,EUR\r\n"
+                                + "\"CSV \"\"Multi\"\"\nLine " + tag + "\",2.00,\r\n"
+                                + "CSV No Price " + tag + ",,EUR\r\n"
+                                + "CSV Plain " + tag + ",3.25,EUR\r\n";
+
+                // Act
+                ImportJob job = await(upload(csv, MediaType.parseMediaType("text/csv")));
+
+                // Assert
+                assertEquals(ImportJob.Status.COMPLETED, job.status());
+                assertEquals(3, job.imported());
+                assertEquals(1, job.rejected());
+                assertEquals(6, job.lines());
+                assertEquals(job.size(), job.position());
+                assertTrue(job.lastError().startsWith("Line 5:"), job.lastError());
+                String exported = export("csv");
+                assertTrue(exported.startsWith("id,name,price,currency,version\r\n"));
+                assertTrue(exported.contains(",\"CSV, Quoted " + tag + "\",1.50,EUR,"));
+                assertTrue(exported.contains(",\"CSV \"\"Multi\"\"\nLine " + tag + "\",2.00,EUR,"));
+                assertFalse(exported.contains("CSV No Price " + tag));
+        }
+
+        /**
+         * Tests that an NDJSON upload ignores ids and unknown fields, and
+         * that the exported NDJSON contains the imported products.
+         */
+        @Test
+        void testNdjsonUpload() throws Exception {
+                // Arrange
+                String tag = UUID.randomUUID().toString();
+                String ndjson = "{\"id\":1,\"name\":\"NDJSON One " + tag + "\",\"price\":4.00,\"colour\":\"red\"}\n"
+                                + "{\"name\":\"NDJSON Two " + tag + "\",\"price\":5.00}\n"
+                                + "{\"name\":\n";
+
+                // Act
+                ImportJob job = await(upload(ndjson, MediaType.APPLICATION_NDJSON));
+
+                // Assert
+                assertEquals(ImportJob.Status.COMPLETED, job.status());
+                assertEquals(2, job.imported());
+                assertEquals(1, job.rejected());
+                String exported = export("ndjson");
+                assertTrue(exported.contains("\"name\":\"NDJSON One " + tag + "\""));
+                assertTrue(exported.contains("\"name\":\"NDJSON Two " + tag + "\""));
+        }
+
+        /**
+         * Tests that rows of an exported CSV file placed in the import
+         * directory are imported again in place, under new ids.
+         */
+        @Test
+        void testExportReimportedFromDirectory() throws Exception {
+                // Arrange
+                String tag = UUID.randomUUID().toString();
+                await(upload("name,price\nRound Trip " + tag + ",9.99\n", MediaType.parseMediaType("text/csv")));
+                String exported = export("csv").lines()
+                                .filter(line -> line.startsWith("id,") || line.contains("Round Trip " + tag))
+                                .collect(Collectors.joining("\r\n"));
+                Files.createDirectories(directory);
+                Path file = Files.writeString(directory.resolve(tag + ".csv"), exported);
+
+                // Act
+                ImportJob job = await(restTemplate.postForEntity("/api/products/import?path=" + file.getFileName(),
+                                null, ImportJob.class));
+
+                // Assert
+                assertEquals(ImportJob.Status.COMPLETED, job.status());
+                assertEquals(1, job.imported());
+                assertEquals(0, job.rejected());
+                assertTrue(Files.exists(file));
+                assertEquals(2, export("csv").split("Round Trip " + tag, -1).length - 1);
+        }
+
+        /**
+         * Tests the errors for an unknown format, a path outside the import
+         * directory, an unknown job and resuming a completed job.
+         */
+        @Test
+        void testRejectedRequests() throws Exception {
+                // Arrange
+                ImportJob completed = await(upload("name,price\n", MediaType.parseMediaType("text/csv")));
+
+                // Act
+                ResponseEntity<String> xml = restTemplate.exchange("/api/products/import", HttpMethod.POST,
+                                new HttpEntity<>("<products/>", headers(MediaType.APPLICATION_XML)), String.class);
+                ResponseEntity<String> outside = restTemplate.postForEntity(
+                                "/api/products/import?path=../../pom.xml&format=csv", null, String.class);
+                ResponseEntity<String> unknown = restTemplate.getForEntity(
+                                "/api/products/import/" + UUID.randomUUID(), String.class);
+                ResponseEntity<String> resumed = restTemplate.postForEntity(
+                                "/api/products/import/" + completed.id() + "/resume", null, String.class);
+                ResponseEntity<String> format = restTemplate.getForEntity("/api/products/export?format=xml",
+                                String.class);
+
+                // Assert
+                assertEquals(ImportJob.Status.COMPLETED, completed.status());
+                assertEquals(0, completed.imported());
+                assertEquals(415, xml.getStatusCode().value());
+                assertEquals(400, outside.getStatusCode().value());
+                assertEquals(404, unknown.getStatusCode().value());
+                assertEquals(409, resumed.getStatusCode().value());
+                assertEquals(400, format.getStatusCode().value());
+        }
+
+        /**
+         * Tests that only a job whose instance stopped renewing it is stopped
+         * for resuming, while a job another instance is still running is left
+         * running and cannot be resumed.
+         */
+        @Test
+        void testOnlyAbandonedJobsAreStopped() throws Exception {
+                // Arrange
+                String live = runningElsewhere(Instant.now().plus(Duration.ofHours(1)));
+                String abandoned = runningElsewhere(Instant.now().minus(Duration.ofMinutes(1)));
+
+                // Act
+                long deadline = System.currentTimeMillis() + 10_000;
+                ImportJob stopped = restTemplate.getForObject("/api/products/import/" + abandoned, ImportJob.class);
+                while (stopped.status() == ImportJob.Status.RUNNING) {
+                        assertTrue(System.currentTimeMillis() < deadline, "abandoned import was not stopped");
+                        Thread.sleep(20);
+                        stopped = restTemplate.getForObject("/api/products/import/" + abandoned, ImportJob.class);
+                }
+                Thread.sleep(500);
+                ResponseEntity<String> resumed = restTemplate.postForEntity(
+                                "/api/products/import/" + live + "/resume", null, String.class);
+
+                // Assert
+                assertEquals(ImportJob.Status.STOPPED, stopped.status());
+                assertEquals(ImportJob.Status.RUNNING,
+                                restTemplate.getForObject("/api/products/import/" + live, ImportJob.class).status());
+                assertEquals(409, resumed.getStatusCode().value());
+        }
+
+        private static HttpHeaders headers(MediaType type) {
+                HttpHeaders headers = new HttpHeaders();
+                headers.setContentType(type);
+                return headers;
+        }
+}
@@ -0,0 +1,68 @@
+package com.example.product_service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.search.NameNgramIndex;
+import com.example.product_service.search.ProductSearch;
+import com.example.product_service.search.ProductSearchService;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the file-backed {@code disk} profile.
+ * This class starts the application against a database file in a temporary
+ * directory, restarts it, and checks the catalogue survived.
+ */
+public class DiskStorageTest {
+
+        @TempDir
+        Path dir;
+
+        private ConfigurableApplicationContext start() {
+                return new SpringApplicationBuilder(ProductCrudApplication.class)
+                                .profiles("disk")
+                                .properties("server.port=0")
+                                .run("--product.storage.path=" + dir.resolve("products"),
+                                                // Fails startup if the migrations and the entity mapping disagree
+                                                "--spring.jpa.hibernate.ddl-auto=validate",
+                                                "--spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=true");
+        }
+
+        /**
+         * Tests that products written in one run are read back after a restart,
+         * and that substring search falls back to the database without the index.
+         */
+        @Test
+        void testCatalogueSurvivesRestart() {
+                // Arrange
+                Long id;
+                try (ConfigurableApplicationContext context = start()) {
+                        Product product = new Product();
+                        product.setName("Durable Product");
+                        product.setPrice(new BigDecimal("42.00"));
+                        id = context.getBean(ProductRepository.class).save(product).getId();
+                }
+
+                // Act
+                try (ConfigurableApplicationContext context = start()) {
+                        ProductRepository repo = context.getBean(ProductRepository.class);
+
+                        // Assert
+                        assertEquals("Durable Product", repo.findById(id).orElseThrow().getName());
+                        assertTrue(context.getBeansOfType(NameNgramIndex.class).isEmpty());
+                        List<Product> found = context.getBean(ProductSearchService.class).search(
+                                        new ProductSearch("rable", null, null, null), PageRequest.of(0, 10));
+                        assertEquals(List.of(id), found.stream().map(Product::getId).toList());
+                }
+        }
+}
@@ -0,0 +1,187 @@
+package com.example.product_service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.product_service.idempotency.IdempotentRequests;
+import com.example.product_service.idempotency.IdempotentRequests.Outcome;
+import com.example.product_service.idempotency.JdbcIdempotencyStore;
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for Idempotency-Key on product creation, with records kept
+ * in the database.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "product.idempotency.store=jdbc")
+public class IdempotencyTest {
+
+        @Autowired
+        private TestRestTemplate restTemplate;
+
+        @Autowired
+        private JdbcTemplate jdbc;
+
+        @Autowired
+        private ObjectMapper mapper;
+
+        @Autowired
+        private ProductRepository repo;
+
+        private ResponseEntity<Product> create(String key, String name, double price) {
+                Product product = new Product();
+                product.setName(name);
+                product.setPrice(BigDecimal.valueOf(price));
+                HttpHeaders headers = new HttpHeaders();
+                headers.set("Idempotency-Key", key);
+                return restTemplate.postForEntity("/api/products", new HttpEntity<>(product, headers), Product.class);
+        }
+
+        /**
+         * Tests that a retried create returns the original product instead of
+         * creating a second one.
+         */
+        @Test
+        void testRetryReplaysOriginal() {
+                // Arrange
+                String key = UUID.randomUUID().toString();
+
+                // Act
+                ResponseEntity<Product> first = create(key, "Idempotent Product", 7.00);
+                ResponseEntity<Product> retry = create(key, "Idempotent Product", 7.00);
+
+                // Assert
+                assertEquals(200, first.getStatusCode().value());
+                assertNull(first.getHeaders().getFirst("Idempotent-Replayed"));
+                assertEquals("true", retry.getHeaders().getFirst("Idempotent-Replayed"));
+                assertEquals(first.getBody().getId(), retry.getBody().getId());
+        }
+
+        /**
+         * Tests that reusing a key for a different product is rejected.
+         */
+        @Test
+        void testKeyReuseIsRejected() {
+                // Arrange
+                String key = UUID.randomUUID().toString();
+                create(key, "Original Product", 1.00);
+
+                // Act
+                ResponseEntity<Product> reused = create(key, "Different Product", 2.00);
+
+                // Assert
+                assertEquals(422, reused.getStatusCode().value());
+        }
+
+        /**
+         * Tests that simultaneous duplicates all get the same product and only
+         * one of them creates it.
+         */
+        @Test
+        void testConcurrentDuplicatesCreateOnce() throws Exception {
+                // Arrange
+                String key = UUID.randomUUID().toString();
+                ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+
+                // Act
+                List<Future<ResponseEntity<Product>>> responses = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                        responses.add(clients.submit(() -> create(key, "Concurrent Product", 3.00)));
+                }
+                List<ResponseEntity<Product>> results = new ArrayList<>();
+                for (Future<ResponseEntity<Product>> response : responses) {
+                        results.add(response.get());
+                }
+
+                // Assert
+                assertEquals(1, results.stream().map(r -> r.getBody().getId()).distinct().count());
+                assertEquals(1, results.stream()
+                                .filter(r -> r.getHeaders().getFirst("Idempotent-Replayed") == null)
+                                .count());
+        }
+
+        /**
+         * Tests that simultaneous duplicates sent to different instances,
+         * which share only the table, still create one product: each
+         * instance's requests claim the key in the table before creating.
+         */
+        @Test
+        void testDuplicatesAcrossInstancesCreateOnce() throws Exception {
+                // Arrange
+                String key = UUID.randomUUID().toString();
+                AtomicInteger creates = new AtomicInteger();
+                List<IdempotentRequests> instances = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                        instances.add(new IdempotentRequests(
+                                        new JdbcIdempotencyStore(jdbc, mapper, Duration.ofHours(1), Duration.ofMinutes(5)),
+                                        Duration.ofSeconds(10)));
+                }
+                ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+
+                // Act
+                List<Future<Outcome>> outcomes = new ArrayList<>();
+                for (IdempotentRequests instance : instances) {
+                        outcomes.add(clients.submit(() -> instance.execute(key, "f", () -> {
+                                creates.incrementAndGet();
+                                Product product = new Product();
+                                product.setName("Claimed Product");
+                                product.setPrice(BigDecimal.valueOf(4.00));
+                                return repo.save(product);
+                        })));
+                }
+                List<Outcome> results = new ArrayList<>();
+                for (Future<Outcome> outcome : outcomes) {
+                        results.add(outcome.get());
+                }
+
+                // Assert
+                assertEquals(1, creates.get());
+                assertEquals(1, results.stream().map(r -> r.response().getId()).distinct().count());
+                assertEquals(1, results.stream().filter(r -> !r.replayed()).count());
+        }
+
+        /**
+         * Tests that a key claimed by an instance that stopped mid-create is
+         * taken over once the claim is older than the claim timeout.
+         */
+        @Test
+        void testAbandonedClaimIsTakenOver() {
+                // Arrange
+                String key = UUID.randomUUID().toString();
+                jdbc.update("insert into idempotency_key (idempotency_key, fingerprint, response, created_at)"
+                                + " values (?, ?, null, ?)",
+                                key, "abandoned", Timestamp.from(Instant.now().minus(Duration.ofHours(1))));
+
+                // Act
+                ResponseEntity<Product> created = create(key, "Recovered Product", 5.00);
+                ResponseEntity<Product> retry = create(key, "Recovered Product", 5.00);
+
+                // Assert
+                assertEquals(200, created.getStatusCode().value());
+                assertNull(created.getHeaders().getFirst("Idempotent-Replayed"));
+                assertEquals("true", retry.getHeaders().getFirst("Idempotent-Replayed"));
+                assertEquals(created.getBody().getId(), retry.getBody().getId());
+        }
+}
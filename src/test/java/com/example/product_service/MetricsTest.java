@@ -0,0 +1,67 @@
+package com.example.product_service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.product_service.model.Product;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the Prometheus scrape endpoint.
+ * This class checks that the hot-path metrics are exported after some traffic.
+ */
+@AutoConfigureObservability
+@ActiveProfiles("metrics")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class MetricsTest {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private TestRestTemplate restTemplate;
+
+        /**
+         * Tests that request, repository, serialization, pool, Hibernate and JVM
+         * metrics are all scraped, with URI templates rather than raw paths as tags.
+         */
+        @Test
+        void testPrometheusScrape() {
+                // Arrange
+                Product product = new Product();
+                product.setName("Metered Product");
+                product.setPrice(new BigDecimal("5.00"));
+                Long id = restTemplate.postForEntity("http://localhost:" + port + "/api/products", product, Product.class)
+                                .getBody().getId();
+                restTemplate.getForEntity("http://localhost:" + port + "/api/products/" + id, Product.class);
+
+                // Act
+                ResponseEntity<String> response = restTemplate.getForEntity(
+                                "http://localhost:" + port + "/actuator/prometheus", String.class);
+
+                // Assert
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                String scrape = response.getBody();
+                assertTrue(scrape.contains("http_server_requests_seconds_bucket{application=\"product-service\","));
+                assertTrue(scrape.lines().anyMatch(line -> line.startsWith("http_server_requests_seconds_count{")
+                                && line.contains("uri=\"/api/products/{id}\"")));
+                assertTrue(scrape.lines().filter(line -> line.startsWith("http_server_requests"))
+                                .noneMatch(line -> line.contains("uri=\"/api/products/" + id + "\"")));
+                assertTrue(scrape.contains("http_server_requests_statements_count{"));
+                assertTrue(scrape.contains("spring_data_repository_invocations_seconds_bucket{"));
+                assertTrue(scrape.contains("product_json_write_seconds_count{"));
+                assertTrue(scrape.contains("hikaricp_connections_active{"));
+                assertTrue(scrape.contains("hibernate_entities_loads_total{"));
+                assertTrue(scrape.contains("jvm_gc_memory_allocated_bytes_total{"));
+        }
+}
@@ -0,0 +1,109 @@
+package com.example.product_service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.search.NameNgramIndex;
+import com.example.product_service.search.NameNgramIndex.SortField;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link NameNgramIndex} class.
+ * This class exercises substring matching, filtering, ordering and the
+ * update, delete and compaction paths of the in-memory trigram index.
+ */
+public class NameNgramIndexTest {
+
+    private NameNgramIndex index;
+
+    private static Product product(long id, String name, double price, long version) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(BigDecimal.valueOf(price));
+        product.setVersion(version);
+        return product;
+    }
+
+    private List<Long> search(String text) {
+        return index.search(text, null, Long.MIN_VALUE, Long.MAX_VALUE, SortField.ID, false, 0, 100);
+    }
+
+    /**
+     * Sets up an index holding a small catalogue before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        index = new NameNgramIndex();
+        index.put(product(1, "USB-C Cable", 9.99, 0));
+        index.put(product(2, "Braided cable 2m", 14.50, 0));
+        index.put(product(3, "HDMI Adapter", 24.00, 0));
+        index.put(product(4, "Cable Organizer", 59.00, 0));
+    }
+
+    /**
+     * Tests that substring queries ignore case and match anywhere in the name.
+     */
+    @Test
+    void testSubstringMatchesIgnoringCase() {
+        assertEquals(List.of(1L, 2L, 4L), search("CABLE"));
+        assertEquals(List.of(3L), search("mi ad"));
+        assertEquals(List.of(), search("keyboard"));
+    }
+
+    /**
+     * Tests that queries shorter than a trigram fall back to a scan.
+     */
+    @Test
+    void testShortQueries() {
+        assertEquals(List.of(1L, 2L, 4L), search("c"));
+        assertEquals(List.of(3L), search("hd"));
+        assertEquals(List.of(2L), search("2m"));
+    }
+
+    /**
+     * Tests price range and prefix filters combined with ordering and paging.
+     */
+    @Test
+    void testFiltersOrderingAndPaging() {
+        assertEquals(List.of(1L, 2L), index.search("cable", null, 0, 5000, SortField.ID, false, 0, 10));
+        assertEquals(List.of(4L, 2L, 1L), index.search("cable", null, 0, 10000, SortField.PRICE, true, 0, 10));
+        assertEquals(List.of(2L), index.search("cable", null, 0, 10000, SortField.PRICE, true, 1, 1));
+        assertEquals(List.of(4L), index.search("cable", "Cable", 0, 10000, SortField.NAME, false, 0, 10));
+    }
+
+    /**
+     * Tests that updates replace the indexed name, that stale versions are
+     * ignored and that removed products no longer match.
+     */
+    @Test
+    void testUpdateAndRemove() {
+        index.put(product(1, "USB-C Charger", 19.99, 1));
+        assertEquals(List.of(2L, 4L), search("cable"));
+
+        index.put(product(1, "USB-C Cable", 9.99, 0));
+        assertEquals(List.of(1L), search("charger"));
+
+        index.remove(4);
+        assertEquals(List.of(2L), search("cable"));
+        assertEquals(3, index.size());
+    }
+
+    /**
+     * Tests that heavy churn triggers compaction without losing live products.
+     */
+    @Test
+    void testCompactionKeepsLiveProducts() {
+        for (int round = 1; round <= 2000; round++) {
+            index.put(product(3, "HDMI Adapter rev " + round, 24.00, round));
+        }
+        assertEquals(4, index.size());
+        assertEquals(List.of(3L), search("rev 2000"));
+        assertEquals(List.of(1L, 2L, 4L), search("cable"));
+    }
+}
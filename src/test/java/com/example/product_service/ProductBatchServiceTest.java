@@ -0,0 +1,114 @@
+package com.example.product_service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.service.BatchItemResult;
+import com.example.product_service.service.BatchItemResult.Status;
+import com.example.product_service.service.ProductBatchService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the {@link ProductBatchService} class.
+ * This class runs the chunked bulk operations against the embedded database
+ * and checks the per-item results they report.
+ */
+@SpringBootTest(properties = "product.batch.chunk-size=7")
+public class ProductBatchServiceTest {
+
+    @Autowired
+    private ProductBatchService batchService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    /**
+     * Cleans the database before each test to ensure a consistent state.
+     */
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+    }
+
+    private static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setName("Batch Product " + i);
+            product.setPriceMinor(i * 100L);
+            products.add(product);
+        }
+        return products;
+    }
+
+    /**
+     * Tests that a bulk create spanning several chunks persists every product
+     * and reports the generated id of each item in request order.
+     */
+    @Test
+    void testCreateAll() {
+        List<BatchItemResult> results = batchService.createAll(products(20));
+
+        assertEquals(20, results.size());
+        assertEquals(20, productRepository.count());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).index());
+            assertEquals(Status.CREATED, results.get(i).status());
+            assertEquals("Batch Product " + i, productRepository.findById(results.get(i).id()).get().getName());
+        }
+    }
+
+    /**
+     * Tests that a bulk update changes existing products and reports missing
+     * or id-less items individually without failing the rest of the chunk.
+     */
+    @Test
+    void testUpdateAll() {
+        List<BatchItemResult> created = batchService.createAll(products(3));
+
+        Product first = new Product();
+        first.setId(created.get(0).id());
+        first.setName("Renamed");
+        first.setPrice(new BigDecimal("99.5"));
+        Product missing = new Product();
+        missing.setId(-1L);
+        Product noId = new Product();
+
+        List<BatchItemResult> results = batchService.updateAll(Arrays.asList(first, missing, noId));
+
+        assertEquals(Status.UPDATED, results.get(0).status());
+        assertEquals(Status.NOT_FOUND, results.get(1).status());
+        assertEquals(Status.INVALID, results.get(2).status());
+        Product reloaded = productRepository.findById(first.getId()).get();
+        assertEquals("Renamed", reloaded.getName());
+        assertEquals(9950, reloaded.getPriceMinor());
+    }
+
+    /**
+     * Tests that a bulk delete removes existing products and reports unknown
+     * ids as not found.
+     */
+    @Test
+    void testDeleteAll() {
+        List<Long> ids = new ArrayList<>();
+        batchService.createAll(products(10)).forEach(r -> ids.add(r.id()));
+        ids.add(-1L);
+
+        List<BatchItemResult> results = batchService.deleteAll(ids);
+
+        assertEquals(11, results.size());
+        assertTrue(results.subList(0, 10).stream().allMatch(r -> r.status() == Status.DELETED));
+        assertEquals(Status.NOT_FOUND, results.get(10).status());
+        assertEquals(0, productRepository.count());
+    }
+}
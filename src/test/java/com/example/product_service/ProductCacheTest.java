@@ -0,0 +1,120 @@
+package com.example.product_service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the read-through product cache.
+ * This class checks that repeated reads are served from the cache and that
+ * the write endpoints invalidate both single-product and listing entries.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ProductCacheTest {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private TestRestTemplate restTemplate;
+
+        @Autowired
+        private ProductRepository productRepository;
+
+        private String getBaseUrl() {
+                return "http://localhost:" + port + "/api/products";
+        }
+
+        private long hits(String cache) {
+                ResponseEntity<Map<String, Map<String, Long>>> stats = restTemplate.exchange(
+                                "http://localhost:" + port + "/api/cache/stats",
+                                HttpMethod.GET,
+                                null,
+                                new ParameterizedTypeReference<Map<String, Map<String, Long>>>() {
+                                });
+                return ((Number) stats.getBody().get(cache).get("hits")).longValue();
+        }
+
+        private List<Product> listing() {
+                return restTemplate.exchange(
+                                getBaseUrl(),
+                                HttpMethod.GET,
+                                null,
+                                new ParameterizedTypeReference<List<Product>>() {
+                                }).getBody();
+        }
+
+        /**
+         * Cleans the database (and with it the caches) before each test.
+         */
+        @BeforeEach
+        void setUp() {
+                productRepository.deleteAll();
+        }
+
+        /**
+         * Tests that a repeated GET by id is a cache hit and that an update and
+         * a delete are visible to the very next read.
+         */
+        @Test
+        void testProductByIdIsCachedAndInvalidated() {
+                Product product = new Product();
+                product.setName("Cached Product");
+                product.setPrice(new BigDecimal("10.0"));
+                Long id = restTemplate.postForEntity(getBaseUrl(), product, Product.class).getBody().getId();
+
+                long before = hits("products");
+                assertEquals(1000, restTemplate.getForObject(getBaseUrl() + "/" + id, Product.class).getPriceMinor());
+                assertEquals(1000, restTemplate.getForObject(getBaseUrl() + "/" + id, Product.class).getPriceMinor());
+                assertEquals(before + 1, hits("products"));
+
+                product.setPrice(new BigDecimal("12.5"));
+                restTemplate.put(getBaseUrl() + "/" + id, product);
+                assertEquals(1250, restTemplate.getForObject(getBaseUrl() + "/" + id, Product.class).getPriceMinor());
+
+                restTemplate.delete(getBaseUrl() + "/" + id);
+                assertEquals(HttpStatus.NOT_FOUND,
+                                restTemplate.getForEntity(getBaseUrl() + "/" + id, String.class).getStatusCode());
+        }
+
+        /**
+         * Tests that listing pages are cached and that a create, an update and
+         * a delete each invalidate them.
+         */
+        @Test
+        void testListingPagesAreCachedAndInvalidated() {
+                assertTrue(listing().isEmpty());
+                long before = hits("productPages");
+                assertTrue(listing().isEmpty());
+                assertEquals(before + 1, hits("productPages"));
+
+                Product product = new Product();
+                product.setName("Listed Product");
+                product.setPrice(new BigDecimal("5.0"));
+                Long id = restTemplate.postForEntity(getBaseUrl(), product, Product.class).getBody().getId();
+                assertEquals(1, listing().size());
+
+                product.setPrice(new BigDecimal("6.0"));
+                restTemplate.put(getBaseUrl() + "/" + id, product);
+                assertEquals(600, listing().get(0).getPriceMinor());
+
+                restTemplate.delete(getBaseUrl() + "/" + id);
+                assertTrue(listing().isEmpty());
+        }
+}
@@ -0,0 +1,176 @@
+package com.example.product_service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.example.product_service.changes.ChangeFeed;
+import com.example.product_service.model.Product;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the product change feed. Events are read from the
+ * Server-Sent Events stream as a client would, one line at a time. The
+ * database is shared with other test contexts, whose writes may appear on the
+ * stream too, so each test only counts the events for its own products.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ProductChangesTest {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private TestRestTemplate restTemplate;
+
+        @Autowired
+        private ChangeFeed feed;
+
+        private final HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .build();
+
+        private final ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor();
+
+        private static final Pattern PRODUCT_ID = Pattern.compile("\"productId\":(\\d+)");
+
+        /** An event as received on the stream. */
+        private record Received(long id, String name, String data) {
+
+                long productId() {
+                        Matcher matcher = PRODUCT_ID.matcher(data);
+                        return matcher.find() ? Long.parseLong(matcher.group(1)) : -1;
+                }
+        }
+
+        private String url(String path) {
+                return "http://localhost:" + port + "/api/products" + path;
+        }
+
+        /** Reads the first {@code count} events that match {@code wanted} from the stream opened by {@code request}. */
+        private Future<List<Received>> read(HttpRequest request, Predicate<Received> wanted, int count) {
+                return readers.submit(() -> {
+                        HttpResponse<InputStream> response = client.send(request,
+                                        HttpResponse.BodyHandlers.ofInputStream());
+                        assertEquals(200, response.statusCode());
+                        List<Received> events = new ArrayList<>();
+                        try (BufferedReader lines = new BufferedReader(
+                                        new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                                long id = 0;
+                                String name = null;
+                                String data = null;
+                                String line;
+                                while (events.size() < count && (line = lines.readLine()) != null) {
+                                        if (line.startsWith("id:")) {
+                                                id = Long.parseLong(line.substring(3));
+                                        } else if (line.startsWith("event:")) {
+                                                name = line.substring(6);
+                                        } else if (line.startsWith("data:")) {
+                                                data = line.substring(5);
+                                        } else if (line.isEmpty() && name != null) {
+                                                Received event = new Received(id, name, data);
+                                                if (wanted.test(event)) {
+                                                        events.add(event);
+                                                }
+                                                name = null;
+                                        }
+                                }
+                        }
+                        return events;
+                });
+        }
+
+        private HttpRequest.Builder stream(String query) {
+                return HttpRequest.newBuilder(URI.create(url("/changes" + query)))
+                                .header("Accept", "text/event-stream")
+                                .timeout(Duration.ofSeconds(10));
+        }
+
+        private Product create(String name, double price) {
+                Product product = new Product();
+                product.setName(name);
+                product.setPrice(BigDecimal.valueOf(price));
+                return restTemplate.postForObject(url(""), product, Product.class);
+        }
+
+        /**
+         * Tests that a create, update and delete arrive on the stream in
+         * commit order, each with its offset as the event id.
+         */
+        @Test
+        void testMutationsAreStreamedInOrder() throws Exception {
+                // Arrange
+                long since = feed.head();
+                CompletableFuture<Long> productId = new CompletableFuture<>();
+                Future<List<Received>> events = read(stream("?since=" + since).build(),
+                                event -> event.productId() == productId.join(), 3);
+
+                // Act
+                Product created = create("Streamed Product", 5.00);
+                productId.complete(created.getId());
+                created.setPrice(new BigDecimal("6.00"));
+                restTemplate.put(url("/" + created.getId()), created);
+                restTemplate.delete(url("/" + created.getId()));
+
+                // Assert
+                List<Received> received = events.get(30, TimeUnit.SECONDS);
+                assertEquals(List.of("created", "updated", "deleted"),
+                                received.stream().map(Received::name).toList());
+                assertTrue(received.get(0).id() > since);
+                assertTrue(received.get(0).id() < received.get(1).id());
+                assertTrue(received.get(1).id() < received.get(2).id());
+                assertTrue(received.get(0).data().contains("\"name\":\"Streamed Product\""));
+                assertTrue(received.get(1).data().contains("\"price\":6.00"));
+                assertTrue(received.get(2).data().contains("\"productId\":" + created.getId()));
+        }
+
+        /**
+         * Tests that a client reconnecting with Last-Event-ID resumes after the
+         * last event it saw, without replaying it.
+         */
+        @Test
+        void testResumesFromLastEventId() throws Exception {
+                // Arrange
+                long since = feed.head();
+                String run = UUID.randomUUID().toString();
+                create("First Product " + run, 1.00);
+                create("Second Product " + run, 2.00);
+                Predicate<Received> ours = event -> event.data().contains(run);
+                List<Received> first = read(stream("?since=" + since).build(), ours, 1).get(30, TimeUnit.SECONDS);
+
+                // Act
+                List<Received> resumed = read(stream("")
+                                .header("Last-Event-ID", Long.toString(first.get(0).id()))
+                                .build(), ours, 1).get(30, TimeUnit.SECONDS);
+
+                // Assert
+                assertTrue(first.get(0).data().contains("First Product"));
+                assertTrue(resumed.get(0).data().contains("Second Product"));
+                assertTrue(resumed.get(0).id() > first.get(0).id());
+        }
+}
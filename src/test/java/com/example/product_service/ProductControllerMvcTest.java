@@ -1,21 +1,39 @@
 package com.example.product_service;
 
 import com.example.product_service.controller.ProductController;
+import com.example.product_service.idempotency.IdempotentRequests;
+import com.example.product_service.ingest.ProductUpdateQueue;
 import com.example.product_service.model.Product;
 import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.service.BatchItemResult;
+import com.example.product_service.service.BatchItemResult.Status;
+import com.example.product_service.service.CatalogueVersion;
+import com.example.product_service.service.CatalogueVersion.Version;
+import com.example.product_service.service.ProductBatchService;
+import com.example.product_service.service.RepricingService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -35,11 +53,34 @@ public class ProductControllerMvcTest {
     @MockBean
     private ProductRepository productRepository;
 
+    @MockBean
+    private ProductBatchService productBatchService;
+
+    @MockBean
+    private ProductUpdateQueue productUpdateQueue;
+
+    @MockBean
+    private IdempotentRequests idempotentRequests;
+
+    @MockBean
+    private RepricingService repricingService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @MockBean
+    private CatalogueVersion catalogueVersion;
+
+    private static Product product(long id, String name, double price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(BigDecimal.valueOf(price));
+        return product;
+    }
+
     /**
-     * Tests the {@link ProductController#all()} method when products exist.
+     * Tests the {@link ProductController#all} method when products exist.
      * Verifies that the endpoint returns a list of products.
      *
      * @throws Exception if the request fails.
@@ -50,22 +91,25 @@ public class ProductControllerMvcTest {
         Product product = new Product();
         product.setId(1L);
         product.setName("Test Product");
-        product.setPrice(19.99);
+        product.setPrice(new BigDecimal("19.99"));
 
-        when(productRepository.findAll()).thenReturn(Arrays.asList(product));
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .thenReturn(Arrays.asList(product));
 
         // Act & Assert
         mockMvc.perform(get("/api/products"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].name", is("Test Product")))
                 .andExpect(jsonPath("$[0].price", is(19.99)));
 
-        verify(productRepository, times(1)).findAll();
+        verify(productRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(101));
+        verify(productRepository, never()).findAll();
     }
 
     /**
-     * Tests the {@link ProductController#all()} method when no products exist.
+     * Tests the {@link ProductController#all} method when no products exist.
      * Verifies that the endpoint returns an empty list.
      *
      * @throws Exception if the request fails.
@@ -73,14 +117,124 @@ public class ProductControllerMvcTest {
     @Test
     void testGetAllProducts_WhenNoProducts() throws Exception {
         // Arrange
-        when(productRepository.findAll()).thenReturn(Collections.emptyList());
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .thenReturn(Collections.emptyList());
 
         // Act & Assert
-        mockMvc.perform(get("/api/products"))
+        mockMvc.perform(get("/api/products").accept(MediaType.ALL))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    /**
+     * Tests the {@link ProductController#all} method when more rows
+     * exist than fit on the requested page.
+     * Verifies that the page is trimmed and a next-page cursor is advertised.
+     *
+     * @throws Exception if the request fails.
+     */
+    @Test
+    void testGetAllProducts_WhenMorePagesExist() throws Exception {
+        // Arrange
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(5L, Limit.of(3)))
+                .thenReturn(Arrays.asList(product(6L, "A", 1.0), product(7L, "B", 2.0), product(8L, "C", 3.0)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products").param("after", "5").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LINK, "</api/products?after=7&limit=2>; rel=\"next\""))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].id", is(7)));
+    }
+
+    /**
+     * Tests the {@link ProductController#all} method with the current
+     * catalogue ETag in {@code If-None-Match}.
+     * Verifies that the endpoint answers 304 without querying the repository.
+     *
+     * @throws Exception if the request fails.
+     */
+    @Test
+    void testGetAllProducts_WhenNotModified() throws Exception {
+        // Arrange
+        Version version = new Version(7, Instant.parse("2024-01-01T00:00:00Z"));
+        when(catalogueVersion.current()).thenReturn(Optional.of(version));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, version.etag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, version.etag()));
+
+        verifyNoInteractions(productRepository);
+    }
+
+    /**
+     * Tests the {@link ProductController#stream(long)} method.
+     * Verifies that an NDJSON request is served one product per line from the
+     * repository cursor.
+     *
+     * @throws Exception if the request fails.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamProducts_AsNdjson() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<Product> action = invocation.getArgument(1);
+            action.accept(product(1L, "A", 1.5));
+            action.accept(product(2L, "B", 2.5));
+            return null;
+        }).when(productRepository).forEachAfter(eq(0L), any(Consumer.class));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/products").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"id\":1,\"name\":\"A\",\"price\":1.50,\"version\":null,\"currency\":\"EUR\"}\n"
+                                + "{\"id\":2,\"name\":\"B\",\"price\":2.50,\"version\":null,\"currency\":\"EUR\"}\n"));
+        verify(productRepository, never()).findAll();
+    }
+
+    /**
+     * Tests the {@link ProductController#one} method.
+     * Verifies that a single product is served through the cached lookup.
+     *
+     * @throws Exception if the request fails.
+     */
+    @Test
+    void testGetProductById() throws Exception {
+        // Arrange
+        when(productRepository.readById(1L)).thenReturn(Optional.of(product(1L, "Test Product", 19.99)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Test Product")));
 
-        verify(productRepository, times(1)).findAll();
+        verify(productRepository, never()).findById(any());
+    }
+
+    /**
+     * Tests the {@link ProductController#one} method for an unknown id.
+     * Verifies that the endpoint responds with 404.
+     *
+     * @throws Exception if the request fails.
+     */
+    @Test
+    void testGetProductById_WhenMissing() throws Exception {
+        // Arrange
+        when(productRepository.readById(42L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products/42"))
+                .andExpect(status().isNotFound());
     }
 
     /**
@@ -94,12 +248,12 @@ public class ProductControllerMvcTest {
         // Arrange
         Product productToCreate = new Product();
         productToCreate.setName("New Product");
-        productToCreate.setPrice(29.99);
+        productToCreate.setPrice(new BigDecimal("29.99"));
 
         Product savedProduct = new Product();
         savedProduct.setId(1L);
         savedProduct.setName("New Product");
-        savedProduct.setPrice(29.99);
+        savedProduct.setPrice(new BigDecimal("29.99"));
 
         when(productRepository.save(any(Product.class))).thenReturn(savedProduct);
 
@@ -116,7 +270,7 @@ public class ProductControllerMvcTest {
     }
 
     /**
-     * Tests the {@link ProductController#update(Long, Product)} method.
+     * Tests the {@link ProductController#update} method.
      * Verifies that the endpoint updates an existing product and returns it.
      *
      * @throws Exception if the request fails.
@@ -126,39 +280,194 @@ public class ProductControllerMvcTest {
         // Arrange
         Product productToUpdate = new Product();
         productToUpdate.setName("Updated Product");
-        productToUpdate.setPrice(39.99);
+        productToUpdate.setPrice(new BigDecimal("39.99"));
 
         Product updatedProduct = new Product();
         updatedProduct.setId(1L);
         updatedProduct.setName("Updated Product");
-        updatedProduct.setPrice(39.99);
+        updatedProduct.setPrice(new BigDecimal("39.99"));
+        updatedProduct.setVersion(1L);
 
-        when(productRepository.save(any(Product.class))).thenReturn(updatedProduct);
+        when(productRepository.updateFields(1L, "Updated Product", 3999L, null))
+                .thenReturn(Optional.of(updatedProduct));
 
         // Act & Assert
         mockMvc.perform(put("/api/products/1")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(productToUpdate)))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.name", is("Updated Product")))
                 .andExpect(jsonPath("$.price", is(39.99)));
 
-        verify(productRepository, times(1)).save(any(Product.class));
+        verify(productRepository, never()).findById(any());
+        verify(productRepository, never()).save(any(Product.class));
     }
 
     /**
-     * Tests the {@link ProductController#delete(Long)} method.
+     * Tests the {@link ProductController#update} method with a stale
+     * {@code If-Match} header.
+     * Verifies that the endpoint responds with 412 instead of overwriting.
+     *
+     * @throws Exception if the request fails.
+     */
+    @Test
+    void testUpdateProduct_WhenIfMatchIsStale() throws Exception {
+        // Arrange
+        when(productRepository.updateFields(1L, "Lost Update", 100L, List.of(3L))).thenReturn(Optional.empty());
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        mockMvc.perform(put("/api/products/1")
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(product(1L, "Lost Update", 1.0))))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    /**
+     * Tests the {@link ProductController#update} method for an unknown id.
+     * Verifies that the endpoint responds with 404 instead of creating a row.
+     *
+     * @throws Exception if the request fails.
+     */
+    @Test
+    void testUpdateProduct_WhenMissing() throws Exception {
+        // Arrange
+        when(productRepository.updateFields(1L, "Nobody", 100L, null)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(put("/api/products/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(product(1L, "Nobody", 1.0))))
+                .andExpect(status().isNotFound());
+
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    /**
+     * Tests the {@link ProductController#patch} method with a JSON merge patch.
+     * Verifies that only the price is written and the new ETag returned.
+     *
+     * @throws Exception if the request fails.
+     */
+    @Test
+    void testPatchPrice() throws Exception {
+        // Arrange
+        Product patched = product(1L, "Test Product", 9.5);
+        patched.setVersion(2L);
+        when(productRepository.updatePrice(1L, 950L, List.of(1L))).thenReturn(Optional.of(patched));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/products/1")
+                .header(HttpHeaders.IF_MATCH, "\"1\"")
+                .contentType("application/merge-patch+json")
+                .content("{\"price\": 9.5}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+                .andExpect(jsonPath("$.price", is(9.5)));
+    }
+
+    /**
+     * Tests the {@link ProductController#patch} method with a field that
+     * cannot be patched.
+     * Verifies that the endpoint responds with 400 and writes nothing.
+     *
+     * @throws Exception if the request fails.
+     */
+    @Test
+    void testPatch_WhenFieldIsNotPrice() throws Exception {
+        // Act & Assert
+        mockMvc.perform(patch("/api/products/1")
+                .contentType("application/merge-patch+json")
+                .content("{\"name\": \"Renamed\"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(productRepository, never()).updatePrice(any(), anyLong(), any());
+    }
+
+    /**
+     * Tests the {@link ProductController#delete} method.
      * Verifies that the endpoint deletes a product by its ID.
      *
      * @throws Exception if the request fails.
      */
     @Test
     void testDeleteProduct() throws Exception {
+        // Arrange
+        when(productRepository.deleteExisting(1L, null)).thenReturn(true);
+
         // Act & Assert
         mockMvc.perform(delete("/api/products/1"))
                 .andExpect(status().isOk());
 
-        verify(productRepository, times(1)).deleteById(1L);
+        verify(productRepository, times(1)).deleteExisting(1L, null);
+    }
+
+    /**
+     * Tests the {@link ProductController#delete} method for an unknown id.
+     * Verifies that the endpoint responds with 404.
+     *
+     * @throws Exception if the request fails.
+     */
+    @Test
+    void testDeleteProduct_WhenMissing() throws Exception {
+        // Act & Assert
+        mockMvc.perform(delete("/api/products/9"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Tests the {@link ProductController#createBatch(List)} method.
+     * Verifies that the whole array is handed to the batch service in one call
+     * and that per-item results are returned.
+     *
+     * @throws Exception if the request fails.
+     */
+    @Test
+    void testCreateBatch() throws Exception {
+        // Arrange
+        when(productBatchService.createAll(anyList())).thenReturn(Arrays.asList(
+                new BatchItemResult(0, 1L, Status.CREATED, null),
+                new BatchItemResult(1, 2L, Status.CREATED, null)));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/products/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(product(0, "A", 1.0), product(0, "B", 2.0)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].id", is(2)))
+                .andExpect(jsonPath("$[1].status", is("CREATED")));
+
+        verify(productBatchService, times(1)).createAll(argThat(list -> list.size() == 2));
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    /**
+     * Tests the {@link ProductController#deleteBatch(List)} method.
+     * Verifies that the batch path is chosen over {@code DELETE /{id}}.
+     *
+     * @throws Exception if the request fails.
+     */
+    @Test
+    void testDeleteBatch() throws Exception {
+        // Arrange
+        when(productBatchService.deleteAll(List.of(1L, 9L))).thenReturn(Arrays.asList(
+                new BatchItemResult(0, 1L, Status.DELETED, null),
+                new BatchItemResult(1, 9L, Status.NOT_FOUND, null)));
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/products/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 9]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is("DELETED")))
+                .andExpect(jsonPath("$[1].status", is("NOT_FOUND")));
+
+        verify(productRepository, never()).deleteById(any());
     }
-}
\ No newline at end of file
+}
@@ -10,11 +10,29 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import com.example.product_service.controller.ProductController;
 import com.example.product_service.model.Product;
 import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.service.CatalogueVersion;
+import com.example.product_service.service.CatalogueVersion.Version;
+import com.example.product_service.service.ProductBatchService;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 /**
@@ -28,6 +46,12 @@ public class ProductControllerUnitTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductBatchService productBatchService;
+
+    @Mock
+    private CatalogueVersion catalogueVersion;
+
     @InjectMocks
     private ProductController productController;
 
@@ -42,26 +66,55 @@ public class ProductControllerUnitTest {
         testProduct = new Product();
         testProduct.setId(1L);
         testProduct.setName("Test Product");
-        testProduct.setPrice(19.99);
+        testProduct.setPrice(new BigDecimal("19.99"));
+        testProduct.setVersion(3L);
+    }
+
+    private static ServletWebRequest getRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
     }
 
     /**
-     * Tests the {@link ProductController#all()} method.
-     * Verifies that the method retrieves all products from the repository.
+     * Tests the {@link ProductController#all} method.
+     * Verifies that the method retrieves a single keyset page from the
+     * repository instead of the whole table.
      */
     @Test
     void testGetAllProducts() {
         // Arrange
         List<Product> products = Arrays.asList(testProduct);
-        when(productRepository.findAll()).thenReturn(products);
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(11))).thenReturn(products);
+
+        // Act
+        ResponseEntity<List<Product>> result = productController.all(0L, 10, getRequest(null));
+
+        // Assert
+        assertEquals(1, result.getBody().size());
+        assertEquals("Test Product", result.getBody().get(0).getName());
+        verify(productRepository, never()).findAll();
+    }
+
+    /**
+     * Tests the {@link ProductController#all} method with a current catalogue
+     * ETag.
+     * Verifies that the listing is answered as not modified without a query.
+     */
+    @Test
+    void testGetAllProducts_WhenNotModified() {
+        // Arrange
+        Version version = new Version(7, Instant.parse("2024-01-01T00:00:00Z"));
+        when(catalogueVersion.current()).thenReturn(Optional.of(version));
 
         // Act
-        List<Product> result = productController.all();
+        ResponseEntity<List<Product>> result = productController.all(0L, 10, getRequest(version.etag()));
 
         // Assert
-        assertEquals(1, result.size());
-        assertEquals("Test Product", result.get(0).getName());
-        verify(productRepository, times(1)).findAll();
+        assertNull(result);
+        verifyNoInteractions(productRepository);
     }
 
     /**
@@ -76,7 +129,7 @@ public class ProductControllerUnitTest {
         // Act
         Product newProduct = new Product();
         newProduct.setName("New Product");
-        newProduct.setPrice(29.99);
+        newProduct.setPrice(new BigDecimal("29.99"));
         Product result = productController.create(newProduct);
 
         // Assert
@@ -85,36 +138,142 @@ public class ProductControllerUnitTest {
     }
 
     /**
-     * Tests the {@link ProductController#update(Long, Product)} method.
-     * Verifies that the method updates an existing product in the repository.
+     * Tests the {@link ProductController#update(Long, String, Product)} method.
+     * Verifies that the {@code If-Match} version goes to the conditional
+     * update and the returned row's ETag is sent back.
      */
     @Test
     void testUpdateProduct() {
         // Arrange
-        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        Product saved = new Product();
+        saved.setId(1L);
+        saved.setName("Updated Product");
+        saved.setPrice(new BigDecimal("39.99"));
+        saved.setVersion(4L);
+        when(productRepository.updateFields(1L, "Updated Product", 3999L, List.of(3L)))
+                .thenReturn(Optional.of(saved));
 
         // Act
         Product updatedProduct = new Product();
         updatedProduct.setName("Updated Product");
-        updatedProduct.setPrice(39.99);
-        Product result = productController.update(1L, updatedProduct);
+        updatedProduct.setPrice(new BigDecimal("39.99"));
+        ResponseEntity<Product> result = productController.update(1L, "\"3\"", updatedProduct);
 
         // Assert
-        assertEquals(1L, updatedProduct.getId());
-        assertEquals("Test Product", result.getName());
-        verify(productRepository, times(1)).save(any(Product.class));
+        assertEquals(1L, result.getBody().getId());
+        assertEquals("Updated Product", result.getBody().getName());
+        assertEquals(3999, result.getBody().getPriceMinor());
+        assertEquals("\"4\"", result.getHeaders().getETag());
+        verify(productRepository, never()).findById(any());
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    /**
+     * Tests the {@link ProductController#update(Long, String, Product)} method
+     * with an outdated {@code If-Match} version.
+     * Verifies that the lost update is rejected with 412 once the row is
+     * found to exist.
+     */
+    @Test
+    void testUpdateProduct_WhenVersionIsStale() {
+        // Arrange
+        when(productRepository.updateFields(1L, null, 0L, List.of(2L))).thenReturn(Optional.empty());
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        // Act
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> productController.update(1L, "\"2\"", new Product()));
+
+        // Assert
+        assertEquals(HttpStatus.PRECONDITION_FAILED, e.getStatusCode());
+    }
+
+    /**
+     * Tests the {@link ProductController#patch(Long, String, Map)} method.
+     * Verifies that only the price is written.
+     */
+    @Test
+    void testPatchPrice() {
+        // Arrange
+        testProduct.setPrice(new BigDecimal("9.99"));
+        testProduct.setVersion(4L);
+        when(productRepository.updatePrice(1L, 999L, null)).thenReturn(Optional.of(testProduct));
+
+        // Act
+        ResponseEntity<Product> result = productController.patch(1L, null, Map.of("price", 9.99));
+
+        // Assert
+        assertEquals(999, result.getBody().getPriceMinor());
+        assertEquals("\"4\"", result.getHeaders().getETag());
+        verify(productRepository, never()).updateFields(any(), any(), anyLong(), any());
+    }
+
+    /**
+     * Tests the {@link ProductController#patch(Long, String, Map)} method with
+     * a field other than the price.
+     * Verifies that the patch is rejected with 400 before anything is written.
+     */
+    @Test
+    void testPatch_WhenNotOnlyPrice() {
+        // Act
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> productController.patch(1L, null, Map.of("name", "Renamed")));
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        verifyNoInteractions(productRepository);
     }
 
     /**
-     * Tests the {@link ProductController#delete(Long)} method.
+     * Tests the {@link ProductController#delete(Long, String)} method.
      * Verifies that the method deletes a product from the repository by its ID.
      */
     @Test
     void testDeleteProduct() {
+        // Arrange
+        when(productRepository.deleteExisting(1L, null)).thenReturn(true);
+
+        // Act
+        productController.delete(1L, null);
+
+        // Assert
+        verify(productRepository, times(1)).deleteExisting(1L, null);
+    }
+
+    /**
+     * Tests the {@link ProductController#delete(Long, String)} method for an
+     * unknown id.
+     * Verifies that 404 is returned.
+     */
+    @Test
+    void testDeleteProduct_WhenNotFound() {
+        // Arrange
+        when(productRepository.deleteExisting(9L, null)).thenReturn(false);
+
+        // Act
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> productController.delete(9L, null));
+
+        // Assert
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+        verify(productRepository, never()).existsById(any());
+    }
+
+    /**
+     * Tests the {@link ProductController#delete(Long, String)} method with a
+     * matching {@code If-Match} version.
+     * Verifies that the version is checked by the delete itself.
+     */
+    @Test
+    void testDeleteProduct_WhenVersionMatches() {
+        // Arrange
+        when(productRepository.deleteExisting(1L, List.of(3L))).thenReturn(true);
+
         // Act
-        productController.delete(1L);
+        productController.delete(1L, "\"3\"");
 
         // Assert
-        verify(productRepository, times(1)).deleteById(1L);
+        verify(productRepository, never()).findById(any());
+        verify(productRepository, never()).delete(any(Product.class));
     }
 }
\ No newline at end of file
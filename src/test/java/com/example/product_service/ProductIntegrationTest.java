@@ -10,8 +10,16 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 
 import com.example.product_service.model.Product;
+import com.example.product_service.model.ProductEvent;
+import com.example.product_service.repository.ProductEventRepository;
 import com.example.product_service.repository.ProductRepository;
 
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,6 +41,9 @@ public class ProductIntegrationTest {
         @Autowired
         private ProductRepository productRepository;
 
+        @Autowired
+        private ProductEventRepository productEventRepository;
+
         /**
          * Constructs the base URL for the Product API.
          *
@@ -76,7 +87,7 @@ public class ProductIntegrationTest {
                 // 2. Create a product
                 Product newProduct = new Product();
                 newProduct.setName("Integration Test Product");
-                newProduct.setPrice(49.99);
+                newProduct.setPrice(new BigDecimal("49.99"));
 
                 ResponseEntity<Product> createResponse = restTemplate.postForEntity(
                                 getBaseUrl(),
@@ -103,7 +114,7 @@ public class ProductIntegrationTest {
                 // 4. Update the product
                 Product productToUpdate = new Product();
                 productToUpdate.setName("Updated Integration Product");
-                productToUpdate.setPrice(59.99);
+                productToUpdate.setPrice(new BigDecimal("59.99"));
 
                 HttpEntity<Product> requestEntity = new HttpEntity<>(productToUpdate);
 
@@ -115,7 +126,7 @@ public class ProductIntegrationTest {
 
                 assertEquals(HttpStatus.OK, updateResponse.getStatusCode());
                 assertEquals("Updated Integration Product", updateResponse.getBody().getName());
-                assertEquals(59.99, updateResponse.getBody().getPrice());
+                assertEquals(5999, updateResponse.getBody().getPriceMinor());
 
                 // 5. Delete the product
                 restTemplate.delete(getBaseUrl() + "/" + createdProductId);
@@ -131,4 +142,210 @@ public class ProductIntegrationTest {
                 assertEquals(HttpStatus.OK, afterDeleteResponse.getStatusCode());
                 assertTrue(afterDeleteResponse.getBody().isEmpty());
         }
-}
\ No newline at end of file
+
+        /**
+         * Tests keyset pagination and NDJSON streaming against the real database.
+         * <ul>
+         * <li>Walks every page by following the {@code Link: rel="next"} header.</li>
+         * <li>Streams the catalogue as NDJSON and checks one line per product.</li>
+         * </ul>
+         */
+        @Test
+        void testPagedAndStreamedListing() {
+                for (int i = 0; i < 25; i++) {
+                        Product product = new Product();
+                        product.setName("Paged Product " + i);
+                        product.setPriceMinor(i * 100L);
+                        productRepository.save(product);
+                }
+
+                List<Product> seen = new ArrayList<>();
+                String next = getBaseUrl() + "?limit=10";
+                int pages = 0;
+                while (next != null) {
+                        ResponseEntity<List<Product>> page = restTemplate.exchange(
+                                        next,
+                                        HttpMethod.GET,
+                                        null,
+                                        new ParameterizedTypeReference<List<Product>>() {
+                                        });
+                        assertEquals(HttpStatus.OK, page.getStatusCode());
+                        seen.addAll(page.getBody());
+                        pages++;
+                        String link = page.getHeaders().getFirst(HttpHeaders.LINK);
+                        next = link == null ? null
+                                        : "http://localhost:" + port + link.substring(1, link.indexOf('>'));
+                }
+
+                assertEquals(3, pages);
+                assertEquals(25, seen.size());
+                for (int i = 1; i < seen.size(); i++) {
+                        assertTrue(seen.get(i - 1).getId() < seen.get(i).getId());
+                }
+
+                HttpHeaders headers = new HttpHeaders();
+                headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+                ResponseEntity<String> streamed = restTemplate.exchange(
+                                getBaseUrl() + "?after=" + seen.get(19).getId(),
+                                HttpMethod.GET,
+                                new HttpEntity<>(headers),
+                                String.class);
+
+                assertEquals(HttpStatus.OK, streamed.getStatusCode());
+                assertTrue(MediaType.APPLICATION_NDJSON.isCompatibleWith(streamed.getHeaders().getContentType()));
+                String[] lines = streamed.getBody().split("\n");
+                assertEquals(5, lines.length);
+                assertTrue(lines[0].contains("\"name\":\"Paged Product 20\""));
+        }
+
+        /**
+         * Tests conditional requests backed by the product version column.
+         * <ul>
+         * <li>Revalidating the listing with its ETag yields 304 until a write happens.</li>
+         * <li>Revalidating a single product with its ETag yields 304.</li>
+         * <li>A PUT carrying a stale {@code If-Match} is rejected with 412.</li>
+         * <li>A DELETE carrying the current {@code If-Match} succeeds.</li>
+         * </ul>
+         */
+        @Test
+        void testConditionalRequests() {
+                Product product = new Product();
+                product.setName("Versioned Product");
+                product.setPrice(new BigDecimal("10.0"));
+                Product created = restTemplate.postForEntity(getBaseUrl(), product, Product.class).getBody();
+                String itemUrl = getBaseUrl() + "/" + created.getId();
+
+                ResponseEntity<String> listing = restTemplate.getForEntity(getBaseUrl(), String.class);
+                String listingTag = listing.getHeaders().getETag();
+                assertNotNull(listingTag);
+                assertEquals(HttpStatus.NOT_MODIFIED, conditionalGet(getBaseUrl(), listingTag).getStatusCode());
+
+                ResponseEntity<Product> item = restTemplate.getForEntity(itemUrl, Product.class);
+                String itemTag = item.getHeaders().getETag();
+                assertEquals("\"" + created.getVersion() + "\"", itemTag);
+                assertEquals(HttpStatus.NOT_MODIFIED, conditionalGet(itemUrl, itemTag).getStatusCode());
+
+                HttpHeaders ifMatch = new HttpHeaders();
+                ifMatch.setIfMatch(itemTag);
+                product.setPrice(new BigDecimal("11.0"));
+                ResponseEntity<Product> updated = restTemplate.exchange(
+                                itemUrl, HttpMethod.PUT, new HttpEntity<>(product, ifMatch), Product.class);
+                assertEquals(HttpStatus.OK, updated.getStatusCode());
+                assertNotEquals(itemTag, updated.getHeaders().getETag());
+                assertEquals(HttpStatus.OK, conditionalGet(getBaseUrl(), listingTag).getStatusCode());
+
+                product.setPrice(new BigDecimal("12.0"));
+                ResponseEntity<String> lostUpdate = restTemplate.exchange(
+                                itemUrl, HttpMethod.PUT, new HttpEntity<>(product, ifMatch), String.class);
+                assertEquals(HttpStatus.PRECONDITION_FAILED, lostUpdate.getStatusCode());
+                assertEquals(1100, restTemplate.getForObject(itemUrl, Product.class).getPriceMinor());
+
+                HttpHeaders currentMatch = new HttpHeaders();
+                currentMatch.setIfMatch(updated.getHeaders().getETag());
+                ResponseEntity<String> deleted = restTemplate.exchange(
+                                itemUrl, HttpMethod.DELETE, new HttpEntity<>(currentMatch), String.class);
+                assertEquals(HttpStatus.OK, deleted.getStatusCode());
+                assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity(itemUrl, String.class).getStatusCode());
+        }
+
+        /**
+         * Tests the single-statement writes.
+         * <ul>
+         * <li>A JSON merge patch of the price bumps the version and leaves the name.</li>
+         * <li>A patch carrying the replaced {@code If-Match} is rejected with 412.</li>
+         * <li>PATCH and DELETE of an unknown id are 404.</li>
+         * </ul>
+         */
+        @Test
+        void testPatchAndMissingWrites() throws Exception {
+                Product product = new Product();
+                product.setName("Patched Product");
+                product.setPrice(new BigDecimal("10.0"));
+                Product created = restTemplate.postForEntity(getBaseUrl(), product, Product.class).getBody();
+                String itemUrl = getBaseUrl() + "/" + created.getId();
+                String itemTag = "\"" + created.getVersion() + "\"";
+
+                HttpResponse<String> patched = patch(itemUrl, itemTag, "{\"price\": 7.5}");
+                assertEquals(200, patched.statusCode());
+                Product current = restTemplate.getForObject(itemUrl, Product.class);
+                assertEquals("Patched Product", current.getName());
+                assertEquals(750, current.getPriceMinor());
+                assertEquals(created.getVersion() + 1, current.getVersion());
+                assertEquals("\"" + current.getVersion() + "\"", patched.headers().firstValue("ETag").orElseThrow());
+
+                assertEquals(412, patch(itemUrl, itemTag, "{\"price\": 1.0}").statusCode());
+                assertEquals(750, restTemplate.getForObject(itemUrl, Product.class).getPriceMinor());
+
+                String missingUrl = getBaseUrl() + "/" + (created.getId() + 1000);
+                assertEquals(404, patch(missingUrl, null, "{\"price\": 1.0}").statusCode());
+                assertEquals(HttpStatus.NOT_FOUND, restTemplate.exchange(
+                                missingUrl, HttpMethod.DELETE, null, String.class).getStatusCode());
+        }
+
+        /**
+         * Tests that a create ignores an id or version in its body.
+         * <ul>
+         * <li>An unknown id still creates a product under a new id.</li>
+         * <li>An existing id does not overwrite that product.</li>
+         * <li>A version does not carry over, and the create is recorded as one.</li>
+         * </ul>
+         */
+        @Test
+        void testCreateIgnoresIdAndVersion() {
+                // Arrange
+                Product existing = new Product();
+                existing.setName("Existing Product");
+                existing.setPrice(new BigDecimal("5.00"));
+                existing = restTemplate.postForEntity(getBaseUrl(), existing, Product.class).getBody();
+
+                // Act
+                ResponseEntity<Product> unknownId = restTemplate.postForEntity(getBaseUrl(), json(
+                                "{\"id\": 987654, \"name\": \"Unknown Id\", \"price\": 1.00}"), Product.class);
+                ResponseEntity<Product> existingId = restTemplate.postForEntity(getBaseUrl(), json(
+                                "{\"id\": " + existing.getId() + ", \"version\": " + existing.getVersion()
+                                                + ", \"name\": \"Overwrite\", \"price\": 2.00}"),
+                                Product.class);
+                ResponseEntity<Product> versioned = restTemplate.postForEntity(getBaseUrl(), json(
+                                "{\"version\": 3, \"name\": \"Versioned\", \"price\": 3.00}"), Product.class);
+
+                // Assert
+                assertEquals(HttpStatus.OK, unknownId.getStatusCode());
+                assertNotEquals(987654L, unknownId.getBody().getId());
+                assertEquals(HttpStatus.OK, existingId.getStatusCode());
+                assertNotEquals(existing.getId(), existingId.getBody().getId());
+                Product untouched = restTemplate.getForObject(getBaseUrl() + "/" + existing.getId(), Product.class);
+                assertEquals("Existing Product", untouched.getName());
+                assertEquals(existing.getVersion(), untouched.getVersion());
+                assertEquals(HttpStatus.OK, versioned.getStatusCode());
+                assertEquals(0L, versioned.getBody().getVersion());
+                ProductEvent recorded = productEventRepository.findFirstByOrderByIdDesc().orElseThrow();
+                assertEquals(versioned.getBody().getId(), recorded.getProductId());
+                assertEquals(ProductEvent.Type.CREATED, recorded.getType());
+                assertEquals(4, productRepository.count());
+        }
+
+        private static HttpEntity<String> json(String body) {
+                HttpHeaders headers = new HttpHeaders();
+                headers.setContentType(MediaType.APPLICATION_JSON);
+                return new HttpEntity<>(body, headers);
+        }
+
+        // The default request factory cannot send PATCH.
+        private HttpResponse<String> patch(String url, String ifMatch, String body) throws Exception {
+                HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                                .header(HttpHeaders.CONTENT_TYPE, "application/merge-patch+json")
+                                .method("PATCH", HttpRequest.BodyPublishers.ofString(body));
+                if (ifMatch != null) {
+                        request.header(HttpHeaders.IF_MATCH, ifMatch);
+                }
+                try (HttpClient client = HttpClient.newHttpClient()) {
+                        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+                }
+        }
+
+        private ResponseEntity<String> conditionalGet(String url, String etag) {
+                HttpHeaders headers = new HttpHeaders();
+                headers.setIfNoneMatch(etag);
+                return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        }
+}
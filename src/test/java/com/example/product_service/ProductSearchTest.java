@@ -0,0 +1,130 @@
+package com.example.product_service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for {@code GET /api/products/search}.
+ * This class checks prefix and price queries served by the database, and
+ * substring queries served by the in-memory index as it follows writes.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ProductSearchTest {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private TestRestTemplate restTemplate;
+
+        @Autowired
+        private ProductRepository productRepository;
+
+        private String getBaseUrl() {
+                return "http://localhost:" + port + "/api/products";
+        }
+
+        private List<String> names(String query) {
+                ResponseEntity<List<Product>> response = restTemplate.exchange(
+                                getBaseUrl() + "/search?" + query,
+                                HttpMethod.GET,
+                                null,
+                                new ParameterizedTypeReference<List<Product>>() {
+                                });
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                return response.getBody().stream().map(Product::getName).toList();
+        }
+
+        private Long create(String name, double price) {
+                Product product = new Product();
+                product.setName(name);
+                product.setPrice(BigDecimal.valueOf(price));
+                return restTemplate.postForEntity(getBaseUrl(), product, Product.class).getBody().getId();
+        }
+
+        /**
+         * Cleans the database and seeds a small catalogue before each test.
+         */
+        @BeforeEach
+        void setUp() {
+                productRepository.deleteAll();
+                create("USB-C Cable", 9.99);
+                create("Braided cable 2m", 14.50);
+                create("HDMI Adapter", 24.00);
+                create("Cable Organizer", 59.00);
+        }
+
+        /**
+         * Tests prefix and price-range queries, with sorting, served by the database.
+         */
+        @Test
+        void testPrefixAndPriceRange() {
+                assertEquals(List.of("Cable Organizer"), names("prefix=Cable"));
+                assertEquals(List.of("HDMI Adapter", "Braided cable 2m"),
+                                names("minPrice=10&maxPrice=50&sort=price,desc"));
+        }
+
+        /**
+         * Tests that substring queries combine with price filters and follow
+         * updates and deletes.
+         */
+        @Test
+        void testSubstringFollowsWrites() {
+                assertEquals(List.of("USB-C Cable", "Braided cable 2m"), names("q=cable&maxPrice=50"));
+
+                Long adapter = productRepository.findAll().stream()
+                                .filter(p -> p.getName().equals("HDMI Adapter")).findFirst().get().getId();
+                Product renamed = new Product();
+                renamed.setName("HDMI Cable");
+                renamed.setPrice(new BigDecimal("24.00"));
+                restTemplate.put(getBaseUrl() + "/" + adapter, renamed);
+                assertEquals(List.of("HDMI Cable", "Cable Organizer"), names("q=CABLE&minPrice=20&sort=price"));
+
+                restTemplate.delete(getBaseUrl() + "/" + adapter);
+                assertEquals(List.of("Cable Organizer"), names("q=cable&minPrice=20"));
+        }
+
+        /**
+         * Tests that products created through the batch endpoint are searchable.
+         */
+        @Test
+        void testBatchCreatedProductsAreIndexed() {
+                Product first = new Product();
+                first.setName("Cable Ties");
+                first.setPrice(new BigDecimal("3.00"));
+                Product second = new Product();
+                second.setName("Desk Lamp");
+                second.setPrice(new BigDecimal("30.00"));
+                restTemplate.postForEntity(getBaseUrl() + "/batch", List.of(first, second), String.class);
+
+                assertEquals(List.of("Cable Ties", "USB-C Cable"), names("q=cable&maxPrice=10&sort=price"));
+                assertEquals(List.of("Desk Lamp"), names("q=lamp"));
+        }
+
+        /**
+         * Tests that invalid ranges and sort properties are rejected.
+         */
+        @Test
+        void testRejectsInvalidQueries() {
+                assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity(
+                                getBaseUrl() + "/search?minPrice=10&maxPrice=1", String.class).getStatusCode());
+                assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity(
+                                getBaseUrl() + "/search?sort=version", String.class).getStatusCode());
+        }
+}
@@ -0,0 +1,131 @@
+package com.example.product_service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.example.product_service.analytics.PriceHistogram;
+import com.example.product_service.analytics.PriceStats;
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for {@code GET /api/products/stats}.
+ * This class checks that the aggregates follow creates, updates and deletes
+ * made through the API.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ProductStatsTest {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private TestRestTemplate restTemplate;
+
+        @Autowired
+        private ProductRepository productRepository;
+
+        private String getBaseUrl() {
+                return "http://localhost:" + port + "/api/products";
+        }
+
+        private Product create(String name, double price) {
+                Product product = new Product();
+                product.setName(name);
+                product.setPrice(BigDecimal.valueOf(price));
+                return restTemplate.postForEntity(getBaseUrl(), product, Product.class).getBody();
+        }
+
+        private PriceStats stats(String query) {
+                ResponseEntity<PriceStats> response = restTemplate.getForEntity(getBaseUrl() + "/stats?" + query,
+                                PriceStats.class);
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                return response.getBody();
+        }
+
+        /**
+         * Cleans the database before each test to ensure a consistent state.
+         */
+        @BeforeEach
+        void setUp() {
+                productRepository.deleteAll();
+        }
+
+        /**
+         * Tests count, minimum, maximum and average with and without filters,
+         * before and after writes.
+         */
+        @Test
+        void testStatsFollowWrites() {
+                // Arrange
+                Product apple = create("Apple Juice", 2.00);
+                create("Apple Pie", 6.00);
+                Product banana = create("Banana", 1.00);
+
+                // Act & Assert
+                PriceStats all = stats("");
+                assertEquals(3, all.count());
+                assertEquals(new BigDecimal("1.00"), all.min());
+                assertEquals(new BigDecimal("6.00"), all.max());
+                assertEquals(0, new BigDecimal("3").compareTo(all.average()));
+
+                PriceStats apples = stats("prefix=Apple&maxPrice=5");
+                assertEquals(1, apples.count());
+                assertEquals(new BigDecimal("2.00"), apples.max());
+
+                apple.setPrice(new BigDecimal("4.00"));
+                restTemplate.put(getBaseUrl() + "/" + apple.getId(), apple);
+                restTemplate.delete(getBaseUrl() + "/" + banana.getId());
+                PriceStats after = stats("");
+                assertEquals(2, after.count());
+                assertEquals(new BigDecimal("4.00"), after.min());
+                assertEquals(new BigDecimal("10.00"), after.sum());
+
+                PriceStats none = stats("prefix=Cherry");
+                assertEquals(0, none.count());
+                assertNull(none.average());
+        }
+
+        /**
+         * Tests grouping by name prefix and the price histogram.
+         */
+        @Test
+        void testGroupsAndHistogram() {
+                // Arrange
+                create("Apple Juice", 2.00);
+                create("Apricot Jam", 4.00);
+                create("Banana", 10.00);
+
+                // Act
+                Map<String, PriceStats> groups = restTemplate.exchange(getBaseUrl() + "/stats/by-prefix?length=2",
+                                HttpMethod.GET, null, new ParameterizedTypeReference<Map<String, PriceStats>>() {
+                                }).getBody();
+                PriceHistogram histogram = restTemplate.getForEntity(getBaseUrl() + "/stats/histogram?buckets=4",
+                                PriceHistogram.class).getBody();
+
+                // Assert
+                assertEquals(2, groups.size());
+                assertEquals(2, groups.get("Ap").count());
+                assertEquals(0, new BigDecimal("3").compareTo(groups.get("Ap").average()));
+                assertEquals(1, groups.get("Ba").count());
+
+                assertEquals(2.00, histogram.min());
+                assertEquals(10.00, histogram.max());
+                assertArrayEquals(new long[] { 1, 1, 0, 1 }, histogram.counts());
+                assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity(
+                                getBaseUrl() + "/stats/histogram?buckets=0", String.class).getStatusCode());
+        }
+}
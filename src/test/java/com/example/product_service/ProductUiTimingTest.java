@@ -0,0 +1,191 @@
+package com.example.product_service;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.service.ProductBatchService;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Timing tests for the product page against a catalogue of 100,000 products.
+ * This class uses Selenium WebDriver to check that only one page of rows is
+ * in the DOM, that edits and deletes patch their own row without reloading
+ * or rebuilding the table, and that each interaction stays within a fixed
+ * time budget however large the catalogue is.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class ProductUiTimingTest {
+
+    private static final int PRODUCTS = 100_000;
+    private static final int PAGE_SIZE = 50;
+    private static final String ROWS = "tbody#productTable tr";
+    private static final Duration PATCH_BUDGET = Duration.ofMillis(500);
+    private static final Duration PAGE_BUDGET = Duration.ofSeconds(2);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductBatchService batchService;
+
+    private WebDriver driver;
+    private WebDriverWait wait;
+
+    /**
+     * Sets up the WebDriverManager for ChromeDriver before all tests.
+     */
+    @BeforeAll
+    public static void setupClass() {
+        WebDriverManager.chromedriver().browserVersion("135.0.7049.84").setup();
+    }
+
+    /**
+     * Seeds the catalogue and starts a headless browser that polls often
+     * enough for the measured times to be close to the page's own.
+     */
+    @BeforeEach
+    public void setupTest() {
+        productRepository.deleteAllInBatch();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Timing Product " + i);
+            product.setPrice(new BigDecimal("9.99"));
+            products.add(product);
+        }
+        batchService.createAll(products);
+
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--headless", "--disable-gpu", "--window-size=1920,1200");
+        driver = new ChromeDriver(options);
+        wait = new WebDriverWait(driver, Duration.ofSeconds(10), Duration.ofMillis(5));
+    }
+
+    /**
+     * Closes the browser and empties the catalogue again, so later tests
+     * do not start with 100,000 products.
+     */
+    @AfterEach
+    public void teardown() {
+        if (driver != null) {
+            driver.quit();
+        }
+        productRepository.deleteAllInBatch();
+    }
+
+    private Object script(String script) {
+        return ((JavascriptExecutor) driver).executeScript(script);
+    }
+
+    /** Marks every row, so a rebuilt table can be told from a patched one. */
+    private void markRows() {
+        script("document.querySelectorAll('" + ROWS + "').forEach((row) => row.dataset.marker = 'kept')");
+    }
+
+    private long unmarkedRows() {
+        return (Long) script("return document.querySelectorAll('" + ROWS + ":not([data-marker])').length");
+    }
+
+    private long listingRequests() {
+        return (Long) script("return performance.getEntriesByType('resource')"
+                + ".filter((e) => e.name.includes('/api/products?after=')).length");
+    }
+
+    private long lastListingStatus() {
+        return (Long) script("const listings = performance.getEntriesByType('resource')"
+                + ".filter((e) => e.name.includes('/api/products?after='));"
+                + "return listings[listings.length - 1].responseStatus");
+    }
+
+    private static void assertWithin(Duration budget, long startNanos, String interaction) {
+        Duration took = Duration.ofNanos(System.nanoTime() - startNanos);
+        assertTrue(took.compareTo(budget) <= 0, interaction + " took " + took.toMillis() + " ms");
+    }
+
+    /**
+     * Tests paging, an edit and a delete against the large catalogue: each
+     * within its budget, edits and deletes without a listing request and
+     * without touching the other rows, and names rendered as text.
+     */
+    @Test
+    public void testInteractionsTakeConstantTime() {
+        // Open the page: only the first page of rows is rendered
+        long start = System.nanoTime();
+        driver.get("http://localhost:" + port);
+        wait.until(ExpectedConditions.numberOfElementsToBe(By.cssSelector(ROWS), PAGE_SIZE));
+        assertWithin(PAGE_BUDGET, start, "first page");
+
+        // Edit a row to a name that would be markup if it were not escaped
+        markRows();
+        long listings = listingRequests();
+        WebElement row = driver.findElements(By.cssSelector(ROWS)).get(10);
+        row.findElement(By.xpath(".//button[text()='Edit']")).click();
+        wait.until(ExpectedConditions.attributeToBeNotEmpty(driver.findElement(By.id("name")), "value"));
+        WebElement nameInput = driver.findElement(By.id("name"));
+        nameInput.clear();
+        nameInput.sendKeys("<b>Bold</b> & 'quoted'");
+        start = System.nanoTime();
+        driver.findElement(By.id("productForm")).submit();
+        wait.until(ExpectedConditions.textToBePresentInElement(row, "<b>Bold</b> & 'quoted'"));
+        assertWithin(PATCH_BUDGET, start, "edit");
+        assertTrue(driver.findElements(By.cssSelector(ROWS + " b")).isEmpty());
+        assertEquals(0, unmarkedRows());
+        assertEquals(listings, listingRequests());
+
+        // Delete a row: it alone goes
+        WebElement deleted = driver.findElements(By.cssSelector(ROWS)).get(20);
+        start = System.nanoTime();
+        deleted.findElement(By.xpath(".//button[text()='Delete']")).click();
+        wait.until(ExpectedConditions.stalenessOf(deleted));
+        assertWithin(PATCH_BUDGET, start, "delete");
+        assertEquals(PAGE_SIZE - 1, driver.findElements(By.cssSelector(ROWS)).size());
+        assertEquals(0, unmarkedRows());
+        assertEquals(listings, listingRequests());
+
+        // Page forwards and back, then forwards again
+        String firstRow = driver.findElement(By.cssSelector(ROWS)).getText();
+        start = System.nanoTime();
+        driver.findElement(By.id("nextPage")).click();
+        wait.until(ExpectedConditions.not(
+                ExpectedConditions.textToBe(By.cssSelector(ROWS), firstRow)));
+        assertWithin(PAGE_BUDGET, start, "next page");
+        assertEquals(PAGE_SIZE, driver.findElements(By.cssSelector(ROWS)).size());
+        String secondPageRow = driver.findElement(By.cssSelector(ROWS)).getText();
+        driver.findElement(By.id("prevPage")).click();
+        wait.until(ExpectedConditions.textToBe(By.cssSelector(ROWS), firstRow));
+
+        // The second page is cached, and revalidated with its ETag
+        start = System.nanoTime();
+        driver.findElement(By.id("nextPage")).click();
+        wait.until(ExpectedConditions.textToBe(By.cssSelector(ROWS), secondPageRow));
+        assertWithin(PAGE_BUDGET, start, "cached page");
+        assertEquals(304, lastListingStatus());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.product_service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.routing.ReplicaRoutingDataSource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for replica failover: the only replica is unreachable,
+ * so reads must fall back to the primary.
+ */
+@ActiveProfiles("replica")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+                "spring.datasource.url=jdbc:h2:mem:failover-primary;DB_CLOSE_DELAY=-1",
+                "product.datasource.replicas[0].url=jdbc:h2:tcp://localhost:1/unreachable",
+                "product.datasource.replication=none",
+                "product.cache.provider=none",
+                "product.l2cache.enabled=false" })
+public class ReplicaFailoverTest {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private TestRestTemplate restTemplate;
+
+        @Autowired
+        private ReplicaRoutingDataSource routingDataSource;
+
+        /**
+         * Tests that a read succeeds from the primary and the failed replica is
+         * taken out of rotation.
+         */
+        @Test
+        void testReadsFallBackToPrimary() {
+                // Arrange
+                Product product = new Product();
+                product.setName("Failover Product");
+                product.setPrice(new BigDecimal("3.00"));
+                Long id = restTemplate.postForEntity("http://localhost:" + port + "/api/products", product,
+                                Product.class).getBody().getId();
+
+                // Act
+                ResponseEntity<Product> response = restTemplate.getForEntity(
+                                "http://localhost:" + port + "/api/products/" + id, Product.class);
+
+                // Assert
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                assertEquals("Failover Product", response.getBody().getName());
+                assertEquals(0, routingDataSource.healthyCount());
+        }
+}
@@ -0,0 +1,119 @@
+package com.example.product_service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.product_service.model.Product;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for read-replica routing with the local primary/replica
+ * pair, with the default caches. Replication lag is set high enough that a
+ * read served by the replica cannot yet see a fresh write.
+ */
+@ActiveProfiles("replica")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "product.datasource.replication-lag=2s")
+public class ReplicaRoutingTest {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private TestRestTemplate restTemplate;
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        private ResponseEntity<Product> get(Long id, String cookie) {
+                HttpHeaders headers = new HttpHeaders();
+                if (cookie != null) {
+                        headers.add(HttpHeaders.COOKIE, cookie);
+                }
+                return restTemplate.exchange("http://localhost:" + port + "/api/products/" + id, HttpMethod.GET,
+                                new HttpEntity<>(headers), Product.class);
+        }
+
+        /**
+         * Tests that reads go to the lagging replica, that the writing client
+         * reads its own write from the primary even after the replica's miss,
+         * and that the replica catches up.
+         */
+        @Test
+        void testReadYourWritesAndReplicaCatchUp() throws InterruptedException {
+                // Arrange
+                Product product = new Product();
+                product.setName("Replicated Product");
+                product.setPrice(new BigDecimal("12.00"));
+                ResponseEntity<Product> created = restTemplate.postForEntity(
+                                "http://localhost:" + port + "/api/products", product, Product.class);
+                Long id = created.getBody().getId();
+                String cookie = created.getHeaders().getFirst(HttpHeaders.SET_COOKIE).split(";")[0];
+                // The insert put the product in the second-level cache; without it the replica is asked
+                entityManagerFactory.getCache().evict(Product.class, id);
+
+                // Act & Assert
+                assertEquals(HttpStatus.NOT_FOUND, get(id, null).getStatusCode());
+                assertEquals(HttpStatus.OK, get(id, cookie).getStatusCode());
+
+                long deadline = System.currentTimeMillis() + 10_000;
+                while (get(id, null).getStatusCode() != HttpStatus.OK) {
+                        assertTrue(System.currentTimeMillis() < deadline, "replica never caught up");
+                        Thread.sleep(100);
+                }
+                assertEquals("Replicated Product", get(id, null).getBody().getName());
+        }
+
+        /**
+         * Tests that the listing's ETag is taken from the replica: a listing
+         * that cannot see a fresh write yet does not carry the tag of the
+         * catalogue with it, and the page that carries that tag once the
+         * replica has caught up has the write. The lagging page is not cached
+         * for the writing client. (A page served from the cache may be newer
+         * than its tag, which only costs a refetch.)
+         */
+        @Test
+        void testListingTagFollowsReplica() throws InterruptedException {
+                // Arrange
+                Product product = new Product();
+                product.setName("Listed Product");
+                product.setPrice(new BigDecimal("7.00"));
+                ResponseEntity<Product> created = restTemplate.postForEntity(
+                                "http://localhost:" + port + "/api/products", product, Product.class);
+                Long id = created.getBody().getId();
+                String url = "http://localhost:" + port + "/api/products?after=" + (id - 1);
+                HttpHeaders pinned = new HttpHeaders();
+                pinned.add(HttpHeaders.COOKIE, created.getHeaders().getFirst(HttpHeaders.SET_COOKIE).split(";")[0]);
+
+                // Act
+                ResponseEntity<String> lagging = restTemplate.getForEntity(url, String.class);
+                ResponseEntity<String> own = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(pinned),
+                                String.class);
+                long deadline = System.currentTimeMillis() + 10_000;
+                ResponseEntity<String> caughtUp = restTemplate.getForEntity(url, String.class);
+                while (caughtUp.getHeaders().getETag().equals(lagging.getHeaders().getETag())) {
+                        assertTrue(System.currentTimeMillis() < deadline, "replica never caught up");
+                        Thread.sleep(100);
+                        caughtUp = restTemplate.getForEntity(url, String.class);
+                }
+
+                // Assert
+                assertFalse(lagging.getBody().contains("Listed Product"));
+                assertTrue(own.getBody().contains("Listed Product"));
+                assertTrue(caughtUp.getBody().contains("Listed Product"));
+        }
+}
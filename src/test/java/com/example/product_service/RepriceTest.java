@@ -0,0 +1,149 @@
+package com.example.product_service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.example.product_service.analytics.PriceStats;
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.service.RepricingService;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for {@code POST /api/products/reprice}.
+ * This class runs with a chunk size of two so that a repricing spans several
+ * chunks, and checks that reads, search and stats follow it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "product.reprice.chunk-size=2")
+public class RepriceTest {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private TestRestTemplate restTemplate;
+
+        @Autowired
+        private ProductRepository productRepository;
+
+        private String getBaseUrl() {
+                return "http://localhost:" + port + "/api/products";
+        }
+
+        private Product create(String name, String price) {
+                Product product = new Product();
+                product.setName(name);
+                product.setPrice(new BigDecimal(price));
+                return restTemplate.postForEntity(getBaseUrl(), product, Product.class).getBody();
+        }
+
+        private Product get(Product product) {
+                return restTemplate.getForObject(getBaseUrl() + "/" + product.getId(), Product.class);
+        }
+
+        private ResponseEntity<RepricingService.Result> reprice(Map<String, Object> request) {
+                return restTemplate.postForEntity(getBaseUrl() + "/reprice", request, RepricingService.Result.class);
+        }
+
+        /**
+         * Cleans the database before each test to ensure a consistent state.
+         */
+        @BeforeEach
+        void setUp() {
+                productRepository.deleteAll();
+        }
+
+        /**
+         * Tests a percentage change limited by prefix and price range: only
+         * matching products change, each gets a new version, and the cached
+         * product, search and stats see the new prices.
+         */
+        @Test
+        void testPercentWithFilter() {
+                // Arrange
+                Product juice = create("Apple Juice", "2.00");
+                Product pie = create("Apple Pie", "6.00");
+                Product cider = create("Apple Cider", "7.99");
+                Product tart = create("Apple Tart", "9.99");
+                Product banana = create("Banana", "1.00");
+                assertEquals(0, new BigDecimal("2.00").compareTo(get(juice).getPrice()));
+
+                // Act
+                ResponseEntity<RepricingService.Result> response = reprice(
+                                Map.of("percent", 10, "prefix", "Apple", "maxPrice", 8));
+
+                // Assert
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                assertEquals(3, response.getBody().repriced());
+                assertEquals(220, get(juice).getPriceMinor());
+                assertEquals(660, get(pie).getPriceMinor());
+                assertEquals(879, get(cider).getPriceMinor());
+                assertEquals(999, get(tart).getPriceMinor());
+                assertEquals(100, get(banana).getPriceMinor());
+                assertEquals(juice.getVersion() + 1, get(juice).getVersion());
+                assertEquals(tart.getVersion(), get(tart).getVersion());
+
+                List<Product> found = restTemplate.exchange(getBaseUrl() + "/search?q=apple&minPrice=6.5&sort=price",
+                                HttpMethod.GET, null, new ParameterizedTypeReference<List<Product>>() {
+                                }).getBody();
+                assertEquals(List.of("Apple Pie", "Apple Cider", "Apple Tart"),
+                                found.stream().map(Product::getName).toList());
+                PriceStats stats = restTemplate.getForObject(getBaseUrl() + "/stats?prefix=Apple", PriceStats.class);
+                assertEquals(new BigDecimal("2.20"), stats.min());
+                assertEquals(new BigDecimal("27.58"), stats.sum());
+        }
+
+        /**
+         * Tests that percentages round half up to whole cents and that a
+         * fixed amount does not take a price below zero.
+         */
+        @Test
+        void testRoundingAndFloor() {
+                // Arrange
+                Product lamp = create("Lamp", "9.99");
+                Product cable = create("Cable", "0.05");
+
+                // Act
+                reprice(Map.of("percent", new BigDecimal("12.5")));
+                ResponseEntity<RepricingService.Result> response = reprice(Map.of("amount", new BigDecimal("-1.00")));
+
+                // Assert
+                assertEquals(2, response.getBody().repriced());
+                assertEquals(1024, get(lamp).getPriceMinor());
+                assertEquals(0, get(cable).getPriceMinor());
+                assertEquals(2, get(cable).getVersion() - cable.getVersion());
+        }
+
+        /**
+         * Tests that a request with both or neither change, or an amount
+         * finer than a cent, is rejected without touching any product.
+         */
+        @Test
+        void testRejectsInvalidRequests() {
+                // Arrange
+                Product lamp = create("Lamp", "9.99");
+
+                // Act & Assert
+                assertEquals(HttpStatus.BAD_REQUEST, reprice(Map.of("percent", 5, "amount", 1)).getStatusCode());
+                assertEquals(HttpStatus.BAD_REQUEST, reprice(Map.of("prefix", "L")).getStatusCode());
+                assertEquals(HttpStatus.BAD_REQUEST, reprice(Map.of("amount", new BigDecimal("0.001"))).getStatusCode());
+                assertEquals(HttpStatus.BAD_REQUEST, reprice(Map.of("percent", -101)).getStatusCode());
+                assertEquals(HttpStatus.BAD_REQUEST,
+                                reprice(Map.of("percent", 5, "minPrice", 10, "maxPrice", 1)).getStatusCode());
+                assertEquals(lamp.getVersion(), get(lamp).getVersion());
+        }
+}
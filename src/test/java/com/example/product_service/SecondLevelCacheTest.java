@@ -0,0 +1,112 @@
+package com.example.product_service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.product_service.model.Product;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for Hibernate's second-level and query caches. The
+ * application cache is off, so every read reaches Hibernate.
+ */
+@ActiveProfiles("metrics")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "product.cache.provider=none")
+public class SecondLevelCacheTest {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private TestRestTemplate restTemplate;
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        private String getBaseUrl() {
+                return "http://localhost:" + port + "/api/products";
+        }
+
+        private Statistics statistics() {
+                return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        }
+
+        private Product create(String name, double price) {
+                Product product = new Product();
+                product.setName(name);
+                product.setPrice(BigDecimal.valueOf(price));
+                return restTemplate.postForObject(getBaseUrl(), product, Product.class);
+        }
+
+        /**
+         * Tests that a GET by id is served from the product region, that an
+         * update and a delete through the API are visible to the next read,
+         * and that they evict only their own product's entry.
+         */
+        @Test
+        void testProductReadsHitRegionAndSeeWrites() {
+                // Arrange
+                Product product = create("L2 Product", 10.0);
+                Product neighbour = create("L2 Neighbour", 3.0);
+                String url = getBaseUrl() + "/" + product.getId();
+                restTemplate.getForObject(getBaseUrl() + "/" + neighbour.getId(), Product.class);
+
+                // Act
+                restTemplate.getForObject(url, Product.class);
+                long hits = statistics().getDomainDataRegionStatistics(Product.CACHE_REGION).getHitCount();
+                Product cached = restTemplate.getForObject(url, Product.class);
+
+                // Assert
+                assertEquals(1000, cached.getPriceMinor());
+                assertTrue(statistics().getDomainDataRegionStatistics(Product.CACHE_REGION).getHitCount() > hits);
+
+                product.setPrice(new BigDecimal("12.5"));
+                restTemplate.put(url, product);
+                assertFalse(entityManagerFactory.getCache().contains(Product.class, product.getId()));
+                assertTrue(entityManagerFactory.getCache().contains(Product.class, neighbour.getId()));
+                assertEquals(1250, restTemplate.getForObject(url, Product.class).getPriceMinor());
+
+                restTemplate.delete(url);
+                assertTrue(entityManagerFactory.getCache().contains(Product.class, neighbour.getId()));
+                assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity(url, String.class).getStatusCode());
+        }
+
+        /**
+         * Tests that a repeated listing page is a query cache hit and that a
+         * create invalidates it.
+         */
+        @Test
+        void testListingIsQueryCachedAndInvalidated() {
+                // Arrange
+                Product first = create("Query Cached", 1.0);
+                String url = getBaseUrl() + "?after=" + (first.getId() - 1) + "&limit=10";
+                String region = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+
+                // Act
+                Product[] before = restTemplate.getForObject(url, Product[].class);
+                long hits = statistics().getQueryRegionStatistics(region).getHitCount();
+                restTemplate.getForObject(url, Product[].class);
+                long hitsAfterRepeat = statistics().getQueryRegionStatistics(region).getHitCount();
+                create("Query Cached Too", 2.0);
+                Product[] after = restTemplate.getForObject(url, Product[].class);
+
+                // Assert
+                assertEquals(1, before.length);
+                assertTrue(hitsAfterRepeat > hits);
+                assertEquals(2, after.length);
+        }
+}
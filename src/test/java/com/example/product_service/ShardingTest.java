@@ -0,0 +1,205 @@
+package com.example.product_service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.service.BatchItemResult;
+import com.example.product_service.service.BatchItemResult.Status;
+import com.example.product_service.sharding.Sharding;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the sharded catalogue on four local H2 databases.
+ * Products are created through the API and then checked shard by shard, so
+ * each test sees where its rows actually went.
+ */
+@ActiveProfiles("sharded")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+                "product.sharding.shards[0].url=jdbc:h2:mem:sharding-test0;DB_CLOSE_DELAY=-1",
+                "product.sharding.shards[1].url=jdbc:h2:mem:sharding-test1;DB_CLOSE_DELAY=-1",
+                "product.sharding.shards[2].url=jdbc:h2:mem:sharding-test2;DB_CLOSE_DELAY=-1",
+                "product.sharding.shards[3].url=jdbc:h2:mem:sharding-test3;DB_CLOSE_DELAY=-1",
+                "product.batch.chunk-size=7",
+                "product.cache.provider=none",
+                "product.l2cache.enabled=false" })
+public class ShardingTest {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private TestRestTemplate restTemplate;
+
+        @Autowired
+        private ProductRepository productRepository;
+
+        @Autowired
+        private Sharding sharding;
+
+        /**
+         * Empties every shard before each test.
+         */
+        @BeforeEach
+        void setUp() {
+                productRepository.deleteAll();
+        }
+
+        private String url(String path) {
+                return "http://localhost:" + port + "/api/products" + path;
+        }
+
+        private List<Product> create(int count) {
+                List<Product> created = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                        Product product = new Product();
+                        product.setName("Sharded Product " + i);
+                        product.setPriceMinor(100 + i * 7 % 40 * 100L);
+                        created.add(restTemplate.postForEntity(url(""), product, Product.class).getBody());
+                }
+                return created;
+        }
+
+        private List<Product> list(String path) {
+                return restTemplate.exchange(url(path), HttpMethod.GET, null,
+                                new ParameterizedTypeReference<List<Product>>() {
+                                }).getBody();
+        }
+
+        /**
+         * Tests that new products are spread over all shards and that each is
+         * found, updated and deleted on its own shard.
+         */
+        @Test
+        void testSingleProductCallsUseTheirShard() {
+                // Arrange
+                List<Product> created = create(40);
+
+                // Act
+                long[] perShard = new long[sharding.count()];
+                for (int shard = 0; shard < perShard.length; shard++) {
+                        perShard[shard] = sharding.on(shard, productRepository::count);
+                }
+
+                // Assert
+                for (int shard = 0; shard < perShard.length; shard++) {
+                        assertTrue(perShard[shard] > 0, "shard " + shard + " got no products");
+                }
+                assertEquals(40, productRepository.count());
+                for (Product product : created) {
+                        int shard = sharding.shardOf(product.getId());
+                        assertTrue(sharding.on(shard, () -> productRepository.existsById(product.getId())));
+                        assertEquals(product.getName(), restTemplate.getForEntity(url("/" + product.getId()),
+                                        Product.class).getBody().getName());
+                }
+
+                Product target = created.get(0);
+                target.setName("Renamed Product");
+                restTemplate.put(url("/" + target.getId()), target);
+                assertEquals("Renamed Product", restTemplate.getForEntity(url("/" + target.getId()),
+                                Product.class).getBody().getName());
+
+                restTemplate.delete(url("/" + target.getId()));
+                assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity(url("/" + target.getId()),
+                                Product.class).getStatusCode());
+                assertEquals(39, productRepository.count());
+
+                // A version in a create's body does not stop it getting a sharded id
+                HttpHeaders headers = new HttpHeaders();
+                headers.setContentType(MediaType.APPLICATION_JSON);
+                Product versioned = restTemplate.postForEntity(url(""), new HttpEntity<>(
+                                "{\"version\": 3, \"name\": \"Versioned Product\", \"price\": 1.00}", headers),
+                                Product.class).getBody();
+                assertTrue(sharding.on(sharding.shardOf(versioned.getId()),
+                                () -> productRepository.existsById(versioned.getId())));
+        }
+
+        /**
+         * Tests that the listing pages through every shard in id order and
+         * that a search page is cut from the merged, sorted results.
+         */
+        @Test
+        void testListingAndSearchMergeShards() {
+                // Arrange
+                List<Product> created = create(30);
+                List<Long> ids = created.stream().map(Product::getId).sorted().toList();
+
+                // Act
+                List<Long> listed = new ArrayList<>();
+                long after = 0;
+                List<Product> page;
+                do {
+                        page = list("?limit=8&after=" + after);
+                        page.forEach(product -> listed.add(product.getId()));
+                        after = page.isEmpty() ? after : page.get(page.size() - 1).getId();
+                } while (page.size() == 8);
+                List<Product> searched = list("/search?minPrice=5&maxPrice=30&sort=price,desc&page=1&size=5");
+
+                // Assert
+                assertEquals(ids, listed);
+                List<Long> expected = created.stream()
+                                .filter(product -> product.getPriceMinor() >= 500 && product.getPriceMinor() <= 3000)
+                                .sorted(Comparator.comparing(Product::getPrice).reversed()
+                                                .thenComparing(Product::getId))
+                                .skip(5)
+                                .limit(5)
+                                .map(Product::getId)
+                                .toList();
+                assertEquals(expected, searched.stream().map(Product::getId).toList());
+        }
+
+        /**
+         * Tests that bulk creates and deletes are split into per-shard chunks
+         * and all succeed.
+         */
+        @Test
+        void testBatchesAreSplitByShard() {
+                // Arrange
+                List<Product> products = new ArrayList<>();
+                for (int i = 0; i < 25; i++) {
+                        Product product = new Product();
+                        product.setName("Batch Product " + i);
+                        product.setPrice(new BigDecimal("2.00"));
+                        products.add(product);
+                }
+
+                // Act
+                List<BatchItemResult> createdResults = restTemplate.exchange(url("/batch"), HttpMethod.POST,
+                                new HttpEntity<>(products), new ParameterizedTypeReference<List<BatchItemResult>>() {
+                                }).getBody();
+                List<Long> ids = createdResults.stream().map(BatchItemResult::id).toList();
+                ResponseEntity<List<BatchItemResult>> deleted = restTemplate.exchange(url("/batch"),
+                                HttpMethod.DELETE, new HttpEntity<>(ids),
+                                new ParameterizedTypeReference<List<BatchItemResult>>() {
+                                });
+
+                // Assert
+                assertEquals(25, createdResults.size());
+                for (int i = 0; i < createdResults.size(); i++) {
+                        assertEquals(i, createdResults.get(i).index());
+                        assertEquals(Status.CREATED, createdResults.get(i).status());
+                }
+                assertTrue(ids.stream().map(sharding::shardOf).distinct().count() > 1);
+                assertTrue(deleted.getBody().stream().allMatch(result -> result.status() == Status.DELETED));
+                assertEquals(0, productRepository.count());
+        }
+}
@@ -0,0 +1,73 @@
+package com.example.product_service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for per-client rate limiting. The rate is set low enough
+ * that a handful of requests exhaust a client's burst.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+                "product.throttle.enabled=true",
+                "product.throttle.rate=0.5",
+                "product.throttle.burst=3" })
+public class ThrottleTest {
+
+        @LocalServerPort
+        private int port;
+
+        private final HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .build();
+
+        private HttpResponse<Void> get(String path, String apiKey) throws Exception {
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                                .header("X-API-Key", apiKey)
+                                .build();
+                return client.send(request, HttpResponse.BodyHandlers.discarding());
+        }
+
+        /**
+         * Tests that a client past its burst gets 429 with Retry-After while
+         * other clients are unaffected.
+         */
+        @Test
+        void testClientOverRateIsRejected() throws Exception {
+                // Act
+                int[] statuses = new int[4];
+                HttpResponse<Void> last = null;
+                for (int i = 0; i < statuses.length; i++) {
+                        last = get("/api/products", "greedy");
+                        statuses[i] = last.statusCode();
+                }
+                HttpResponse<Void> other = get("/api/products", "polite");
+
+                // Assert
+                assertArrayEquals(new int[] { 200, 200, 200, 429 }, statuses);
+                assertTrue(Long.parseLong(last.headers().firstValue("Retry-After").orElseThrow()) >= 1);
+                assertEquals(200, other.statusCode());
+        }
+
+        /**
+         * Tests that requests outside the product API are not counted.
+         */
+        @Test
+        void testOtherPathsAreExempt() throws Exception {
+                // Act
+                for (int i = 0; i < 5; i++) {
+                        get("/index.html", "static");
+                }
+                HttpResponse<Void> api = get("/api/products", "static");
+
+                // Assert
+                assertEquals(200, api.statusCode());
+        }
+}
@@ -0,0 +1,84 @@
+package com.example.product_service;
+
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.example.product_service.model.Product;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the virtual-thread execution mode.
+ * This class boots the application with {@code spring.threads.virtual.enabled}
+ * and checks that both request handling and async work use virtual threads.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "spring.threads.virtual.enabled=true")
+public class VirtualThreadModeTest {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private TestRestTemplate restTemplate;
+
+        @Autowired
+        private ServletWebServerApplicationContext context;
+
+        @Autowired
+        @Qualifier("applicationTaskExecutor")
+        private AsyncTaskExecutor applicationTaskExecutor;
+
+        /**
+         * Tests that Tomcat dispatches requests on virtual threads.
+         */
+        @Test
+        void testTomcatUsesVirtualThreads() {
+                TomcatWebServer server = (TomcatWebServer) context.getWebServer();
+                assertInstanceOf(VirtualThreadExecutor.class,
+                                server.getTomcat().getConnector().getProtocolHandler().getExecutor());
+        }
+
+        /**
+         * Tests that async work, such as NDJSON streaming, runs on virtual threads
+         * and still produces a complete response.
+         *
+         * @throws Exception if the async task fails.
+         */
+        @Test
+        void testAsyncWorkUsesVirtualThreads() throws Exception {
+                assertTrue(applicationTaskExecutor.submit(() -> Thread.currentThread().isVirtual()).get());
+
+                Product product = new Product();
+                product.setName("Virtual Product");
+                product.setPrice(new BigDecimal("1.0"));
+                restTemplate.postForEntity("http://localhost:" + port + "/api/products", product, Product.class);
+
+                HttpHeaders headers = new HttpHeaders();
+                headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+                ResponseEntity<String> streamed = restTemplate.exchange(
+                                "http://localhost:" + port + "/api/products",
+                                HttpMethod.GET,
+                                new HttpEntity<>(headers),
+                                String.class);
+                assertEquals(HttpStatus.OK, streamed.getStatusCode());
+                assertTrue(streamed.getBody().contains("Virtual Product"));
+        }
+}
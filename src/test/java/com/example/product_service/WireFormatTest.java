@@ -0,0 +1,153 @@
+package com.example.product_service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.example.product_service.model.Product;
+import com.example.product_service.service.ProductBatchService;
+import com.example.product_service.wire.ProtobufProductConverter;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for content negotiation and response compression. Uses a
+ * plain HTTP client so that bodies arrive exactly as they went on the wire.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class WireFormatTest {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private ProductBatchService batch;
+
+        private final HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .build();
+
+        private HttpResponse<byte[]> get(String path, String accept, String acceptEncoding) throws Exception {
+                HttpRequest.Builder request = HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + port + "/api/products" + path))
+                                .header("Accept", accept);
+                if (acceptEncoding != null) {
+                        request.header("Accept-Encoding", acceptEncoding);
+                }
+                return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        }
+
+        private Product seed(int count) {
+                List<Product> products = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                        Product product = new Product();
+                        product.setName("Wire Product " + i);
+                        product.setPriceMinor(i * 100L + 25);
+                        products.add(product);
+                }
+                batch.createAll(products);
+                return products.get(0);
+        }
+
+        /**
+         * Tests that one product decodes to the same values in CBOR and Smile
+         * as in JSON.
+         */
+        @Test
+        void testJacksonBinaryFormats() throws Exception {
+                // Arrange
+                Product product = seed(1);
+                String path = "/" + product.getId();
+
+                // Act
+                HttpResponse<byte[]> json = get(path, "application/json", null);
+                HttpResponse<byte[]> cbor = get(path, "application/cbor", null);
+                HttpResponse<byte[]> smile = get(path, "application/x-jackson-smile", null);
+
+                // Assert
+                JsonNode expected = new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                                .readTree(json.body());
+                assertEquals("application/cbor", cbor.headers().firstValue("Content-Type").orElseThrow());
+                assertEquals(expected, new CBORMapper().readTree(cbor.body()));
+                assertEquals("application/x-jackson-smile", smile.headers().firstValue("Content-Type").orElseThrow());
+                assertEquals(expected, new SmileMapper().readTree(smile.body()));
+                assertTrue(cbor.body().length < json.body().length);
+        }
+
+        /**
+         * Tests that a page of products is served as a protobuf ProductList
+         * message, and that Accept: *&#47;* still gets JSON.
+         */
+        @Test
+        void testProtobufList() throws Exception {
+                // Arrange
+                Product first = seed(3);
+                String path = "?after=" + (first.getId() - 1) + "&limit=3";
+                ProtobufMapper mapper = ProtobufProductConverter.mapper();
+                ProtobufSchema schema = mapper.generateSchemaFor(Page.class);
+
+                // Act
+                HttpResponse<byte[]> protobuf = get(path, "application/x-protobuf", null);
+                HttpResponse<byte[]> any = get(path, "*/*", null);
+
+                // Assert
+                assertEquals(200, protobuf.statusCode());
+                assertEquals("application/x-protobuf", protobuf.headers().firstValue("Content-Type").orElseThrow());
+                Page page = mapper.readerFor(Page.class).with(schema).readValue(protobuf.body());
+                assertEquals(3, page.products.size());
+                assertEquals(first.getId(), page.products.get(0).getId());
+                assertEquals("Wire Product 0", page.products.get(0).getName());
+                assertEquals(25, page.products.get(0).getPriceMinor());
+                assertTrue(any.headers().firstValue("Content-Type").orElseThrow().startsWith("application/json"));
+        }
+
+        /**
+         * Tests that a large page is gzip-compressed for clients that accept
+         * it and sent uncompressed otherwise.
+         */
+        @Test
+        void testLargeResponsesAreCompressed() throws Exception {
+                // Arrange
+                Product first = seed(200);
+                String path = "?after=" + (first.getId() - 1) + "&limit=200";
+
+                // Act
+                HttpResponse<byte[]> gzip = get(path, "application/json", "gzip");
+                HttpResponse<byte[]> plain = get(path, "application/json", null);
+
+                // Assert
+                assertEquals("gzip", gzip.headers().firstValue("Content-Encoding").orElseThrow());
+                assertTrue(plain.headers().firstValue("Content-Encoding").isEmpty());
+                assertArrayEquals(plain.body(), gunzip(gzip.body()));
+                assertTrue(gzip.body().length < plain.body().length / 2);
+        }
+
+        private static byte[] gunzip(byte[] body) throws IOException {
+                try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                        return in.readAllBytes();
+                }
+        }
+
+        /** The client's view of the ProductList message. */
+        static class Page {
+                public List<Product> products;
+        }
+}
@@ -0,0 +1,95 @@
+package com.example.product_service.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.product_service.model.Product;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LongSummaryStatistics;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ProductColumns} class.
+ * This class replays random puts and removes, across several scan segments,
+ * against a map of products and checks the aggregates agree with a plain
+ * stream over it.
+ */
+public class ProductColumnsTest {
+
+    private static Product product(long id, String name, long priceMinor, long version) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPriceMinor(priceMinor);
+        product.setVersion(version);
+        return product;
+    }
+
+    /**
+     * Tests that stats agree with a stream over the same products after
+     * random writes.
+     */
+    @Test
+    void testAgreesWithStream() {
+        ProductColumns columns = new ProductColumns();
+        Map<Long, Product> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 300_000; i++) {
+            long id = random.nextInt(3 * ProductColumns.SEGMENT);
+            if (random.nextInt(4) == 0) {
+                expected.remove(id);
+                columns.remove(id);
+            } else {
+                Product product = product(id, "Name " + random.nextInt(500), random.nextInt(10_000), i);
+                expected.put(id, product);
+                columns.put(product);
+            }
+        }
+        assertEquals(expected.size(), columns.size());
+
+        LongSummaryStatistics stream = expected.values().stream()
+                .filter(product -> product.getName().startsWith("Name 1") && product.getPriceMinor() >= 1000)
+                .mapToLong(Product::getPriceMinor)
+                .summaryStatistics();
+        PriceStats stats = columns.stats("Name 1", 1000, Long.MAX_VALUE);
+        assertEquals(stream.getCount(), stats.count());
+        assertEquals(BigDecimal.valueOf(stream.getMin(), 2), stats.min());
+        assertEquals(BigDecimal.valueOf(stream.getMax(), 2), stats.max());
+        assertEquals(BigDecimal.valueOf(stream.getSum(), 2), stats.sum());
+
+        Map<String, PriceStats> groups = columns.statsByPrefix(6, null, Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(10, groups.size());
+        assertEquals(expected.size(), groups.values().stream().mapToLong(PriceStats::count).sum());
+
+        PriceHistogram histogram = columns.histogram(null, 0, 10_000, 10);
+        assertEquals(expected.size(), Arrays.stream(histogram.counts()).sum());
+    }
+
+    /**
+     * Tests that a stale write is ignored and that a name no longer used
+     * leaves the dictionary.
+     */
+    @Test
+    void testStaleWritesAndDictionary() {
+        ProductColumns columns = new ProductColumns();
+        columns.put(product(1, "Widget", 500, 2));
+        columns.put(product(1, "Old Widget", 100, 1));
+        columns.put(product(2, "Gadget", 300, 0));
+
+        assertEquals(new BigDecimal("5.00"), columns.stats("Widget", Long.MIN_VALUE, Long.MAX_VALUE).max());
+        assertEquals(2, columns.distinctNames());
+
+        columns.put(product(2, "Widget", 300, 1));
+        assertEquals(1, columns.distinctNames());
+        columns.remove(1);
+        columns.remove(2);
+        assertEquals(0, columns.size());
+        assertEquals(0, columns.distinctNames());
+        assertNull(columns.stats(null, Long.MIN_VALUE, Long.MAX_VALUE).min());
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.product_service.changes;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.product_service.changes.ChangeFeed.Cursor;
+import com.example.product_service.model.ProductEvent;
+import com.example.product_service.model.ProductEvent.Type;
+import com.example.product_service.repository.ProductEventRepository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the {@link ChangeFeed} poller over an outbox held in a list.
+ * Time is passed to {@code poll}, so gaps expire exactly when the test says.
+ */
+public class ChangeFeedTest {
+    private static final long GRACE = Duration.ofSeconds(2).toNanos();
+    private static final long LATE_WINDOW = Duration.ofMinutes(1).toNanos();
+
+    private final List<ProductEvent> outbox = new CopyOnWriteArrayList<>();
+    private final ProductEventRepository events = mock(ProductEventRepository.class);
+    private final ChangeFeed feed = new ChangeFeed(events, Duration.ofMillis(200), 16, Duration.ofNanos(GRACE),
+            Duration.ofNanos(LATE_WINDOW), Duration.ofSeconds(15), Duration.ofDays(7), 10);
+
+    @BeforeEach
+    void stubOutbox() {
+        when(events.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class))).thenAnswer(call ->
+                outbox.stream().filter(e -> e.getId() > (long) call.getArgument(0)).toList());
+        when(events.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(anyLong(), anyLong(), any(Limit.class)))
+                .thenAnswer(call -> outbox.stream()
+                        .filter(e -> e.getId() > (long) call.getArgument(0) && e.getId() <= (long) call.getArgument(1))
+                        .toList());
+        when(events.findByIdInOrderByIdAsc(any())).thenAnswer(call -> {
+            Collection<Long> ids = call.getArgument(0);
+            return outbox.stream().filter(e -> ids.contains(e.getId())).toList();
+        });
+    }
+
+    private void commit(long... ids) {
+        for (long id : ids) {
+            ProductEvent event = ProductEvent.deleted(id);
+            ReflectionTestUtils.setField(event, "id", id);
+            outbox.add(event);
+        }
+        outbox.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+    }
+
+    private static List<Long> ids(List<ProductEvent> batch) {
+        return batch.stream().map(ProductEvent::getId).toList();
+    }
+
+    /**
+     * Tests that gaps seen in the same poll expire together after one grace
+     * period, rather than each after its own once the poller reaches it.
+     */
+    @Test
+    void testGapsSeenTogetherExpireTogether() {
+        commit(1, 3, 5);
+
+        feed.poll(0);
+        assertEquals(1, feed.head());
+        feed.poll(GRACE - 1);
+        assertEquals(1, feed.head());
+        feed.poll(GRACE);
+
+        assertEquals(5, feed.head());
+    }
+
+    /**
+     * Tests that a gap's grace runs from when the offset above it was first
+     * seen, not from when the gap below it filled and the poller reached it.
+     */
+    @Test
+    void testGraceRunsFromFirstSight() {
+        commit(1, 3, 5);
+        feed.poll(0);
+        commit(2);
+        feed.poll(GRACE / 2);
+        assertEquals(3, feed.head());
+
+        feed.poll(GRACE);
+
+        assertEquals(5, feed.head());
+    }
+
+    /**
+     * Tests that an offset given up on that commits later is sent once to a
+     * subscriber that has passed it, and put into the buffer in order for
+     * one that has not.
+     */
+    @Test
+    void testLateCommitIsPublished() {
+        commit(1, 3);
+        feed.poll(0);
+        feed.poll(GRACE);
+        Cursor passed = feed.cursor(3);
+        Cursor behind = feed.cursor(0);
+
+        commit(2);
+        feed.poll(GRACE + 1);
+
+        assertEquals(3, feed.head());
+        assertEquals(List.of(2L), ids(feed.after(passed, Duration.ZERO)));
+        assertEquals(3, passed.offset);
+        assertEquals(List.of(), feed.after(passed, Duration.ZERO));
+        assertEquals(List.of(1L, 2L, 3L), ids(feed.after(behind, Duration.ZERO)));
+        assertEquals(List.of(), feed.after(behind, Duration.ZERO));
+    }
+
+    /**
+     * Tests that an offset committing after the late window is left to
+     * readers of the table.
+     */
+    @Test
+    void testLateWindowEnds() {
+        commit(1, 3);
+        feed.poll(0);
+        feed.poll(GRACE);
+        Cursor passed = feed.cursor(3);
+
+        feed.poll(GRACE + LATE_WINDOW);
+        commit(2);
+        feed.poll(GRACE + LATE_WINDOW + 1);
+
+        assertEquals(List.of(), feed.after(passed, Duration.ZERO));
+    }
+}
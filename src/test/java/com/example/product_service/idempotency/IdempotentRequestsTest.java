@@ -0,0 +1,153 @@
+package com.example.product_service.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.product_service.idempotency.IdempotentRequests.KeyReusedException;
+import com.example.product_service.idempotency.IdempotentRequests.Outcome;
+import com.example.product_service.model.Product;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link IdempotentRequests} class over the in-memory store.
+ */
+public class IdempotentRequestsTest {
+
+    private final InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(100, Duration.ofMinutes(1));
+
+    private final IdempotentRequests requests = new IdempotentRequests(store, Duration.ofSeconds(10));
+
+    /** A second instance: its own in-flight table over the same store. */
+    private final IdempotentRequests other = new IdempotentRequests(store, Duration.ofSeconds(10));
+
+    private static Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Idempotent");
+        return product;
+    }
+
+    /**
+     * Tests that a duplicate arriving while the original runs waits for it and
+     * gets its response, without running the action again.
+     */
+    @Test
+    void testConcurrentDuplicateWaitsForOriginal() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+
+        Future<Outcome> original = threads.submit(() -> requests.execute("k", "f", () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            await(release);
+            return product(1);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Outcome> duplicate = threads.submit(() -> requests.execute("k", "f", () -> {
+            runs.incrementAndGet();
+            return product(2);
+        }));
+        Thread.sleep(100);
+        assertFalse(duplicate.isDone());
+        release.countDown();
+
+        assertFalse(original.get(5, TimeUnit.SECONDS).replayed());
+        Outcome replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertTrue(replayed.replayed());
+        assertEquals(1L, replayed.response().getId());
+        assertEquals(1, runs.get());
+    }
+
+    /**
+     * Tests that a duplicate on another instance, which cannot see the
+     * original in its in-flight table, finds the key claimed and waits for the
+     * recorded response instead of running the action again.
+     */
+    @Test
+    void testDuplicateOnOtherInstanceWaitsForClaim() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+
+        Future<Outcome> original = threads.submit(() -> requests.execute("k", "f", () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            await(release);
+            return product(6);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Outcome> duplicate = threads.submit(() -> other.execute("k", "f", () -> {
+            runs.incrementAndGet();
+            return product(7);
+        }));
+        Thread.sleep(100);
+        assertFalse(duplicate.isDone());
+        release.countDown();
+
+        assertFalse(original.get(5, TimeUnit.SECONDS).replayed());
+        Outcome replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertTrue(replayed.replayed());
+        assertEquals(6L, replayed.response().getId());
+        assertEquals(1, runs.get());
+    }
+
+    /**
+     * Tests that a request that fails releases its claim, so the same key can
+     * then be run on another instance.
+     */
+    @Test
+    void testFailureReleasesClaim() {
+        assertThrows(IllegalStateException.class, () -> requests.execute("k", "f", () -> {
+            throw new IllegalStateException("database down");
+        }));
+
+        Outcome retried = other.execute("k", "f", () -> product(8));
+
+        assertFalse(retried.replayed());
+        assertEquals(8L, retried.response().getId());
+    }
+
+    /**
+     * Tests that a failed request is not recorded, so a retry runs again.
+     */
+    @Test
+    void testFailureIsNotRecorded() {
+        assertThrows(IllegalStateException.class, () -> requests.execute("k", "f", () -> {
+            throw new IllegalStateException("database down");
+        }));
+
+        Outcome retried = requests.execute("k", "f", () -> product(3));
+
+        assertFalse(retried.replayed());
+        assertEquals(3L, retried.response().getId());
+    }
+
+    /**
+     * Tests that a key reused with a different fingerprint is refused.
+     */
+    @Test
+    void testKeyReuseIsRefused() {
+        requests.execute("k", "f", () -> product(4));
+
+        assertThrows(KeyReusedException.class, () -> requests.execute("k", "other", () -> product(5)));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.product_service.ingest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import com.example.product_service.model.Product;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for asynchronous updates. The writer's own triggers are
+ * set out of reach, so the test decides when the queue is flushed.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "product.ingest.capacity=3",
+        "product.ingest.flush-size=100",
+        "product.ingest.flush-interval=1h" })
+public class ProductUpdateQueueTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ProductUpdateQueue queue;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private Product create(String name, double price) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(BigDecimal.valueOf(price));
+        return restTemplate.postForObject("/api/products", product, Product.class);
+    }
+
+    private ResponseEntity<Void> putAsync(Product product, String ifMatch) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Prefer", "respond-async");
+        if (ifMatch != null) {
+            headers.setIfMatch(ifMatch);
+        }
+        return restTemplate.exchange("/api/products/" + product.getId(), HttpMethod.PUT,
+                new HttpEntity<>(product, headers), Void.class);
+    }
+
+    /**
+     * Tests that a burst of updates to one product is accepted with 202,
+     * pushed back with 503 once the queue is full, and written as a single
+     * update carrying the last price.
+     */
+    @Test
+    void testBurstIsCoalescedIntoOneWrite() {
+        // Arrange
+        Product product = create("Async Product", 1.00);
+
+        // Act
+        int[] statuses = new int[4];
+        for (int i = 0; i < statuses.length; i++) {
+            product.setPriceMinor(200 + i * 100L);
+            statuses[i] = putAsync(product, null).getStatusCode().value();
+        }
+        int queued = queue.depth();
+        queue.flush();
+        Product stored = restTemplate.getForObject("/api/products/" + product.getId(), Product.class);
+
+        // Assert
+        assertArrayEquals(new int[] { 202, 202, 202, 503 }, statuses);
+        assertEquals(3, queued);
+        assertEquals(0, queue.depth());
+        assertEquals(400, stored.getPriceMinor());
+        assertEquals(product.getVersion() + 1, stored.getVersion());
+        assertTrue(registry.get("product.ingest.coalescing.ratio").gauge().value() > 1.0);
+    }
+
+    /**
+     * Tests that an update based on a stale version is dropped when written
+     * instead of overwriting the newer state.
+     */
+    @Test
+    void testStaleUpdateIsDropped() {
+        // Arrange
+        Product product = create("Async Conflict", 1.00);
+        product.setPrice(new BigDecimal("9.00"));
+
+        // Act
+        ResponseEntity<Void> response = putAsync(product, "\"" + (product.getVersion() + 1) + "\"");
+        queue.flush();
+        Product stored = restTemplate.getForObject("/api/products/" + product.getId(), Product.class);
+
+        // Assert
+        assertEquals(202, response.getStatusCode().value());
+        assertEquals(100, stored.getPriceMinor());
+        assertEquals(1.0, registry.get("product.ingest.writes").tag("status", "CONFLICT").counter().count());
+    }
+}
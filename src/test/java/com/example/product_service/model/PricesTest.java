@@ -0,0 +1,54 @@
+package com.example.product_service.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link Prices} class.
+ * This class checks that decimal prices convert to minor units exactly, and
+ * that bounds round towards the inside of a range.
+ */
+public class PricesTest {
+
+    /**
+     * Tests exact conversion both ways and rejection of fractional cents.
+     */
+    @Test
+    void testExactConversion() {
+        assertEquals(1999, Prices.toMinor(new BigDecimal("19.99")));
+        assertEquals(1990, Prices.toMinor(new BigDecimal("19.9")));
+        assertEquals(-100, Prices.toMinor(new BigDecimal("-1")));
+        assertEquals(new BigDecimal("19.99"), Prices.toPrice(1999));
+        assertEquals(new BigDecimal("0.05"), Prices.toPrice(5));
+        assertThrows(IllegalArgumentException.class, () -> Prices.toMinor(new BigDecimal("0.001")));
+        assertThrows(IllegalArgumentException.class, () -> Prices.toMinor(new BigDecimal("1e30")));
+    }
+
+    /**
+     * Tests that range bounds between cents round inwards and saturate
+     * rather than overflow.
+     */
+    @Test
+    void testBounds() {
+        assertEquals(1001, Prices.ceilingMinor(new BigDecimal("10.001")));
+        assertEquals(1000, Prices.floorMinor(new BigDecimal("10.009")));
+        assertEquals(1000, Prices.ceilingMinor(new BigDecimal("10")));
+        assertEquals(Long.MAX_VALUE, Prices.floorMinor(new BigDecimal("1e30")));
+        assertEquals(Long.MIN_VALUE, Prices.ceilingMinor(new BigDecimal("-1e30")));
+    }
+
+    /**
+     * Tests that only the catalogue currency is accepted.
+     */
+    @Test
+    void testCurrency() {
+        assertEquals(2, Prices.SCALE);
+        Product product = new Product();
+        assertEquals(Prices.CURRENCY, product.getCurrency());
+        assertThrows(IllegalArgumentException.class, () -> product.setCurrency("USD"));
+        assertThrows(IllegalArgumentException.class, () -> product.setPrice(null));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.product_service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link LongIntMap} class.
+ * This class replays a random mix of puts and removes against a
+ * {@link HashMap} to check lookups survive backward-shift deletion and resizing.
+ */
+public class LongIntMapTest {
+
+    /**
+     * Tests that the map agrees with {@link HashMap} after random operations.
+     */
+    @Test
+    void testAgreesWithHashMap() {
+        LongIntMap map = new LongIntMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? LongIntMap.MISSING : removed, map.remove(key));
+            } else {
+                expected.put(key, i);
+                map.put(key, i);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 5_000; key++) {
+            assertEquals(expected.getOrDefault(key, LongIntMap.MISSING), map.get(key));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.product_service.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SnowflakeIds} and {@link ShardStrategy} classes.
+ * This class drives the id generator with a fixed clock to check ordering
+ * through sequence overflow, and checks both strategies' shard assignment.
+ */
+public class SnowflakeIdsTest {
+
+    /**
+     * Tests that ids keep increasing past a full tick's sequence, even with
+     * the clock stopped, and stay exact as JavaScript numbers.
+     */
+    @Test
+    void testIdsIncreaseWithinAStoppedClock() {
+        Clock stopped = Clock.fixed(Instant.parse("2030-01-01T00:00:00Z"), ZoneOffset.UTC);
+        SnowflakeIds ids = new SnowflakeIds(5, stopped);
+        long previous = ids.next();
+        for (int i = 0; i < 5_000; i++) {
+            long next = ids.next();
+            assertTrue(next > previous);
+            assertEquals(5, (next >>> SnowflakeIds.SEQUENCE_BITS) & ((1 << SnowflakeIds.NODE_BITS) - 1));
+            previous = next;
+        }
+        assertTrue(previous < 1L << 53);
+    }
+
+    /**
+     * Tests that two nodes never produce the same id in the same tick.
+     */
+    @Test
+    void testNodesDoNotCollide() {
+        Clock stopped = Clock.fixed(Instant.parse("2030-01-01T00:00:00Z"), ZoneOffset.UTC);
+        assertNotEquals(new SnowflakeIds(1, stopped).next(), new SnowflakeIds(2, stopped).next());
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIds(128));
+    }
+
+    /**
+     * Tests that hashing spreads consecutive ids over every shard and that a
+     * range strategy splits at its bounds.
+     */
+    @Test
+    void testStrategies() {
+        ShardStrategy hash = ShardStrategy.hash(4);
+        SnowflakeIds ids = new SnowflakeIds(0);
+        int[] counts = new int[4];
+        for (int i = 0; i < 4_000; i++) {
+            counts[hash.shardOf(ids.next())]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 800, "uneven spread " + count);
+        }
+
+        ShardStrategy range = ShardStrategy.range(3, List.of(100L, 200L));
+        assertEquals(0, range.shardOf(99));
+        assertEquals(1, range.shardOf(100));
+        assertEquals(1, range.shardOf(199));
+        assertEquals(2, range.shardOf(200));
+        assertThrows(IllegalArgumentException.class, () -> ShardStrategy.range(3, List.of(100L)));
+        assertThrows(IllegalArgumentException.class, () -> ShardStrategy.range(3, List.of(200L, 100L)));
+    }
+}
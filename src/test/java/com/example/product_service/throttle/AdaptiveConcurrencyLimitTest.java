@@ -0,0 +1,68 @@
+package com.example.product_service.throttle;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.product_service.throttle.ThrottleProperties.Budget;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link AdaptiveConcurrencyLimit} class.
+ */
+public class AdaptiveConcurrencyLimitTest {
+    private static final long FAST = Duration.ofMillis(1).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    private final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(
+            new Budget(10, 2, 12, Duration.ofMillis(100)));
+
+    /**
+     * Tests that requests beyond the limit are refused until one is released.
+     */
+    @Test
+    void testRefusesBeyondLimit() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        assertFalse(limit.tryAcquire());
+        assertEquals(10, limit.inFlight());
+        limit.release();
+        assertTrue(limit.tryAcquire());
+    }
+
+    /**
+     * Tests that slow requests shrink the limit down to its floor.
+     */
+    @Test
+    void testSlowRequestsShrinkLimit() {
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(SLOW);
+        }
+        assertEquals(2, limit.limit());
+    }
+
+    /**
+     * Tests that fast requests grow the limit only while it is fully used,
+     * and never past its ceiling.
+     */
+    @Test
+    void testFastRequestsAtLimitGrowIt() {
+        assertTrue(limit.tryAcquire());
+        limit.release(FAST);
+        assertEquals(10, limit.limit());
+
+        for (int round = 0; round < 5; round++) {
+            int admitted = 0;
+            while (limit.tryAcquire()) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limit.release(FAST);
+            }
+        }
+        assertEquals(12, limit.limit());
+    }
+}
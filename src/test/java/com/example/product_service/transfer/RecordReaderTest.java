@@ -0,0 +1,126 @@
+package com.example.product_service.transfer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RecordReader} class.
+ * This class reads small files through windows of a few bytes, so records
+ * cross window boundaries, and checks that records, line numbers and
+ * positions come out as they would from one large window.
+ */
+public class RecordReaderTest {
+
+    @TempDir
+    Path dir;
+
+    private Path file(String content) throws IOException {
+        return Files.writeString(dir.resolve("records.csv"), content, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> read(RecordReader records) throws IOException {
+        List<String> texts = new ArrayList<>();
+        while (records.next()) {
+            texts.add(records.text());
+        }
+        return texts;
+    }
+
+    /**
+     * Tests that records are split on newlines whatever the window size,
+     * with blank lines skipped, carriage returns dropped and a last record
+     * without a newline kept.
+     */
+    @Test
+    void testRecordsAcrossWindows() throws IOException {
+        Path file = file("name,price\r\nWidget,1.50\r\n\r\nGadget,2.00\nLast,3");
+
+        for (int window : new int[] { 16, 17, 32, 1 << 10 }) {
+            try (FileChannel channel = FileChannel.open(file)) {
+                RecordReader records = new RecordReader(channel, true, window);
+
+                assertEquals(List.of("name,price", "Widget,1.50", "Gadget,2.00", "Last,3"), read(records));
+                assertEquals(5, records.line());
+                assertEquals(records.size(), records.position());
+            }
+        }
+    }
+
+    /**
+     * Tests that a newline inside a quoted CSV field does not end the record,
+     * and that line numbers still count it.
+     */
+    @Test
+    void testQuotedNewlines() throws IOException {
+        Path file = file("\"Two\nLines\",1.00\nAfter,2.00\n");
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            RecordReader records = new RecordReader(channel, true, 20);
+
+            assertTrue(records.next());
+            assertEquals("\"Two\nLines\",1.00", records.text());
+            assertEquals(1, records.recordLine());
+            assertTrue(records.next());
+            assertEquals("After,2.00", records.text());
+            assertEquals(3, records.recordLine());
+            assertFalse(records.next());
+        }
+        try (FileChannel channel = FileChannel.open(file)) {
+            assertEquals(3, read(new RecordReader(channel, false, 20)).size());
+        }
+    }
+
+    /**
+     * Tests that a byte order mark is skipped and that a second reader
+     * seeking to the first one's position carries on from the next record.
+     */
+    @Test
+    void testBomAndSeek() throws IOException {
+        Path file = file("\uFEFFfirst\nsecond\nthird\n");
+
+        long position;
+        long line;
+        try (FileChannel channel = FileChannel.open(file)) {
+            RecordReader records = new RecordReader(channel, false, 8);
+            assertTrue(records.next());
+            assertEquals("first", records.text());
+            position = records.position();
+            line = records.line();
+        }
+        try (FileChannel channel = FileChannel.open(file)) {
+            RecordReader records = new RecordReader(channel, false, 8);
+            records.seek(position, line);
+
+            assertTrue(records.next());
+            assertEquals("second", records.text());
+            assertEquals(2, records.recordLine());
+            assertEquals(List.of("third"), read(records));
+        }
+    }
+
+    /**
+     * Tests that a record which cannot fit in the window fails rather than
+     * being split.
+     */
+    @Test
+    void testRecordLongerThanWindow() throws IOException {
+        Path file = file("short\n" + "x".repeat(64) + "\nshort\n");
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            RecordReader records = new RecordReader(channel, false, 16);
+
+            assertTrue(records.next());
+            assertThrows(IOException.class, records::next);
+        }
+    }
+}
@@ -12,13 +12,13 @@ Feature: Product API Tests
     And header Content-Type = 'application/json'
     When method post
     Then status 200
-    And match response contains { name: 'Karate Test Product', price: 79.99 }
+    And match response contains { name: 'Karate Test Product', price: 79.99, currency: 'EUR' }
     * def productId = response.id
 
     # Verify product was created
     When method get
     Then status 200
-    And match response contains { id: '#(productId)', name: 'Karate Test Product', price: 79.99 }
+    And match response contains { id: '#(productId)', name: 'Karate Test Product', price: 79.99, version: '#number', currency: 'EUR' }
 
   Scenario: Update an existing product
     # First create a product
@@ -30,11 +30,11 @@ Feature: Product API Tests
 
     # Then update it
     Given path productId
-    And request { name: 'Updated Karate Product', price: 89.99 }
+    And request { name: 'Updated Karate Product', price: 89.99, currency: 'EUR' }
     And header Content-Type = 'application/json'
     When method put
     Then status 200
-    And match response contains { id: '#(productId)', name: 'Updated Karate Product', price: 89.99 }
+    And match response contains { id: '#(productId)', name: 'Updated Karate Product', price: 89.99, currency: 'EUR' }
 
   Scenario: Delete a product
     # First create a product